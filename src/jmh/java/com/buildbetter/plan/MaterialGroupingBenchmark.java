@@ -0,0 +1,115 @@
+package com.buildbetter.plan;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.buildbetter.plan.dto.suggestions.MaterialTree;
+import com.buildbetter.plan.model.Material;
+import com.buildbetter.plan.model.Suggestion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Nested-map material grouping (the former SuggestionUtils.groupByCatAndSub)
+ * against {@link MaterialTree}, for every tier of a getAllSuggestions-sized
+ * page. Run with -prof gc to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaterialGroupingBenchmark {
+
+    @Param({ "2000" })
+    private int suggestions;
+
+    @Param({ "300" })
+    private int materials;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Map<UUID, Material> materialById;
+    private List<List<UUID>> tiers;
+
+    @Setup
+    public void setUp() {
+        List<Material> catalog = PlanFixtures.materials(materials, 42);
+        materialById = PlanFixtures.byId(catalog);
+
+        tiers = new ArrayList<>(suggestions * 3);
+        for (Suggestion suggestion : PlanFixtures.suggestions(suggestions, catalog, 42)) {
+            tiers.add(suggestion.getMaterials0());
+            tiers.add(suggestion.getMaterials1());
+            tiers.add(suggestion.getMaterials2());
+        }
+    }
+
+    @Benchmark
+    public void nestedMaps(Blackhole blackhole) {
+        for (List<UUID> tier : tiers) {
+            blackhole.consume(groupByCatAndSub(tier, materialById));
+        }
+    }
+
+    @Benchmark
+    public void materialTree(Blackhole blackhole) {
+        for (List<UUID> tier : tiers) {
+            blackhole.consume(MaterialTree.of(tier, materialById));
+        }
+    }
+
+    @Benchmark
+    public void nestedMapsToJson() throws IOException {
+        for (List<UUID> tier : tiers) {
+            mapper.writeValue(OutputStream.nullOutputStream(), groupByCatAndSub(tier, materialById));
+        }
+    }
+
+    @Benchmark
+    public void materialTreeToJson() throws IOException {
+        for (List<UUID> tier : tiers) {
+            mapper.writeValue(OutputStream.nullOutputStream(), MaterialTree.of(tier, materialById));
+        }
+    }
+
+    // Baseline, as the grouping was before MaterialTree
+    private static Map<String, Map<String, List<Material>>> groupByCatAndSub(List<UUID> ids,
+            Map<UUID, Material> materialById) {
+        if (ids == null || ids.isEmpty())
+            return Collections.emptyMap();
+
+        return ids.stream()
+                .map(materialById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(
+                        Material::getCategory,
+                        LinkedHashMap::new,
+                        Collectors.groupingBy(
+                                Material::getSubCategory,
+                                LinkedHashMap::new,
+                                Collectors.toList())));
+    }
+}
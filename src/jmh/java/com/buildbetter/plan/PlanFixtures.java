@@ -0,0 +1,118 @@
+package com.buildbetter.plan;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import com.buildbetter.plan.constant.HouseMaterial;
+import com.buildbetter.plan.dto.materials.MaterialName;
+import com.buildbetter.plan.model.Material;
+import com.buildbetter.plan.model.Suggestion;
+
+/**
+ * Seeded synthetic data for the benchmarks, shaped like production : a
+ * catalog of a few hundred materials spread over the {@link HouseMaterial}
+ * matrix (plus a few pairs outside it) and thousands of suggestions with
+ * three budget tiers of one to two materials per pair.
+ */
+public final class PlanFixtures {
+
+    public static final String[] STYLES = { "Modern", "Minimalis", "Klasik", "Industrial", "Tropis" };
+
+    private static final String BUCKET_URL = "https://buildbetter.s3.ap-southeast-2.amazonaws.com/";
+
+    private PlanFixtures() {
+    }
+
+    public static List<Material> materials(int count, long seed) {
+        Random random = new Random(seed);
+        HouseMaterial[] houseMaterials = HouseMaterial.values();
+
+        List<Material> materials = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String category;
+            String subCategory;
+            // One in twenty outside the matrix, as custom entries in the catalog are
+            if (random.nextInt(20) == 0) {
+                category = "Lainnya";
+                subCategory = "Custom " + random.nextInt(3);
+            } else {
+                HouseMaterial houseMaterial = houseMaterials[i % houseMaterials.length];
+                category = houseMaterial.getCategory();
+                subCategory = houseMaterial.getSubCategory();
+            }
+
+            materials.add(Material.builder()
+                    .id(new UUID(seed, i))
+                    .name(subCategory + " " + i)
+                    .category(category)
+                    .subCategory(subCategory)
+                    .image(BUCKET_URL + "materials/" + category + "/" + subCategory + "/" + i + ".png")
+                    .build());
+        }
+        return materials;
+    }
+
+    public static List<Suggestion> suggestions(int count, List<Material> materials, long seed) {
+        Random random = new Random(seed);
+
+        List<Suggestion> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID id = new UUID(seed, i);
+            int landArea = 60 + random.nextInt(60) * 5;
+            suggestions.add(Suggestion.builder()
+                    .id(id)
+                    .houseNumber("H-" + i)
+                    .windDirection(List.of("Utara", "Timur"))
+                    .landArea(landArea)
+                    .buildingArea(landArea * 3 / 4)
+                    .style(STYLES[random.nextInt(STYLES.length)])
+                    .floor(1 + random.nextInt(3))
+                    .rooms(1 + random.nextInt(5))
+                    .buildingHeight(4 + random.nextInt(8))
+                    .designer("Designer " + random.nextInt(40))
+                    .defaultBudget(random.nextInt(3))
+                    .budgetMin(List.of(150_000_000, 100_000_000, 250_000_000))
+                    .budgetMax(List.of(250_000_000, 150_000_000, 400_000_000))
+                    .floorplans(List.of(BUCKET_URL + "floorplans/" + id + "_1.png",
+                            BUCKET_URL + "floorplans/" + id + "_2.png"))
+                    .object(BUCKET_URL + "objects/" + id + ".glb")
+                    .pdf(BUCKET_URL + "pdf/" + id + ".pdf")
+                    .houseImageFront(BUCKET_URL + "images/" + id + "_front.png")
+                    .houseImageBack(BUCKET_URL + "images/" + id + "_back.png")
+                    .houseImageSide(BUCKET_URL + "images/" + id + "_side.png")
+                    .materials0(tier(materials, random))
+                    .materials1(tier(materials, random))
+                    .materials2(tier(materials, random))
+                    .createdAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i))
+                    .build());
+        }
+        return suggestions;
+    }
+
+    public static Map<UUID, Material> byId(List<Material> materials) {
+        Map<UUID, Material> byId = new LinkedHashMap<>();
+        materials.forEach(m -> byId.put(m.getId(), m));
+        return byId;
+    }
+
+    public static Map<UUID, MaterialName> namesById(List<Material> materials) {
+        Map<UUID, MaterialName> names = new LinkedHashMap<>();
+        materials.forEach(m -> names.put(m.getId(), new MaterialName(m.getId(), m.getSubCategory(), m.getName())));
+        return names;
+    }
+
+    // One to two material ids per pair of the matrix, in random order
+    private static List<UUID> tier(List<Material> materials, Random random) {
+        int size = HouseMaterial.values().length * (1 + random.nextInt(2));
+        List<UUID> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(materials.get(random.nextInt(materials.size())).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,59 @@
+package com.buildbetter.plan.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.buildbetter.plan.PlanFixtures;
+import com.buildbetter.plan.model.Material;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Building a catalog snapshot, which carries the getAllGroupedMaterials
+ * category → subCategory grouping, and writing the grouped listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaterialCatalogBenchmark {
+
+    @Param({ "300", "1000" })
+    private int materials;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private List<Material> catalog;
+    private MaterialCatalog.Snapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        catalog = PlanFixtures.materials(materials, 42);
+        snapshot = MaterialCatalog.Snapshot.of(1, catalog);
+    }
+
+    @Benchmark
+    public MaterialCatalog.Snapshot buildSnapshot() {
+        return MaterialCatalog.Snapshot.of(1, catalog);
+    }
+
+    @Benchmark
+    public void groupedJson() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), snapshot.grouped());
+    }
+}
@@ -0,0 +1,71 @@
+package com.buildbetter.plan.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.buildbetter.plan.PlanFixtures;
+import com.buildbetter.plan.model.Suggestion;
+
+/**
+ * Faceted searches against the in-memory index : a browse with no filter and
+ * one with style, floor and land area range, both with every facet count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuggestionFacetBenchmark {
+
+    private static final int REQUESTS = 1024;
+
+    @Param({ "2000", "10000" })
+    private int suggestions;
+
+    private SuggestionFacetIndex index;
+
+    private final SuggestionFacetIndex.Query[] queries = new SuggestionFacetIndex.Query[REQUESTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Suggestion> listing = PlanFixtures.suggestions(suggestions, PlanFixtures.materials(300, 42), 42);
+        index = new SuggestionFacetIndex(null);
+        index.rebuild(listing);
+
+        Random random = new Random(7);
+        for (int i = 0; i < REQUESTS; i++) {
+            Map<String, Collection<String>> filters = Map.of(
+                    SuggestionFacetIndex.STYLE, List.of(PlanFixtures.STYLES[random.nextInt(PlanFixtures.STYLES.length)]),
+                    SuggestionFacetIndex.FLOOR, List.of(String.valueOf(1 + random.nextInt(3))));
+            int landArea = 60 + random.nextInt(250);
+            queries[i] = new SuggestionFacetIndex.Query(filters, landArea, landArea + 50, null, null);
+        }
+    }
+
+    @Benchmark
+    public SuggestionFacetIndex.Result browse() {
+        return index.search(new SuggestionFacetIndex.Query(Map.of(), null, null, null, null), 0, 20);
+    }
+
+    @Benchmark
+    public SuggestionFacetIndex.Result filtered() {
+        return index.search(queries[next++ & (REQUESTS - 1)], 0, 20);
+    }
+}
@@ -0,0 +1,73 @@
+package com.buildbetter.plan.service;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.buildbetter.plan.PlanFixtures;
+import com.buildbetter.plan.model.Suggestion;
+
+/**
+ * The generateSuggestion rules against the in-memory index, over a spread of
+ * requests hitting every rule, and a full index rebuild.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuggestionMatchBenchmark {
+
+    private static final int REQUESTS = 1024;
+
+    @Param({ "2000", "10000" })
+    private int suggestions;
+
+    private List<Suggestion> listing;
+    private SuggestionMatchIndex index;
+
+    private final String[] styles = new String[REQUESTS];
+    private final int[] landAreas = new int[REQUESTS];
+    private final int[] floors = new int[REQUESTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        listing = PlanFixtures.suggestions(suggestions, PlanFixtures.materials(300, 42), 42);
+        index = new SuggestionMatchIndex(null);
+        index.rebuild(listing);
+
+        Random random = new Random(7);
+        for (int i = 0; i < REQUESTS; i++) {
+            styles[i] = PlanFixtures.STYLES[random.nextInt(PlanFixtures.STYLES.length)];
+            landAreas[i] = 50 + random.nextInt(400);
+            floors[i] = 1 + random.nextInt(4);
+        }
+    }
+
+    @Benchmark
+    public List<Suggestion> match() {
+        int i = next++ & (REQUESTS - 1);
+        return index.match(styles[i], landAreas[i], floors[i]);
+    }
+
+    @Benchmark
+    public int rebuild() {
+        SuggestionMatchIndex fresh = new SuggestionMatchIndex(null);
+        fresh.rebuild(listing);
+        return fresh.size();
+    }
+}
@@ -0,0 +1,92 @@
+package com.buildbetter.plan.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.buildbetter.plan.PlanFixtures;
+import com.buildbetter.plan.dto.materials.MaterialName;
+import com.buildbetter.plan.dto.suggestions.SuggestionFields;
+import com.buildbetter.plan.dto.suggestions.SuggestionResponse;
+import com.buildbetter.plan.model.Material;
+import com.buildbetter.plan.model.Suggestion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Response mapping over a whole listing : suggestions → SuggestionResponse
+ * (getAllSuggestions, with and without writing the JSON) and suggestions →
+ * Tableau rows (the Tableau endpoint and the export).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuggestionMappingBenchmark {
+
+    @Param({ "2000" })
+    private int suggestions;
+
+    @Param({ "300" })
+    private int materials;
+
+    private final ObjectMapper mapper = new ObjectMapper().setFilterProvider(SuggestionFields.ALL.filters());
+
+    private List<Suggestion> listing;
+    private Map<UUID, Material> materialById;
+    private Map<UUID, MaterialName> namesById;
+
+    @Setup
+    public void setUp() {
+        List<Material> catalog = PlanFixtures.materials(materials, 42);
+        listing = PlanFixtures.suggestions(suggestions, catalog, 42);
+        materialById = PlanFixtures.byId(catalog);
+        namesById = PlanFixtures.namesById(catalog);
+    }
+
+    @Benchmark
+    public void toSuggestionResponses(Blackhole blackhole) {
+        for (Suggestion suggestion : listing) {
+            blackhole.consume(SuggestionUtils.toGetSuggestionResponse(suggestion, materialById));
+        }
+    }
+
+    @Benchmark
+    public void toSuggestionResponsesJson() throws IOException {
+        List<SuggestionResponse> responses = listing.stream()
+                .map(suggestion -> SuggestionUtils.toGetSuggestionResponse(suggestion, materialById))
+                .toList();
+        mapper.writeValue(OutputStream.nullOutputStream(), responses);
+    }
+
+    @Benchmark
+    public void toTableauResponses(Blackhole blackhole) {
+        for (Suggestion suggestion : listing) {
+            blackhole.consume(TableauUtils.toTableauResponse(suggestion, namesById));
+        }
+    }
+
+    @Benchmark
+    public void toExportRows(Blackhole blackhole) {
+        for (Suggestion suggestion : listing) {
+            blackhole.consume(TableauUtils.toExportRow(suggestion, namesById));
+        }
+    }
+}
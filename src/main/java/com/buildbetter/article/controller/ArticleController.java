@@ -5,6 +5,7 @@ import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -12,16 +13,24 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.buildbetter.article.dto.AddArticleRequest;
 import com.buildbetter.article.dto.UpdateArticleRequest;
 import com.buildbetter.article.model.Article;
 import com.buildbetter.article.service.ArticleService;
+import com.buildbetter.shared.cache.ResponseCache;
+import com.buildbetter.shared.constant.CachedContent;
 import com.buildbetter.shared.dto.ApiResponseMessageAndData;
 import com.buildbetter.shared.dto.ApiResponseMessageOnly;
 import com.buildbetter.shared.dto.ApiResponseWithData;
+import com.buildbetter.shared.repository.KeysetPage;
 import com.buildbetter.shared.security.annotation.IsAdmin;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -33,6 +42,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ArticleController {
     private final ArticleService articleService;
+    private final ObjectMapper objectMapper;
+    private final ResponseCache responseCache;
 
     @PostMapping(path = "", consumes = { MediaType.MULTIPART_FORM_DATA_VALUE })
     @IsAdmin
@@ -51,17 +62,22 @@ public class ArticleController {
     }
 
     @GetMapping("")
-    public ApiResponseWithData<List<Article>> getAllArticles() {
+    public ResponseEntity<StreamingResponseBody> getAllArticles(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest request) {
         log.info("Article Controller : getAllArticles");
 
-        List<Article> articles = articleService.GetAllArticles();
+        // A page when asked for one, the whole listing otherwise
+        if (cursor != null || limit != null) {
+            KeysetPage<Article> page = articleService.getArticlePage(cursor, limit);
+            return JsonEnvelopeWriter.response(objectMapper.writer(), null, page);
+        }
 
-        ApiResponseWithData<List<Article>> response = new ApiResponseWithData<>();
-        response.setCode(HttpStatus.OK.value());
-        response.setStatus(HttpStatus.OK.name());
-        response.setData(articles);
-
-        return response;
+        // Written row by row while the articles are read, kept rendered until an article changes
+        return responseCache.serve(request, "articles", List.of(CachedContent.ARTICLES),
+                versions -> JsonEnvelopeWriter.response(objectMapper.writer(), null,
+                        articleService::streamAllArticles));
     }
 
     @GetMapping("/{id}")
@@ -1,12 +1,25 @@
 package com.buildbetter.article.repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.buildbetter.article.model.Article;
+import com.buildbetter.shared.repository.Keyset;
+import com.buildbetter.shared.repository.KeysetRepository;
+import com.buildbetter.shared.repository.StreamedQuery;
 
-public interface ArticleRepository extends JpaRepository<Article, UUID> {
+public interface ArticleRepository extends JpaRepository<Article, UUID>, KeysetRepository<Article> {
+
+    // Listing order : newest first, backed by idx_articles_created
+    Keyset<Article, LocalDateTime> KEYSET = Keyset.newestFirst(Article::getCreatedAt, Article::getId);
     Optional<Article> findById(UUID id);
+
+    @StreamedQuery
+    @Query("SELECT a FROM Article a")
+    Stream<Article> streamAll();
 }
@@ -1,7 +1,8 @@
 package com.buildbetter.article.service;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
@@ -9,10 +10,16 @@ import com.buildbetter.article.dto.AddArticleRequest;
 import com.buildbetter.article.dto.UpdateArticleRequest;
 import com.buildbetter.article.model.Article;
 import com.buildbetter.article.repository.ArticleRepository;
-import com.buildbetter.shared.constant.S3Folder;
+import com.buildbetter.shared.cache.ContentVersions;
+import com.buildbetter.shared.constant.CachedContent;
 import com.buildbetter.shared.exception.BadRequestException;
-import com.buildbetter.shared.util.S3Service;
+import com.buildbetter.shared.repository.KeysetPage;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.buildbetter.shared.util.S3BlobStore;
+import com.buildbetter.shared.util.S3DeletionQueue;
 
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,22 +29,21 @@ import lombok.extern.slf4j.Slf4j;
 public class ArticleService {
 
     private final ArticleRepository articleRepository;
-    private final S3Service s3Service;
+    private final S3BlobStore s3BlobStore;
+    private final S3DeletionQueue s3DeletionQueue;
+    private final EntityManager entityManager;
+    private final ContentVersions contentVersions;
 
     public UUID AddArticle(AddArticleRequest request) {
         log.info("Article Service : AddArticle");
 
-        String folder = S3Folder.ARTICLES;
-
         log.info("Article Service : AddArticle - Upload File to S3");
         String bannerUrl = "";
         if (request.getBanner() != null && !request.getBanner().isEmpty()) {
-            // Construct the folder path for the banner
-            folder = S3Folder.ARTICLES + "/";
             // Upload the banner to S3 and get the URL
             log.info("Article Service : AddArticle - Upload Banner to S3");
 
-            bannerUrl = s3Service.uploadFile(request.getBanner(), folder, "");
+            bannerUrl = s3BlobStore.upload(request.getBanner());
         }
 
         Article article = Article.builder()
@@ -49,12 +55,24 @@ public class ArticleService {
 
         log.info("Article Service : AddArticle - Save article to DB");
         Article savedArticle = articleRepository.save(article);
+        contentVersions.bump(CachedContent.ARTICLES);
         return savedArticle.getId();
     }
 
-    public List<Article> GetAllArticles() {
-        log.info("Article Service : GetAllArticles");
-        return articleRepository.findAll();
+    @Transactional
+    public void streamAllArticles(JsonEnvelopeWriter writer) throws IOException {
+        log.info("Article Service : streamAllArticles");
+
+        writer.writeAll(articleRepository.streamAll(), entityManager, Function.identity());
+
+        log.info("Article Service : streamAllArticles - Streamed {} articles", writer.count());
+    }
+
+    /** One keyset page of articles, newest first. */
+    public KeysetPage<Article> getArticlePage(String cursor, Integer limit) {
+        log.info("Article Service : getArticlePage");
+
+        return articleRepository.findPage(null, ArticleRepository.KEYSET, cursor, KeysetPage.limit(limit));
     }
 
     public Article GetArticleById(UUID id) {
@@ -64,6 +82,7 @@ public class ArticleService {
         return article;
     }
 
+    @Transactional
     public void updateArticle(UpdateArticleRequest request, UUID id) {
         log.info("Article Service : UpdateArticle");
         Article article = articleRepository.findById(id)
@@ -76,12 +95,11 @@ public class ArticleService {
             article.setTitle(request.getTitle());
         }
         if (request.getBanner() != null && !request.getBanner().isEmpty()) {
-            String folder = S3Folder.ARTICLES + "/";
             log.info("Article Service : UpdateArticle - Upload Banner to S3");
-            String bannerUrl = s3Service.uploadFile(request.getBanner(), folder, "");
+            String bannerUrl = s3BlobStore.upload(request.getBanner());
 
             log.info("Article Service : UpdateArticle - Delete old banner from S3");
-            s3Service.deleteFile(article.getBanner());
+            s3DeletionQueue.enqueue(article.getBanner());
 
             article.setBanner(bannerUrl);
         }
@@ -90,8 +108,10 @@ public class ArticleService {
         }
         log.info("Article Service : UpdateArticle - Save updated article to DB");
         articleRepository.save(article);
+        contentVersions.bump(CachedContent.ARTICLES);
     }
 
+    @Transactional
     public void DeleteArticle(UUID id) {
         log.info("Article Service : DeleteArticle");
         Article article = articleRepository.findById(id)
@@ -100,11 +120,11 @@ public class ArticleService {
         // Delete the banner from S3 if it exists
         if (article.getBanner() != null && !article.getBanner().isEmpty()) {
             log.info("Article Service : DeleteArticle - Delete banner from S3 : {}", article.getBanner());
-            s3Service.deleteFile(article.getBanner());
+            s3DeletionQueue.enqueue(article.getBanner());
         }
 
         log.info("Article Service : DeleteArticle - Delete article from DB");
         articleRepository.delete(article);
-
+        contentVersions.bump(CachedContent.ARTICLES);
     }
 }
@@ -1,10 +1,14 @@
 package com.buildbetter.consultation.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,6 +20,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.buildbetter.consultation.dto.architect.ArchitectResponse;
 import com.buildbetter.consultation.dto.architect.ChangeArchitectPasswordRequest;
@@ -27,6 +33,8 @@ import com.buildbetter.consultation.dto.consultation.GetConsultationResponse;
 import com.buildbetter.consultation.dto.consultation.Schedule;
 import com.buildbetter.consultation.service.ArchitectService;
 import com.buildbetter.consultation.service.ConsultationService;
+import com.buildbetter.shared.cache.ResponseCache;
+import com.buildbetter.shared.constant.CachedContent;
 import com.buildbetter.shared.dto.ApiResponseMessageOnly;
 import com.buildbetter.shared.dto.ApiResponseWithData;
 import com.buildbetter.shared.security.JwtAuthentication;
@@ -34,6 +42,8 @@ import com.buildbetter.shared.security.annotation.IsAdmin;
 import com.buildbetter.shared.security.annotation.IsAdminOrArchitect;
 import com.buildbetter.shared.security.annotation.IsAdminOrUser;
 import com.buildbetter.shared.security.annotation.IsArchitect;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -47,6 +57,8 @@ public class ArchitectController {
 
     private final ArchitectService architectService;
     private final ConsultationService consultationService;
+    private final ObjectMapper objectMapper;
+    private final ResponseCache responseCache;
 
     @PostMapping("")
     @IsAdmin
@@ -116,24 +128,34 @@ public class ArchitectController {
 
     @GetMapping("")
     @IsAdminOrUser
-    public ApiResponseWithData<List<ArchitectResponse>> getAllArchitects(
+    public ResponseEntity<StreamingResponseBody> getAllArchitects(
             Authentication auth,
             @RequestParam(value = "notContacted", required = false, defaultValue = "false") boolean notContacted,
-            @RequestParam(value = "city", required = false) String city) {
+            @RequestParam(value = "city", required = false) String city,
+            WebRequest request) {
         log.info("Architect Controller : getAllArchitects");
 
         log.info("Architect Controller : getAllArchitects - Parse JWT Authentication");
         JwtAuthentication jwt = (JwtAuthentication) auth;
         UUID userId = UUID.fromString(jwt.claim("id"));
 
-        List<ArchitectResponse> architects = architectService.getAllArchitects(userId, notContacted, city);
+        // Depends on who is asking, never cached
+        if (notContacted) {
+            return architectResponse(architectService.getAllArchitects(userId, true, city));
+        }
 
-        ApiResponseWithData<List<ArchitectResponse>> response = new ApiResponseWithData<>();
-        response.setCode(HttpStatus.OK.value());
-        response.setStatus(HttpStatus.OK.name());
-        response.setData(architects);
+        // The same for every user, kept rendered per city until an architect changes
+        String variant = city == null || city.isBlank() ? "" : city.toLowerCase(Locale.ROOT);
+        return responseCache.serve(request, "architects:" + variant, List.of(CachedContent.ARCHITECTS),
+                versions -> architectResponse(architectService.getAllArchitects(userId, false, city)));
+    }
 
-        return response;
+    private ResponseEntity<StreamingResponseBody> architectResponse(List<ArchitectResponse> architects) {
+        return JsonEnvelopeWriter.response(objectMapper.writer(), null, writer -> {
+            for (ArchitectResponse architect : architects) {
+                writer.write(architect);
+            }
+        });
     }
 
     @GetMapping("/me")
@@ -191,12 +213,15 @@ public class ArchitectController {
             @RequestParam(value = "type", required = false) String type,
             @RequestParam(value = "status", required = false) String status,
             @RequestParam(value = "includeCancelled", required = false) Boolean includeCancelled,
-            @RequestParam(value = "upcoming", required = false) Boolean upcoming) {
+            @RequestParam(value = "upcoming", required = false) Boolean upcoming,
+            @RequestParam(value = "afterStartDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStartDate,
+            @RequestParam(value = "afterId", required = false) UUID afterId,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         log.info("Architect Controller : getAllArchitectConsults");
 
         List<GetConsultationResponse> consults = consultationService.getAllConsultsByArchitectId(id, type, status,
                 includeCancelled,
-                upcoming);
+                upcoming, afterStartDate, afterId, limit);
 
         ApiResponseWithData<List<GetConsultationResponse>> response = new ApiResponseWithData<>();
         response.setCode(HttpStatus.OK.value());
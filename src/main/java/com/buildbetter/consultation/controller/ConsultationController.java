@@ -1,8 +1,10 @@
 package com.buildbetter.consultation.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -86,15 +88,19 @@ public class ConsultationController {
             @RequestParam(value = "status", required = false) String status,
             @RequestParam(value = "includeCancelled", required = false) Boolean includeCancelled,
             @RequestParam(value = "upcoming", required = false) Boolean upcoming,
+            @RequestParam(value = "afterStartDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStartDate,
+            @RequestParam(value = "afterId", required = false) UUID afterId,
+            @RequestParam(value = "limit", required = false) Integer limit,
             Authentication auth) {
         log.info("Consult Controller : getAllConsults");
 
         log.info("Consult Controller : getAllConsults - Parse JWT Authentication");
         JwtAuthentication jwt = (JwtAuthentication) auth;
         UUID userId = UUID.fromString(jwt.claim("id"));
+        String role = jwt.claim("role");
 
         List<GetConsultationResponse> consults = consultationService.getAllConsults(type, status, includeCancelled,
-                upcoming, userId);
+                upcoming, afterStartDate, afterId, limit, userId, role);
 
         ApiResponseWithData<List<GetConsultationResponse>> response = new ApiResponseWithData<>();
         response.setCode(HttpStatus.OK.value());
@@ -140,7 +146,10 @@ public class ConsultationController {
             @RequestParam(value = "type", required = false) String type,
             @RequestParam(value = "status", required = false) String status,
             @RequestParam(value = "includeCancelled", required = false) Boolean includeCancelled,
-            @RequestParam(value = "upcoming", required = false) Boolean upcoming) {
+            @RequestParam(value = "upcoming", required = false) Boolean upcoming,
+            @RequestParam(value = "afterStartDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStartDate,
+            @RequestParam(value = "afterId", required = false) UUID afterId,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         log.info("Consult Controller : getUserConsults");
 
         log.info("Consult Controller : getUserConsults - Parse JWT Authentication");
@@ -149,7 +158,7 @@ public class ConsultationController {
 
         List<GetConsultationResponse> consults = consultationService.getUserConsultations(userId, type, status,
                 includeCancelled,
-                upcoming);
+                upcoming, afterStartDate, afterId, limit);
 
         ApiResponseWithData<List<GetConsultationResponse>> response = new ApiResponseWithData<>();
         response.setCode(HttpStatus.OK.value());
@@ -1,30 +1,34 @@
 package com.buildbetter.consultation.controller;
 
-import java.util.List;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.buildbetter.consultation.dto.payment.UploadPaymentConsultationRequest;
 import com.buildbetter.consultation.model.Payment;
 import com.buildbetter.consultation.service.PaymentService;
 import com.buildbetter.shared.dto.ApiResponseMessageAndData;
 import com.buildbetter.shared.dto.ApiResponseMessageOnly;
+import com.buildbetter.shared.repository.KeysetPage;
 import com.buildbetter.shared.security.annotation.Authenticated;
 import com.buildbetter.shared.security.annotation.IsAdmin;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.web.bind.annotation.RequestBody;
 
 
 @RestController
@@ -34,6 +38,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping(path = "/{consultationId}", consumes = { MediaType.MULTIPART_FORM_DATA_VALUE })
     public ApiResponseMessageAndData<UUID> uploadPaymentProof(@PathVariable UUID consultationId,
@@ -53,16 +58,20 @@ public class PaymentController {
 
     @GetMapping("")
     @IsAdmin
-    public ApiResponseMessageAndData<List<Payment>> getAllPayments() {
+    public ResponseEntity<StreamingResponseBody> getAllPayments(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         log.info("Payment Controller : getAllPayments");
 
-        List<Payment> payment = paymentService.getAllPayments();
-        ApiResponseMessageAndData<List<Payment>> response = new ApiResponseMessageAndData<>();
-        response.setCode(HttpStatus.OK.value());
-        response.setStatus(HttpStatus.OK.name());
-        response.setMessage("Payments fetched successfully");
-        response.setData(payment);
-        return response;
+        // A page when asked for one, the whole listing otherwise
+        if (cursor != null || limit != null) {
+            KeysetPage<Payment> page = paymentService.getPaymentPage(cursor, limit);
+            return JsonEnvelopeWriter.response(objectMapper.writer(), "Payments fetched successfully", page);
+        }
+
+        // Written row by row while the payments are read, never held as a list
+        return JsonEnvelopeWriter.response(objectMapper.writer(), "Payments fetched successfully",
+                paymentService::streamAllPayments);
     }
 
     @GetMapping("/{id}")
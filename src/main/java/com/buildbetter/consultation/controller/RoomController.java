@@ -1,21 +1,26 @@
 package com.buildbetter.consultation.controller;
 
-import java.util.List;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.buildbetter.consultation.model.Room;
 import com.buildbetter.consultation.service.RoomService;
 import com.buildbetter.shared.dto.ApiResponseWithData;
+import com.buildbetter.shared.repository.KeysetPage;
 import com.buildbetter.shared.security.JwtAuthentication;
 import com.buildbetter.shared.security.annotation.Authenticated;
 import com.buildbetter.shared.security.annotation.IsAdmin;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,20 +32,23 @@ import lombok.extern.slf4j.Slf4j;
 public class RoomController {
 
     private final RoomService roomService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("")
     @IsAdmin
-    public ApiResponseWithData<List<Room>> getAllRooms() {
+    public ResponseEntity<StreamingResponseBody> getAllRooms(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         log.info("Room Controller : getAllRooms");
 
-        List<Room> rooms = roomService.getAllRooms();
+        // A page when asked for one, the whole listing otherwise
+        if (cursor != null || limit != null) {
+            KeysetPage<Room> page = roomService.getRoomPage(cursor, limit);
+            return JsonEnvelopeWriter.response(objectMapper.writer(), null, page);
+        }
 
-        ApiResponseWithData<List<Room>> response = new ApiResponseWithData<>();
-        response.setCode(HttpStatus.OK.value());
-        response.setStatus(HttpStatus.OK.name());
-        response.setData(rooms);
-
-        return response;
+        // Written row by row while the rooms are read, never held as a list
+        return JsonEnvelopeWriter.response(objectMapper.writer(), null, roomService::streamAllRooms);
     }
 
     @GetMapping("/{roomId}")
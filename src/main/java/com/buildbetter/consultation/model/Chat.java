@@ -46,4 +46,7 @@ public class Chat {
     @CreationTimestamp
     @Column(name = "created_at", updatable = false, nullable = false, columnDefinition = "TIMESTAMPT DEFAULT now()")
     private LocalDateTime createdAt;
+
+    @Column(name = "seq")
+    private Long seq; // server-assigned broadcast order, null on rows written before it existed
 }
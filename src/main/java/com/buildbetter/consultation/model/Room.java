@@ -44,6 +44,10 @@ public class Room {
     @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
 
+    // The end time whose timeout already fired, only written by RoomTimeoutService
+    @Column(name = "timed_out_end_time", insertable = false, updatable = false)
+    private LocalDateTime timedOutEndTime;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
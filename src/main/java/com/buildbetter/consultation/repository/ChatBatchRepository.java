@@ -0,0 +1,56 @@
+package com.buildbetter.consultation.repository;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.buildbetter.consultation.model.Chat;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Plain JDBC writes of chat messages, for the write-behind flusher. A whole
+ * batch goes out as one multi-row INSERT instead of a round trip per message.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatBatchRepository {
+
+    // 8 parameters a row, well under the 32767 bind parameters PostgreSQL takes
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String INSERT = """
+            INSERT INTO chats (id, room_id, sender, sender_role, content, type, created_at, seq)
+            VALUES\s""";
+
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Ids are assigned before the write, a retried batch skips the rows already in
+    private static final String ON_CONFLICT = " ON CONFLICT (id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Insert {@code chats}, ignoring those already stored. */
+    public void insertAll(List<Chat> chats) {
+        for (int from = 0; from < chats.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Chat> rows = chats.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, chats.size()));
+            String sql = INSERT + String.join(", ", Collections.nCopies(rows.size(), ROW)) + ON_CONFLICT;
+
+            jdbcTemplate.update(sql, ps -> {
+                int i = 1;
+                for (Chat chat : rows) {
+                    ps.setObject(i++, chat.getId());
+                    ps.setObject(i++, chat.getRoomId());
+                    ps.setObject(i++, chat.getSender());
+                    ps.setString(i++, chat.getSenderRole());
+                    ps.setString(i++, chat.getContent());
+                    ps.setString(i++, chat.getType());
+                    ps.setObject(i++, chat.getCreatedAt());
+                    ps.setObject(i++, chat.getSeq());
+                }
+            });
+        }
+    }
+}
@@ -10,5 +10,6 @@ import com.buildbetter.consultation.model.Chat;
 
 @Repository
 public interface ChatRepository extends JpaRepository<Chat, UUID> {
-    List<Chat> findByRoomIdOrderByCreatedAtAsc(UUID roomId);
+    // Broadcast order, same as idx_chats_room_created : rows without a seq last within the same instant
+    List<Chat> findByRoomIdOrderByCreatedAtAscSeqAsc(UUID roomId);
 }
@@ -6,16 +6,35 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.buildbetter.consultation.dto.consultation.ConsultationDateRange;
 import com.buildbetter.consultation.model.Consultation;
 
 @Repository
-public interface ConsultationRepository extends JpaRepository<Consultation, UUID> {
+public interface ConsultationRepository
+    extends JpaRepository<Consultation, UUID>, JpaSpecificationExecutor<Consultation> {
+
+  // Keyset order of the consultation listings, backed by the (…, start_date, id)
+  // indexes
+  Sort KEYSET_SORT = Sort.by(Sort.Order.asc("startDate"), Sort.Order.asc("id"));
+
+  // Filtered listing in keyset order, limit == null returns every match
+  default List<Consultation> findListing(Specification<Consultation> spec, Integer limit) {
+    if (limit == null) {
+      return findAll(spec, KEYSET_SORT);
+    }
+    return findBy(spec, q -> q.sortBy(KEYSET_SORT).limit(limit).all());
+  }
+
   // Find future Start Time and End Time by Architect ID
   @Query("""
       SELECT new com.buildbetter.consultation.dto.consultation.ConsultationDateRange(
@@ -28,10 +47,6 @@ public interface ConsultationRepository extends JpaRepository<Consultation, UUID
       """)
   List<ConsultationDateRange> findFutureDateRangesByArchitect(UUID architectId);
 
-  List<Consultation> findByArchitectIdAndStartDateGreaterThanEqualOrderByStartDate(
-      UUID architectId,
-      LocalDateTime from);
-
   List<Consultation> findByArchitectIdAndStartDateGreaterThanEqualAndStatusNotOrderByStartDate(
       UUID architectId,
       LocalDateTime from,
@@ -41,22 +56,8 @@ public interface ConsultationRepository extends JpaRepository<Consultation, UUID
 
   List<Consultation> findByStatusNot(String status);
 
-  List<Consultation> findByStatusNotOrderByStartDate(String status);
-
-  List<Consultation> findByStatusNotAndStartDateGreaterThanEqualOrderByStartDate(
-      String statusNot,
-      LocalDateTime from);
-
   List<Consultation> findByArchitectId(UUID architectId);
 
-  List<Consultation> findByArchitectIdOrderByStartDate(UUID architectId);
-
-  List<Consultation> findByStartDateGreaterThanEqualOrderByStartDate(LocalDateTime from);
-
-  List<Consultation> findByUserIdAndStartDateGreaterThanEqualOrderByStartDate(UUID userId, LocalDateTime from);
-
-  List<Consultation> findByUserIdOrderByStartDate(UUID userId);
-
   List<Consultation> findByUserIdAndStatusIn(UUID userId, Collection<String> statuses);
 
   List<Consultation> findAllByStatusIn(Collection<String> statuses);
@@ -84,21 +85,174 @@ public interface ConsultationRepository extends JpaRepository<Consultation, UUID
 
   Optional<Consultation> findByRoomIdAndEndDate(UUID roomId, LocalDateTime endDate);
 
-  @Query("SELECT c FROM Consultation c WHERE " +
-      "c.status IN :pendingStatuses OR " +
-      "(c.status = :cancelledStatus AND c.reason = :invalidPaymentReason)")
-  List<Consultation> findConsultationByStatusInAndStatusCancelledWithSpecificReason(
-      @Param("pendingStatuses") List<String> pendingStatuses,
+  // ── Lifecycle sweep ───────────────────────────────────────────────
+  // Set-based transitions, each call handles at most :batchSize rows in its
+  // own transaction. SKIP LOCKED lets a per-user sweep and the background
+  // sweeper run side by side without waiting on each other.
+
+  String OUTDATED_PENDING = """
+      SELECT id FROM consultations
+      WHERE (status IN (:pendingStatuses)
+             OR (status = :cancelledStatus AND reason = :invalidPaymentReason))
+        AND start_date < :now
+      """;
+
+  String CANCEL_OUTDATED_PENDING = """
+      UPDATE consultations
+      SET status = :cancelledStatus, reason = :systemCancelledReason
+      WHERE id IN (
+      """;
+
+  String EXPIRED_UNPAID = """
+      WITH expired AS (
+        SELECT id FROM consultations
+        WHERE status = :waitingForPaymentStatus
+          AND created_at < :expiredBefore
+          AND start_date >= :now
+      """;
+
+  // One more payment attempt per expired booking (creating the payment row
+  // when none exists), the second failed attempt cancels for good
+  String CANCEL_EXPIRED_UNPAID = """
+        ORDER BY created_at
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED
+      ), bumped AS (
+        UPDATE payments p
+        SET upload_proof_payment = p.upload_proof_payment + 1
+        FROM expired e
+        WHERE p.consultation_id = e.id
+        RETURNING p.consultation_id, p.upload_proof_payment
+      ), created AS (
+        INSERT INTO payments (consultation_id, payment_method, proof_payment, sender, upload_proof_payment)
+        SELECT e.id, '', '', '', 1
+        FROM expired e
+        WHERE NOT EXISTS (SELECT 1 FROM payments p WHERE p.consultation_id = e.id)
+        RETURNING consultation_id, upload_proof_payment
+      ), attempts AS (
+        SELECT consultation_id, upload_proof_payment FROM bumped
+        UNION ALL
+        SELECT consultation_id, upload_proof_payment FROM created
+      )
+      UPDATE consultations c
+      SET status = :cancelledStatus,
+          reason = CASE WHEN a.upload_proof_payment >= 2
+                        THEN :systemCancelledReason
+                        ELSE :invalidPaymentReason END
+      FROM attempts a
+      WHERE c.id = a.consultation_id
+      """;
+
+  String END_FINISHED_SCHEDULED = """
+      UPDATE consultations
+      SET status = :endedStatus
+      WHERE id IN (
+        SELECT id FROM consultations
+        WHERE status = :scheduledStatus
+          AND end_date < :now
+      """;
+
+  @Transactional
+  @Modifying
+  @Query(nativeQuery = true, value = CANCEL_OUTDATED_PENDING + OUTDATED_PENDING + """
+        ORDER BY start_date
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED)
+      """)
+  int cancelOutdatedPending(
+      @Param("pendingStatuses") Collection<String> pendingStatuses,
+      @Param("cancelledStatus") String cancelledStatus,
+      @Param("invalidPaymentReason") String invalidPaymentReason,
+      @Param("systemCancelledReason") String systemCancelledReason,
+      @Param("now") LocalDateTime now,
+      @Param("batchSize") int batchSize);
+
+  @Transactional
+  @Modifying
+  @Query(nativeQuery = true, value = CANCEL_OUTDATED_PENDING + OUTDATED_PENDING + """
+          AND user_id = :userId
+        ORDER BY start_date
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED)
+      """)
+  int cancelOutdatedPendingByUserId(
+      @Param("userId") UUID userId,
+      @Param("pendingStatuses") Collection<String> pendingStatuses,
+      @Param("cancelledStatus") String cancelledStatus,
+      @Param("invalidPaymentReason") String invalidPaymentReason,
+      @Param("systemCancelledReason") String systemCancelledReason,
+      @Param("now") LocalDateTime now,
+      @Param("batchSize") int batchSize);
+
+  @Transactional
+  @Modifying
+  @Query(nativeQuery = true, value = EXPIRED_UNPAID + CANCEL_EXPIRED_UNPAID)
+  int cancelExpiredUnpaid(
+      @Param("waitingForPaymentStatus") String waitingForPaymentStatus,
       @Param("cancelledStatus") String cancelledStatus,
-      @Param("invalidPaymentReason") String invalidPaymentReason);
+      @Param("invalidPaymentReason") String invalidPaymentReason,
+      @Param("systemCancelledReason") String systemCancelledReason,
+      @Param("expiredBefore") LocalDateTime expiredBefore,
+      @Param("now") LocalDateTime now,
+      @Param("batchSize") int batchSize);
 
-  @Query("SELECT c FROM Consultation c WHERE " +
-      "(c.userId = :userId) AND " +
-      "(c.status IN :pendingStatuses OR " +
-      "(c.status = :cancelledStatus AND c.reason = :invalidPaymentReason))")
-  List<Consultation> findConsultationByUserIdAndStatusInAndStatusCancelledWithSpecificReason(
+  @Transactional
+  @Modifying
+  @Query(nativeQuery = true, value = EXPIRED_UNPAID + """
+          AND user_id = :userId
+      """ + CANCEL_EXPIRED_UNPAID)
+  int cancelExpiredUnpaidByUserId(
       @Param("userId") UUID userId,
-      @Param("pendingStatuses") List<String> pendingStatuses,
+      @Param("waitingForPaymentStatus") String waitingForPaymentStatus,
       @Param("cancelledStatus") String cancelledStatus,
-      @Param("invalidPaymentReason") String invalidPaymentReason);
+      @Param("invalidPaymentReason") String invalidPaymentReason,
+      @Param("systemCancelledReason") String systemCancelledReason,
+      @Param("expiredBefore") LocalDateTime expiredBefore,
+      @Param("now") LocalDateTime now,
+      @Param("batchSize") int batchSize);
+
+  @Transactional
+  @Modifying
+  @Query(nativeQuery = true, value = END_FINISHED_SCHEDULED + """
+        ORDER BY end_date
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED)
+      """)
+  int endFinishedScheduled(
+      @Param("scheduledStatus") String scheduledStatus,
+      @Param("endedStatus") String endedStatus,
+      @Param("now") LocalDateTime now,
+      @Param("batchSize") int batchSize);
+
+  @Transactional
+  @Modifying
+  @Query(nativeQuery = true, value = END_FINISHED_SCHEDULED + """
+          AND user_id = :userId
+        ORDER BY end_date
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED)
+      """)
+  int endFinishedScheduledByUserId(
+      @Param("userId") UUID userId,
+      @Param("scheduledStatus") String scheduledStatus,
+      @Param("endedStatus") String endedStatus,
+      @Param("now") LocalDateTime now,
+      @Param("batchSize") int batchSize);
+
+  // ── Room timeouts ────────────────────────────────────────────────
+  // The consultation a room was last booked for ends with the room.
+  @Transactional
+  @Modifying
+  @Query(nativeQuery = true, value = """
+      UPDATE consultations c
+      SET status = :endedStatus
+      FROM rooms r
+      WHERE r.id IN (:roomIds)
+        AND c.room_id = r.id
+        AND c.end_date = r.end_time
+        AND LOWER(c.status) <> LOWER(:endedStatus)
+      """)
+  int endByTimedOutRooms(
+      @Param("roomIds") Collection<UUID> roomIds,
+      @Param("endedStatus") String endedStatus);
 }
@@ -0,0 +1,87 @@
+package com.buildbetter.consultation.repository;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.buildbetter.consultation.model.Consultation;
+
+import jakarta.persistence.criteria.JoinType;
+
+/**
+ * Building blocks for the consultation listings so every filter is applied in
+ * SQL instead of in Java streams. A {@code null} / blank argument means "no
+ * filter" and yields a {@code null} specification, which Spring Data ignores.
+ */
+public final class ConsultationSpecifications {
+
+    private ConsultationSpecifications() {
+    }
+
+    public static Specification<Consultation> architectIdEquals(UUID architectId) {
+        return (root, query, cb) -> cb.equal(root.get("architectId"), architectId);
+    }
+
+    public static Specification<Consultation> userIdEquals(UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Consultation> typeEqualsIgnoreCase(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        String value = type.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("type")), value);
+    }
+
+    public static Specification<Consultation> statusEqualsIgnoreCase(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        String value = status.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("status")), value);
+    }
+
+    /** Status other than {@code status}, ignoring case; rows without a status are kept. */
+    public static Specification<Consultation> statusNot(String status) {
+        String value = status.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.or(
+                cb.isNull(root.get("status")),
+                cb.notEqual(cb.lower(root.get("status")), value));
+    }
+
+    public static Specification<Consultation> startingFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("startDate"), from);
+    }
+
+    /**
+     * Keyset predicate on (start_date, id) : only rows strictly after the given
+     * cursor, matching the {@link ConsultationRepository#KEYSET_SORT} order.
+     */
+    public static Specification<Consultation> after(LocalDateTime startDate, UUID id) {
+        if (startDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("startDate"), startDate),
+                cb.and(
+                        cb.equal(root.get("startDate"), startDate),
+                        cb.greaterThan(root.<UUID>get("id"), id)));
+    }
+
+    /**
+     * Fetch the payment together with the consultation. The inverse side of the
+     * one-to-one cannot be proxied, so without this every row triggers its own
+     * payment select.
+     */
+    public static Specification<Consultation> fetchPayment() {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                root.fetch("payment", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.buildbetter.consultation.repository;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -9,9 +10,15 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.buildbetter.consultation.model.Payment;
+import com.buildbetter.shared.repository.Keyset;
+import com.buildbetter.shared.repository.KeysetRepository;
+import com.buildbetter.shared.repository.StreamedQuery;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, UUID> {
+public interface PaymentRepository extends JpaRepository<Payment, UUID>, KeysetRepository<Payment> {
+
+    // Listing order : payments carry no timestamp, page on the primary key
+    Keyset<Payment, UUID> KEYSET = Keyset.byId(Payment::getId);
 
     Optional<Payment> findBySender(String sender);
 
@@ -19,4 +26,8 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
     @Query("SELECT p FROM Payment p WHERE p.consultation.id = :consultationId")
     Optional<Payment> findByConsultationIdExplicit(@Param("consultationId") UUID consultationId);
+
+    @StreamedQuery
+    @Query("SELECT p FROM Payment p")
+    Stream<Payment> streamAll();
 }
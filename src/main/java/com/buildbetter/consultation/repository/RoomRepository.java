@@ -1,16 +1,67 @@
 package com.buildbetter.consultation.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.buildbetter.consultation.model.Room;
+import com.buildbetter.shared.repository.Keyset;
+import com.buildbetter.shared.repository.KeysetRepository;
+import com.buildbetter.shared.repository.StreamedQuery;
 
 @Repository
-public interface RoomRepository extends JpaRepository<Room, UUID> {
+public interface RoomRepository extends JpaRepository<Room, UUID>, KeysetRepository<Room> {
+
+    // Listing order : newest first, backed by idx_rooms_created
+    Keyset<Room, LocalDateTime> KEYSET = Keyset.newestFirst(Room::getCreatedAt, Room::getId);
     // Custom query methods can be defined here if needed
     // For example, find by room name or other attributes
     Optional<Room> findByUserIdAndArchitectId(UUID userId, UUID architectId);
+
+    @StreamedQuery
+    @Query("SELECT r FROM Room r")
+    Stream<Room> streamAll();
+
+    // Rooms whose current end time has not timed out yet, ending before :until
+    @Query(value = """
+            SELECT * FROM rooms
+            WHERE timed_out_end_time IS DISTINCT FROM end_time
+              AND end_time < :until
+            """, nativeQuery = true)
+    List<Room> findPendingTimeouts(@Param("until") LocalDateTime until);
+
+    // Mark the timeouts of the given rooms fired; only the ids this call claimed come back,
+    // a room reused with a later end time or claimed by another node is left out
+    @Transactional
+    @Query(value = """
+            WITH claimed AS (
+              UPDATE rooms SET timed_out_end_time = end_time
+              WHERE id IN (:roomIds)
+                AND timed_out_end_time IS DISTINCT FROM end_time
+                AND end_time <= :now
+              RETURNING id
+            )
+            SELECT id FROM claimed
+            """, nativeQuery = true)
+    List<UUID> claimTimeouts(@Param("roomIds") Collection<UUID> roomIds, @Param("now") LocalDateTime now);
+
+    // Mark the pending timeout of a room fired without firing it
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE rooms SET timed_out_end_time = end_time
+            WHERE id = :roomId
+              AND timed_out_end_time IS DISTINCT FROM end_time
+            """, nativeQuery = true)
+    int cancelTimeout(@Param("roomId") UUID roomId);
 }
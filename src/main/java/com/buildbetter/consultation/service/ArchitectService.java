@@ -17,11 +17,15 @@ import com.buildbetter.consultation.dto.architect.UpdateArchitectRequest;
 import com.buildbetter.consultation.model.Architect;
 import com.buildbetter.consultation.repository.ArchitectRepository;
 import com.buildbetter.consultation.util.ArchitectUtils;
+import com.buildbetter.shared.cache.ContentVersions;
+import com.buildbetter.shared.constant.CachedContent;
 import com.buildbetter.shared.constant.S3Folder;
 import com.buildbetter.shared.exception.BadRequestException;
 import com.buildbetter.shared.util.JwtUtil;
+import com.buildbetter.shared.util.S3DeletionQueue;
 import com.buildbetter.shared.util.S3Service;
 
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,6 +38,8 @@ public class ArchitectService {
         private final ConsultationService consultationService;
         private final JwtUtil jwtUtil;
         private final S3Service s3Service;
+        private final S3DeletionQueue s3DeletionQueue;
+        private final ContentVersions contentVersions;
 
         public void registerArchitect(RegisterArchitectRequest request) {
                 log.info("Architect Service : registerArchitect");
@@ -75,6 +81,7 @@ public class ArchitectService {
 
                 log.info("Architect Service : Saving architect to DB");
                 architectRepository.save(architect);
+                contentVersions.bump(CachedContent.ARCHITECTS);
         }
 
         public LoginResponse loginArchitect(LoginRequest request) {
@@ -102,6 +109,7 @@ public class ArchitectService {
                 return loginResponse;
         }
 
+        @Transactional
         public void updateArchitect(UUID userId, UpdateArchitectRequest request) {
                 log.info("Architect Service : updateArchitect");
 
@@ -116,10 +124,11 @@ public class ArchitectService {
                         String photoUrl = s3Service.uploadFile(request.getPhoto(), folder,
                                         existingArchitect.getId().toString());
 
-                        // Delete the old photo from S3 if it exists
-                        if (existingArchitect.getPhoto() != null && !existingArchitect.getPhoto().isBlank()) {
+                        // Delete the old photo from S3 if it exists (and was not just overwritten)
+                        if (existingArchitect.getPhoto() != null && !existingArchitect.getPhoto().isBlank()
+                                        && !existingArchitect.getPhoto().equals(photoUrl)) {
                                 log.info("Architect Service : Deleting old photo from S3");
-                                s3Service.deleteFile(existingArchitect.getPhoto());
+                                s3DeletionQueue.enqueue(existingArchitect.getPhoto());
                         }
 
                         existingArchitect.setPhoto(photoUrl);
@@ -151,6 +160,7 @@ public class ArchitectService {
 
                 log.info("Architect Service : Saving architect to DB");
                 architectRepository.save(existingArchitect);
+                contentVersions.bump(CachedContent.ARCHITECTS);
         }
 
         public void changePassword(UUID architectId, ChangeArchitectPasswordRequest request) {
@@ -215,5 +225,6 @@ public class ArchitectService {
                 });
 
                 architectRepository.deleteById(id);
+                contentVersions.bump(CachedContent.ARCHITECTS);
         }
 }
@@ -1,6 +1,10 @@
 package com.buildbetter.consultation.service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.stereotype.Service;
@@ -10,6 +14,7 @@ import com.buildbetter.consultation.model.Chat;
 import com.buildbetter.consultation.model.Room;
 import com.buildbetter.consultation.repository.ChatRepository;
 import com.buildbetter.consultation.repository.RoomRepository;
+import com.buildbetter.consultation.websocket.chat.service.ChatWriteBehind;
 import com.buildbetter.shared.constant.S3Folder;
 import com.buildbetter.shared.util.S3Service;
 
@@ -23,6 +28,7 @@ public class ChatService {
     private final RoomRepository roomRepository;
     private final ChatRepository chatRepository;
     private final S3Service s3Service;
+    private final ChatWriteBehind chatWriteBehind;
 
     public List<Chat> getChatHistory(UUID roomId, UUID userId) {
         log.info("Fetching chat history for room: {}", roomId);
@@ -39,7 +45,21 @@ public class ChatService {
 
         log.info("Authorized access for user: {} to room: {}", userId, roomId);
 
-        List<Chat> history = chatRepository.findByRoomIdOrderByCreatedAtAsc(roomId);
+        // Messages broadcast but not written yet. Read before the table : one written in
+        // between is then in the table, never in neither
+        List<Chat> queued = chatWriteBehind.pending(roomId);
+        List<Chat> history = new ArrayList<>(chatRepository.findByRoomIdOrderByCreatedAtAscSeqAsc(roomId));
+
+        Set<UUID> stored = new HashSet<>();
+        history.forEach(chat -> stored.add(chat.getId()));
+        List<Chat> pending = queued.stream()
+                .filter(chat -> !stored.contains(chat.getId()))
+                .toList();
+        if (!pending.isEmpty()) {
+            history.addAll(pending);
+            history.sort(Comparator.comparing(Chat::getCreatedAt)
+                    .thenComparing(Chat::getSeq, Comparator.nullsLast(Comparator.naturalOrder())));
+        }
         return history;
     }
 
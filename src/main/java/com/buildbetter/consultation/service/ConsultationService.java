@@ -2,7 +2,6 @@ package com.buildbetter.consultation.service;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -10,7 +9,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import com.buildbetter.consultation.constant.CancellationReason;
@@ -23,13 +22,13 @@ import com.buildbetter.consultation.dto.consultation.UpdateConsultationRequest;
 import com.buildbetter.consultation.dto.room.CreateRoomRequest;
 import com.buildbetter.consultation.model.Architect;
 import com.buildbetter.consultation.model.Consultation;
-import com.buildbetter.consultation.model.Payment;
 import com.buildbetter.consultation.repository.ArchitectRepository;
 import com.buildbetter.consultation.repository.ConsultationRepository;
-import com.buildbetter.consultation.repository.PaymentRepository;
+import com.buildbetter.consultation.repository.ConsultationSpecifications;
 import com.buildbetter.consultation.util.ConsultationUtils;
 import com.buildbetter.consultation.websocket.confirmation.service.ConfirmationService;
 import com.buildbetter.shared.exception.BadRequestException;
+import com.buildbetter.shared.exception.ForbiddenException;
 import com.buildbetter.user.api.GetUserNameAndCity;
 import com.buildbetter.user.api.UserAPI;
 
@@ -46,7 +45,9 @@ public class ConsultationService {
     private final ConfirmationService confirmationService;
     private final RoomService roomService;
     private final UserAPI userApi;
-    private final PaymentRepository paymentRepository;
+    private final ConsultationSweeper consultationSweeper;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     public UUID createConsult(CreateConsultationRequest request, UUID userId) {
         log.info(
@@ -176,113 +177,51 @@ public class ConsultationService {
     }
 
     public List<GetConsultationResponse> getAllConsultsByArchitectId(UUID architectId, String type, String status,
-            Boolean includeCancelled, Boolean upcoming) {
+            Boolean includeCancelled, Boolean upcoming, LocalDateTime afterStartDate, UUID afterId, Integer limit) {
 
         log.info(
-                "Consultation Service : getAllConsultsByArchitectId - Fetching consultations for architect: {}, type: {}, status: {}, includeCancelled: {}, upcoming: {}",
-                architectId, type, status, includeCancelled, upcoming);
-
-        List<Consultation> consults;
+                "Consultation Service : getAllConsultsByArchitectId - Fetching consultations for architect: {}, type: {}, status: {}, includeCancelled: {}, upcoming: {}, after: {}/{}, limit: {}",
+                architectId, type, status, includeCancelled, upcoming, afterStartDate, afterId, limit);
 
-        if (upcoming != null && upcoming) {
-            consults = consultationRepository.findByArchitectIdAndStartDateGreaterThanEqualOrderByStartDate(
-                    architectId, LocalDateTime.now(ZoneId.of("Asia/Jakarta")));
-        } else {
-            consults = consultationRepository.findByArchitectIdOrderByStartDate(architectId);
-        }
+        validateKeyset(afterStartDate, afterId, limit);
 
-        // Apply filters using streams
-        return consults.stream()
-                .filter(consult -> {
-                    // Filter by type if specified
-                    if (type != null && !type.trim().isEmpty()) {
-                        return type.equalsIgnoreCase(consult.getType());
-                    }
-                    return true;
-                })
-                .filter(consult -> {
-                    // Filter by status if specified
-                    if (status != null && !status.trim().isEmpty()) {
-                        return status.equalsIgnoreCase(consult.getStatus());
-                    }
-                    return true;
-                })
-                .filter(consult -> {
-                    // Filter out cancelled consults unless explicitly included
-                    if (Boolean.FALSE.equals(includeCancelled)) {
-                        return !ConsultationStatus.CANCELLED.getStatus().equalsIgnoreCase(consult.getStatus());
-                    }
-                    // If includeCancelled is null or true, include all statuses
-                    return true;
-                })
-                .map(consult -> {
-                    // a) load the user‐projection (just id, username, city)
-                    GetUserNameAndCity userProjection = userApi.getUserNameAndCityById(consult.getUserId());
+        // Cancelled consults are only excluded when explicitly asked for
+        Specification<Consultation> spec = ConsultationSpecifications.architectIdEquals(architectId)
+                .and(listingFilters(type, status, Boolean.FALSE.equals(includeCancelled), upcoming,
+                        afterStartDate, afterId));
 
-                    // b) load the architect entity (so you can extract name & city)
-                    Architect architect = architectRepository.findById(consult.getArchitectId())
-                            .orElseThrow(() -> new BadRequestException("Architect not found"));
+        List<Consultation> consults = consultationRepository.findListing(spec, limit);
 
-                    // c) build the DTO using your utility
-                    return ConsultationUtils.toGetConsultationResponse(consult, userProjection, architect);
-                })
-                .collect(Collectors.toList());
+        // Resolve users and architects in one batch each
+        return toGetConsultationResponses(consults);
     }
 
     public List<GetConsultationResponse> getAllConsults(String type, String status, Boolean includeCancelled,
-            Boolean upcoming, UUID requestingUserId) {
+            Boolean upcoming, LocalDateTime afterStartDate, UUID afterId, Integer limit, UUID requestingUserId,
+            String requestingRole) {
 
         log.info(
                 "Consultation Service : getAllConsults - Fetching all consultations with type: {}, status: {}, includeCancelled: {}, upcoming: {}, "
                         +
-                        "requestingUserId: {}",
-                type, status, includeCancelled, upcoming, requestingUserId);
-
-        // Get base dataset
-        List<Consultation> consults;
+                        "after: {}/{}, limit: {}, requestingUserId: {}",
+                type, status, includeCancelled, upcoming, afterStartDate, afterId, limit, requestingUserId);
 
-        // Handle includeCancelled filter at repository level for efficiency
-        if (Boolean.TRUE.equals(includeCancelled)) {
-            if (Boolean.TRUE.equals(upcoming)) {
-                consults = consultationRepository
-                        .findByStartDateGreaterThanEqualOrderByStartDate(LocalDateTime.now(ZoneId.of("Asia/Jakarta")));
-            } else {
-                consults = consultationRepository.findAll(
-                        Sort.by(Sort.Direction.ASC, "startDate"));
-            }
-        } else {
-            if (Boolean.TRUE.equals(upcoming)) {
-                consults = consultationRepository
-                        .findByStatusNotAndStartDateGreaterThanEqualOrderByStartDate(
-                                "cancelled", LocalDateTime.now(ZoneId.of("Asia/Jakarta")));
-            } else {
-                consults = consultationRepository
-                        .findByStatusNotOrderByStartDate("cancelled");
-            }
+        // Role comes from the JWT claim, no need to re-read the requesting user
+        if (!"ADMIN".equals(requestingRole)) {
+            throw new ForbiddenException(
+                    "User with ID " + requestingUserId + " is not authorized to view all consultations");
         }
 
-        List<Consultation> filtered = consults.stream()
-                .filter(c -> type == null || type.isBlank() || type.equalsIgnoreCase(c.getType()))
-                .filter(c -> status == null || status.isBlank() || status.equalsIgnoreCase(c.getStatus()))
-                .collect(Collectors.toList());
+        validateKeyset(afterStartDate, afterId, limit);
 
-        if (filtered.isEmpty()) {
-            return Collections.emptyList();
-        }
+        // Cancelled consults are excluded unless explicitly included
+        Specification<Consultation> spec = listingFilters(type, status, !Boolean.TRUE.equals(includeCancelled),
+                upcoming, afterStartDate, afterId);
 
-        Set<UUID> architectIds = filtered.stream().map(Consultation::getArchitectId).collect(Collectors.toSet());
-        List<Architect> architects = architectRepository.findAllByIdIn(architectIds);
-        Map<UUID, Architect> architectMap = architects.stream().collect(Collectors.toMap(Architect::getId, a -> a));
-        Map<UUID, GetUserNameAndCity> userMap = userApi.getAllUsersNameAndCity(requestingUserId);
-
-        // Apply additional filters using streams
-        return filtered.stream()
-                .map(c -> {
-                    GetUserNameAndCity u = userMap.get(c.getUserId());
-                    Architect a = architectMap.get(c.getArchitectId());
-                    return ConsultationUtils.toGetConsultationResponse(c, u, a);
-                })
-                .collect(Collectors.toList());
+        List<Consultation> consults = consultationRepository.findListing(spec, limit);
+
+        // Only the users referenced by the returned rows are resolved
+        return toGetConsultationResponses(consults);
     }
 
     public List<UUID> getAllContactedArchitects(UUID userId) {
@@ -317,59 +256,23 @@ public class ConsultationService {
     }
 
     public List<GetConsultationResponse> getUserConsultations(UUID userId, String type, String status,
-            Boolean includeCancelled, Boolean upcoming) {
+            Boolean includeCancelled, Boolean upcoming, LocalDateTime afterStartDate, UUID afterId, Integer limit) {
 
         log.info(
-                "Consultation Service : getUserConsultations - Fetching consultations for user: {}, type: {}, status: {}, includeCancelled: {}, upcoming: {}",
-                userId, type, status, includeCancelled, upcoming);
-
-        // Get base dataset
-        List<Consultation> consults;
-
-        if (upcoming != null && upcoming) {
-            consults = consultationRepository
-                    .findByUserIdAndStartDateGreaterThanEqualOrderByStartDate(userId,
-                            LocalDateTime.now(ZoneId.of("Asia/Jakarta")));
-        } else {
-            consults = consultationRepository.findByUserIdOrderByStartDate(userId);
-        }
+                "Consultation Service : getUserConsultations - Fetching consultations for user: {}, type: {}, status: {}, includeCancelled: {}, upcoming: {}, after: {}/{}, limit: {}",
+                userId, type, status, includeCancelled, upcoming, afterStartDate, afterId, limit);
 
-        // Apply filters using streams
-        return consults.stream()
-                // filter by type if provided
-                .filter(consult -> {
-                    if (type != null && !type.trim().isEmpty()) {
-                        return type.equalsIgnoreCase(consult.getType());
-                    }
-                    return true;
-                })
-                // filter by status if provided
-                .filter(consult -> {
-                    if (status != null && !status.trim().isEmpty()) {
-                        return status.equalsIgnoreCase(consult.getStatus());
-                    }
-                    return true;
-                })
-                // exclude “CANCELLED” unless includeCancelled is true or null
-                .filter(consult -> {
-                    if (Boolean.FALSE.equals(includeCancelled)) {
-                        return !ConsultationStatus.CANCELLED.getStatus().equalsIgnoreCase(consult.getStatus());
-                    }
-                    return true;
-                })
-                // Map each filtered Consultation → GetConsultationResponse
-                .map(consult -> {
-                    // a) load the user‐projection (just id, username, city)
-                    GetUserNameAndCity userProjection = userApi.getUserNameAndCityById(consult.getUserId());
+        validateKeyset(afterStartDate, afterId, limit);
 
-                    // b) load the architect entity (so you can extract name & city)
-                    Architect architect = architectRepository.findById(consult.getArchitectId())
-                            .orElseThrow(() -> new BadRequestException("Architect not found"));
+        // exclude “CANCELLED” unless includeCancelled is true or null
+        Specification<Consultation> spec = ConsultationSpecifications.userIdEquals(userId)
+                .and(listingFilters(type, status, Boolean.FALSE.equals(includeCancelled), upcoming,
+                        afterStartDate, afterId));
 
-                    // c) build the DTO using your utility
-                    return ConsultationUtils.toGetConsultationResponse(consult, userProjection, architect);
-                })
-                .collect(Collectors.toList());
+        List<Consultation> consults = consultationRepository.findListing(spec, limit);
+
+        // Resolve users and architects in one batch each
+        return toGetConsultationResponses(consults);
     }
 
     public UUID approveConsultation(UUID consultationId) {
@@ -553,128 +456,76 @@ public class ConsultationService {
     }
 
     public void refreshConsultations(UUID userId, String role) {
-        log.info("Consultation Service : refreshConsultations - Refreshing consultations for user: {}", userId);
+        log.info("Consultation Service : refreshConsultations - Refreshing consultations for user: {}, role: {}",
+                userId, role);
 
-        List<String> statuses = List.of(
-                ConsultationStatus.WAITING_FOR_CONFIRMATION.getStatus(),
-                ConsultationStatus.WAITING_FOR_PAYMENT.getStatus(),
-                ConsultationStatus.SCHEDULED.getStatus());
-
-        String cancelledStatus = ConsultationStatus.CANCELLED.getStatus();
-        String cancelledReason = CancellationReason.INVALID_PAYMENT.getReason();
-
-        List<Consultation> consultations = Collections.emptyList();
+        // The background sweeper keeps every consultation up to date, a user
+        // refresh only needs to catch up on their own bookings right away
+        if ("USER".equals(role)) {
+            consultationSweeper.sweepUser(userId);
+        }
+    }
 
-        log.info("role : {}", role);
+    private Specification<Consultation> listingFilters(String type, String status, boolean excludeCancelled,
+            Boolean upcoming, LocalDateTime afterStartDate, UUID afterId) {
+        Specification<Consultation> spec = Specification
+                .where(ConsultationSpecifications.typeEqualsIgnoreCase(type))
+                .and(ConsultationSpecifications.statusEqualsIgnoreCase(status))
+                .and(ConsultationSpecifications.after(afterStartDate, afterId))
+                .and(ConsultationSpecifications.fetchPayment());
 
-        if ("ADMIN".equals(role)) {
-            consultations = consultationRepository
-                    .findConsultationByStatusInAndStatusCancelledWithSpecificReason(statuses, cancelledStatus,
-                            cancelledReason);
-        } else if ("USER".equals(role)) {
-            consultations = consultationRepository
-                    .findConsultationByUserIdAndStatusInAndStatusCancelledWithSpecificReason(userId, statuses,
-                            cancelledStatus, cancelledReason);
+        if (excludeCancelled) {
+            spec = spec.and(ConsultationSpecifications.statusNot(ConsultationStatus.CANCELLED.getStatus()));
         }
 
-        if (consultations.isEmpty()) {
-            log.info("No consultations found for user: {}", userId);
-            return;
+        if (Boolean.TRUE.equals(upcoming)) {
+            spec = spec.and(ConsultationSpecifications.startingFrom(LocalDateTime.now(ZoneId.of("Asia/Jakarta"))));
         }
 
-        // Batch collections for different types of updates
-        List<Consultation> consultationsToUpdate = new ArrayList<>();
-        List<Payment> paymentsToUpdate = new ArrayList<>();
-        List<Payment> newPaymentsToSave = new ArrayList<>();
-
-        for (Consultation consult : consultations) {
-            log.info("Found consultation: {} with status: {}", consult.getId(), consult.getStatus());
-
-            Boolean consultationIsOutdated = consult.getStartDate() != null &&
-                    consult.getStartDate().isBefore(LocalDateTime.now(ZoneId.of("Asia/Jakarta")));
-            Boolean isExpired = LocalDateTime.now().isAfter(consult.getCreatedAt()
-                    .plusMinutes(10));
-            Boolean isWaitingForPayment = consult.getStatus()
-                    .equals(ConsultationStatus.WAITING_FOR_PAYMENT.getStatus());
-            Boolean isWaitingForConfirmation = consult.getStatus()
-                    .equals(ConsultationStatus.WAITING_FOR_CONFIRMATION.getStatus());
-            Boolean isCancelledAndInvalidPayment = consult.getStatus()
-                    .equals(ConsultationStatus.CANCELLED.getStatus()) &&
-                    consult.getReason().equals(CancellationReason.INVALID_PAYMENT.getReason());
-            Boolean isScheduledButRoomExpired = consult.getStatus()
-                    .equals(ConsultationStatus.SCHEDULED.getStatus())
-                    && consult.getEndDate().isBefore(LocalDateTime.now(ZoneId.of("Asia/Jakarta")));
-
-            if ((isWaitingForPayment || isWaitingForConfirmation || isCancelledAndInvalidPayment)
-                    && consultationIsOutdated) {
-                log.info("Consultation {} is outdated, cancelling due to system cancellation", consult.getId());
-                consult.setStatus(ConsultationStatus.CANCELLED.getStatus());
-                consult.setReason(CancellationReason.SYSTEM_CANCELLED.getReason());
-                consultationsToUpdate.add(consult);
-                // consultationRepository.save(consult);
-            }
-            // SPECIAL CASE FOR WAITING FOR PAYMENT (expired)
-            else if (isWaitingForPayment && isExpired) {
-                log.info("Consultation {} is expired, cancelling due to invalid payment", consult.getId());
-                Integer numberOfUploadProofOfPayment = consult.hasPayment()
-                        ? consult.getPayment().getUploadProofPayment()
-                        : 0;
-
-                Payment existingPayment = consult.getPayment();
-                if (existingPayment == null) {
-                    existingPayment = Payment.builder()
-                            .paymentMethod("")
-                            .proofPayment("")
-                            .sender("")
-                            .uploadProofPayment(0)
-                            .build();
-                    consult.setPayment(existingPayment);
-                    newPaymentsToSave.add(existingPayment);
-                } else {
-                    paymentsToUpdate.add(existingPayment);
-                }
+        return spec;
+    }
 
-                existingPayment.setUploadProofPayment(numberOfUploadProofOfPayment + 1);
-                // paymentRepository.save(existingPayment);
+    private void validateKeyset(LocalDateTime afterStartDate, UUID afterId, Integer limit) {
+        if ((afterStartDate == null) != (afterId == null)) {
+            throw new BadRequestException("Fields 'afterStartDate' and 'afterId' must be provided together");
+        }
 
-                consult.setStatus(ConsultationStatus.CANCELLED.getStatus());
-                if (numberOfUploadProofOfPayment + 1 >= 2) {
-                    consult.setReason(CancellationReason.SYSTEM_CANCELLED.getReason());
-                } else {
-                    consult.setReason(CancellationReason.INVALID_PAYMENT.getReason());
-                }
-                // consultationRepository.save(consult);
-                consultationsToUpdate.add(consult);
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            throw new BadRequestException("Field 'limit' must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
 
-            }
+    /**
+     * Map consultations to responses, resolving users and architects with one
+     * batched lookup each instead of two lookups per row.
+     */
+    private List<GetConsultationResponse> toGetConsultationResponses(List<Consultation> consults) {
+        if (consults.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-            // SPECIAL CASE FOR SCHEDULED CONSULTATIONS BUT ROOM HAS EXPIRED
-            else if (isScheduledButRoomExpired) {
-                log.info("Consultation {} is scheduled but room has expired, Make it ended",
-                        consult.getId());
-                consult.setStatus(ConsultationStatus.ENDED.getStatus());
-                consultationsToUpdate.add(consult);
-                // consultationRepository.save(consult);
-            } else {
-                log.info("Consultation {} is still valid, no action taken", consult.getId());
-            }
+        Set<UUID> userIds = consults.stream().map(Consultation::getUserId).collect(Collectors.toSet());
+        Set<UUID> architectIds = consults.stream().map(Consultation::getArchitectId).collect(Collectors.toSet());
 
-            // --------------- HANDLE BATCH TRANSACTION TO DB ---------------
-            if (!newPaymentsToSave.isEmpty()) {
-                log.info("Batch saving {} new payments", newPaymentsToSave.size());
-                paymentRepository.saveAll(newPaymentsToSave);
-            }
+        Map<UUID, GetUserNameAndCity> userMap = userApi.getUsersNameAndCity(userIds);
+        Map<UUID, Architect> architectMap = architectRepository.findAllByIdIn(architectIds)
+                .stream()
+                .collect(Collectors.toMap(Architect::getId, a -> a));
 
-            if (!paymentsToUpdate.isEmpty()) {
-                log.info("Batch updating {} existing payments", paymentsToUpdate.size());
-                paymentRepository.saveAll(paymentsToUpdate);
-            }
+        return consults.stream()
+                .map(consult -> {
+                    GetUserNameAndCity user = userMap.get(consult.getUserId());
+                    if (user == null) {
+                        throw new BadRequestException("User not found");
+                    }
 
-            if (!consultationsToUpdate.isEmpty()) {
-                log.info("Batch updating {} consultations", consultationsToUpdate.size());
-                consultationRepository.saveAll(consultationsToUpdate);
-            }
-        }
-    }
+                    Architect architect = architectMap.get(consult.getArchitectId());
+                    if (architect == null) {
+                        throw new BadRequestException("Architect not found");
+                    }
 
-}
\ No newline at end of file
+                    return ConsultationUtils.toGetConsultationResponse(consult, user, architect);
+                })
+                .collect(Collectors.toList());
+    }
+}
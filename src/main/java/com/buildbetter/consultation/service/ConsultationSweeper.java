@@ -0,0 +1,112 @@
+package com.buildbetter.consultation.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.buildbetter.consultation.constant.CancellationReason;
+import com.buildbetter.consultation.constant.ConsultationStatus;
+import com.buildbetter.consultation.repository.ConsultationRepository;
+import com.buildbetter.shared.util.LeaderLease;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background lifecycle sweep of consultations :
+ * 1. pending / invalid-payment bookings whose start date passed → cancelled
+ * 2. unpaid bookings older than {@link #PAYMENT_WINDOW} → one more payment
+ * attempt, cancelled (for good after the second attempt)
+ * 3. scheduled consultations whose end date passed → ended
+ *
+ * Only the node holding the lease runs the scheduled sweep. Every transition
+ * is applied with set-based UPDATEs in chunks of {@link #BATCH_SIZE}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConsultationSweeper {
+
+    static final String LEASE_NAME = "consultation-sweeper";
+    static final int BATCH_SIZE = 500;
+
+    // Longer than the sweep interval so the leader keeps the lease between runs
+    private static final Duration LEASE_TTL = Duration.ofMinutes(2);
+    private static final Duration PAYMENT_WINDOW = Duration.ofMinutes(10);
+
+    private static final List<String> PENDING_STATUSES = List.of(
+            ConsultationStatus.WAITING_FOR_CONFIRMATION.getStatus(),
+            ConsultationStatus.WAITING_FOR_PAYMENT.getStatus());
+
+    private final ConsultationRepository consultationRepository;
+    private final LeaderLease leaderLease;
+
+    @Scheduled(fixedDelayString = "${consultation.sweeper.interval-ms:30000}", initialDelayString = "${consultation.sweeper.initial-delay-ms:30000}")
+    public void sweep() {
+        if (!leaderLease.tryAcquire(LEASE_NAME, LEASE_TTL)) {
+            log.debug("Consultation Sweeper : sweep - Lease held by another node, skipping");
+            return;
+        }
+
+        sweepAll();
+    }
+
+    /** Run every transition over all consultations. */
+    public void sweepAll() {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Jakarta"));
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(PAYMENT_WINDOW);
+
+        int outdated = drain(() -> consultationRepository.cancelOutdatedPending(PENDING_STATUSES,
+                ConsultationStatus.CANCELLED.getStatus(), CancellationReason.INVALID_PAYMENT.getReason(),
+                CancellationReason.SYSTEM_CANCELLED.getReason(), now, BATCH_SIZE));
+
+        int expired = drain(() -> consultationRepository.cancelExpiredUnpaid(
+                ConsultationStatus.WAITING_FOR_PAYMENT.getStatus(), ConsultationStatus.CANCELLED.getStatus(),
+                CancellationReason.INVALID_PAYMENT.getReason(), CancellationReason.SYSTEM_CANCELLED.getReason(),
+                expiredBefore, now, BATCH_SIZE));
+
+        int ended = drain(() -> consultationRepository.endFinishedScheduled(
+                ConsultationStatus.SCHEDULED.getStatus(), ConsultationStatus.ENDED.getStatus(), now, BATCH_SIZE));
+
+        log.info("Consultation Sweeper : sweepAll - Cancelled {} outdated, {} expired unpaid, ended {}",
+                outdated, expired, ended);
+    }
+
+    /** Same transitions restricted to the consultations of one user. */
+    public void sweepUser(UUID userId) {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Jakarta"));
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(PAYMENT_WINDOW);
+
+        int outdated = drain(() -> consultationRepository.cancelOutdatedPendingByUserId(userId, PENDING_STATUSES,
+                ConsultationStatus.CANCELLED.getStatus(), CancellationReason.INVALID_PAYMENT.getReason(),
+                CancellationReason.SYSTEM_CANCELLED.getReason(), now, BATCH_SIZE));
+
+        int expired = drain(() -> consultationRepository.cancelExpiredUnpaidByUserId(userId,
+                ConsultationStatus.WAITING_FOR_PAYMENT.getStatus(), ConsultationStatus.CANCELLED.getStatus(),
+                CancellationReason.INVALID_PAYMENT.getReason(), CancellationReason.SYSTEM_CANCELLED.getReason(),
+                expiredBefore, now, BATCH_SIZE));
+
+        int ended = drain(() -> consultationRepository.endFinishedScheduledByUserId(userId,
+                ConsultationStatus.SCHEDULED.getStatus(), ConsultationStatus.ENDED.getStatus(), now, BATCH_SIZE));
+
+        log.info("Consultation Sweeper : sweepUser - User {} : cancelled {} outdated, {} expired unpaid, ended {}",
+                userId, outdated, expired, ended);
+    }
+
+    // Repeat one chunked transition until a chunk comes back short
+    private static int drain(IntSupplier chunk) {
+        int total = 0;
+        int updated;
+        do {
+            updated = chunk.getAsInt();
+            total += updated;
+        } while (updated >= BATCH_SIZE);
+        return total;
+    }
+}
@@ -1,9 +1,10 @@
 package com.buildbetter.consultation.service;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
@@ -19,8 +20,13 @@ import com.buildbetter.consultation.websocket.confirmation.service.ConfirmationS
 import com.buildbetter.shared.constant.S3Folder;
 import com.buildbetter.shared.exception.BadRequestException;
 import com.buildbetter.shared.exception.ForbiddenException;
+import com.buildbetter.shared.repository.KeysetPage;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.buildbetter.shared.util.S3DeletionQueue;
 import com.buildbetter.shared.util.S3Service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,7 +40,11 @@ public class PaymentService {
         private final ConsultationRepository consultationRepository;
         private final PaymentRepository paymentRepository;
         private final S3Service s3Service;
+        private final S3DeletionQueue s3DeletionQueue;
+        private final EntityManager entityManager;
 
+        // The expired branch records the attempt and cancels before throwing, keep it
+        @Transactional(dontRollbackOn = BadRequestException.class)
         public UUID UploadPaymentProof(UUID consultationId, UploadPaymentConsultationRequest request) {
                 log.info("Consultation Service : payConsult");
 
@@ -108,9 +118,11 @@ public class PaymentService {
                 String proofUrl = s3Service.uploadFile(request.getImage(), S3Folder.PROOF_OF_PAYMENTS,
                                 consultationId.toString());
 
-                if (existingPayment != null && !existingPayment.getProofPayment().isBlank()) {
+                // Same consultation and file name map to the same key, the upload replaced it
+                if (existingPayment != null && !existingPayment.getProofPayment().isBlank()
+                                && !existingPayment.getProofPayment().equals(proofUrl)) {
                         log.info("Payment Service : UploadPaymentProof - Delete existing proof of payment");
-                        s3Service.deleteFile(existingPayment.getProofPayment());
+                        s3DeletionQueue.enqueue(existingPayment.getProofPayment());
                 }
 
                 existingPayment.setUploadProofPayment(existingPayment.getUploadProofPayment() + 1);
@@ -127,9 +139,20 @@ public class PaymentService {
                 return existingPayment.getId();
         }
 
-        public List<Payment> getAllPayments() {
-                log.info("Payment Service : getAllPayments");
-                return paymentRepository.findAll();
+        @Transactional
+        public void streamAllPayments(JsonEnvelopeWriter writer) throws IOException {
+                log.info("Payment Service : streamAllPayments");
+
+                writer.writeAll(paymentRepository.streamAll(), entityManager, Function.identity());
+
+                log.info("Payment Service : streamAllPayments - Streamed {} payments", writer.count());
+        }
+
+        /** One keyset page of payments, in id order. */
+        public KeysetPage<Payment> getPaymentPage(String cursor, Integer limit) {
+                log.info("Payment Service : getPaymentPage");
+
+                return paymentRepository.findPage(null, PaymentRepository.KEYSET, cursor, KeysetPage.limit(limit));
         }
 
         public Payment getPaymentById(UUID id) {
@@ -176,6 +199,7 @@ public class PaymentService {
                 return response;
         }
 
+        @Transactional
         public void deletePayment(UUID id) {
                 log.info("Payment Service : deletePayment");
                 Payment payment = paymentRepository.findById(id)
@@ -183,7 +207,7 @@ public class PaymentService {
 
                 if (payment.getProofPayment() != null && !payment.getProofPayment().isBlank()) {
                         log.info("Payment Service : deletePayment - Delete proof of payment from S3");
-                        s3Service.deleteFile(payment.getProofPayment());
+                        s3DeletionQueue.enqueue(payment.getProofPayment());
                 }
 
                 Consultation consultation = consultationRepository.findById(payment.getConsultationId())
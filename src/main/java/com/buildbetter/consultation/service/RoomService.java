@@ -1,8 +1,9 @@
 package com.buildbetter.consultation.service;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
@@ -11,7 +12,11 @@ import com.buildbetter.consultation.model.Room;
 import com.buildbetter.consultation.repository.RoomRepository;
 import com.buildbetter.shared.exception.BadRequestException;
 import com.buildbetter.shared.exception.ForbiddenException;
+import com.buildbetter.shared.repository.KeysetPage;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
 
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 public class RoomService {
 
     private final RoomRepository roomRepository;
+    private final EntityManager entityManager;
 
     public UUID createRoom(CreateRoomRequest request) {
         log.info("Room Service : createRoomRepository");
@@ -55,9 +61,20 @@ public class RoomService {
 
     }
 
-    public List<Room> getAllRooms() {
-        log.info("Room Service : getAllRooms");
-        return roomRepository.findAll();
+    @Transactional
+    public void streamAllRooms(JsonEnvelopeWriter writer) throws IOException {
+        log.info("Room Service : streamAllRooms");
+
+        writer.writeAll(roomRepository.streamAll(), entityManager, Function.identity());
+
+        log.info("Room Service : streamAllRooms - Streamed {} rooms", writer.count());
+    }
+
+    /** One keyset page of rooms, newest first. */
+    public KeysetPage<Room> getRoomPage(String cursor, Integer limit) {
+        log.info("Room Service : getRoomPage");
+
+        return roomRepository.findPage(null, RoomRepository.KEYSET, cursor, KeysetPage.limit(limit));
     }
 
     public Room getRoomById(UUID roomId, UUID userId) {
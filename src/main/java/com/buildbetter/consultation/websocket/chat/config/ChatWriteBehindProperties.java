@@ -0,0 +1,22 @@
+package com.buildbetter.consultation.websocket.chat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "consultation.chat.write-behind")
+public class ChatWriteBehindProperties {
+    // Messages waiting for the database on this node, senders block beyond it
+    private int capacity = 10_000;
+    // A batch is written once it holds this many messages...
+    private int batchSize = 500;
+    // ...or this long after its first message arrived
+    private long flushIntervalMs = 50;
+    // How long a sender waits for room in a full queue before it is turned away
+    private long offerTimeoutMs = 2_000;
+    // How long shutdown waits for the queue to reach the database
+    private long drainTimeoutMs = 30_000;
+}
@@ -13,6 +13,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ChatMessage {
+    private UUID id; // assigned by the server, ignored from clients
+    private Long seq; // server-assigned broadcast order
     private UUID roomId;
     private UUID sender; // architectId OR userId
     private String senderRole; // architect or user role
@@ -1,6 +1,5 @@
 package com.buildbetter.consultation.websocket.chat.handler;
 
-import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 import org.springframework.stereotype.Component;
@@ -15,10 +14,12 @@ import com.buildbetter.consultation.model.Room;
 import com.buildbetter.consultation.repository.ConsultationRepository;
 import com.buildbetter.consultation.repository.RoomRepository;
 import com.buildbetter.consultation.websocket.chat.dto.ChatMessage;
+import com.buildbetter.consultation.websocket.chat.service.ChatFanout;
 import com.buildbetter.consultation.websocket.chat.service.ChatSessionManager;
 import com.buildbetter.consultation.websocket.chat.service.ChatWebSocketService;
 import com.buildbetter.consultation.websocket.chat.service.RoomTimeoutService;
 import com.buildbetter.shared.exception.BadRequestException;
+import com.buildbetter.shared.exception.TooManyRequestException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
@@ -32,6 +33,7 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
     private final ObjectMapper mapper;
     private final ChatWebSocketService chatWebSocketService;
     private final ChatSessionManager sessionManager;
+    private final ChatFanout chatFanout;
     private final RoomTimeoutService roomTimeoutService;
     private final ConsultationRepository consultationRepository;
     private final RoomRepository roomRepository;
@@ -50,8 +52,8 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         // Check if this is the first participant in the room
         boolean isFirstParticipant = !sessionManager.hasActiveSessions(roomId);
 
-        // Register the session
-        sessionManager.register(roomId, session);
+        // Register the session, and follow the room on the other nodes
+        chatFanout.join(roomId, session);
 
         // If this is the first participant, schedule the room timeout
         if (isFirstParticipant) {
@@ -80,21 +82,23 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
 
         ChatMessage inbound = mapper.readValue(payload.getPayload(), ChatMessage.class);
         inbound.setRoomId(roomId); // trust the path, not the client
-        ChatMessage outbound = chatWebSocketService.persist(inbound);
 
-        String json = mapper.writeValueAsString(outbound);
-        TextMessage broadcast = new TextMessage(json.getBytes(StandardCharsets.UTF_8));
-
-        for (WebSocketSession peer : sessionManager.getSessions(roomId)) {
-            if (peer.isOpen())
-                peer.sendMessage(broadcast);
+        ChatMessage outbound;
+        try {
+            outbound = chatWebSocketService.persist(inbound);
+        } catch (TooManyRequestException e) {
+            // Write-behind queue full : turn the sender away, it reconnects and resends
+            session.close(CloseStatus.SERVICE_OVERLOAD.withReason(e.getMessage()));
+            return;
         }
+
+        chatFanout.broadcast(roomId, mapper.writeValueAsString(outbound));
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
         UUID roomId = extractRoomId(session);
-        sessionManager.remove(roomId, session);
+        chatFanout.leave(roomId, session);
 
         // Check if this was the last participant
         boolean hasRemainingParticipants = sessionManager.hasActiveSessions(roomId);
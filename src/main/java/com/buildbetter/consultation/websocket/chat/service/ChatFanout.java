@@ -0,0 +1,66 @@
+package com.buildbetter.consultation.websocket.chat.service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.buildbetter.shared.cluster.ClusterBus;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers chat messages to every participant of a room, whichever node
+ * their socket landed on. Messages go out to the local sessions and are
+ * published on the room's channel; a node subscribes to that channel only
+ * while it holds sessions of the room.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatFanout {
+
+    static final String PREFIX_CHANNEL = "chat-room:";
+
+    private final ClusterBus clusterBus;
+    private final ChatSessionManager sessionManager;
+
+    // roomId → channel subscription, held while this node has sessions in the room
+    private final Map<UUID, ClusterBus.Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    public void join(UUID roomId, WebSocketSession session) {
+        sessionManager.register(roomId, session);
+        subscriptions.computeIfAbsent(roomId, id -> {
+            log.info("Chat Fanout : join - Subscribing to room {}", id);
+            return clusterBus.subscribe(PREFIX_CHANNEL + id,
+                    payload -> sessionManager.broadcast(id, new TextMessage(payload)));
+        });
+    }
+
+    public void leave(UUID roomId, WebSocketSession session) {
+        sessionManager.remove(roomId, session);
+        // Checked under the key lock, a join racing in keeps or renews the subscription
+        subscriptions.computeIfPresent(roomId, (id, subscription) -> {
+            if (sessionManager.hasActiveSessions(id)) {
+                return subscription;
+            }
+            log.info("Chat Fanout : leave - Last local session left room {}, unsubscribing", id);
+            subscription.cancel();
+            return null;
+        });
+    }
+
+    /** Deliver {@code json} to the room here and on every other node. */
+    public void broadcast(UUID roomId, String json) {
+        sessionManager.broadcast(roomId, new TextMessage(json));
+        clusterBus.publish(PREFIX_CHANNEL + roomId, json);
+    }
+
+    boolean isSubscribed(UUID roomId) {
+        return subscriptions.containsKey(roomId);
+    }
+}
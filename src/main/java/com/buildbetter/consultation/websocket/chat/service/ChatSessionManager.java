@@ -1,35 +1,59 @@
 package com.buildbetter.consultation.websocket.chat.service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
+import com.buildbetter.consultation.websocket.config.OutboundProperties;
+import com.buildbetter.consultation.websocket.session.OutboundSession;
+
+import lombok.RequiredArgsConstructor;
+
 @Component
+@RequiredArgsConstructor
 public class ChatSessionManager {
 
-    // roomId → sessions
-    private final Map<UUID, Set<WebSocketSession>> sessions = new ConcurrentHashMap<>();
+    private final OutboundProperties outboundProperties;
+
+    // roomId → session id → session with its outbound queue
+    private final Map<UUID, Map<String, OutboundSession>> sessions = new ConcurrentHashMap<>();
 
     public void register(UUID roomId, WebSocketSession session) {
-        sessions.computeIfAbsent(roomId, k -> new CopyOnWriteArraySet<>()).add(session);
+        sessions.computeIfAbsent(roomId, k -> new ConcurrentHashMap<>())
+                .put(session.getId(), new OutboundSession(session, outboundProperties));
     }
 
     public void remove(UUID roomId, WebSocketSession session) {
-        Optional.ofNullable(sessions.get(roomId)).ifPresent(set -> {
-            set.remove(session);
-            if (set.isEmpty())
-                sessions.remove(roomId);
+        sessions.computeIfPresent(roomId, (k, roomSessions) -> {
+            roomSessions.remove(session.getId());
+            return roomSessions.isEmpty() ? null : roomSessions;
         });
     }
 
-    public Set<WebSocketSession> getSessions(UUID roomId) {
-        return sessions.getOrDefault(roomId, Set.of());
+    public Collection<OutboundSession> getSessions(UUID roomId) {
+        Map<String, OutboundSession> roomSessions = sessions.get(roomId);
+        return roomSessions != null ? roomSessions.values() : List.of();
+    }
+
+    /**
+     * Queue {@code message} to every open session of the room. Each peer costs
+     * one enqueue, a slow one only delays itself.
+     */
+    public int broadcast(UUID roomId, TextMessage message) {
+        int queued = 0;
+        for (OutboundSession peer : getSessions(roomId)) {
+            if (peer.send(message)) {
+                queued++;
+            }
+        }
+        return queued;
     }
 
     /**
@@ -46,7 +70,7 @@ public class ChatSessionManager {
      */
     public int getTotalActiveSessions() {
         return sessions.values().stream()
-                .mapToInt(Set::size)
+                .mapToInt(Map::size)
                 .sum();
     }
 
@@ -54,14 +78,14 @@ public class ChatSessionManager {
      * Get number of active sessions for a specific room
      */
     public int getSessionCount(UUID roomId) {
-        return sessions.getOrDefault(roomId, Set.of()).size();
+        return getSessions(roomId).size();
     }
 
     /**
      * Check if a room has any active sessions
      */
     public boolean hasActiveSessions(UUID roomId) {
-        Set<WebSocketSession> roomSessions = sessions.get(roomId);
+        Map<String, OutboundSession> roomSessions = sessions.get(roomId);
         return roomSessions != null && !roomSessions.isEmpty();
     }
 
@@ -2,13 +2,14 @@ package com.buildbetter.consultation.websocket.chat.service;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.buildbetter.consultation.model.Chat;
-import com.buildbetter.consultation.repository.ChatRepository;
 import com.buildbetter.consultation.websocket.chat.dto.ChatMessage;
+import com.buildbetter.shared.exception.TooManyRequestException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,29 +19,51 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ChatWebSocketService {
 
-    private final ChatRepository chatRepository;
+    private final ChatWriteBehind chatWriteBehind;
 
-    @Transactional
+    // Last sequence handed out on this node
+    private final AtomicLong lastSeq = new AtomicLong();
+
+    /**
+     * Assign the message its id and sequence and queue it for the database.
+     * Returns as soon as it is queued, so it can be broadcast straight away.
+     * Throws {@link TooManyRequestException} when the queue is full.
+     */
     public ChatMessage persist(ChatMessage inbound) {
 
         LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Jakarta"));
 
+        inbound.setId(UUID.randomUUID());
+        inbound.setSeq(nextSeq());
+        if (inbound.getSentAt() == null) {
+            inbound.setSentAt(now);
+        }
+
         Chat entity = Chat.builder()
+                .id(inbound.getId())
                 .roomId(inbound.getRoomId())
                 .sender(inbound.getSender())
                 .senderRole(inbound.getSenderRole())
                 .content(inbound.getContent())
                 .type(inbound.getType())
-                .createdAt(inbound.getSentAt() != null ? inbound.getSentAt() : now)
+                .createdAt(inbound.getSentAt())
+                .seq(inbound.getSeq())
                 .build();
 
-        chatRepository.save(entity);
+        if (!chatWriteBehind.enqueue(entity)) {
+            log.warn("ChatWebSocketService: persist - Chat queue full, message of room {} refused", entity.getRoomId());
+            throw new TooManyRequestException("Chat is busy, please try again");
+        }
 
-        log.info("ChatWebSocketService: persist - Chat message saved: {}", entity);
+        log.info("ChatWebSocketService: persist - Chat message queued: {}", entity.getId());
 
-        if (inbound.getSentAt() == null) {
-            inbound.setSentAt(now);
-        }
         return inbound;
     }
+
+    // Microseconds of the clock, bumped past the last value when the clock stalls or steps back,
+    // so sequences grow on this node and interleave by time across nodes
+    long nextSeq() {
+        long clock = System.currentTimeMillis() * 1000;
+        return lastSeq.accumulateAndGet(clock, (last, now) -> Math.max(last + 1, now));
+    }
 }
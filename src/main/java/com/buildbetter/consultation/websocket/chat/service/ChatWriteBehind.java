@@ -0,0 +1,234 @@
+package com.buildbetter.consultation.websocket.chat.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.buildbetter.consultation.model.Chat;
+import com.buildbetter.consultation.repository.ChatBatchRepository;
+import com.buildbetter.consultation.websocket.chat.config.ChatWriteBehindProperties;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind persistence of chat messages. Senders hand their message to a
+ * bounded queue and broadcast right away; one flusher thread per node writes
+ * the queue out in multi-row batches, once {@code batchSize} messages are
+ * waiting or {@code flushIntervalMs} after the first of them arrived.
+ *
+ * A full queue blocks senders for up to {@code offerTimeoutMs}, which slows
+ * them down to what the database takes. A failed batch is retried with
+ * backoff, so an unreachable database ends up filling the queue rather than
+ * losing messages. Shutdown stops taking messages and drains the rest.
+ *
+ * Messages move from the queue into the batch under the batch's lock and
+ * stay there until written, so {@link #pending} never misses one between the
+ * two. The flusher waits for messages on a permit per queued message rather
+ * than by polling them off the queue.
+ */
+@Component
+@Slf4j
+public class ChatWriteBehind {
+
+    static final long MAX_RETRY_BACKOFF_MS = 5_000;
+
+    // Offered on shutdown to wake a flusher waiting on an empty queue, never written
+    private static final Chat WAKE_UP = new Chat();
+
+    private final ChatBatchRepository chatBatchRepository;
+    private final ChatWriteBehindProperties properties;
+    private final BlockingQueue<Chat> queue;
+    private final Thread flusher;
+
+    // One permit per queued message, released once it is in the queue
+    private final Semaphore available = new Semaphore(0);
+
+    // Batch being collected or written, still visible to history reads; guarded by itself
+    private final List<Chat> batch;
+
+    private volatile boolean accepting = true;
+
+    private volatile boolean running = true;
+
+    public ChatWriteBehind(ChatBatchRepository chatBatchRepository, ChatWriteBehindProperties properties) {
+        this.chatBatchRepository = chatBatchRepository;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.batch = new ArrayList<>(properties.getBatchSize());
+        this.flusher = Thread.ofPlatform().name("chat-write-behind").unstarted(this::run);
+    }
+
+    @PostConstruct
+    void start() {
+        flusher.start();
+    }
+
+    /**
+     * Queue {@code chat} for writing. Waits while the queue is full; returns
+     * false when it stayed full past the offer timeout or the node is shutting
+     * down, the message is then not stored.
+     */
+    public boolean enqueue(Chat chat) {
+        if (!accepting) {
+            return false;
+        }
+        try {
+            if (!queue.offer(chat, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+            available.release();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Messages of {@code roomId} accepted but possibly not in the database yet. */
+    public List<Chat> pending(UUID roomId) {
+        List<Chat> pending = new ArrayList<>();
+        // Only the flusher takes from the queue, and only under this lock
+        synchronized (batch) {
+            for (Chat chat : batch) {
+                if (roomId.equals(chat.getRoomId())) {
+                    pending.add(chat);
+                }
+            }
+            for (Chat chat : queue) {
+                if (roomId.equals(chat.getRoomId())) {
+                    pending.add(chat);
+                }
+            }
+        }
+        return pending;
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void drain() throws InterruptedException {
+        accepting = false;
+        running = false;
+        log.info("Chat Write Behind : drain - Writing {} queued message(s) before shutdown", queue.size());
+        // A full queue does not keep the flusher waiting, no need to wake it then
+        if (queue.offer(WAKE_UP)) {
+            available.release();
+        }
+
+        flusher.join(properties.getDrainTimeoutMs());
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+            flusher.join(MAX_RETRY_BACKOFF_MS);
+        }
+    }
+
+    private void run() {
+        try {
+            while (running || !queue.isEmpty()) {
+                if (fill()) {
+                    write(List.copyOf(batch));
+                }
+                synchronized (batch) {
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            log.error("Chat Write Behind : run - Interrupted, {} message(s) not stored",
+                    batch.size() + queue.size());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Collect up to batchSize messages, waiting at most flushIntervalMs after the first
+    private boolean fill() throws InterruptedException {
+        if (!running) {
+            synchronized (batch) {
+                queue.drainTo(batch, properties.getBatchSize());
+            }
+            return removeWakeUp();
+        }
+
+        if (!take(TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs()))) {
+            return false;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        while (batch.size() < properties.getBatchSize() && running) {
+            if (!take(deadline - System.nanoTime())) {
+                break;
+            }
+        }
+        return removeWakeUp();
+    }
+
+    // Wait up to timeoutNanos for a message, then move it and the others already queued into the batch
+    private boolean take(long timeoutNanos) throws InterruptedException {
+        if (!available.tryAcquire(Math.max(timeoutNanos, 0), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        // Only the flusher acquires, so these permits are there to take
+        int more = Math.min(available.availablePermits(), properties.getBatchSize() - batch.size() - 1);
+        available.acquire(more);
+        synchronized (batch) {
+            queue.drainTo(batch, more + 1);
+        }
+        return true;
+    }
+
+    private boolean removeWakeUp() {
+        synchronized (batch) {
+            batch.removeIf(chat -> chat == WAKE_UP);
+            return !batch.isEmpty();
+        }
+    }
+
+    private void write(List<Chat> batch) throws InterruptedException {
+        boolean oneByOne = false;
+        for (int attempt = 1;; attempt++) {
+            try {
+                if (oneByOne) {
+                    writeOneByOne(batch);
+                } else {
+                    chatBatchRepository.insertAll(batch);
+                }
+                log.info("Chat Write Behind : write - Stored {} message(s), {} queued", batch.size(),
+                        queue.size());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Retrying the batch would never pass, store the rest of it
+                log.warn("Chat Write Behind : write - Batch of {} rejected, storing one by one: {}",
+                        batch.size(), e.getMessage());
+                oneByOne = true;
+                attempt = 0;
+            } catch (RuntimeException e) {
+                long backoff = Math.min(properties.getFlushIntervalMs() << Math.min(attempt, 16),
+                        MAX_RETRY_BACKOFF_MS);
+                log.warn("Chat Write Behind : write - Attempt {} for {} message(s) failed, retry in {} ms: {}",
+                        attempt, batch.size(), backoff, e.getMessage());
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    private void writeOneByOne(List<Chat> batch) {
+        for (Chat chat : batch) {
+            try {
+                chatBatchRepository.insertAll(List.of(chat));
+            } catch (DataIntegrityViolationException e) {
+                log.error("Chat Write Behind : write - Dropping message {} of room {}: {}", chat.getId(),
+                        chat.getRoomId(), e.getMessage());
+            }
+        }
+    }
+}
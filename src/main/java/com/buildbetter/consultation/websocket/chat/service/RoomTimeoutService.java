@@ -1,164 +1,183 @@
-// src/main/java/com/buildbetter/consultation/websocket/chat/service/RoomTimeoutService.java
 package com.buildbetter.consultation.websocket.chat.service;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.Optional;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
 
-import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional; // Added for status update
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketSession;
 
 import com.buildbetter.consultation.constant.ConsultationStatus;
-import com.buildbetter.consultation.model.Consultation; // Added
 import com.buildbetter.consultation.model.Room;
-import com.buildbetter.consultation.repository.ConsultationRepository; // Added
+import com.buildbetter.consultation.repository.ConsultationRepository;
 import com.buildbetter.consultation.repository.RoomRepository;
+import com.buildbetter.consultation.websocket.session.OutboundSession;
+import com.buildbetter.shared.cluster.ClusterBus;
+import com.buildbetter.shared.util.HashedTimingWheel;
+import com.buildbetter.shared.util.LeaderLease;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Ends rooms when their end time is reached : the sessions of the room are
+ * closed on every node and the consultation it was booked for is ended.
+ *
+ * Deadlines live in a {@link HashedTimingWheel} advanced by one scheduled
+ * tick, not in a task per room. The rooms table is the source of truth: the
+ * node holding the lease loads every pending deadline up to
+ * {@link #HORIZON} ahead, on startup and again before the horizon runs out,
+ * so nothing is lost across restarts. Other nodes only keep the rooms their
+ * own participants joined.
+ *
+ * Expired rooms are claimed in batches of {@link #BATCH_SIZE} with one
+ * UPDATE, so each timeout fires exactly once whichever nodes hold it.
+ */
 @Slf4j
 @Service
-// Ensure RoomRepository and ConsultationRepository are included in
-// @RequiredArgsConstructor
-// or add them to the constructor manually.
 @RequiredArgsConstructor
 public class RoomTimeoutService {
 
-    private final TaskScheduler taskScheduler;
-    private final ChatSessionManager sessionManager;
-    private final RoomRepository roomRepository;
-    private final ConsultationRepository consultationRepository; // Added
-
-    private final ConcurrentHashMap<UUID, ScheduledFuture<?>> scheduledTasks = new ConcurrentHashMap<>();
-
-    public void scheduleRoomTimeout(UUID roomId) {
-        if (scheduledTasks.containsKey(roomId)) {
-            log.debug("Timeout already scheduled for room {}", roomId);
-            return;
-        }
+    static final String LEASE_NAME = "room-timeouts";
+    static final String CHANNEL = "room-timeouts";
+    static final int BATCH_SIZE = 500;
+    static final Duration HORIZON = Duration.ofMinutes(15);
 
-        try {
-            Room room = roomRepository.findById(roomId).orElse(null);
-            if (room == null) {
-                log.warn("Cannot schedule timeout - Room {} not found", roomId);
-                return;
-            }
+    // Reload while a third of the horizon is still ahead
+    private static final Duration RELOAD_BEFORE = Duration.ofMinutes(5);
+    private static final Duration LEASE_TTL = Duration.ofSeconds(30);
 
-            LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Jakarta"));
-            LocalDateTime endTime = room.getEndTime();
+    // One second ticks, 512 slots : later deadlines than one turn wait out the extra turns
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final int SLOTS = 512;
 
-            if (now.isAfter(endTime)) {
-                log.warn("Room {} has already expired (endTime: {}), processing timeout actions immediately.",
-                        roomId, endTime);
-                // Process immediately: disconnect users and update consultation
-                executeRoomTimeoutActions(roomId, room, "Session has already expired");
-                return;
-            }
+    // 4004: Custom for session timeout
+    private static final int CLOSE_CODE = 4004;
+    private static final ZoneId ZONE = ZoneId.of("Asia/Jakarta");
 
-            Duration delay = Duration.between(now, endTime);
-            
-            long delayMillis = delay.toMillis();
-
-            log.info("Scheduling timeout for room {} in {} ms (endTime: {})",
-                    roomId, delayMillis, endTime);
+    private final ChatSessionManager sessionManager;
+    private final RoomRepository roomRepository;
+    private final ConsultationRepository consultationRepository;
+    private final LeaderLease leaderLease;
+    private final ClusterBus clusterBus;
+    private final TransactionOperations transactionOperations;
 
-            ScheduledFuture<?> scheduledTask = taskScheduler.schedule(
-                    () -> executeRoomTimeout(roomId), // Lambda calls the existing method name
-                    java.time.Instant.now().plusMillis(delayMillis));
+    private final HashedTimingWheel<UUID> wheel = new HashedTimingWheel<>(TICK, SLOTS);
 
-            scheduledTasks.put(roomId, scheduledTask);
+    // Epoch millis the wheel holds every pending deadline up to, 0 while not leading
+    private volatile long loadedUntil;
 
-        } catch (Exception e) {
-            log.error("Error scheduling timeout for room {}: {}", roomId, e.getMessage(), e);
-        }
+    @PostConstruct
+    void subscribe() {
+        clusterBus.subscribe(CHANNEL, payload -> Arrays.stream(payload.split(","))
+                .map(UUID::fromString)
+                .forEach(roomId -> terminateRoomSessions(roomId, "Session expired")));
     }
 
     /**
-     * Main method called by the scheduler when a room's time is up.
+     * Put the current end time of {@code roomId} on this node's wheel,
+     * replacing the deadline it had there, which is stale once the room is
+     * reused for a new consultation.
      */
-    private void executeRoomTimeout(UUID roomId) {
+    public void scheduleRoomTimeout(UUID roomId) {
         Room room = roomRepository.findById(roomId).orElse(null);
         if (room == null) {
-            log.warn("Room {} not found at the time of scheduled timeout. Cannot process.", roomId);
-            scheduledTasks.remove(roomId); // Clean up the task
+            log.warn("Room Timeout Service : scheduleRoomTimeout - Room {} not found", roomId);
             return;
         }
-        // Call the consolidated action method
-        executeRoomTimeoutActions(roomId, room, "Session expired");
-    }
 
-    /**
-     * Consolidates actions to be taken when a room timeout occurs:
-     * 1. Terminate WebSocket sessions.
-     * 2. Update associated Consultation status.
-     * 3. Clean up scheduled task.
-     */
-    private void executeRoomTimeoutActions(UUID roomId, Room room, String closeReason) {
-        try {
-            log.info("Executing timeout actions for room {} (reason: {})", roomId, closeReason);
+        LocalDateTime endTime = room.getEndTime();
+        if (!LocalDateTime.now(ZONE).isBefore(endTime)) {
+            log.warn("Room Timeout Service : scheduleRoomTimeout - Room {} has already expired (endTime: {})",
+                    roomId, endTime);
+            // Timed out before, its late joiners are still turned away
+            if (!fire(List.of(roomId), "Session has already expired").contains(roomId)) {
+                terminateRoomSessions(roomId, "Session has already expired");
+            }
+            return;
+        }
 
-            // 1. Terminate all sessions in the room
-            terminateRoomSessions(roomId, closeReason);
+        log.info("Room Timeout Service : scheduleRoomTimeout - Room {} times out at {}", roomId, endTime);
+        wheel.schedule(roomId, epochMillis(endTime));
+    }
 
-            // 2. Update associated Consultation(s) status to "ENDED"
-            updateAssociatedConsultationsToEnd(room);
+    @Scheduled(fixedDelayString = "${consultation.room-timeout.tick-ms:1000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        if (leaderLease.tryAcquire(LEASE_NAME, LEASE_TTL)) {
+            if (now + RELOAD_BEFORE.toMillis() >= loadedUntil) {
+                load(now);
+            }
+        } else {
+            loadedUntil = 0;
+        }
 
-            // 3. Remove the scheduled task from our tracking map (if it was regularly
-            // scheduled)
-            // If called directly for an already expired room, it might not be in
-            // scheduledTasks.
-            scheduledTasks.remove(roomId);
+        List<UUID> expired = wheel.advance(now);
+        for (int from = 0; from < expired.size(); from += BATCH_SIZE) {
+            fire(expired.subList(from, Math.min(from + BATCH_SIZE, expired.size())), "Session expired");
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Error executing timeout actions for room {}: {}", roomId, e.getMessage(), e);
-            // Ensure task is removed even if there's an error in actions
-            scheduledTasks.remove(roomId);
+    // Put every pending deadline up to the horizon on the wheel, already passed ones included
+    private void load(long now) {
+        long until = now + HORIZON.toMillis();
+        List<Room> rooms = roomRepository.findPendingTimeouts(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(until), ZONE));
+        for (Room room : rooms) {
+            wheel.schedule(room.getId(), epochMillis(room.getEndTime()));
         }
+        loadedUntil = until;
+        log.info("Room Timeout Service : load - {} pending timeout(s) within {}, {} on the wheel",
+                rooms.size(), HORIZON, wheel.size());
     }
 
     /**
-     * Updates the status of Consultations associated with the given Room to
-     * "ENDED".
-     * This method should be called when the room's session time (room.endTime) is
-     * reached.
+     * Claim the timeouts of {@code roomIds} and end their consultations in one
+     * transaction, then close the sessions of the claimed rooms here and on
+     * the other nodes. Rooms claimed already, or reused since, are skipped.
      */
-    @Transactional // Make this operation transactional
-    protected void updateAssociatedConsultationsToEnd(Room room) {
-        UUID roomId = room.getId();
-        LocalDateTime roomEndTime = room.getEndTime(); // This is the definitive end time
-
-        // Find consultations that were using this room and scheduled to end at this
-        // time
-        Optional<Consultation> consultationsToEnd = consultationRepository.findByRoomIdAndEndDate(roomId, roomEndTime);
-
-        if (consultationsToEnd.isEmpty()) {
-            log.warn("No consultation found for room {} with end date {} to mark as {}.",
-                    roomId, roomEndTime, ConsultationStatus.ENDED.getStatus());
-            return;
-        } else if (!ConsultationStatus.ENDED.getStatus().equalsIgnoreCase(consultationsToEnd.get().getStatus())) {
-            consultationsToEnd.get().setStatus(ConsultationStatus.ENDED.getStatus());
-            // You could also set an actual end time if needed, e.g.,
-            // consultation.setActualEndTime(LocalDateTime.now());
-            consultationRepository.save(consultationsToEnd.get());
-            log.info("Consultation {} (scheduled end: {}) for room {} has been marked as {}.",
-                    consultationsToEnd.get().getId(), roomEndTime, roomId, ConsultationStatus.ENDED.getStatus());
-        } else {
-            log.info("Consultation {} (scheduled end: {}) for room {} was already {}.",
-                    consultationsToEnd.get().getId(), roomEndTime, roomId, ConsultationStatus.ENDED.getStatus());
+    private List<UUID> fire(List<UUID> roomIds, String reason) {
+        List<UUID> claimed;
+        try {
+            claimed = transactionOperations.execute(status -> {
+                List<UUID> ids = roomRepository.claimTimeouts(roomIds, LocalDateTime.now(ZONE));
+                if (!ids.isEmpty()) {
+                    int ended = consultationRepository.endByTimedOutRooms(ids, ConsultationStatus.ENDED.getStatus());
+                    log.info("Room Timeout Service : fire - {} room(s) timed out, {} consultation(s) marked {}",
+                            ids.size(), ended, ConsultationStatus.ENDED.getStatus());
+                }
+                return ids;
+            });
+        } catch (RuntimeException e) {
+            log.error("Room Timeout Service : fire - Could not time out {} room(s): {}",
+                    roomIds.size(), e.getMessage(), e);
+            // Still pending in the table, reloaded by the leader on its next tick
+            loadedUntil = 0;
+            return List.of();
+        }
+
+        if (claimed == null || claimed.isEmpty()) {
+            return List.of();
         }
+        for (UUID roomId : claimed) {
+            terminateRoomSessions(roomId, reason);
+        }
+        clusterBus.publish(CHANNEL, claimed.stream().map(UUID::toString).collect(Collectors.joining(",")));
+        return claimed;
     }
 
     private void terminateRoomSessions(UUID roomId, String reason) {
-        Set<WebSocketSession> sessions = sessionManager.getSessions(roomId);
+        Collection<OutboundSession> sessions = sessionManager.getSessions(roomId);
         if (sessions.isEmpty()) {
             log.debug("No sessions to terminate for room {}", roomId);
             return;
@@ -167,7 +186,7 @@ public class RoomTimeoutService {
         for (WebSocketSession session : sessions) {
             try {
                 if (session.isOpen()) {
-                    session.close(new CloseStatus(4004, reason)); // 4004: Custom for session timeout
+                    session.close(new CloseStatus(CLOSE_CODE, reason));
                     log.debug("Terminated WebSocket session {} for room {}", session.getId(), roomId);
                 }
             } catch (Exception e) {
@@ -177,29 +196,27 @@ public class RoomTimeoutService {
         }
     }
 
+    /**
+     * Cancel the pending timeout of {@code roomId} for its current end time,
+     * on every node : it is marked fired without closing anything. Rebooking
+     * the room schedules it again.
+     */
     public boolean cancelRoomTimeout(UUID roomId) {
-        ScheduledFuture<?> scheduledTask = scheduledTasks.remove(roomId);
-        if (scheduledTask != null && !scheduledTask.isDone()) {
-            boolean cancelled = scheduledTask.cancel(false); // false: don't interrupt if already running
-            log.info("Cancelled timeout for room {}: {}", roomId, cancelled);
-            return cancelled;
-        }
-        return false;
+        wheel.cancel(roomId);
+        boolean cancelled = roomRepository.cancelTimeout(roomId) > 0;
+        log.info("Cancelled timeout for room {}: {}", roomId, cancelled);
+        return cancelled;
     }
 
     public boolean hasScheduledTimeout(UUID roomId) {
-        ScheduledFuture<?> task = scheduledTasks.get(roomId);
-        return task != null && !task.isDone();
+        return wheel.contains(roomId);
     }
 
     public int getScheduledTimeoutCount() {
-        return (int) scheduledTasks.values().stream()
-                .filter(task -> !task.isDone())
-                .count();
+        return wheel.size();
     }
 
-    public void cleanupCompletedTasks() {
-        scheduledTasks.entrySet().removeIf(entry -> entry.getValue().isDone());
-        log.debug("Cleaned up completed timeout tasks");
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package com.buildbetter.consultation.websocket.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "consultation.websocket.outbound")
+public class OutboundProperties {
+    // Bytes of frames a client may have waiting before it is disconnected, text counted in UTF-8
+    private int bufferLimitBytes = 512 * 1024;
+    // How far behind a client may fall, oldest waiting frame or a send in progress
+    private long lagBudgetMs = 10_000;
+}
@@ -7,6 +7,7 @@ import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import com.buildbetter.consultation.websocket.confirmation.service.ConfirmationFanout;
 import com.buildbetter.consultation.websocket.confirmation.service.ConfirmationSessionManager;
 
 import lombok.RequiredArgsConstructor;
@@ -18,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 public class ConfirmationWebSocketHandler extends TextWebSocketHandler {
 
     private final ConfirmationSessionManager confirmationSessionManager;
+    private final ConfirmationFanout confirmationFanout;
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
@@ -26,7 +28,7 @@ public class ConfirmationWebSocketHandler extends TextWebSocketHandler {
                 session.getId());
 
         String consultationId = extractId(session);
-        confirmationSessionManager.addWaitingSession(consultationId, session);
+        confirmationFanout.join(consultationId, session);
 
         log.info("User connected to waiting WS for consultation {}", consultationId);
     }
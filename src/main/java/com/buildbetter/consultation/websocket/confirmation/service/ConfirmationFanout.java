@@ -0,0 +1,97 @@
+package com.buildbetter.consultation.websocket.confirmation.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.buildbetter.shared.cluster.ClusterBus;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers approve and reject decisions to the waiting sockets of a
+ * consultation on every node. Decisions are rare, so every node listens to
+ * one shared channel.
+ *
+ * The latest decision of a consultation is also kept in Redis for a short
+ * while and replayed to sockets that connect after it was made, so a client
+ * that reconnects at the wrong moment does not have to poll for it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConfirmationFanout {
+
+    static final String CHANNEL = "consultation-confirmations";
+
+    static final Duration DECISION_TTL = Duration.ofMinutes(2);
+
+    private static final String PREFIX_DECISION = "confirmation-decision:";
+
+    // Consultation ids are UUIDs, never containing it
+    private static final char SEPARATOR = '\n';
+
+    private final ClusterBus clusterBus;
+    private final StringRedisTemplate redisTemplate;
+    private final ConfirmationSessionManager confirmationSessionManager;
+
+    @PostConstruct
+    void subscribe() {
+        clusterBus.subscribe(CHANNEL, this::deliver);
+    }
+
+    /** Register a waiting socket, and replay the decision if it came just before. */
+    public void join(String consultationId, WebSocketSession session) {
+        // Registered first : a decision published from here on reaches the socket live
+        ConfirmationSessionManager.WaitingSession waiting = confirmationSessionManager
+                .addWaitingSession(consultationId, session);
+        latestDecision(consultationId).ifPresent(payload -> {
+            log.info("Confirmation Fanout : join - Replaying decision to late socket of consultation {}",
+                    consultationId);
+            waiting.send(payload);
+        });
+    }
+
+    /** Deliver {@code payload} to the consultation's waiting sockets on every node. */
+    public void publish(String consultationId, String payload) {
+        // Buffered before it is published, a socket misses neither
+        remember(consultationId, payload);
+        confirmationSessionManager.broadcastWaiting(consultationId, payload);
+        clusterBus.publish(CHANNEL, consultationId + SEPARATOR + payload);
+    }
+
+    private void deliver(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return;
+        }
+        String consultationId = message.substring(0, separator);
+        if (confirmationSessionManager.getConfirmationSessionCount(consultationId) > 0) {
+            confirmationSessionManager.broadcastWaiting(consultationId, message.substring(separator + 1));
+        }
+    }
+
+    private void remember(String consultationId, String payload) {
+        try {
+            redisTemplate.opsForValue().set(PREFIX_DECISION + consultationId, payload, DECISION_TTL);
+        } catch (RuntimeException e) {
+            log.warn("Confirmation Fanout : remember - Could not reach Redis for consultation {}: {}",
+                    consultationId, e.getMessage());
+        }
+    }
+
+    private Optional<String> latestDecision(String consultationId) {
+        try {
+            return Optional.ofNullable(redisTemplate.opsForValue().get(PREFIX_DECISION + consultationId));
+        } catch (RuntimeException e) {
+            log.warn("Confirmation Fanout : latestDecision - Could not reach Redis for consultation {}: {}",
+                    consultationId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
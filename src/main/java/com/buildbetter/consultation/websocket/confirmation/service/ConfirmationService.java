@@ -15,7 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class ConfirmationService {
-    private final ConfirmationSessionManager confirmationSessionManager;
+    private final ConfirmationFanout confirmationFanout;
     private final ObjectMapper objectMapper;
 
     public void notifyApproved(String consultationId) {
@@ -33,7 +33,7 @@ public class ConfirmationService {
                             .build());
 
             log.info("ConfirmationService (Websocket) : notifyApproved - Payload: {}", payload);
-            confirmationSessionManager.broadcastWaiting(consultationId, payload);
+            confirmationFanout.publish(consultationId, payload);
         } catch (Exception e) {
             log.error("Error broadcasting approval", e);
         }
@@ -52,7 +52,7 @@ public class ConfirmationService {
                             .build());
 
             log.info("ConfirmationService (Websocket) : notifyRejected - Payload: {}", payload);
-            confirmationSessionManager.broadcastWaiting(consultationId, payload);
+            confirmationFanout.publish(consultationId, payload);
         } catch (Exception e) {
             log.error("Error broadcasting approval", e);
         }
@@ -1,57 +1,57 @@
 package com.buildbetter.consultation.websocket.confirmation.service;
 
-import java.io.IOException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
+import com.buildbetter.consultation.websocket.config.OutboundProperties;
+import com.buildbetter.consultation.websocket.session.OutboundSession;
+
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class ConfirmationSessionManager {
-    private final ConcurrentHashMap<String, CopyOnWriteArraySet<WebSocketSession>> confirmationSessions = new ConcurrentHashMap<>();
+    private final OutboundProperties outboundProperties;
+
+    // consultationId → session id → session with its outbound queue
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, WaitingSession>> confirmationSessions = new ConcurrentHashMap<>();
 
-    public void addWaitingSession(String consultationId, WebSocketSession session) {
+    public WaitingSession addWaitingSession(String consultationId, WebSocketSession session) {
         log.info(
                 "ConfirmationSessionManager (Websocket) : addWaitingSession - Adding session for consultationId: {}",
                 consultationId);
 
+        WaitingSession waiting = new WaitingSession(new OutboundSession(session, outboundProperties));
         confirmationSessions
-                .computeIfAbsent(consultationId, id -> new CopyOnWriteArraySet<>())
-                .add(session);
+                .computeIfAbsent(consultationId, id -> new ConcurrentHashMap<>())
+                .put(session.getId(), waiting);
+        return waiting;
     }
 
     public void removeWaitingSession(String consultationId, WebSocketSession session) {
         log.info(
                 "ConfirmationSessionManager (Websocket) : removeWaitingSession - Removing session for consultationId: {}",
                 consultationId);
-        var set = confirmationSessions.get(consultationId);
-        if (set != null) {
-            set.remove(session);
-            if (set.isEmpty())
-                confirmationSessions.remove(consultationId);
-        }
+        confirmationSessions.computeIfPresent(consultationId, (id, sessions) -> {
+            sessions.remove(session.getId());
+            return sessions.isEmpty() ? null : sessions;
+        });
     }
 
     public void broadcastWaiting(String consultationId, String payload) {
         log.info(
                 "ConfirmationSessionManager (Websocket) : broadcastWaiting - Broadcasting waiting message for consultationId: {}",
                 consultationId);
-        var set = confirmationSessions.get(consultationId);
-        if (set != null) {
-            for (WebSocketSession ws : set) {
-                try {
-                    if (ws.isOpen()) {
-                        ws.sendMessage(new TextMessage(payload));
-                    }
-                } catch (IOException e) {
-                    log.error("Failed to send waiting message", e);
-                    set.remove(ws);
-                }
+        var sessions = confirmationSessions.get(consultationId);
+        if (sessions != null) {
+            for (WaitingSession ws : sessions.values()) {
+                ws.send(payload);
             }
         }
         log.info(
@@ -61,7 +61,27 @@ public class ConfirmationSessionManager {
 
     // Utility methods
     public int getConfirmationSessionCount(String consultationId) {
-        CopyOnWriteArraySet<WebSocketSession> sessions = confirmationSessions.get(consultationId);
+        var sessions = confirmationSessions.get(consultationId);
         return sessions != null ? sessions.size() : 0;
     }
+
+    /**
+     * A waiting socket, remembering what it was sent last: a decision replayed
+     * on connect and then received live from another node goes out once.
+     */
+    static final class WaitingSession {
+
+        private final OutboundSession session;
+        private final AtomicReference<String> lastPayload = new AtomicReference<>();
+
+        WaitingSession(OutboundSession session) {
+            this.session = session;
+        }
+
+        void send(String payload) {
+            if (!payload.equals(lastPayload.getAndSet(payload))) {
+                session.send(new TextMessage(payload));
+            }
+        }
+    }
 }
@@ -0,0 +1,209 @@
+package com.buildbetter.consultation.websocket.session;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import com.buildbetter.consultation.websocket.config.OutboundProperties;
+
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A WebSocket session whose frames all go through its own outbound queue.
+ * Sending only queues the frame, a virtual thread of the session writes it,
+ * so a client on a bad network holds up nobody but itself. That thread is the
+ * only writer : the container refuses a frame while another is being written.
+ *
+ * Frames queued while a write is in progress leave together in one batch,
+ * one flush instead of one per frame. A client that falls further behind
+ * than the lag budget, or lets more than the buffer limit pile up (text
+ * counted in UTF-8 bytes), is disconnected with 1011 and expected to reconnect and reload its history.
+ */
+@Slf4j
+public class OutboundSession extends WebSocketSessionDecorator {
+
+    // Tomcat user property bounding a blocking send, in milliseconds
+    static final String TOMCAT_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    static final CloseStatus TOO_SLOW = CloseStatus.SESSION_NOT_RELIABLE.withReason("Client too slow");
+
+    private final long bufferLimitBytes;
+    private final long lagBudgetNanos;
+    private final RemoteEndpoint.Basic remote;
+
+    private final Queue<Frame> frames = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedBytes = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean evicted = new AtomicBoolean();
+
+    // System.nanoTime() the write in progress started at, 0 when idle
+    private volatile long sendingSince;
+
+    public OutboundSession(WebSocketSession delegate, OutboundProperties properties) {
+        super(delegate);
+        this.bufferLimitBytes = properties.getBufferLimitBytes();
+        this.lagBudgetNanos = TimeUnit.MILLISECONDS.toNanos(properties.getLagBudgetMs());
+
+        Session nativeSession = WebSocketSessionDecorator.unwrap(delegate) instanceof NativeWebSocketSession n
+                ? n.getNativeSession(Session.class)
+                : null;
+        if (nativeSession != null) {
+            // A stuck write fails within the budget instead of holding the drain thread
+            nativeSession.getUserProperties().put(TOMCAT_SEND_TIMEOUT, properties.getLagBudgetMs());
+        }
+        this.remote = nativeSession != null ? nativeSession.getBasicRemote() : null;
+    }
+
+    /**
+     * Queue {@code message} and return. False when the session is closed, or
+     * was just disconnected for lagging behind.
+     */
+    public boolean send(WebSocketMessage<?> message) {
+        if (evicted.get() || !isOpen()) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        int bytes = sizeOf(message);
+        if (lagging(now, bytes)) {
+            evict();
+            return false;
+        }
+
+        frames.add(new Frame(message, bytes, now));
+        bufferedBytes.addAndGet(bytes);
+        if (draining.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("ws-outbound-" + getId()).start(this::drain);
+        }
+        return true;
+    }
+
+    /** Queued like {@link #send}, whatever the frame type. */
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        send(message);
+    }
+
+    int bufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    private boolean lagging(long now, int incomingBytes) {
+        if (bufferedBytes.get() + (long) incomingBytes > bufferLimitBytes) {
+            return true;
+        }
+        long since = sendingSince;
+        if (since != 0 && now - since > lagBudgetNanos) {
+            return true;
+        }
+        Frame oldest = frames.peek();
+        return oldest != null && now - oldest.queuedAt() > lagBudgetNanos;
+    }
+
+    private void drain() {
+        do {
+            try {
+                while (!frames.isEmpty() && !evicted.get()) {
+                    writeQueued();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Outbound Session : drain - Write to session {} failed: {}", getId(), e.getMessage());
+                evict();
+            }
+            draining.set(false);
+            // A frame queued after the last poll but before the flag dropped is ours to send
+        } while (!frames.isEmpty() && !evicted.get() && draining.compareAndSet(false, true));
+    }
+
+    private void writeQueued() throws IOException {
+        List<WebSocketMessage<?>> burst = new ArrayList<>();
+        for (Frame frame = frames.poll(); frame != null; frame = frames.poll()) {
+            burst.add(frame.message());
+            bufferedBytes.addAndGet(-frame.bytes());
+        }
+
+        sendingSince = System.nanoTime();
+        try {
+            if (remote == null || burst.size() == 1) {
+                for (WebSocketMessage<?> message : burst) {
+                    getDelegate().sendMessage(message);
+                }
+                return;
+            }
+
+            // Coalesce the burst into as few network writes as the container allows
+            remote.setBatchingAllowed(true);
+            try {
+                for (WebSocketMessage<?> message : burst) {
+                    getDelegate().sendMessage(message);
+                }
+            } finally {
+                remote.setBatchingAllowed(false);
+            }
+        } finally {
+            sendingSince = 0;
+        }
+    }
+
+    private void evict() {
+        if (!evicted.compareAndSet(false, true)) {
+            return;
+        }
+
+        log.warn("Outbound Session : evict - Session {} fell behind with {} bytes waiting, disconnecting", getId(),
+                bufferedBytes.get());
+        frames.clear();
+        bufferedBytes.set(0);
+
+        // Closing writes a frame too, keep it off the sender's thread
+        Thread.ofVirtual().name("ws-evict-" + getId()).start(() -> {
+            try {
+                getDelegate().close(TOO_SLOW);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Outbound Session : evict - Could not close session {}: {}", getId(), e.getMessage());
+            }
+        });
+    }
+
+    // Bytes on the wire : getPayloadLength() of a text frame counts chars, not bytes
+    static int sizeOf(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text)) {
+            return message.getPayloadLength();
+        }
+
+        String payload = text.getPayload();
+        int bytes = 0;
+        for (int i = 0; i < payload.length(); i++) {
+            char c = payload.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < payload.length()
+                    && Character.isLowSurrogate(payload.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private record Frame(WebSocketMessage<?> message, int bytes, long queuedAt) {
+    }
+}
@@ -1,5 +1,10 @@
 package com.buildbetter.plan.constant;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import com.fasterxml.jackson.annotation.JsonValue;
 
 import lombok.Getter;
@@ -47,6 +52,9 @@ public enum HouseMaterial {
     // ──────────── B A L O K – K O L O M ───────────────────
     BEAM_COLUMN_STRUCTURE("Balok-Kolom", "Struktur Balok-Kolom");
 
+    private static final Map<String, HouseMaterial> BY_SUB_CATEGORY = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(HouseMaterial::getSubCategory, Function.identity()));
+
     private final String category;
     private final String subCategory;
 
@@ -61,4 +69,9 @@ public enum HouseMaterial {
         return subCategory;
     }
 
+    /** Exact subCategory lookup, null when the material is outside the matrix. */
+    public static HouseMaterial fromSubCategory(String subCategory) {
+        return subCategory == null ? null : BY_SUB_CATEGORY.get(subCategory);
+    }
+
 }
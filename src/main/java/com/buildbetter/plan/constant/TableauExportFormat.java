@@ -0,0 +1,30 @@
+package com.buildbetter.plan.constant;
+
+import java.util.Arrays;
+
+import com.buildbetter.shared.exception.BadRequestException;
+
+import lombok.Getter;
+
+@Getter
+public enum TableauExportFormat {
+
+    CSV("csv", "text/csv"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String value;
+    private final String mediaType;
+
+    TableauExportFormat(String value, String mediaType) {
+        this.value = value;
+        this.mediaType = mediaType;
+    }
+
+    public static TableauExportFormat fromValueIgnoreCase(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException(
+                        "TableauExportFormat Enum : Invalid format value : " + value));
+    }
+}
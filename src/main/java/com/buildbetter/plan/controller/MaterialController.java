@@ -5,6 +5,7 @@ import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -14,16 +15,25 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.buildbetter.plan.dto.materials.AddMaterialRequest;
 import com.buildbetter.plan.dto.materials.MaterialResponse;
+import com.buildbetter.plan.dto.materials.MaterialUsageResponse;
 import com.buildbetter.plan.dto.materials.UpdateMaterialRequest;
 import com.buildbetter.plan.dto.materials.grouped_material.GroupedMaterialResponse;
 import com.buildbetter.plan.service.MaterialService;
+import com.buildbetter.shared.cache.ResponseCache;
+import com.buildbetter.shared.constant.CachedContent;
 import com.buildbetter.shared.dto.ApiResponseMessageAndData;
 import com.buildbetter.shared.dto.ApiResponseMessageOnly;
 import com.buildbetter.shared.dto.ApiResponseWithData;
+import com.buildbetter.shared.exception.BadRequestException;
+import com.buildbetter.shared.repository.KeysetPage;
 import com.buildbetter.shared.security.annotation.IsAdmin;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -35,6 +45,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MaterialController {
     private final MaterialService materialService;
+    private final ObjectMapper objectMapper;
+    private final ResponseCache responseCache;
 
     @PostMapping(path = "", consumes = { MediaType.MULTIPART_FORM_DATA_VALUE })
     @IsAdmin
@@ -53,16 +65,60 @@ public class MaterialController {
 
     @GetMapping("")
     @IsAdmin
-    public ApiResponseWithData<?> getAllMaterial(@RequestParam(defaultValue = "false") boolean grouped) {
+    public ResponseEntity<StreamingResponseBody> getAllMaterial(
+            @RequestParam(defaultValue = "false") boolean grouped,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest request) {
         log.info("Material Controller : getAllMaterial");
 
         if (grouped) {
-            List<GroupedMaterialResponse> groupedMaterials = materialService.getAllGroupedMaterials();
-            return new ApiResponseWithData<>(HttpStatus.OK.value(), HttpStatus.OK.name(), groupedMaterials);
-        } else {
-            List<MaterialResponse> materials = materialService.getAllMaterials();
-            return new ApiResponseWithData<>(HttpStatus.OK.value(), HttpStatus.OK.name(), materials);
+            if (cursor != null || limit != null) {
+                throw new BadRequestException("Fields 'cursor' and 'limit' do not apply to the grouped listing");
+            }
+
+            return responseCache.serve(request, "materials:grouped", List.of(CachedContent.MATERIALS),
+                    versions -> {
+                        // Rendered from this node's catalog, which must include every write counted
+                        if (versions != null) {
+                            materialService.catchUpCatalog(versions.of(CachedContent.MATERIALS));
+                        }
+
+                        // Prebuilt in the catalog snapshot, written as is
+                        List<GroupedMaterialResponse> groupedMaterials = materialService.getAllGroupedMaterials();
+                        return JsonEnvelopeWriter.response(objectMapper.writer(), null, writer -> {
+                            for (GroupedMaterialResponse groupedMaterial : groupedMaterials) {
+                                writer.write(groupedMaterial);
+                            }
+                        });
+                    });
         }
+
+        // A page when asked for one, the whole listing otherwise
+        if (cursor != null || limit != null) {
+            KeysetPage<MaterialResponse> page = materialService.getMaterialPage(cursor, limit);
+            return JsonEnvelopeWriter.response(objectMapper.writer(), null, page);
+        }
+
+        // Written row by row while the materials are read, kept rendered until a material changes
+        return responseCache.serve(request, "materials", List.of(CachedContent.MATERIALS),
+                versions -> JsonEnvelopeWriter.response(objectMapper.writer(), null,
+                        materialService::streamAllMaterials));
+    }
+
+    @GetMapping("/usage")
+    @IsAdmin
+    public ApiResponseWithData<List<MaterialUsageResponse>> getMaterialUsage() {
+        log.info("Material Controller : getMaterialUsage");
+
+        List<MaterialUsageResponse> usage = materialService.getMaterialUsage();
+
+        ApiResponseWithData<List<MaterialUsageResponse>> response = new ApiResponseWithData<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setStatus(HttpStatus.OK.name());
+        response.setData(usage);
+
+        return response;
     }
 
     @GetMapping("/{id}")
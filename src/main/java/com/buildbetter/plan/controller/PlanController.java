@@ -1,8 +1,11 @@
 package com.buildbetter.plan.controller;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,10 +13,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.buildbetter.plan.dto.plans.AddPlanRequest;
 import com.buildbetter.plan.dto.plans.GetPlansResponse;
+import com.buildbetter.plan.dto.suggestions.SuggestionFields;
 import com.buildbetter.plan.service.PlanService;
 import com.buildbetter.shared.dto.ApiResponseMessageAndData;
 import com.buildbetter.shared.dto.ApiResponseMessageOnly;
@@ -53,7 +58,12 @@ public class PlanController {
 
     @GetMapping("")
     @Authenticated
-    public ApiResponseMessageAndData<GetPlansResponse[]> getAllPlans(Authentication auth) {
+    public MappingJacksonValue getAllPlans(Authentication auth,
+            @RequestParam(value = "afterCreatedAt", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+            @RequestParam(value = "afterId", required = false) UUID afterId,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "card", defaultValue = "false") boolean card,
+            @RequestParam(value = "fields", required = false) String fields) {
         log.info("Plan Controller : getAllPlans");
 
         log.info("Plan Controller : getAllPlans - Parse JWT Authentication");
@@ -61,7 +71,9 @@ public class PlanController {
         UUID userId = UUID.fromString(jwt.claim("id"));
         String role = jwt.claim("role");
 
-        GetPlansResponse[] plansResponse = planService.getAllPlans(userId, role);
+        SuggestionFields selection = SuggestionFields.parse(fields);
+        GetPlansResponse[] plansResponse = planService.getAllPlans(userId, role, afterCreatedAt, afterId, limit,
+                card, selection);
 
         ApiResponseMessageAndData<GetPlansResponse[]> response = new ApiResponseMessageAndData<>();
         response.setCode(HttpStatus.OK.value());
@@ -69,7 +81,7 @@ public class PlanController {
         response.setMessage("Plans fetched successfully");
         response.setData(plansResponse);
 
-        return response;
+        return selection.apply(response);
     }
 
     @GetMapping("/{id}")
@@ -5,6 +5,8 @@ import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -13,21 +15,34 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.buildbetter.plan.dto.suggestions.AddSuggestionRequest;
 import com.buildbetter.plan.dto.suggestions.AddSuggestionUrlRequest;
+import com.buildbetter.plan.dto.suggestions.SuggestionFields;
 import com.buildbetter.plan.dto.suggestions.SuggestionResponse;
 import com.buildbetter.plan.dto.suggestions.UpdateSuggestionRequest;
 import com.buildbetter.plan.dto.suggestions.UploadFloorPlans;
 import com.buildbetter.plan.dto.suggestions.UploadHouseFileRequest;
 import com.buildbetter.plan.dto.suggestions.generate.GenerateSuggestionRequest;
 import com.buildbetter.plan.dto.suggestions.generate.GenerateSuggestionResponse;
+import com.buildbetter.plan.dto.suggestions.search.SuggestionSearchRequest;
+import com.buildbetter.plan.dto.suggestions.search.SuggestionSearchResponse;
+import com.buildbetter.plan.service.MaterialService;
 import com.buildbetter.plan.service.SuggestionService;
+import com.buildbetter.shared.cache.ResponseCache;
+import com.buildbetter.shared.constant.CachedContent;
 import com.buildbetter.shared.dto.ApiResponseMessageAndData;
 import com.buildbetter.shared.dto.ApiResponseMessageOnly;
 import com.buildbetter.shared.dto.ApiResponseWithData;
+import com.buildbetter.shared.repository.KeysetPage;
 import com.buildbetter.shared.security.annotation.IsAdmin;
+import com.buildbetter.shared.security.annotation.IsAdminOrUser;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -39,6 +54,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SuggestionController {
     private final SuggestionService suggestionService;
+    private final MaterialService materialService;
+    private final ObjectMapper objectMapper;
+    private final ResponseCache responseCache;
 
     @PostMapping(path = "")
     @IsAdmin
@@ -103,32 +121,66 @@ public class SuggestionController {
 
     @GetMapping("")
     @IsAdmin
-    public ApiResponseWithData<List<SuggestionResponse>> getAllSuggestions() {
+    public ResponseEntity<StreamingResponseBody> getAllSuggestions(
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest request) {
         log.info("Suggestion Controller : getAllSuggestions");
 
-        List<SuggestionResponse> suggestions = suggestionService.getAllSuggestions();
+        SuggestionFields selection = SuggestionFields.parse(fields);
+
+        // A page when asked for one, the whole listing otherwise
+        if (cursor != null || limit != null) {
+            KeysetPage<SuggestionResponse> page = suggestionService.getSuggestionPage(selection, cursor, limit);
+            return JsonEnvelopeWriter.response(objectMapper.writer(selection.filters()), null, page);
+        }
+
+        // Written row by row while the suggestions are read, kept rendered per field selection
+        // until a suggestion or a material they show changes
+        return responseCache.serve(request, "suggestions:" + selection,
+                List.of(CachedContent.SUGGESTIONS, CachedContent.MATERIALS), versions -> {
+                    // Materials come from this node's catalog, which must include every write counted
+                    if (versions != null && selection.includesMaterials()) {
+                        materialService.catchUpCatalog(versions.of(CachedContent.MATERIALS));
+                    }
+
+                    return JsonEnvelopeWriter.response(objectMapper.writer(selection.filters()), null,
+                            writer -> suggestionService.streamAllSuggestions(selection, writer));
+                });
+    }
+
+    @GetMapping("/search")
+    @IsAdminOrUser
+    public ApiResponseWithData<SuggestionSearchResponse> searchSuggestions(
+            @ModelAttribute SuggestionSearchRequest request) {
+        log.info("Suggestion Controller : searchSuggestions");
+
+        SuggestionSearchResponse result = suggestionService.searchSuggestions(request);
 
-        ApiResponseWithData<List<SuggestionResponse>> response = new ApiResponseWithData<>();
+        ApiResponseWithData<SuggestionSearchResponse> response = new ApiResponseWithData<>();
         response.setCode(HttpStatus.OK.value());
         response.setStatus(HttpStatus.OK.name());
-        response.setData(suggestions);
+        response.setData(result);
 
         return response;
     }
 
     @GetMapping("/{id}")
     @IsAdmin
-    public ApiResponseWithData<SuggestionResponse> getSuggestionById(@PathVariable UUID id) {
+    public MappingJacksonValue getSuggestionById(@PathVariable UUID id,
+            @RequestParam(value = "fields", required = false) String fields) {
         log.info("Suggestion Controller : getSuggestionById");
 
-        SuggestionResponse suggestion = suggestionService.getSuggestionById(id);
+        SuggestionFields selection = SuggestionFields.parse(fields);
+        SuggestionResponse suggestion = suggestionService.getSuggestionById(id, selection);
 
         ApiResponseWithData<SuggestionResponse> response = new ApiResponseWithData<>();
         response.setCode(HttpStatus.OK.value());
         response.setStatus(HttpStatus.OK.name());
         response.setData(suggestion);
 
-        return response;
+        return selection.apply(response);
     }
 
     @PatchMapping("/{id}")
@@ -163,14 +215,15 @@ public class SuggestionController {
     }
 
     @PostMapping(path = "/generate")
-    public ApiResponseMessageAndData<GenerateSuggestionResponse> generateSuggestions(
-            @Valid @RequestBody GenerateSuggestionRequest request) {
-        GenerateSuggestionResponse result = suggestionService.generateSuggestion(request);
+    public MappingJacksonValue generateSuggestions(@Valid @RequestBody GenerateSuggestionRequest request,
+            @RequestParam(value = "fields", required = false) String fields) {
+        SuggestionFields selection = SuggestionFields.parse(fields);
+        GenerateSuggestionResponse result = suggestionService.generateSuggestion(request, selection);
         ApiResponseMessageAndData<GenerateSuggestionResponse> response = new ApiResponseMessageAndData<>();
         response.setCode(HttpStatus.OK.value());
         response.setStatus(HttpStatus.OK.name());
         response.setMessage("Suggestions generated successfully");
         response.setData(result);
-        return response;
+        return selection.apply(response);
     }
 }
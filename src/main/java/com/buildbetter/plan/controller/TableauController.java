@@ -1,9 +1,15 @@
 package com.buildbetter.plan.controller;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.buildbetter.plan.constant.TableauExportFormat;
 import com.buildbetter.plan.dto.tableau.TableauResponse;
 import com.buildbetter.plan.service.TableauService;
 
@@ -24,4 +30,19 @@ public class TableauController {
         TableauResponse[] tableauResponse = tableauService.getTableauData();
         return tableauResponse;
     }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTableauData(
+            @RequestParam(defaultValue = "csv") String format) {
+        log.info("Tableau Controller : exportTableauData");
+
+        TableauExportFormat exportFormat = TableauExportFormat.fromValueIgnoreCase(format);
+        StreamingResponseBody body = out -> tableauService.exportTableauData(exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tableau." + exportFormat.getValue() + "\"")
+                .body(body);
+    }
 }
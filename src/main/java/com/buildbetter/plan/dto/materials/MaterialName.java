@@ -0,0 +1,7 @@
+package com.buildbetter.plan.dto.materials;
+
+import java.util.UUID;
+
+/** Just enough of a material to label it in exports. */
+public record MaterialName(UUID id, String subCategory, String name) {
+}
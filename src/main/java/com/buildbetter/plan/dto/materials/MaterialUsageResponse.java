@@ -0,0 +1,27 @@
+package com.buildbetter.plan.dto.materials;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How many suggestions use a material : {@code suggestions} in any tier,
+ * {@code materials0/1/2} per tier, as in the suggestion fields.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MaterialUsageResponse {
+    private UUID id;
+    private String name;
+    private String category;
+    private String subCategory;
+    private long suggestions;
+    private long materials0;
+    private long materials1;
+    private long materials2;
+}
@@ -1,5 +1,6 @@
 package com.buildbetter.plan.dto.plans;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import com.buildbetter.plan.dto.suggestions.SuggestionResponse;
@@ -16,6 +17,7 @@ import lombok.NoArgsConstructor;
 @Builder
 public class GetPlansResponse {
     UUID id;
+    LocalDateTime createdAt;
     GenerateSuggestionRequest userInput;
     SuggestionResponse suggestions;
 }
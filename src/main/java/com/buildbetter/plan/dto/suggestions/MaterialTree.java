@@ -0,0 +1,225 @@
+package com.buildbetter.plan.dto.suggestions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.buildbetter.plan.constant.HouseMaterial;
+import com.buildbetter.plan.model.Material;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Materials of one budget tier grouped by category → subCategory, written as
+ * the same JSON object the nested {@code Map<String, Map<String, List<Material>>>}
+ * produced :
+ *
+ * { "Atap": { "Atap": [ … ], "Plafon": [ … ] }, "Lantai": { "Pelapis": [ … ] } }
+ *
+ * Categories and sub-categories keep the order in which they first appear in
+ * the id list. Instead of two levels of maps the materials are kept in one
+ * array already in that order, with a group key per material : the
+ * {@link HouseMaterial} ordinal for the known pairs, a per-tree key for
+ * anything outside the matrix.
+ */
+@JsonSerialize(using = MaterialTree.Serializer.class)
+public final class MaterialTree {
+
+    public static final MaterialTree EMPTY = new MaterialTree(new Material[0], new int[0], new int[0]);
+
+    private static final HouseMaterial[] HOUSE_MATERIALS = HouseMaterial.values();
+
+    // Category of the matrix → its key, the ordinal of its first HouseMaterial
+    private static final Map<String, Integer> CATEGORY_KEY_BY_NAME = categoryKeys();
+
+    // Materials in output order, with the keys of their category and pair
+    private final Material[] materials;
+    private final int[] categoryKeys;
+    private final int[] pairKeys;
+
+    private MaterialTree(Material[] materials, int[] categoryKeys, int[] pairKeys) {
+        this.materials = materials;
+        this.categoryKeys = categoryKeys;
+        this.pairKeys = pairKeys;
+    }
+
+    /** Group the materials of {@code ids}, unknown ids are skipped. */
+    public static MaterialTree of(List<UUID> ids, Map<UUID, Material> materialById) {
+        if (ids == null || ids.isEmpty()) {
+            return EMPTY;
+        }
+
+        int size = 0;
+        Material[] found = new Material[ids.size()];
+        for (UUID id : ids) {
+            Material material = materialById.get(id);
+            if (material != null) {
+                found[size++] = material;
+            }
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        // Keys : HouseMaterial ordinals first, then one per unknown category / pair
+        int known = HOUSE_MATERIALS.length;
+        int[] categoryKey = new int[size];
+        int[] pairKey = new int[size];
+        int unknownCategories = 0;
+        int unknownPairs = 0;
+        for (int i = 0; i < size; i++) {
+            Material m = found[i];
+            categoryKey[i] = CATEGORY_KEY_BY_NAME.getOrDefault(m.getCategory(), -1);
+            HouseMaterial houseMaterial = HouseMaterial.fromSubCategory(m.getSubCategory());
+            pairKey[i] = houseMaterial != null && houseMaterial.getCategory().equals(m.getCategory())
+                    ? houseMaterial.ordinal()
+                    : -1;
+
+            // Outside the matrix : reuse the key of an earlier equal category / pair
+            for (int j = 0; j < i && (categoryKey[i] < 0 || pairKey[i] < 0); j++) {
+                if (!m.getCategory().equals(found[j].getCategory())) {
+                    continue;
+                }
+                categoryKey[i] = categoryKey[j];
+                if (pairKey[i] < 0 && pairKey[j] >= known && m.getSubCategory().equals(found[j].getSubCategory())) {
+                    pairKey[i] = pairKey[j];
+                }
+            }
+            if (categoryKey[i] < 0) {
+                categoryKey[i] = known + unknownCategories++;
+            }
+            if (pairKey[i] < 0) {
+                pairKey[i] = known + unknownPairs++;
+            }
+        }
+
+        // Rank of every key = index of its first appearance
+        int[] categoryRank = new int[known + unknownCategories];
+        int[] pairRank = new int[known + unknownPairs];
+        for (int i = size - 1; i >= 0; i--) {
+            categoryRank[categoryKey[i]] = i;
+            pairRank[pairKey[i]] = i;
+        }
+
+        // Stable insertion sort on (first category appearance, first pair appearance)
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            int j = i - 1;
+            while (j >= 0 && (categoryRank[categoryKey[order[j]]] > categoryRank[categoryKey[i]]
+                    || (categoryRank[categoryKey[order[j]]] == categoryRank[categoryKey[i]]
+                            && pairRank[pairKey[order[j]]] > pairRank[pairKey[i]]))) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = i;
+        }
+
+        Material[] materials = new Material[size];
+        int[] categoryKeys = new int[size];
+        int[] pairKeys = new int[size];
+        for (int i = 0; i < size; i++) {
+            materials[i] = found[order[i]];
+            categoryKeys[i] = categoryKey[order[i]];
+            pairKeys[i] = pairKey[order[i]];
+        }
+        return new MaterialTree(materials, categoryKeys, pairKeys);
+    }
+
+    public boolean isEmpty() {
+        return materials.length == 0;
+    }
+
+    /** Materials of one category / subCategory, empty when there are none. */
+    public List<Material> get(String category, String subCategory) {
+        List<Material> matches = new ArrayList<>();
+        for (Material m : materials) {
+            if (m.getCategory().equals(category) && m.getSubCategory().equals(subCategory)) {
+                matches.add(m);
+            }
+        }
+        return matches;
+    }
+
+    /** The same tree as nested maps, in output order. */
+    public Map<String, Map<String, List<Material>>> toMap() {
+        if (isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Map<String, List<Material>>> tree = new LinkedHashMap<>();
+        for (Material m : materials) {
+            tree.computeIfAbsent(m.getCategory(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(m.getSubCategory(), k -> new ArrayList<>())
+                    .add(m);
+        }
+        return tree;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MaterialTree other && Arrays.equals(materials, other.materials);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(materials);
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    private static Map<String, Integer> categoryKeys() {
+        Map<String, Integer> keys = new HashMap<>();
+        for (HouseMaterial houseMaterial : HOUSE_MATERIALS) {
+            keys.putIfAbsent(houseMaterial.getCategory(), houseMaterial.ordinal());
+        }
+        return Map.copyOf(keys);
+    }
+
+    /** Writes the groups straight from the arrays, no intermediate maps. */
+    public static final class Serializer extends JsonSerializer<MaterialTree> {
+
+        @Override
+        public void serialize(MaterialTree tree, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            Material[] materials = tree.materials;
+            JsonSerializer<Object> materialSerializer = materials.length == 0 ? null
+                    : provider.findValueSerializer(Material.class);
+
+            gen.writeStartObject();
+            int i = 0;
+            while (i < materials.length) {
+                int category = tree.categoryKeys[i];
+                gen.writeFieldName(materials[i].getCategory());
+                gen.writeStartObject();
+                while (i < materials.length && tree.categoryKeys[i] == category) {
+                    int pair = tree.pairKeys[i];
+                    gen.writeFieldName(materials[i].getSubCategory());
+                    gen.writeStartArray();
+                    while (i < materials.length && tree.pairKeys[i] == pair) {
+                        materialSerializer.serialize(materials[i], gen, provider);
+                        i++;
+                    }
+                    gen.writeEndArray();
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, MaterialTree tree) {
+            return tree == null;
+        }
+    }
+}
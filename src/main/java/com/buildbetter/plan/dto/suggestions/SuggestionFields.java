@@ -0,0 +1,114 @@
+package com.buildbetter.plan.dto.suggestions;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StringUtils;
+
+import com.buildbetter.shared.exception.BadRequestException;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * Fields of {@link SuggestionResponse} a client asked for with
+ * {@code ?fields=houseNumber,houseImageFront,...}. The id is always included.
+ *
+ * The selection drives both the mapping, so material trees that were not
+ * asked for are never built, and the serialization, through the
+ * {@link #FILTER} Jackson filter.
+ */
+public final class SuggestionFields {
+
+    public static final String FILTER = "suggestionFields";
+
+    private static final Set<String> MATERIALS = Set.of("materials0", "materials1", "materials2");
+
+    private static final Set<String> KNOWN = Arrays.stream(SuggestionResponse.class.getDeclaredFields())
+            .filter(f -> !Modifier.isStatic(f.getModifiers()))
+            .map(Field::getName)
+            .collect(LinkedHashSet::new, Set::add, Set::addAll);
+
+    /** Every field, what the endpoints return without {@code fields=}. */
+    public static final SuggestionFields ALL = new SuggestionFields(KNOWN);
+
+    /** Every field but the material trees, for list views. */
+    public static final SuggestionFields CARD = ALL.withoutMaterials();
+
+    private final Set<String> names;
+
+    private SuggestionFields(Set<String> names) {
+        this.names = Set.copyOf(names);
+    }
+
+    /** Parse a comma separated list, null or blank is {@link #ALL}. */
+    public static SuggestionFields parse(String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return ALL;
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!KNOWN.contains(name)) {
+                throw new BadRequestException("Unknown field '" + name + "' in 'fields'");
+            }
+            names.add(name);
+        }
+        return new SuggestionFields(names);
+    }
+
+    public boolean includes(String field) {
+        return names.contains(field);
+    }
+
+    /** Whether any material tree is selected, i.e. materials must be resolved. */
+    public boolean includesMaterials() {
+        return names.stream().anyMatch(MATERIALS::contains);
+    }
+
+    public SuggestionFields withoutMaterials() {
+        Set<String> remaining = new LinkedHashSet<>(names);
+        remaining.removeAll(MATERIALS);
+        return new SuggestionFields(remaining);
+    }
+
+    /** Jackson filters writing only the selected fields of every SuggestionResponse. */
+    public FilterProvider filters() {
+        return new SimpleFilterProvider().addFilter(FILTER, names.containsAll(KNOWN)
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(names));
+    }
+
+    /** Wrap a response body so it is serialized with {@link #filters()}. */
+    public MappingJacksonValue apply(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(filters());
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SuggestionFields other && names.equals(other.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return names.hashCode();
+    }
+
+    // Sorted, the same on every node whatever the set iteration order
+    @Override
+    public String toString() {
+        return String.join(",", new TreeSet<>(names));
+    }
+}
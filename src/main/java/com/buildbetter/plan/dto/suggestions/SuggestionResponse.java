@@ -1,10 +1,10 @@
 package com.buildbetter.plan.dto.suggestions;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
-import com.buildbetter.plan.model.Material;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,6 +15,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(SuggestionFields.FILTER)
 public class SuggestionResponse {
 
     private UUID id;
@@ -46,7 +47,11 @@ public class SuggestionResponse {
     private String pdf;
 
     // ── material IDs ─────────────────────────────────────────
-    Map<String, Map<String, List<Material>>> materials0;
-    Map<String, Map<String, List<Material>>> materials1;
-    Map<String, Map<String, List<Material>>> materials2;
+    // null (and left out) when not selected, see SuggestionFields
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    MaterialTree materials0;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    MaterialTree materials1;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    MaterialTree materials2;
 }
@@ -0,0 +1,34 @@
+package com.buildbetter.plan.dto.suggestions.search;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters of the suggestion search, all optional. A facet given several
+ * values matches any of them; ranges are inclusive. The budget range applies
+ * to the starting budget, the lowest {@code budgetMin} of the tiers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionSearchRequest {
+
+    /* ──────────── facets ──────────── */
+    private List<String> style;
+    private List<Integer> floor;
+    private List<Integer> rooms;
+    private List<String> windDirection;
+
+    /* ──────────── ranges ──────────── */
+    private Integer landAreaMin;
+    private Integer landAreaMax;
+    private Integer budgetMin;
+    private Integer budgetMax;
+
+    /* ──────────── page ──────────── */
+    private Integer offset;
+    private Integer limit;
+}
@@ -0,0 +1,26 @@
+package com.buildbetter.plan.dto.suggestions.search;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of matching suggestion ids, newest first, and per facet the
+ * number of results each value would give.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionSearchResponse {
+    private List<UUID> ids;
+    private int total;
+    private int offset;
+    private int limit;
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -2,18 +2,33 @@ package com.buildbetter.plan.repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.buildbetter.plan.model.Material;
+import com.buildbetter.shared.repository.Keyset;
+import com.buildbetter.shared.repository.KeysetRepository;
+import com.buildbetter.shared.repository.StreamedQuery;
 
 @Repository
-public interface MaterialRepository extends JpaRepository<Material, UUID> {
+public interface MaterialRepository extends JpaRepository<Material, UUID>, KeysetRepository<Material> {
+
+    // Listing order : by name, backed by idx_materials_name
+    Keyset<Material, String> KEYSET = Keyset.of("name", Sort.Direction.ASC, Material::getName,
+            Function.identity(), Material::getId);
 
     List<Material> findByCategory(String category);
 
     List<Material> findBySubCategory(String subCategory);
 
     List<Material> findByCategoryAndSubCategory(String category, String subCategory);
-}
\ No newline at end of file
+
+    @StreamedQuery
+    @Query("SELECT m FROM Material m")
+    Stream<Material> streamAll();
+}
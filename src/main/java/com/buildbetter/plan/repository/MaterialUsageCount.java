@@ -0,0 +1,20 @@
+package com.buildbetter.plan.repository;
+
+import java.util.UUID;
+
+/**
+ * Row of {@link SuggestionRepository#countUsagePerMaterial()} : number of
+ * suggestions using a material, overall and per material tier.
+ */
+public interface MaterialUsageCount {
+
+    UUID getMaterialId();
+
+    long getSuggestions();
+
+    long getMaterials0();
+
+    long getMaterials1();
+
+    long getMaterials2();
+}
@@ -4,7 +4,10 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -12,12 +15,19 @@ import com.buildbetter.plan.model.Plan;
 import com.buildbetter.plan.model.Suggestion;
 
 @Repository
-public interface PlanRepository extends JpaRepository<Plan, UUID> {
-
-        List<Plan> findAllByOrderByCreatedAtDesc();
-
-        /** All plans owned by a single user (ordered newest-first). */
-        List<Plan> findByUserIdOrderByCreatedAtDesc(UUID userId);
+public interface PlanRepository extends JpaRepository<Plan, UUID>, JpaSpecificationExecutor<Plan> {
+
+        // Newest-first keyset order of the plan listing, backed by the
+        // (…, created_at, id) indexes
+        Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+        // Filtered listing in keyset order, limit == null returns every match
+        default List<Plan> findListing(Specification<Plan> spec, Integer limit) {
+                if (limit == null) {
+                        return findAll(spec, KEYSET_SORT);
+                }
+                return findBy(spec, q -> q.sortBy(KEYSET_SORT).limit(limit).all());
+        }
 
         /** All plans in a given city / province. */
         List<Plan> findByProvinceAndCity(String province, String city);
@@ -0,0 +1,50 @@
+package com.buildbetter.plan.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.buildbetter.plan.model.Plan;
+
+/**
+ * Building blocks for the plan listing. A {@code null} argument means "no
+ * filter" and yields a {@code null} specification, which Spring Data ignores.
+ */
+public final class PlanSpecifications {
+
+    private PlanSpecifications() {
+    }
+
+    public static Specification<Plan> userIdEquals(UUID userId) {
+        if (userId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    /**
+     * Keyset predicate on (created_at, id) : only rows strictly after the given
+     * cursor in the newest-first {@link PlanRepository#KEYSET_SORT} order.
+     */
+    public static Specification<Plan> before(LocalDateTime createdAt, UUID id) {
+        if (createdAt == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(
+                        cb.equal(root.get("createdAt"), createdAt),
+                        cb.lessThan(root.<UUID>get("id"), id)));
+    }
+
+    /** Fetch the suggestion together with the plan instead of one select per row. */
+    public static Specification<Plan> fetchSuggestion() {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                root.fetch("suggestion");
+            }
+            return null;
+        };
+    }
+}
@@ -1,7 +1,9 @@
 package com.buildbetter.plan.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -9,16 +11,26 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.buildbetter.plan.model.Suggestion;
+import com.buildbetter.shared.repository.Keyset;
+import com.buildbetter.shared.repository.KeysetRepository;
+import com.buildbetter.shared.repository.StreamedQuery;
 
 @Repository
-public interface SuggestionRepository extends JpaRepository<Suggestion, UUID> {
+public interface SuggestionRepository extends JpaRepository<Suggestion, UUID>, KeysetRepository<Suggestion> {
+
+        // Listing order : newest first like findAllSortedByCreatedAt, backed by
+        // idx_suggestions_created
+        Keyset<Suggestion, LocalDateTime> KEYSET = Keyset.newestFirst(Suggestion::getCreatedAt,
+                        Suggestion::getId);
 
         /*
          * ────────────────────────────────────────────────────────────────
          * NOTE:
          * All queries are native because JPQL/HQL does not support the
-         * `ANY(array_column)` syntax.
+         * Postgres array operators.
          * Column names use snake_case to match the table definition.
+         * Material and floorplan lookups use containment (`@>`) so they
+         * can use the GIN indexes of V001.009; `= ANY(array)` can not.
          * ───────────────────────────────────────────────────────────────
          */
 
@@ -27,37 +39,62 @@ public interface SuggestionRepository extends JpaRepository<Suggestion, UUID> {
                         "WHERE :budgetValue = ANY(s.budget_min)", nativeQuery = true)
         List<Suggestion> findByBudgetMinContains(@Param("budgetValue") Integer budgetValue);
 
-        /* material_0 uuid[] ──────────────────────────────────────────── */
+        /* materials_0 uuid[] ─────────────────────────────────────────── */
         @Query(value = "SELECT * FROM suggestions s " +
-                        "WHERE :materialId = ANY(s.material_0)", nativeQuery = true)
+                        "WHERE s.materials_0 @> ARRAY[CAST(:materialId AS uuid)]", nativeQuery = true)
         List<Suggestion> findByMaterial0Contains(@Param("materialId") UUID materialId);
 
-        /* material_1 uuid[] ──────────────────────────────────────────── */
+        /* materials_1 uuid[] ─────────────────────────────────────────── */
         @Query(value = "SELECT * FROM suggestions s " +
-                        "WHERE :materialId = ANY(s.material_1)", nativeQuery = true)
+                        "WHERE s.materials_1 @> ARRAY[CAST(:materialId AS uuid)]", nativeQuery = true)
         List<Suggestion> findByMaterial1Contains(@Param("materialId") UUID materialId);
 
-        /* material_2 uuid[] ──────────────────────────────────────────── */
+        /* materials_2 uuid[] ─────────────────────────────────────────── */
         @Query(value = "SELECT * FROM suggestions s " +
-                        "WHERE :materialId = ANY(s.material_2)", nativeQuery = true)
+                        "WHERE s.materials_2 @> ARRAY[CAST(:materialId AS uuid)]", nativeQuery = true)
         List<Suggestion> findByMaterial2Contains(@Param("materialId") UUID materialId);
 
-        /* any of the three material arrays ───────────────────────────── */
+        /* any of the three material arrays, one bitmap scan per index ── */
         @Query(value = "SELECT * FROM suggestions s " +
-                        "WHERE :materialId = ANY(s.material_0) " +
-                        "   OR :materialId = ANY(s.material_1) " +
-                        "   OR :materialId = ANY(s.material_2)", nativeQuery = true)
+                        "WHERE s.materials_0 @> ARRAY[CAST(:materialId AS uuid)] " +
+                        "   OR s.materials_1 @> ARRAY[CAST(:materialId AS uuid)] " +
+                        "   OR s.materials_2 @> ARRAY[CAST(:materialId AS uuid)]", nativeQuery = true)
         List<Suggestion> findByMaterialIdInAnyArray(@Param("materialId") UUID materialId);
 
         /* floorplans text[] ──────────────────────────────────────────── */
         @Query(value = "SELECT * FROM suggestions s " +
-                        "WHERE :floorplan = ANY(s.floorplans)", nativeQuery = true)
+                        "WHERE s.floorplans @> ARRAY[CAST(:floorplan AS text)]", nativeQuery = true)
         List<Suggestion> findByFloorplanContains(@Param("floorplan") String floorplan);
 
+        /*
+         * Per material id : how many suggestions use it in any tier, and in
+         * each tier. One pass over the table, a material listed twice in the
+         * same suggestion counts once. Only ids that are used are returned.
+         */
+        @Query(value = "SELECT u.material_id AS materialId, " +
+                        "       COUNT(DISTINCT u.suggestion_id) AS suggestions, " +
+                        "       COUNT(DISTINCT u.suggestion_id) FILTER (WHERE u.tier = 0) AS materials0, " +
+                        "       COUNT(DISTINCT u.suggestion_id) FILTER (WHERE u.tier = 1) AS materials1, " +
+                        "       COUNT(DISTINCT u.suggestion_id) FILTER (WHERE u.tier = 2) AS materials2 " +
+                        "FROM suggestions s " +
+                        "CROSS JOIN LATERAL ( " +
+                        "       SELECT s.id AS suggestion_id, 0 AS tier, m AS material_id FROM unnest(s.materials_0) m " +
+                        "       UNION ALL " +
+                        "       SELECT s.id, 1, m FROM unnest(s.materials_1) m " +
+                        "       UNION ALL " +
+                        "       SELECT s.id, 2, m FROM unnest(s.materials_2) m) u " +
+                        "GROUP BY u.material_id", nativeQuery = true)
+        List<MaterialUsageCount> countUsagePerMaterial();
+
         List<Suggestion> findByStyleIgnoreCase(String style);
 
         @Query(value = "SELECT * FROM suggestions s " +
                         "ORDER BY s.created_at DESC", nativeQuery = true)
         List<Suggestion> findAllSortedByCreatedAt();
 
+        // Same order as findAllSortedByCreatedAt
+        @StreamedQuery
+        @Query("SELECT s FROM Suggestion s ORDER BY s.createdAt DESC")
+        Stream<Suggestion> streamAllSortedByCreatedAt();
+
 }
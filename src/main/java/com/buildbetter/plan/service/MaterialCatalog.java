@@ -0,0 +1,180 @@
+package com.buildbetter.plan.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.buildbetter.plan.dto.materials.MaterialName;
+import com.buildbetter.plan.dto.materials.grouped_material.GroupedMaterialResponse;
+import com.buildbetter.plan.dto.materials.grouped_material.MaterialItem;
+import com.buildbetter.plan.dto.materials.grouped_material.SubCategory;
+import com.buildbetter.plan.model.Material;
+import com.buildbetter.plan.repository.MaterialRepository;
+import com.buildbetter.plan.util.SuggestionUtils;
+import com.buildbetter.shared.cache.ContentVersions;
+import com.buildbetter.shared.constant.CachedContent;
+import com.buildbetter.shared.util.TransactionHooks;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory copy of the material catalog, so resolving the material ids of
+ * suggestions never hits the database.
+ *
+ * Readers get an immutable {@link Snapshot}; writes build a new one from the
+ * current one and swap it in once the surrounding transaction commits. The
+ * catalog is also reloaded periodically to pick up writes made on other nodes,
+ * and on demand through {@link #catchUp} before cached responses are rendered.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MaterialCatalog {
+
+    // Same order as the grouped material listing always had
+    private static final Comparator<Material> GROUPED_ORDER = Comparator
+            .comparing(Material::getCategory)
+            .thenComparing(Material::getSubCategory)
+            .thenComparing(Material::getName);
+
+    private final MaterialRepository materialRepository;
+
+    private final ContentVersions contentVersions;
+
+    private volatile Snapshot snapshot = Snapshot.of(0, List.of());
+
+    // Latest materials content version the snapshot is known to include
+    private volatile long contentVersion;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        log.info("Material Catalog : warmUp - Load all materials from DB");
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${plan.material-catalog.refresh-ms:300000}", initialDelayString = "${plan.material-catalog.refresh-ms:300000}")
+    public synchronized void reload() {
+        // Read under the lock, a commit racing with the query is applied after it
+        List<Material> materials = materialRepository.findAll();
+        snapshot = Snapshot.of(snapshot.version() + 1, materials);
+        log.info("Material Catalog : reload - Loaded {} materials (version {})", materials.size(),
+                snapshot.version());
+    }
+
+    /**
+     * Make sure the snapshot includes every write up to {@code version} of the
+     * materials content, reloading it when a write made on another node has not
+     * reached this one yet.
+     */
+    public void catchUp(long version) {
+        if (version <= contentVersion) {
+            return;
+        }
+
+        synchronized (this) {
+            if (version > contentVersion) {
+                log.info("Material Catalog : catchUp - Behind content version {}", version);
+                reload();
+                contentVersion = version;
+            }
+        }
+    }
+
+    /** Current snapshot, consistent for as long as the caller holds on to it. */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /** id → material of the whole catalog. */
+    public Map<UUID, Material> materialsById() {
+        return snapshot.materialsById();
+    }
+
+    /**
+     * Add or replace a material. When called inside a transaction the catalog
+     * is only touched once that transaction commits.
+     */
+    public void upsert(Material material) {
+        Material copy = SuggestionUtils.toDto(material);
+        TransactionHooks.afterCommit(() -> swap(materials -> materials.put(copy.getId(), copy)));
+        contentVersions.bump(CachedContent.MATERIALS);
+    }
+
+    /**
+     * Drop a material. When called inside a transaction the catalog is only
+     * touched once that transaction commits.
+     */
+    public void remove(UUID materialId) {
+        TransactionHooks.afterCommit(() -> swap(materials -> materials.remove(materialId)));
+        contentVersions.bump(CachedContent.MATERIALS);
+    }
+
+    private synchronized void swap(Consumer<Map<UUID, Material>> change) {
+        Map<UUID, Material> materials = new LinkedHashMap<>(snapshot.materialsById());
+        change.accept(materials);
+        snapshot = Snapshot.of(snapshot.version() + 1, materials.values());
+    }
+
+    /**
+     * Immutable view of the catalog at one version : materials by id, their
+     * names for the Tableau export, and the prebuilt category → subCategory
+     * listing.
+     */
+    public record Snapshot(
+            long version,
+            Map<UUID, Material> materialsById,
+            Map<UUID, MaterialName> namesById,
+            List<GroupedMaterialResponse> grouped) {
+
+        static Snapshot of(long version, Collection<Material> materials) {
+            Map<UUID, Material> byId = new LinkedHashMap<>();
+            Map<UUID, MaterialName> names = new LinkedHashMap<>();
+            for (Material material : materials) {
+                Material copy = SuggestionUtils.toDto(material);
+                byId.put(copy.getId(), copy);
+                names.put(copy.getId(), new MaterialName(copy.getId(), copy.getSubCategory(), copy.getName()));
+            }
+
+            return new Snapshot(version, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(names),
+                    group(byId.values()));
+        }
+
+        // category → subCategory → items, sorted by category, subCategory, name
+        private static List<GroupedMaterialResponse> group(Collection<Material> materials) {
+            List<Material> sorted = new ArrayList<>(materials);
+            sorted.sort(GROUPED_ORDER);
+
+            Map<String, Map<String, List<MaterialItem>>> grouped = new LinkedHashMap<>();
+            for (Material m : sorted) {
+                grouped.computeIfAbsent(m.getCategory(), k -> new LinkedHashMap<>())
+                        .computeIfAbsent(m.getSubCategory(), k -> new ArrayList<>())
+                        .add(new MaterialItem(m.getId(), m.getName(), m.getCategory(), m.getSubCategory(),
+                                m.getImage()));
+            }
+
+            List<GroupedMaterialResponse> responses = new ArrayList<>(grouped.size());
+            grouped.forEach((category, bySub) -> {
+                SubCategory[] subCategories = bySub.entrySet().stream()
+                        .map(sub -> new SubCategory(sub.getKey(), sub.getValue().toArray(MaterialItem[]::new)))
+                        .toArray(SubCategory[]::new);
+                responses.add(GroupedMaterialResponse.builder()
+                        .category(category)
+                        .subCategories(subCategories)
+                        .build());
+            });
+            return List.copyOf(responses);
+        }
+    }
+}
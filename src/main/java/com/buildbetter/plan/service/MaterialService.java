@@ -1,27 +1,33 @@
 package com.buildbetter.plan.service;
 
-import java.util.LinkedHashMap;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.buildbetter.plan.dto.materials.AddMaterialRequest;
 import com.buildbetter.plan.dto.materials.MaterialResponse;
+import com.buildbetter.plan.dto.materials.MaterialUsageResponse;
 import com.buildbetter.plan.dto.materials.UpdateMaterialRequest;
 import com.buildbetter.plan.dto.materials.grouped_material.GroupedMaterialResponse;
 import com.buildbetter.plan.dto.materials.grouped_material.MaterialItem;
 import com.buildbetter.plan.dto.materials.grouped_material.SubCategory;
 import com.buildbetter.plan.model.Material;
 import com.buildbetter.plan.repository.MaterialRepository;
+import com.buildbetter.plan.repository.MaterialUsageCount;
+import com.buildbetter.plan.repository.SuggestionRepository;
 import com.buildbetter.plan.util.MaterialUtils;
-import com.buildbetter.shared.constant.S3Folder;
 import com.buildbetter.shared.exception.NotFoundException;
-import com.buildbetter.shared.util.S3Service;
+import com.buildbetter.shared.repository.KeysetPage;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.buildbetter.shared.util.S3BlobStore;
+import com.buildbetter.shared.util.S3DeletionQueue;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,17 +38,18 @@ import lombok.extern.slf4j.Slf4j;
 public class MaterialService {
 
         private final MaterialRepository materialRepository;
-        private final S3Service s3Service;
+        private final S3BlobStore s3BlobStore;
+        private final S3DeletionQueue s3DeletionQueue;
+        private final MaterialCatalog materialCatalog;
+        private final SuggestionRepository suggestionRepository;
+        private final EntityManager entityManager;
 
         public void addMaterial(AddMaterialRequest request) {
                 log.info("Material Service : addMaterial");
 
-                // Construct the folder path based on the category
-                String folder = S3Folder.MATERIALS + request.getCategory() + "/" + request.getSubCategory() + "/";
-
-                // Upload the image to S3 and get the URL
+                // Upload the image to S3 and get the URL, stored once however many materials share it
                 log.info("Material Service : addMaterial - Upload File to S3");
-                String imageUrl = s3Service.uploadFile(request.getImage(), folder, "");
+                String imageUrl = s3BlobStore.upload(request.getImage());
 
                 Material material = Material.builder()
                                 .name(request.getName())
@@ -51,63 +58,68 @@ public class MaterialService {
                                 .image(imageUrl).build();
 
                 log.info("Material Service : addMaterial - Save material to DB");
-                materialRepository.save(material);
+                materialCatalog.upsert(materialRepository.save(material));
+        }
+
+        @Transactional
+        public void streamAllMaterials(JsonEnvelopeWriter writer) throws IOException {
+                log.info("Material Service : streamAllMaterials");
+
+                writer.writeAll(materialRepository.streamAll(), entityManager, MaterialUtils::toMaterialResponse);
+
+                log.info("Material Service : streamAllMaterials - Streamed {} materials", writer.count());
         }
 
-        public List<MaterialResponse> getAllMaterials() {
-                log.info("Material Service : getAllMaterials");
+        /** One keyset page of materials, by name. */
+        public KeysetPage<MaterialResponse> getMaterialPage(String cursor, Integer limit) {
+                log.info("Material Service : getMaterialPage");
 
-                return materialRepository.findAll()
-                                .stream()
-                                .map(MaterialUtils::toMaterialResponse)
-                                .collect(Collectors.toList());
+                return materialRepository.findPage(null, MaterialRepository.KEYSET, cursor, KeysetPage.limit(limit))
+                                .map(MaterialUtils::toMaterialResponse);
         }
 
         public List<GroupedMaterialResponse> getAllGroupedMaterials() {
                 log.info("Material Service : getAllGroupedMaterials");
 
-                List<Material> materials = materialRepository.findAll(
-                                Sort.by("category").ascending()
-                                                .and(Sort.by("subCategory").ascending())
-                                                .and(Sort.by("name").ascending()));
-
-                // 2. Group category → subCategory → List<entity>
-                log.info("Material Service : getAllGroupedMaterials - Grouping materials");
-                Map<String, Map<String, List<Material>>> grouped = materials.stream()
-                                .collect(Collectors.groupingBy(
-                                                Material::getCategory,
-                                                LinkedHashMap::new,
-                                                Collectors.groupingBy(
-                                                                Material::getSubCategory,
-                                                                LinkedHashMap::new,
-                                                                Collectors.toList())));
-
-                // 3. Convert to DTOs
-                log.info("Material Service : getAllGroupedMaterials - Converting to DTOs");
-                return grouped.entrySet().stream()
-                                .map(catEntry -> {
-                                        SubCategory[] subCategories = catEntry.getValue()
-                                                        .entrySet().stream()
-                                                        .map(subEntry -> {
-                                                                MaterialItem[] mats = subEntry.getValue().stream()
-                                                                                .map(m -> new MaterialItem(
-                                                                                                m.getId(),
-                                                                                                m.getName(),
-                                                                                                m.getCategory(),
-                                                                                                m.getSubCategory(),
-                                                                                                m.getImage()))
-                                                                                .toArray(MaterialItem[]::new);
-
-                                                                return new SubCategory(subEntry.getKey(), mats);
-                                                        })
-                                                        .toArray(SubCategory[]::new);
-
-                                        return GroupedMaterialResponse.builder()
-                                                        .category(catEntry.getKey())
-                                                        .subCategories(subCategories)
-                                                        .build();
-                                })
-                                .toList();
+                // Prebuilt in the catalog snapshot, sorted by category, subCategory, name
+                return materialCatalog.snapshot().grouped();
+        }
+
+        /** Bring the catalog up to {@code version} of the materials content. */
+        public void catchUpCatalog(long version) {
+                materialCatalog.catchUp(version);
+        }
+
+        public List<MaterialUsageResponse> getMaterialUsage() {
+                log.info("Material Service : getMaterialUsage");
+
+                // One aggregate over all suggestions, only used materials come back
+                log.info("Material Service : getMaterialUsage - Count suggestions per material");
+                Map<UUID, MaterialUsageCount> counts = new HashMap<>();
+                for (MaterialUsageCount count : suggestionRepository.countUsagePerMaterial()) {
+                        counts.put(count.getMaterialId(), count);
+                }
+
+                // Every material of the catalog, unused ones with zero, in the grouped order
+                List<MaterialUsageResponse> usage = new ArrayList<>();
+                for (GroupedMaterialResponse group : materialCatalog.snapshot().grouped()) {
+                        for (SubCategory subCategory : group.getSubCategories()) {
+                                for (MaterialItem item : subCategory.getMaterials()) {
+                                        MaterialUsageCount count = counts.get(item.getId());
+                                        usage.add(MaterialUsageResponse.builder()
+                                                        .id(item.getId())
+                                                        .name(item.getName())
+                                                        .category(item.getCategory())
+                                                        .subCategory(item.getSubCategory())
+                                                        .suggestions(count == null ? 0 : count.getSuggestions())
+                                                        .materials0(count == null ? 0 : count.getMaterials0())
+                                                        .materials1(count == null ? 0 : count.getMaterials1())
+                                                        .materials2(count == null ? 0 : count.getMaterials2())
+                                                        .build());
+                                }
+                        }
+                }
+                return usage;
         }
 
         public MaterialResponse getMaterialById(UUID id) {
@@ -131,12 +143,11 @@ public class MaterialService {
                 if (request.getImage() != null) {
 
                         log.info("Material Service : updateMaterial - Upload File to S3");
-                        String folder = S3Folder.MATERIALS + request.getCategory() + "/";
-                        String imageUrl = s3Service.uploadFile(request.getImage(), folder, "");
+                        String imageUrl = s3BlobStore.upload(request.getImage());
 
                         // Delete the old image from S3
                         log.info("Material Service : updateMaterial - Delete old image from S3");
-                        s3Service.deleteFile(existingMaterial.getImage());
+                        s3DeletionQueue.enqueue(existingMaterial.getImage());
 
                         existingMaterial.setImage(imageUrl);
                 } else {
@@ -155,9 +166,11 @@ public class MaterialService {
                 // Save the updated material
                 log.info("Material Service : updateMaterial - Save updated material to DB");
                 materialRepository.save(existingMaterial);
+                materialCatalog.upsert(existingMaterial);
                 return MaterialUtils.toMaterialResponse(existingMaterial);
         }
 
+        @Transactional
         public void deleteMaterial(UUID id) {
                 log.info("Material Service : deleteMaterial");
                 Material existingMaterial = materialRepository.findById(id)
@@ -165,10 +178,11 @@ public class MaterialService {
 
                 // Delete the old image from S3
                 log.info("Material Service : deleteMaterial - Delete old image from S3");
-                s3Service.deleteFile(existingMaterial.getImage());
+                s3DeletionQueue.enqueue(existingMaterial.getImage());
 
                 // Delete the material from the database
                 log.info("Material Service : deleteMaterial - Delete material from DB");
                 materialRepository.deleteById(id);
+                materialCatalog.remove(id);
         }
 }
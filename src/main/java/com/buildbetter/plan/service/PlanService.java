@@ -1,24 +1,27 @@
 package com.buildbetter.plan.service;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import com.buildbetter.plan.dto.plans.AddPlanRequest;
 import com.buildbetter.plan.dto.plans.GetPlansResponse;
+import com.buildbetter.plan.dto.suggestions.SuggestionFields;
 import com.buildbetter.plan.dto.suggestions.SuggestionResponse;
 import com.buildbetter.plan.dto.suggestions.generate.GenerateSuggestionRequest;
 import com.buildbetter.plan.model.Material;
 import com.buildbetter.plan.model.Plan;
 import com.buildbetter.plan.model.Suggestion;
-import com.buildbetter.plan.repository.MaterialRepository;
 import com.buildbetter.plan.repository.PlanRepository;
+import com.buildbetter.plan.repository.PlanSpecifications;
 import com.buildbetter.plan.repository.SuggestionRepository;
 import com.buildbetter.plan.util.SuggestionUtils;
+import com.buildbetter.shared.exception.BadRequestException;
 import com.buildbetter.shared.exception.NotFoundException;
 import com.buildbetter.user.api.UserAPI;
 
@@ -30,7 +33,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PlanService {
 
-        private final MaterialRepository materialRepository;
+        private static final int MAX_PAGE_SIZE = 100;
+
+        private final MaterialCatalog materialCatalog;
         private final SuggestionRepository suggestionRepository;
         private final PlanRepository planRepository;
         private final UserAPI userAPI;
@@ -64,45 +69,60 @@ public class PlanService {
                 planRepository.save(plan);
         }
 
-        public GetPlansResponse[] getAllPlans(UUID userId, String role) {
+        /**
+         * One page of plans, newest first. Admins see every plan, other users
+         * their own. Pass the (createdAt, id) of the last plan of the previous
+         * page as the cursor. Only the selected suggestion fields are built;
+         * card mode leaves out the material trees. Without any tree the
+         * materials are not loaded at all.
+         */
+        public GetPlansResponse[] getAllPlans(UUID userId, String role, LocalDateTime afterCreatedAt, UUID afterId,
+                        Integer limit, boolean card, SuggestionFields fields) {
                 log.info("Plan Service : getAllPlans");
 
+                validateKeyset(afterCreatedAt, afterId, limit);
+
                 // Check if user exists
                 if (!userAPI.existsById(userId)) {
                         throw new NotFoundException("User not found");
                 }
 
-                // Get All Plans
-                List<Plan> plans;
-                if ("admin".equals(role)) {
-                        plans = planRepository.findAllByOrderByCreatedAtDesc();
-                } else {
-                        plans = planRepository.findByUserIdOrderByCreatedAtDesc(userId);
-                        if (plans.isEmpty()) {
-                                return new GetPlansResponse[0];
-                        }
+                // Get one page of plans, suggestions fetched in the same query
+                Specification<Plan> spec = PlanSpecifications.fetchSuggestion()
+                                .and(PlanSpecifications.before(afterCreatedAt, afterId));
+                if (!"ADMIN".equalsIgnoreCase(role)) {
+                        spec = spec.and(PlanSpecifications.userIdEquals(userId));
+                }
+
+                List<Plan> plans = planRepository.findListing(spec, limit);
+                if (plans.isEmpty()) {
+                        return new GetPlansResponse[0];
                 }
 
+                // Materials are resolved from the in-memory catalog, only for selected trees
+                SuggestionFields selected = card ? fields.withoutMaterials() : fields;
+                Map<UUID, Material> mats = selected.includesMaterials() ? materialCatalog.materialsById()
+                                : Collections.emptyMap();
+
                 log.info("Plan Service : getAllPlans - Iterate through plans and create GetPlansResponse");
                 GetPlansResponse[] plansResponse = new GetPlansResponse[plans.size()];
 
-                // Iterate thrpugh plans and create GetPlansResponse
+                // Iterate through plans and create GetPlansResponse
                 for (int i = 0; i < plans.size(); i++) {
                         Plan plan = plans.get(i);
                         Suggestion suggestion = plan.getSuggestion();
 
-                        Set<UUID> matIds = SuggestionUtils.collectMaterialIds(suggestion);
-                        Map<UUID, Material> mats = materialRepository.findAllById(matIds)
-                                        .stream()
-                                        .collect(Collectors.toMap(Material::getId, m -> m));
-
                         SuggestionResponse suggestionResponse = SuggestionUtils.toGetSuggestionResponse(suggestion,
-                                        mats);
+                                        mats, selected);
                         GenerateSuggestionRequest userInput = SuggestionUtils.planToGenerateSuggestionRequest(plan,
                                         suggestionResponse);
 
-                        plansResponse[i] = new GetPlansResponse(plan.getId(), userInput,
-                                        suggestionResponse);
+                        plansResponse[i] = GetPlansResponse.builder()
+                                        .id(plan.getId())
+                                        .createdAt(plan.getCreatedAt())
+                                        .userInput(userInput)
+                                        .suggestions(suggestionResponse)
+                                        .build();
                 }
 
                 return plansResponse;
@@ -118,12 +138,8 @@ public class PlanService {
                 // Get Suggestion
                 Suggestion suggestion = plan.getSuggestion();
 
-                // Get Materials
-                log.info("Plan Service : getPlanById - Get Materials");
-                Set<UUID> matIds = SuggestionUtils.collectMaterialIds(suggestion);
-                Map<UUID, Material> mats = materialRepository.findAllById(matIds)
-                                .stream()
-                                .collect(Collectors.toMap(Material::getId, m -> m));
+                // Materials are resolved from the in-memory catalog
+                Map<UUID, Material> mats = materialCatalog.materialsById();
 
                 // Prepare Response
                 log.info("Plan Service : getPlanById - Prepare Response");
@@ -133,6 +149,7 @@ public class PlanService {
 
                 GetPlansResponse response = new GetPlansResponse();
                 response.setId(plan.getId());
+                response.setCreatedAt(plan.getCreatedAt());
                 response.setUserInput(userInput);
                 response.setSuggestions(suggestionResponse);
 
@@ -156,4 +173,14 @@ public class PlanService {
                 planRepository.deleteById(planId);
         }
 
+        private void validateKeyset(LocalDateTime afterCreatedAt, UUID afterId, Integer limit) {
+                if ((afterCreatedAt == null) != (afterId == null)) {
+                        throw new BadRequestException("Fields 'afterCreatedAt' and 'afterId' must be provided together");
+                }
+
+                if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+                        throw new BadRequestException("Field 'limit' must be between 1 and " + MAX_PAGE_SIZE);
+                }
+        }
+
 }
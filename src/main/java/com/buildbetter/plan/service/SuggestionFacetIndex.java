@@ -0,0 +1,399 @@
+package com.buildbetter.plan.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.buildbetter.plan.model.Suggestion;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory faceted index used to browse suggestions.
+ *
+ * Every suggestion gets a slot, oldest first. Discrete facets (style, floor,
+ * rooms, wind direction) keep one bitset of slots per value; the numeric range
+ * facets (land area, starting budget) keep the slots sorted by value so a
+ * range is two binary searches. A search is a handful of bitset ANDs.
+ *
+ * Readers work on an immutable {@link Snapshot}; writes copy only what they
+ * touch into the next one and swap it in. Loading and writes go through
+ * {@link SuggestionIndexRefresher}.
+ */
+@Component
+@Slf4j
+public class SuggestionFacetIndex {
+
+    public static final String STYLE = "style";
+    public static final String FLOOR = "floor";
+    public static final String ROOMS = "rooms";
+    public static final String WIND_DIRECTION = "windDirection";
+
+    private static final List<String> FACETS = List.of(STYLE, FLOOR, ROOMS, WIND_DIRECTION);
+
+    // Dead slots tolerated before the slots are renumbered
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    // suggestionId → slot (guarded by this)
+    private final Map<UUID, Integer> slotById = new HashMap<>();
+
+    /** Replace the whole index with the given suggestions. */
+    public synchronized void rebuild(Collection<Suggestion> suggestions) {
+        List<Suggestion> sorted = new ArrayList<>(suggestions);
+        sorted.sort(Comparator.comparing(Suggestion::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        List<Entry> entries = new ArrayList<>(sorted.size());
+        sorted.forEach(s -> entries.add(Entry.of(s)));
+        publishRenumbered(entries);
+
+        log.info("Suggestion Facet Index : rebuild - Indexed {} suggestions", slotById.size());
+    }
+
+    /** Add or replace a suggestion. */
+    public synchronized void upsert(Suggestion suggestion) {
+        Entry entry = Entry.of(suggestion);
+        Integer slot = slotById.get(entry.id());
+        if (slot == null) {
+            slot = snapshot.ids().length;
+            slotById.put(entry.id(), slot);
+        }
+        snapshot = snapshot.with(slot, entry);
+    }
+
+    /** Drop a suggestion. */
+    public synchronized void remove(UUID suggestionId) {
+        Integer slot = slotById.remove(suggestionId);
+        if (slot == null) {
+            return;
+        }
+        snapshot = snapshot.with(slot, null);
+
+        int dead = snapshot.ids().length - slotById.size();
+        if (dead > COMPACT_MIN_DEAD && dead > slotById.size()) {
+            List<Entry> entries = new ArrayList<>(slotById.size());
+            for (int s = snapshot.live().nextSetBit(0); s >= 0; s = snapshot.live().nextSetBit(s + 1)) {
+                entries.add(snapshot.entries()[s]);
+            }
+            publishRenumbered(entries);
+        }
+    }
+
+    /**
+     * Suggestions matching every filter, newest first, with the counts of
+     * every facet value. The counts of a facet apply all filters but its own,
+     * so they tell how many results picking that value instead would give.
+     */
+    public Result search(Query query, int offset, int limit) {
+        Snapshot current = snapshot;
+
+        BitSet ranged = (BitSet) current.live().clone();
+        if (query.landAreaMin() != null || query.landAreaMax() != null) {
+            ranged.and(current.landArea().between(query.landAreaMin(), query.landAreaMax()));
+        }
+        if (query.budgetMin() != null || query.budgetMax() != null) {
+            ranged.and(current.budget().between(query.budgetMin(), query.budgetMax()));
+        }
+
+        // Union of the accepted values of every filtered facet
+        Map<String, BitSet> selected = new LinkedHashMap<>();
+        query.filters().forEach((facet, values) -> {
+            if (values == null || values.isEmpty()) {
+                return;
+            }
+            BitSet union = new BitSet();
+            Map<String, BitSet> byValue = current.facets().getOrDefault(facet, Map.of());
+            for (String value : values) {
+                BitSet slots = byValue.get(normalize(value));
+                if (slots != null) {
+                    union.or(slots);
+                }
+            }
+            selected.put(facet, union);
+        });
+
+        BitSet matches = (BitSet) ranged.clone();
+        selected.values().forEach(matches::and);
+
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            BitSet base = matches;
+            if (selected.containsKey(facet)) {
+                base = (BitSet) ranged.clone();
+                for (Map.Entry<String, BitSet> other : selected.entrySet()) {
+                    if (!other.getKey().equals(facet)) {
+                        base.and(other.getValue());
+                    }
+                }
+            }
+            counts.put(facet, count(current.facets().get(facet), base));
+        }
+
+        // Newest first : walk the slots from the top
+        List<UUID> ids = new ArrayList<>(Math.min(limit, matches.cardinality()));
+        int skipped = 0;
+        for (int slot = matches.previousSetBit(current.ids().length - 1); slot >= 0
+                && ids.size() < limit; slot = matches.previousSetBit(slot - 1)) {
+            if (skipped++ >= offset) {
+                ids.add(current.ids()[slot]);
+            }
+        }
+
+        return new Result(ids, matches.cardinality(), counts);
+    }
+
+    /** Number of indexed suggestions, useful for monitoring. */
+    public int size() {
+        return snapshot.live().cardinality();
+    }
+
+    private void publishRenumbered(List<Entry> entries) {
+        slotById.clear();
+        for (int slot = 0; slot < entries.size(); slot++) {
+            slotById.put(entries.get(slot).id(), slot);
+        }
+        snapshot = Snapshot.build(entries);
+    }
+
+    // Counts of every value that still has results, numeric values in numeric order
+    private static Map<String, Integer> count(Map<String, BitSet> byValue, BitSet base) {
+        if (byValue == null) {
+            return Map.of();
+        }
+
+        List<String> values = new ArrayList<>(byValue.keySet());
+        values.sort(SuggestionFacetIndex::compareValues);
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String value : values) {
+            BitSet hits = (BitSet) byValue.get(value).clone();
+            hits.and(base);
+            int count = hits.cardinality();
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        }
+        return counts;
+    }
+
+    private static int compareValues(String a, String b) {
+        boolean numeric = !a.isEmpty() && !b.isEmpty() && a.chars().allMatch(Character::isDigit)
+                && b.chars().allMatch(Character::isDigit);
+        return numeric && a.length() != b.length() ? Integer.compare(a.length(), b.length()) : a.compareTo(b);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Filters of a search. {@code filters} maps a facet to its accepted
+     * values (any of them matches); null bounds are open.
+     */
+    public record Query(
+            Map<String, Collection<String>> filters,
+            Integer landAreaMin,
+            Integer landAreaMax,
+            Integer budgetMin,
+            Integer budgetMax) {
+    }
+
+    /** One page of ids, the total number of matches and the facet counts. */
+    public record Result(List<UUID> ids, int total, Map<String, Map<String, Integer>> facets) {
+    }
+
+    /** What the index keeps of a suggestion. */
+    private record Entry(UUID id, Map<String, List<String>> values, Integer landArea, Integer budget) {
+
+        static Entry of(Suggestion s) {
+            Map<String, List<String>> values = new HashMap<>();
+            if (s.getStyle() != null && !s.getStyle().isBlank()) {
+                values.put(STYLE, List.of(normalize(s.getStyle())));
+            }
+            values.put(FLOOR, List.of(String.valueOf(s.getFloor())));
+            values.put(ROOMS, List.of(String.valueOf(s.getRooms())));
+            if (s.getWindDirection() != null) {
+                LinkedHashSet<String> directions = new LinkedHashSet<>();
+                s.getWindDirection().forEach(d -> directions.add(normalize(d)));
+                values.put(WIND_DIRECTION, List.copyOf(directions));
+            }
+            return new Entry(s.getId(), values, s.getLandArea(), startingBudget(s.getBudgetMin()));
+        }
+
+        // Cheapest way to build the design : the lowest budget_min of the tiers
+        private static Integer startingBudget(List<Integer> budgetMin) {
+            if (budgetMin == null) {
+                return null;
+            }
+            return budgetMin.stream().filter(b -> b != null).min(Integer::compare).orElse(null);
+        }
+    }
+
+    /** Slots sorted by value, for range facets. */
+    private record Range(int[] values, int[] slots) {
+
+        static Range of(Entry[] entries, boolean landArea) {
+            int size = 0;
+            long[] packed = new long[entries.length];
+            for (int slot = 0; slot < entries.length; slot++) {
+                Integer value = entries[slot] == null ? null
+                        : landArea ? entries[slot].landArea() : entries[slot].budget();
+                if (value != null) {
+                    packed[size++] = ((long) value << 32) | slot;
+                }
+            }
+            Arrays.sort(packed, 0, size);
+
+            int[] values = new int[size];
+            int[] slots = new int[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = (int) (packed[i] >> 32);
+                slots[i] = (int) packed[i];
+            }
+            return new Range(values, slots);
+        }
+
+        /** Slots with a value in [min, max], null bounds are open. */
+        BitSet between(Integer min, Integer max) {
+            int from = min == null ? 0 : firstAtLeast(min);
+            int to = max == null ? values.length : (max == Integer.MAX_VALUE ? values.length : firstAtLeast(max + 1));
+
+            BitSet hits = new BitSet();
+            for (int i = from; i < to; i++) {
+                hits.set(slots[i]);
+            }
+            return hits;
+        }
+
+        /** Copy with the slot moved from {@code before} to {@code after}, null is no value. */
+        Range with(int slot, Integer before, Integer after) {
+            if (before == null ? after == null : before.equals(after)) {
+                return this;
+            }
+
+            int size = values.length - (before == null ? 0 : 1) + (after == null ? 0 : 1);
+            int[] nextValues = new int[size];
+            int[] nextSlots = new int[size];
+            int insertAt = after == null ? -1 : firstAtLeast(after);
+
+            int n = 0;
+            for (int i = 0; i <= values.length; i++) {
+                if (i == insertAt) {
+                    nextValues[n] = after;
+                    nextSlots[n++] = slot;
+                }
+                if (i < values.length && slots[i] != slot) {
+                    nextValues[n] = values[i];
+                    nextSlots[n++] = slots[i];
+                }
+            }
+            return new Range(nextValues, nextSlots);
+        }
+
+        private int firstAtLeast(int value) {
+            int lo = 0;
+            int hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Immutable state of the index. {@code ids} and {@code entries} are
+     * indexed by slot, null for slots freed by a removal.
+     */
+    private record Snapshot(
+            UUID[] ids,
+            Entry[] entries,
+            BitSet live,
+            Map<String, Map<String, BitSet>> facets,
+            Range landArea,
+            Range budget) {
+
+        static Snapshot build(List<Entry> list) {
+            Entry[] entries = list.toArray(Entry[]::new);
+            UUID[] ids = new UUID[entries.length];
+            BitSet live = new BitSet(entries.length);
+            Map<String, Map<String, BitSet>> facets = new HashMap<>();
+            FACETS.forEach(facet -> facets.put(facet, new HashMap<>()));
+
+            for (int slot = 0; slot < entries.length; slot++) {
+                ids[slot] = entries[slot].id();
+                live.set(slot);
+                for (Map.Entry<String, List<String>> facet : entries[slot].values().entrySet()) {
+                    for (String value : facet.getValue()) {
+                        facets.get(facet.getKey()).computeIfAbsent(value, k -> new BitSet()).set(slot);
+                    }
+                }
+            }
+
+            return new Snapshot(ids, entries, live, facets, Range.of(entries, true), Range.of(entries, false));
+        }
+
+        /** Copy with the slot holding {@code entry}, null frees the slot. */
+        Snapshot with(int slot, Entry entry) {
+            Entry before = slot < entries.length ? entries[slot] : null;
+
+            int length = Math.max(ids.length, slot + 1);
+            UUID[] nextIds = Arrays.copyOf(ids, length);
+            Entry[] nextEntries = Arrays.copyOf(entries, length);
+            nextIds[slot] = entry == null ? null : entry.id();
+            nextEntries[slot] = entry;
+
+            BitSet nextLive = (BitSet) live.clone();
+            nextLive.set(slot, entry != null);
+
+            // Published bitsets are never written, touched ones are copied first
+            Map<String, Map<String, BitSet>> nextFacets = new HashMap<>();
+            for (String facet : FACETS) {
+                List<String> oldValues = before == null ? List.of() : before.values().getOrDefault(facet, List.of());
+                List<String> newValues = entry == null ? List.of() : entry.values().getOrDefault(facet, List.of());
+                if (oldValues.equals(newValues)) {
+                    nextFacets.put(facet, facets.get(facet));
+                    continue;
+                }
+
+                Map<String, BitSet> byValue = new HashMap<>(facets.get(facet));
+                for (String value : oldValues) {
+                    BitSet slots = (BitSet) byValue.get(value).clone();
+                    slots.clear(slot);
+                    if (slots.isEmpty()) {
+                        byValue.remove(value);
+                    } else {
+                        byValue.put(value, slots);
+                    }
+                }
+                for (String value : newValues) {
+                    BitSet slots = byValue.containsKey(value) ? (BitSet) byValue.get(value).clone() : new BitSet();
+                    slots.set(slot);
+                    byValue.put(value, slots);
+                }
+                nextFacets.put(facet, byValue);
+            }
+
+            return new Snapshot(nextIds, nextEntries, nextLive, nextFacets,
+                    landArea.with(slot, before == null ? null : before.landArea(),
+                            entry == null ? null : entry.landArea()),
+                    budget.with(slot, before == null ? null : before.budget(), entry == null ? null : entry.budget()));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.buildbetter.plan.service;
+
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.buildbetter.plan.model.Suggestion;
+import com.buildbetter.plan.repository.SuggestionRepository;
+import com.buildbetter.shared.cache.ContentVersions;
+import com.buildbetter.shared.cluster.ClusterBus;
+import com.buildbetter.shared.constant.CachedContent;
+import com.buildbetter.shared.util.TransactionHooks;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the suggestion indexes of every node up to date, one suggestion at a
+ * time. A write reaches the indexes of this node when its transaction commits
+ * and bumps the suggestions content version; the version and the suggestion
+ * id then go out on the {@link ClusterBus}, and the other nodes reload that
+ * one row.
+ *
+ * The version tells whether a node has applied every write : when one it read
+ * a whole refresh period ago is still not reached, a message was missed and
+ * both indexes are rebuilt from the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionIndexRefresher {
+
+    static final String CHANNEL = "suggestion-index";
+    private static final char SEPARATOR = ',';
+
+    private final SuggestionRepository suggestionRepository;
+    private final SuggestionMatchIndex suggestionMatchIndex;
+    private final SuggestionFacetIndex suggestionFacetIndex;
+    private final ContentVersions contentVersions;
+    private final ClusterBus clusterBus;
+
+    // Suggestions content version the indexes include every write up to (guarded by this)
+    private long contentVersion;
+
+    // Versions past it already applied, their writes having arrived out of order (guarded by this)
+    private final NavigableSet<Long> applied = new TreeSet<>();
+
+    // Version read on the previous refresh (guarded by this)
+    private long previous;
+
+    @PostConstruct
+    void subscribe() {
+        clusterBus.subscribe(CHANNEL, this::receive);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        log.info("Suggestion Index Refresher : warmUp - Load all suggestions from DB");
+        long version = currentVersion();
+        rebuild(version);
+        previous = version;
+    }
+
+    @Scheduled(fixedDelayString = "${plan.suggestion-index.refresh-ms:10000}", initialDelayString = "${plan.suggestion-index.refresh-ms:10000}")
+    public void refresh() {
+        long current = currentVersion();
+        if (current == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            // Writes up to the previous read have had a whole period to arrive
+            if (previous > contentVersion) {
+                log.warn("Suggestion Index Refresher : refresh - Behind version {} at {}, rebuilding",
+                        previous, contentVersion);
+                rebuild(current);
+            }
+            previous = current;
+        }
+    }
+
+    /**
+     * Add or replace {@code suggestion} in both indexes once the transaction
+     * commits, here and on the other nodes.
+     */
+    public void upsert(Suggestion suggestion) {
+        TransactionHooks.afterCommit(() -> apply(suggestion.getId(), suggestion));
+        contentVersions.bump(CachedContent.SUGGESTIONS, version -> publish(version, suggestion.getId()));
+    }
+
+    /**
+     * Drop {@code suggestionId} from both indexes once the transaction
+     * commits, here and on the other nodes.
+     */
+    public void remove(UUID suggestionId) {
+        TransactionHooks.afterCommit(() -> apply(suggestionId, null));
+        contentVersions.bump(CachedContent.SUGGESTIONS, version -> publish(version, suggestionId));
+    }
+
+    private void publish(long version, UUID suggestionId) {
+        reached(version);
+        clusterBus.publish(CHANNEL, String.valueOf(version) + SEPARATOR + suggestionId);
+    }
+
+    // A write committed on another node : the row as it is now, gone when it was deleted
+    private void receive(String payload) {
+        int separator = payload.indexOf(SEPARATOR);
+        long version = Long.parseLong(payload.substring(0, separator));
+        UUID suggestionId = UUID.fromString(payload.substring(separator + 1));
+
+        synchronized (this) {
+            apply(suggestionId, suggestionRepository.findById(suggestionId).orElse(null));
+            reached(version);
+        }
+    }
+
+    private synchronized void apply(UUID suggestionId, Suggestion suggestion) {
+        if (suggestion == null) {
+            suggestionMatchIndex.remove(suggestionId);
+            suggestionFacetIndex.remove(suggestionId);
+        } else {
+            suggestionMatchIndex.upsert(suggestion);
+            suggestionFacetIndex.upsert(suggestion);
+        }
+    }
+
+    private synchronized void reached(long version) {
+        if (version > contentVersion) {
+            applied.add(version);
+        }
+        while (applied.remove(contentVersion + 1)) {
+            contentVersion++;
+        }
+    }
+
+    // Read after the version, a write committed meanwhile is in the rows or its message follows
+    private void rebuild(long version) {
+        List<Suggestion> suggestions = suggestionRepository.findAll();
+        suggestionMatchIndex.rebuild(suggestions);
+        suggestionFacetIndex.rebuild(suggestions);
+
+        contentVersion = Math.max(contentVersion, version);
+        applied.headSet(contentVersion, true).clear();
+        reached(contentVersion);
+        log.info("Suggestion Index Refresher : rebuild - Rebuilt indexes at content version {}", contentVersion);
+    }
+
+    // 0 when Redis cannot be reached, versions are seeded with the clock and never 0
+    private long currentVersion() {
+        return contentVersions.current(CachedContent.SUGGESTIONS)
+                .map(versions -> versions.of(CachedContent.SUGGESTIONS))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,183 @@
+package com.buildbetter.plan.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.buildbetter.plan.model.Suggestion;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index used by {@code generateSuggestion} so the matching rules
+ * never hit the database.
+ *
+ * Layout : normalized style → floor → landArea (sorted) → suggestions.
+ *
+ * Every style bucket is immutable once published; writes rebuild only the
+ * bucket(s) of the affected style and swap them in, so readers never lock.
+ * Loading and writes go through {@link SuggestionIndexRefresher}.
+ */
+@Component
+@Slf4j
+public class SuggestionMatchIndex {
+
+    // normalized style → floor → landArea → suggestions (read side)
+    private final Map<String, NavigableMap<Integer, NavigableMap<Integer, List<Suggestion>>>> buckets = new ConcurrentHashMap<>();
+
+    // normalized style → suggestionId → suggestion (write side, guarded by this)
+    private final Map<String, Map<UUID, Suggestion>> membersByStyle = new HashMap<>();
+
+    // suggestionId → normalized style it is currently indexed under (guarded by
+    // this)
+    private final Map<UUID, String> styleById = new HashMap<>();
+
+    /** Replace the whole index with the given suggestions. */
+    public synchronized void rebuild(Collection<Suggestion> suggestions) {
+        membersByStyle.clear();
+        styleById.clear();
+
+        for (Suggestion s : suggestions) {
+            String style = normalize(s.getStyle());
+            membersByStyle.computeIfAbsent(style, k -> new LinkedHashMap<>()).put(s.getId(), s);
+            styleById.put(s.getId(), style);
+        }
+        // Buckets are replaced one by one, readers never see the index empty
+        membersByStyle.keySet().forEach(this::publish);
+        buckets.keySet().retainAll(membersByStyle.keySet());
+
+        log.info("Suggestion Match Index : rebuild - Indexed {} suggestions across {} styles",
+                styleById.size(), buckets.size());
+    }
+
+    /** Add or replace a suggestion. */
+    public synchronized void upsert(Suggestion suggestion) {
+        String style = normalize(suggestion.getStyle());
+        String previousStyle = styleById.put(suggestion.getId(), style);
+
+        if (previousStyle != null && !previousStyle.equals(style)) {
+            membersByStyle.get(previousStyle).remove(suggestion.getId());
+            publish(previousStyle);
+        }
+
+        membersByStyle.computeIfAbsent(style, k -> new LinkedHashMap<>()).put(suggestion.getId(), suggestion);
+        publish(style);
+    }
+
+    /** Drop a suggestion. */
+    public synchronized void remove(UUID suggestionId) {
+        String style = styleById.remove(suggestionId);
+        if (style == null) {
+            return;
+        }
+
+        membersByStyle.get(style).remove(suggestionId);
+        publish(style);
+    }
+
+    /**
+     * Apply the generate rules against the index, first rule that yields a
+     * result wins :
+     * 1. exact landArea and floor
+     * 2. same floor, closest smaller landArea
+     * 3. same landArea, different floor
+     * 4. smaller landArea, different floor (closest one)
+     */
+    public List<Suggestion> match(String style, int landArea, int floor) {
+        NavigableMap<Integer, NavigableMap<Integer, List<Suggestion>>> byFloor = buckets.get(normalize(style));
+        if (byFloor == null) {
+            return List.of();
+        }
+
+        NavigableMap<Integer, List<Suggestion>> sameFloor = byFloor.get(floor);
+
+        // ── Rule 1 ─ exact match ───────────────────────────────────────
+        if (sameFloor != null) {
+            List<Suggestion> exact = sameFloor.get(landArea);
+            if (exact != null) {
+                return exact;
+            }
+
+            // ── Rule 2 ─ same floor, closest smaller landArea ──────────────
+            Map.Entry<Integer, List<Suggestion>> smaller = sameFloor.lowerEntry(landArea);
+            if (smaller != null) {
+                return List.of(smaller.getValue().get(0));
+            }
+        }
+
+        // ── Rule 3 ─ same landArea, different floor ────────────────────
+        List<Suggestion> sameLandArea = new ArrayList<>();
+        for (Map.Entry<Integer, NavigableMap<Integer, List<Suggestion>>> entry : byFloor.entrySet()) {
+            if (entry.getKey() == floor)
+                continue;
+
+            List<Suggestion> hits = entry.getValue().get(landArea);
+            if (hits != null) {
+                sameLandArea.addAll(hits);
+            }
+        }
+        if (!sameLandArea.isEmpty()) {
+            return sameLandArea;
+        }
+
+        // ── Rule 4 ─ smaller landArea, different floor ─────────────────
+        Map.Entry<Integer, List<Suggestion>> closest = null;
+        for (Map.Entry<Integer, NavigableMap<Integer, List<Suggestion>>> entry : byFloor.entrySet()) {
+            if (entry.getKey() == floor)
+                continue;
+
+            Map.Entry<Integer, List<Suggestion>> smaller = entry.getValue().lowerEntry(landArea);
+            if (smaller != null && (closest == null || smaller.getKey() > closest.getKey())) {
+                closest = smaller;
+            }
+        }
+
+        return closest == null ? List.of() : List.of(closest.getValue().get(0));
+    }
+
+    /** Number of indexed suggestions, useful for monitoring. */
+    public synchronized int size() {
+        return styleById.size();
+    }
+
+    /** Rebuild the read-side bucket of one style from its members. */
+    private void publish(String style) {
+        Map<UUID, Suggestion> members = membersByStyle.get(style);
+        if (members == null || members.isEmpty()) {
+            membersByStyle.remove(style);
+            buckets.remove(style);
+            return;
+        }
+
+        Map<Integer, Map<Integer, List<Suggestion>>> grouped = new TreeMap<>();
+        for (Suggestion s : members.values()) {
+            grouped.computeIfAbsent(s.getFloor(), k -> new TreeMap<>())
+                    .computeIfAbsent(s.getLandArea(), k -> new ArrayList<>())
+                    .add(s);
+        }
+
+        NavigableMap<Integer, NavigableMap<Integer, List<Suggestion>>> byFloor = new TreeMap<>();
+        grouped.forEach((floor, byLandArea) -> {
+            NavigableMap<Integer, List<Suggestion>> sorted = new TreeMap<>();
+            byLandArea.forEach((landArea, list) -> sorted.put(landArea, List.copyOf(list)));
+            byFloor.put(floor, Collections.unmodifiableNavigableMap(sorted));
+        });
+
+        buckets.put(style, Collections.unmodifiableNavigableMap(byFloor));
+    }
+
+    private static String normalize(String style) {
+        return style == null ? "" : style.trim().toLowerCase(Locale.ROOT);
+    }
+}
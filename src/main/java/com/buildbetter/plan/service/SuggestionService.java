@@ -1,17 +1,14 @@
 package com.buildbetter.plan.service;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -20,21 +17,27 @@ import org.springframework.web.multipart.MultipartFile;
 import com.buildbetter.plan.constant.HouseFileType;
 import com.buildbetter.plan.dto.suggestions.AddSuggestionRequest;
 import com.buildbetter.plan.dto.suggestions.AddSuggestionUrlRequest;
+import com.buildbetter.plan.dto.suggestions.SuggestionFields;
 import com.buildbetter.plan.dto.suggestions.SuggestionResponse;
 import com.buildbetter.plan.dto.suggestions.UpdateSuggestionRequest;
 import com.buildbetter.plan.dto.suggestions.UploadFloorPlans;
 import com.buildbetter.plan.dto.suggestions.UploadHouseFileRequest;
 import com.buildbetter.plan.dto.suggestions.generate.GenerateSuggestionRequest;
 import com.buildbetter.plan.dto.suggestions.generate.GenerateSuggestionResponse;
+import com.buildbetter.plan.dto.suggestions.search.SuggestionSearchRequest;
+import com.buildbetter.plan.dto.suggestions.search.SuggestionSearchResponse;
 import com.buildbetter.plan.model.Material;
 import com.buildbetter.plan.model.Suggestion;
-import com.buildbetter.plan.repository.MaterialRepository;
 import com.buildbetter.plan.repository.SuggestionRepository;
 import com.buildbetter.plan.util.SuggestionUtils;
-import com.buildbetter.shared.constant.S3Folder;
+import com.buildbetter.shared.exception.BadRequestException;
 import com.buildbetter.shared.exception.NotFoundException;
-import com.buildbetter.shared.util.S3Service;
+import com.buildbetter.shared.repository.KeysetPage;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.buildbetter.shared.util.S3BlobStore;
+import com.buildbetter.shared.util.S3DeletionQueue;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -44,9 +47,17 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SuggestionService {
 
-    private final MaterialRepository materialRepository;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final SuggestionRepository suggestionRepository;
-    private final S3Service s3Service;
+    private final S3DeletionQueue s3DeletionQueue;
+    private final S3BlobStore s3BlobStore;
+    private final SuggestionMatchIndex suggestionMatchIndex;
+    private final SuggestionFacetIndex suggestionFacetIndex;
+    private final SuggestionIndexRefresher suggestionIndexRefresher;
+    private final MaterialCatalog materialCatalog;
+    private final EntityManager entityManager;
 
     public UUID addSuggestion(AddSuggestionRequest request) {
         log.info("Suggestion Service : addSugesstion");
@@ -70,56 +81,50 @@ public class SuggestionService {
         suggestion.setMaterials2(request.getMaterials2());
 
         Suggestion saved = suggestionRepository.save(suggestion);
+        suggestionIndexRefresher.upsert(saved);
 
         return saved.getId();
     }
 
+    @Transactional
     public void uploadFloorPlans(UploadFloorPlans request) {
         log.info("Suggestion Service : uploadFloorPlans");
 
         Suggestion suggestion = suggestionRepository.findById(request.getId())
                 .orElseThrow(() -> new NotFoundException("Suggestion not found"));
 
-        String folder = S3Folder.SUGGESTIONS + suggestion.getHouseNumber() + "/";
-
-        List<String> floorPlansList = new ArrayList<>();
-
-        // Upload FloorPlan
-        for (MultipartFile floorplan : request.getFiles()) {
-            if (floorplan.isEmpty())
-                continue;
+        List<MultipartFile> floorplans = Arrays.stream(request.getFiles())
+                .filter(floorplan -> !floorplan.isEmpty())
+                .toList();
 
-            log.info("Suggestion Service : uploadFloorPlans - Upload File " + floorplan.getOriginalFilename()
-                    + " to S3");
-            String imageUrl = s3Service.uploadFile(floorplan, folder, "");
-            floorPlansList.add(imageUrl);
-        }
+        // Upload FloorPlan, all at once and all or nothing, content already in S3 is not sent again
+        log.info("Suggestion Service : uploadFloorPlans - Upload " + floorplans.size() + " file(s) to S3");
+        List<String> floorPlansList = new ArrayList<>(s3BlobStore.uploadAll(floorplans));
 
         if (suggestion.getFloorplans() != null) {
-            for (String floorPlan : suggestion.getFloorplans()) {
-                log.info("Suggestion Service : uploadFloorPlans - Delete old floorplan file " + floorPlan + " from S3");
-                s3Service.deleteFile(floorPlan);
-            }
+            log.info("Suggestion Service : uploadFloorPlans - Delete old floorplan files "
+                    + suggestion.getFloorplans() + " from S3");
+            s3DeletionQueue.enqueue(suggestion.getFloorplans());
         }
 
         suggestion.setFloorplans(floorPlansList);
 
         log.info("Suggestion Service : uploadFloorPlans - Save updated suggestion to DB");
         suggestionRepository.save(suggestion);
+        suggestionIndexRefresher.upsert(suggestion);
     }
 
+    @Transactional
     public void uploadHouseFile(UploadHouseFileRequest request) {
         log.info("Suggestion Service : uploadHouseFile");
 
         Suggestion suggestion = suggestionRepository.findById(request.getId())
                 .orElseThrow(() -> new NotFoundException("Suggestion not found"));
 
-        String folder = S3Folder.SUGGESTIONS + suggestion.getHouseNumber() + "/";
-
         // Upload House Image Object
         log.info("Suggestion Service : uploadHouseFile - Upload File " + request.getFile().getOriginalFilename()
                 + " to S3");
-        String houseImageObjectUrl = s3Service.uploadFile(request.getFile(), folder, "");
+        String houseImageObjectUrl = s3BlobStore.upload(request.getFile());
 
         log.info("Suggestion Service : uploadHouseFile - Convert HouseFileType into enum");
         HouseFileType houseFileType = HouseFileType.fromValueIgnoreCase(request.getType());
@@ -130,7 +135,7 @@ public class SuggestionService {
             if (StringUtils.hasText(houseImage)) {
                 log.info("Suggestion Service : uploadHouseFile - Delete old house file "
                         + houseImage + " from S3");
-                s3Service.deleteFile(houseImage);
+                s3DeletionQueue.enqueue(houseImage);
             }
             suggestion.setHouseImageFront(houseImageObjectUrl);
         } else if (houseFileType == HouseFileType.HOUSE_IMAGE_BACK) {
@@ -138,7 +143,7 @@ public class SuggestionService {
             if (StringUtils.hasText(houseImage)) {
                 log.info("Suggestion Service : uploadHouseFile - Delete old house file "
                         + houseImage + " from S3");
-                s3Service.deleteFile(houseImage);
+                s3DeletionQueue.enqueue(houseImage);
             }
             suggestion.setHouseImageBack(houseImageObjectUrl);
         } else if (houseFileType == HouseFileType.HOUSE_IMAGE_SIDE) {
@@ -146,7 +151,7 @@ public class SuggestionService {
             if (StringUtils.hasText(houseImage)) {
                 log.info("Suggestion Service : uploadHouseFile - Delete old house file "
                         + houseImage + " from S3");
-                s3Service.deleteFile(houseImage);
+                s3DeletionQueue.enqueue(houseImage);
             }
             suggestion.setHouseImageSide(houseImageObjectUrl);
         } else if (houseFileType == HouseFileType.HOUSE_OBJECT) {
@@ -154,7 +159,7 @@ public class SuggestionService {
             if (StringUtils.hasText(houseImage)) {
                 log.info("Suggestion Service : uploadHouseFile - Delete old house file "
                         + houseImage + " from S3");
-                s3Service.deleteFile(houseImage);
+                s3DeletionQueue.enqueue(houseImage);
             }
             suggestion.setObject(houseImageObjectUrl);
         } else if (houseFileType == HouseFileType.PDF) {
@@ -162,15 +167,17 @@ public class SuggestionService {
             if (StringUtils.hasText(houseImage)) {
                 log.info("Suggestion Service : uploadHouseFile - Delete old house file "
                         + houseImage + " from S3");
-                s3Service.deleteFile(houseImage);
+                s3DeletionQueue.enqueue(houseImage);
             }
             suggestion.setPdf(houseImageObjectUrl);
         }
 
         log.info("Suggestion Service : uploadHouseFile - Save updated suggestion to DB");
         suggestionRepository.save(suggestion);
+        suggestionIndexRefresher.upsert(suggestion);
     }
 
+    @Transactional
     public void addSugesstionUrl(AddSuggestionUrlRequest request) {
         log.info("Suggestion Service : addSugesstionUrl");
 
@@ -182,97 +189,116 @@ public class SuggestionService {
 
         // Set the house image based on the type
         String url = request.getUrl();
+        s3BlobStore.reference(url);
         if (houseFileType == HouseFileType.HOUSE_IMAGE_FRONT) {
             if (suggestion.getHouseImageFront() != null) {
                 log.info("Suggestion Service : addSugesstionUrl - Delete old House Image Front file :\""
                         + suggestion.getHouseImageFront() + "\" from S3");
-                s3Service.deleteFile(suggestion.getHouseImageFront());
+                s3DeletionQueue.enqueue(suggestion.getHouseImageFront());
             }
             suggestion.setHouseImageFront(url);
         } else if (houseFileType == HouseFileType.HOUSE_IMAGE_BACK) {
             if (suggestion.getHouseImageBack() != null) {
                 log.info("Suggestion Service : addSugesstionUrl - Delete old House Image Back file :\""
                         + suggestion.getHouseImageBack() + "\" from S3");
-                s3Service.deleteFile(suggestion.getHouseImageBack());
+                s3DeletionQueue.enqueue(suggestion.getHouseImageBack());
             }
             suggestion.setHouseImageBack(url);
         } else if (houseFileType == HouseFileType.HOUSE_IMAGE_SIDE) {
             if (suggestion.getHouseImageSide() != null) {
                 log.info("Suggestion Service : addSugesstionUrl - Delete old House Image Side file :\""
                         + suggestion.getHouseImageSide() + "\" from S3");
-                s3Service.deleteFile(suggestion.getHouseImageSide());
+                s3DeletionQueue.enqueue(suggestion.getHouseImageSide());
             }
             suggestion.setHouseImageSide(url);
         } else if (houseFileType == HouseFileType.HOUSE_OBJECT) {
             if (suggestion.getObject() != null) {
                 log.info("Suggestion Service : addSugesstionUrl - Delete old House Object file :\""
                         + suggestion.getObject() + "\" from S3");
-                s3Service.deleteFile(suggestion.getObject());
+                s3DeletionQueue.enqueue(suggestion.getObject());
             }
             suggestion.setObject(url);
         } else if (houseFileType == HouseFileType.PDF) {
             if (suggestion.getPdf() != null) {
                 log.info("Suggestion Service : addSugesstionUrl - Delete old PDF file :\""
                         + suggestion.getPdf() + "\" from S3");
-                s3Service.deleteFile(suggestion.getPdf());
+                s3DeletionQueue.enqueue(suggestion.getPdf());
             }
             suggestion.setPdf(url);
         }
 
         log.info("Suggestion Service : addSugesstionUrl - Save updated suggestion to DB");
         suggestionRepository.save(suggestion);
+        suggestionIndexRefresher.upsert(suggestion);
     }
 
-    public List<SuggestionResponse> getAllSuggestions() {
-        log.info("Suggestion Service : getAllSuggestions");
-
-        List<Suggestion> suggestions = suggestionRepository.findAll();
-
-        // fetch ALL material ids
-        log.info("Suggestion Service : getAllSuggestions - Fetch all materials from DB");
-        Set<UUID> allIds = suggestions.stream()
-                .flatMap(s -> Stream.of(s.getMaterials0(),
-                        s.getMaterials1(),
-                        s.getMaterials2()))
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toSet());
-
-        log.info("Suggestion Service : getAllSuggestions - Fetch all materials from DB in Map<UUID, Material> format");
-        Map<UUID, Material> materialById = materialRepository.findAllById(allIds) // one query
-                .stream()
-                .collect(Collectors.toMap(Material::getId,
-                        Function.identity()));
-
-        log.info("Suggestion Service : getAllSuggestions - Map every suggestion to SuggestionResponse");
-        return suggestions.stream()
-                .map(s -> SuggestionUtils.toGetSuggestionResponse(s, materialById))
-                .toList();
+    /**
+     * Write every suggestion, newest first, to {@code writer}. Materials are
+     * resolved from the in-memory catalog, only for the selected trees.
+     */
+    @Transactional
+    public void streamAllSuggestions(SuggestionFields fields, JsonEnvelopeWriter writer) throws IOException {
+        log.info("Suggestion Service : streamAllSuggestions");
+
+        Map<UUID, Material> materialById = materialsFor(fields);
+
+        writer.writeAll(suggestionRepository.streamAllSortedByCreatedAt(), entityManager,
+                s -> SuggestionUtils.toGetSuggestionResponse(s, materialById, fields));
+
+        log.info("Suggestion Service : streamAllSuggestions - Streamed {} suggestions", writer.count());
+    }
+
+    /** One keyset page of suggestions, newest first, mapped like {@link #streamAllSuggestions}. */
+    public KeysetPage<SuggestionResponse> getSuggestionPage(SuggestionFields fields, String cursor, Integer limit) {
+        log.info("Suggestion Service : getSuggestionPage");
+
+        KeysetPage<Suggestion> page = suggestionRepository.findPage(null, SuggestionRepository.KEYSET, cursor,
+                KeysetPage.limit(limit));
+
+        Map<UUID, Material> materialById = materialsFor(fields);
+        return page.map(s -> SuggestionUtils.toGetSuggestionResponse(s, materialById, fields));
+    }
+
+    public SuggestionSearchResponse searchSuggestions(SuggestionSearchRequest request) {
+        log.info("Suggestion Service : searchSuggestions");
+
+        int offset = request.getOffset() != null ? request.getOffset() : 0;
+        int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_PAGE_SIZE;
+        validateSearch(request, offset, limit);
+
+        Map<String, Collection<String>> filters = new LinkedHashMap<>();
+        filters.put(SuggestionFacetIndex.STYLE, request.getStyle());
+        filters.put(SuggestionFacetIndex.FLOOR, toStrings(request.getFloor()));
+        filters.put(SuggestionFacetIndex.ROOMS, toStrings(request.getRooms()));
+        filters.put(SuggestionFacetIndex.WIND_DIRECTION, request.getWindDirection());
+
+        /* Intersect the facet bitsets in memory, no DB round trip */
+        log.info("Suggestion Service : searchSuggestions - Search SuggestionFacetIndex");
+        SuggestionFacetIndex.Result result = suggestionFacetIndex.search(
+                new SuggestionFacetIndex.Query(filters, request.getLandAreaMin(), request.getLandAreaMax(),
+                        request.getBudgetMin(), request.getBudgetMax()),
+                offset, limit);
+
+        return SuggestionSearchResponse.builder()
+                .ids(result.ids())
+                .total(result.total())
+                .offset(offset)
+                .limit(limit)
+                .facets(result.facets())
+                .build();
     }
 
-    public SuggestionResponse getSuggestionById(UUID id) {
+    public SuggestionResponse getSuggestionById(UUID id, SuggestionFields fields) {
         log.info("Suggestion Service : getSuggestionById");
 
         Suggestion suggestion = suggestionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Suggestion not found"));
 
-        // fetch ALL material ids
-        log.info("Suggestion Service : getSuggestionById - Fetch all materials from DB");
-        Set<UUID> allIds = Stream.of(suggestion.getMaterials0(),
-                suggestion.getMaterials1(),
-                suggestion.getMaterials2())
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toSet());
-
-        log.info("Suggestion Service : getSuggestionById - Fetch all materials from DB in Map<UUID, Material> format");
-        Map<UUID, Material> materialById = materialRepository.findAllById(allIds) // one query
-                .stream()
-                .collect(Collectors.toMap(Material::getId,
-                        Function.identity()));
+        // Materials are resolved from the in-memory catalog, only for selected trees
+        Map<UUID, Material> materialById = materialsFor(fields);
 
         log.info("Suggestion Service : getSuggestionById - Map suggestion to SuggestionResponse");
-        return SuggestionUtils.toGetSuggestionResponse(suggestion, materialById);
+        return SuggestionUtils.toGetSuggestionResponse(suggestion, materialById, fields);
     }
 
     @Transactional
@@ -314,45 +340,36 @@ public class SuggestionService {
 
         log.info("Suggestion Service : updateSuggestion - Save updated suggestion to DB");
         suggestionRepository.save(existingSuggestion);
+        suggestionIndexRefresher.upsert(existingSuggestion);
     }
 
+    @Transactional
     public void deleteSuggestion(UUID id) {
         log.info("Suggestion Service : deleteSuggestion");
 
         Suggestion suggestion = suggestionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Suggestion not found"));
 
-        // Delete all files from S3 bucket
-        log.info("Suggestion Service : deleteSuggestion - Delete all files from S3 bucket");
-        List<String> floorPlans = suggestion.getFloorplans();
-        if (floorPlans != null) {
-            for (String floorPlan : floorPlans) {
-                log.info("Suggestion Service : deleteSuggestion - Delete floorplan file (" + floorPlan + ") from S3");
-                s3Service.deleteFile(floorPlan);
-            }
-        }
-
-        if (suggestion.getHouseImageFront() != null) {
-            s3Service.deleteFile(suggestion.getHouseImageFront());
-        }
-        if (suggestion.getHouseImageBack() != null) {
-            s3Service.deleteFile(suggestion.getHouseImageBack());
-        }
-        if (suggestion.getHouseImageSide() != null) {
-            s3Service.deleteFile(suggestion.getHouseImageSide());
-        }
-        if (suggestion.getObject() != null) {
-            s3Service.deleteFile(suggestion.getObject());
-        }
-        if (suggestion.getPdf() != null) {
-            s3Service.deleteFile(suggestion.getPdf());
+        List<String> files = new ArrayList<>();
+        if (suggestion.getFloorplans() != null) {
+            files.addAll(suggestion.getFloorplans());
         }
+        files.add(suggestion.getHouseImageFront());
+        files.add(suggestion.getHouseImageBack());
+        files.add(suggestion.getHouseImageSide());
+        files.add(suggestion.getObject());
+        files.add(suggestion.getPdf());
 
         log.info("Suggestion Service : deleteSuggestion - Delete suggestion from DB");
         suggestionRepository.deleteById(id);
+        suggestionIndexRefresher.remove(id);
+
+        // Delete all files from S3 bucket once the row is gone
+        log.info("Suggestion Service : deleteSuggestion - Delete all files from S3 bucket");
+        s3DeletionQueue.enqueue(files);
     }
 
-    public GenerateSuggestionResponse generateSuggestion(GenerateSuggestionRequest req) {
+    public GenerateSuggestionResponse generateSuggestion(GenerateSuggestionRequest req, SuggestionFields fields) {
         log.info("Suggestion Service : generateSuggestion");
 
         GenerateSuggestionResponse response = new GenerateSuggestionResponse();
@@ -363,72 +380,55 @@ public class SuggestionService {
         int landArea = req.getLandArea();
         int floor = req.getFloor();
 
-        /* Fetch all suggestions with EXACT style */
-        log.info("Suggestion Service : generateSuggestion - Fetch all suggestions by style from DB");
-        List<Suggestion> pool = suggestionRepository.findByStyleIgnoreCase(style);
-        if (pool.isEmpty())
-            return response;
-
-        // ── Rule 1 ─ exact match ───────────────────────────────────────
-        log.info("Suggestion Service : generateSuggestion - 1st Rule (exact Match)");
-        List<Suggestion> selected = pool.stream()
-                .filter(s -> s.getLandArea() == landArea && s.getFloor() == floor)
-                .toList();
-
-        // ── Rule 2 ─ same floor, closest smaller landArea ──────────────
-        log.info("Suggestion Service : generateSuggestion - 2nd Rule (same floor, closest smaller landArea)");
-        if (selected.isEmpty()) {
-            Optional<Suggestion> opt = pool.stream()
-                    .filter(s -> s.getFloor() == floor && s.getLandArea() < landArea)
-                    .max(Comparator.comparingInt(Suggestion::getLandArea));
-
-            if (opt.isPresent()) {
-                selected = List.of(opt.get());
-            }
-        }
-
-        // ── Rule 3 ─ same landArea, different floor ────────────────────
-        log.info("Suggestion Service : generateSuggestion - 3rd Rule (same LandArea, different floor)");
-        if (selected.isEmpty()) {
-            selected = pool.stream()
-                    .filter(s -> s.getLandArea() == landArea && s.getFloor() != floor)
-                    .toList();
-        }
-
-        // ── Rule 4 ─ smaller landArea, different floor ─────────────────
-        log.info("Suggestion Service : generateSuggestion - 4th Rule (smaller landArea, different floor)");
-        if (selected.isEmpty()) {
-            Optional<Suggestion> opt = pool.stream()
-                    .filter(s -> s.getLandArea() < landArea && s.getFloor() != floor)
-                    .max(Comparator.comparingInt(Suggestion::getLandArea));
-
-            if (opt.isPresent()) {
-                selected = List.of(opt.get());
-            }
-        }
+        /* Apply rules 1-4 against the in-memory index, no DB round trip */
+        log.info("Suggestion Service : generateSuggestion - Match suggestions from SuggestionMatchIndex");
+        List<Suggestion> selected = suggestionMatchIndex.match(style, landArea, floor);
 
         // ── nothing matched → bail out before hitting materials table ─
         if (selected.isEmpty()) {
             return response;
         }
 
-        /* ── bulk-load materials only once ─────────────────────── */
-        log.info(
-                "Suggestion Service : generateSuggestion - Collect all material ids from selected suggestions (SuggestionUtils.collectMaterialIds)");
-        Set<UUID> matIds = SuggestionUtils.collectMaterialIds(selected);
-        Map<UUID, Material> mats = materialRepository.findAllById(matIds)
-                .stream()
-                .collect(Collectors.toMap(Material::getId, m -> m));
+        /* ── materials come from the in-memory catalog, only for selected trees ── */
+        Map<UUID, Material> mats = materialsFor(fields);
 
         /* map to Array of Suggestion */
         log.info(
                 "Suggestion Service : generateSuggestion - Map selected suggestions to SuggestionResponse (SuggestionUtils.toGetSuggestionResponse)");
         SuggestionResponse[] suggestions = selected.stream()
-                .map(s -> SuggestionUtils.toGetSuggestionResponse(s, mats))
+                .map(s -> SuggestionUtils.toGetSuggestionResponse(s, mats, fields))
                 .toArray(SuggestionResponse[]::new);
 
         response.setSuggestions(suggestions);
 
         return response;
     }
+
+    private Map<UUID, Material> materialsFor(SuggestionFields fields) {
+        return fields.includesMaterials() ? materialCatalog.materialsById() : Map.of();
+    }
+
+    private void validateSearch(SuggestionSearchRequest request, int offset, int limit) {
+        if (offset < 0) {
+            throw new BadRequestException("Field 'offset' must not be negative");
+        }
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Field 'limit' must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        if (request.getLandAreaMin() != null && request.getLandAreaMax() != null
+                && request.getLandAreaMin() > request.getLandAreaMax()) {
+            throw new BadRequestException("Field 'landAreaMin' must not be greater than 'landAreaMax'");
+        }
+
+        if (request.getBudgetMin() != null && request.getBudgetMax() != null
+                && request.getBudgetMin() > request.getBudgetMax()) {
+            throw new BadRequestException("Field 'budgetMin' must not be greater than 'budgetMax'");
+        }
+    }
+
+    private static List<String> toStrings(List<Integer> values) {
+        return values == null ? null : values.stream().map(String::valueOf).toList();
+    }
 }
@@ -1,17 +1,16 @@
 package com.buildbetter.plan.util;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.buildbetter.plan.dto.suggestions.MaterialTree;
+import com.buildbetter.plan.dto.suggestions.SuggestionFields;
 import com.buildbetter.plan.dto.suggestions.SuggestionResponse;
 import com.buildbetter.plan.dto.suggestions.generate.GenerateSuggestionRequest;
 import com.buildbetter.plan.model.Material;
@@ -24,6 +23,15 @@ import lombok.NoArgsConstructor;
 public class SuggestionUtils {
         public static SuggestionResponse toGetSuggestionResponse(Suggestion s,
                         Map<UUID, Material> materialById) {
+                return toGetSuggestionResponse(s, materialById, SuggestionFields.ALL);
+        }
+
+        /**
+         * Response holding the selected fields. Material trees that are not
+         * selected are never built and stay null, materialById may then be empty.
+         */
+        public static SuggestionResponse toGetSuggestionResponse(Suggestion s,
+                        Map<UUID, Material> materialById, SuggestionFields fields) {
 
                 return SuggestionResponse.builder()
                                 .id(s.getId())
@@ -45,44 +53,18 @@ public class SuggestionUtils {
                                 .houseImageFront(s.getHouseImageFront())
                                 .houseImageBack(s.getHouseImageBack())
                                 .houseImageSide(s.getHouseImageSide())
-                                .materials0(groupByCatAndSub(s.getMaterials0(), materialById))
-                                .materials1(groupByCatAndSub(s.getMaterials1(), materialById))
-                                .materials2(groupByCatAndSub(s.getMaterials2(), materialById))
+                                .materials0(fields.includes("materials0")
+                                                ? MaterialTree.of(s.getMaterials0(), materialById)
+                                                : null)
+                                .materials1(fields.includes("materials1")
+                                                ? MaterialTree.of(s.getMaterials1(), materialById)
+                                                : null)
+                                .materials2(fields.includes("materials2")
+                                                ? MaterialTree.of(s.getMaterials2(), materialById)
+                                                : null)
                                 .build();
         }
 
-        public static Map<String, Map<String, List<Material>>> groupByCatAndSub(List<UUID> ids,
-                        Map<UUID, Material> materialById) {
-
-                if (ids == null || ids.isEmpty())
-                        return Collections.emptyMap();
-
-                // return ids.stream()
-                // .map(materialById::get) // null‑safe → skip unknown ids
-                // .filter(Objects::nonNull)
-                // .map(SuggestionUtils::toDto) // Corrected: Using class name for static method
-                // .collect(Collectors.groupingBy(
-                // Material::getCategory, // first level
-                // LinkedHashMap::new,
-                // Collectors.toMap(Material::getSubCategory,
-                // Function.identity(),
-                // (a, b) -> a, // keep first if duplicate
-                // LinkedHashMap::new)));
-                return ids.stream()
-                                .map(materialById::get) // null-safe lookup
-                                .filter(Objects::nonNull) // skip unknown ids
-                                // .map(SuggestionUtils::toDto) // keep if you still need DTO conversion
-                                .collect(Collectors.groupingBy( // ── 1st level: category
-                                                Material::getCategory,
-                                                LinkedHashMap::new,
-                                                Collectors.groupingBy( // ── 2nd level: sub-category
-                                                                Material::getSubCategory,
-                                                                LinkedHashMap::new,
-                                                                Collectors.toList() // collect every material into a
-                                                                                    // List
-                                                )));
-        }
-
         public static Material toDto(Material m) {
                 return Material.builder()
                                 .id(m.getId())
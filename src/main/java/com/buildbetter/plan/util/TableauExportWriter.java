@@ -0,0 +1,127 @@
+package com.buildbetter.plan.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.buildbetter.plan.constant.TableauExportFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+/**
+ * Writes export rows straight to the response stream, one row at a time.
+ * Closing flushes but leaves the underlying stream open.
+ */
+public interface TableauExportWriter extends Closeable {
+
+    void writeRow(Object[] row) throws IOException;
+
+    void flush() throws IOException;
+
+    static TableauExportWriter open(TableauExportFormat format, List<String> columns, OutputStream out)
+            throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(columns, out);
+            case NDJSON -> new Ndjson(columns, out);
+        };
+    }
+
+    /** RFC 4180 CSV with a header line, nulls left empty. */
+    final class Csv implements TableauExportWriter {
+
+        private final Writer writer;
+
+        private Csv(List<String> columns, OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeRow(columns.toArray());
+        }
+
+        @Override
+        public void writeRow(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (row[i] != null) {
+                    writeField(row[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /** One JSON object per line, keyed by column name. */
+    final class Ndjson implements TableauExportWriter {
+
+        private static final JsonFactory JSON_FACTORY = JsonFactory.builder().build();
+
+        private final String[] columns;
+        private final JsonGenerator generator;
+
+        private Ndjson(List<String> columns, OutputStream out) throws IOException {
+            this.columns = columns.toArray(String[]::new);
+            this.generator = JSON_FACTORY.createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setPrettyPrinter(new MinimalPrettyPrinter(""));
+        }
+
+        @Override
+        public void writeRow(Object[] row) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = row[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -2,20 +2,40 @@ package com.buildbetter.plan.util;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 import com.buildbetter.plan.constant.HouseMaterial;
+import com.buildbetter.plan.dto.materials.MaterialName;
 import com.buildbetter.plan.dto.tableau.TableauResponse;
-import com.buildbetter.plan.model.Material;
 import com.buildbetter.plan.model.Suggestion;
 
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor
 public class TableauUtils {
+
+    // Budget tiers as laid out in the export, with their budget index
+    private static final String[] TIERS = { "original", "economical", "premium" };
+
+    // Column suffix per material, in HouseMaterial order
+    private static final Map<HouseMaterial, String> MATERIAL_COLUMNS = new EnumMap<>(Map.of(
+            HouseMaterial.ROOF, "roof",
+            HouseMaterial.ROOF_STRUCTURE, "roof_structure",
+            HouseMaterial.PLAFON, "plafon",
+            HouseMaterial.WALL_COATING, "wall_cladding",
+            HouseMaterial.WALL_STRUCTURE, "wall_structure",
+            HouseMaterial.DOOR, "door",
+            HouseMaterial.SHUTTER, "shutter",
+            HouseMaterial.WINDOW_FRAME, "window_frame",
+            HouseMaterial.FLOOR, "coating",
+            HouseMaterial.BEAM_COLUMN_STRUCTURE, "beam_column_structure"));
+
+    /** Export columns, same names and order as the fields of {@link TableauResponse}. */
+    public static final List<String> EXPORT_COLUMNS = exportColumns();
+
     public static String safeGet(List<Integer> list, int idx) {
         if (list == null || list.size() <= idx || list.get(idx) == null) {
             return "Null";
@@ -23,37 +43,11 @@ public class TableauUtils {
         return list.get(idx).toString();
     }
 
-    public static TableauResponse toTableauResponse(Suggestion s, List<Material> materials0, List<Material> materials1,
-            List<Material> materials2) {
-
-        // 1) Floor‑plans: keep max four, fill nulls if list shorter
-        String fp1 = null, fp2 = null, fp3 = null, fp4 = null;
-        if (s.getFloorplans() != null && !s.getFloorplans().isEmpty()) {
-            List<String> fps = s.getFloorplans();
-            if (fps.size() > 0)
-                fp1 = fps.get(0);
-            if (fps.size() > 1)
-                fp2 = fps.get(1);
-            if (fps.size() > 2)
-                fp3 = fps.get(2);
-            if (fps.size() > 3)
-                fp4 = fps.get(3);
-        }
-
-        // 2) Resolve ORIGINAL (materials_1) UUIDs to material names by category
-        Map<String, String> economicalMaterials = resolveOriginalMaterials(materials0);
-        Map<String, String> originalMaterials = resolveOriginalMaterials(materials1);
-        Map<String, String> premiumMaterials = resolveOriginalMaterials(materials2);
+    public static TableauResponse toTableauResponse(Suggestion s, Map<UUID, MaterialName> materialsById) {
+        Map<HouseMaterial, String> economicalMaterials = resolveMaterials(s.getMaterials0(), materialsById);
+        Map<HouseMaterial, String> originalMaterials = resolveMaterials(s.getMaterials1(), materialsById);
+        Map<HouseMaterial, String> premiumMaterials = resolveMaterials(s.getMaterials2(), materialsById);
 
-        List<String> budgetRange = new ArrayList<>();
-
-        for (int i = 0; i < 3; i++) {
-            String min = TableauUtils.safeGet(s.getBudgetMin(), i);
-            String max = TableauUtils.safeGet(s.getBudgetMax(), i);
-            budgetRange.add(min + " - " + max);
-        }
-
-        /* 3) Build the DTO -------------------------------------------------- */
         return TableauResponse.builder()
                 .id(s.getId())
                 .houseNumber(s.getHouseNumber())
@@ -65,62 +59,127 @@ public class TableauUtils {
                 .houseImageFront(s.getHouseImageFront())
                 .houseImageSide(s.getHouseImageSide())
                 .houseImageBack(s.getHouseImageBack())
-                .floorPlan1(fp1)
-                .floorPlan2(fp2)
-                .floorPlan3(fp3)
-                .floorPlan4(fp4)
+                .floorPlan1(floorPlan(s, 0))
+                .floorPlan2(floorPlan(s, 1))
+                .floorPlan3(floorPlan(s, 2))
+                .floorPlan4(floorPlan(s, 3))
                 .designer(s.getDesigner())
-                .originalBudget(budgetRange.get(0))
-                .originalRoof(originalMaterials.get(HouseMaterial.ROOF.getSubCategory()))
-                .originalRoofStructure(originalMaterials.get(HouseMaterial.ROOF_STRUCTURE.getSubCategory()))
-                .originalPlafon(originalMaterials.get(HouseMaterial.PLAFON.getSubCategory()))
-                .originalWallCladding(originalMaterials.get(HouseMaterial.WALL_COATING.getSubCategory()))
-                .originalWallStructure(originalMaterials.get(HouseMaterial.WALL_STRUCTURE.getSubCategory()))
-                .originalDoor(originalMaterials.get(HouseMaterial.DOOR.getSubCategory()))
-                .originalShutter(originalMaterials.get(HouseMaterial.SHUTTER.getSubCategory()))
-                .originalWindowFrame(originalMaterials.get(HouseMaterial.WINDOW_FRAME.getSubCategory()))
-                .originalCoating(originalMaterials.get(HouseMaterial.FLOOR.getSubCategory()))
-                .originalBeamColumnStructure(
-                        originalMaterials.get(HouseMaterial.BEAM_COLUMN_STRUCTURE.getSubCategory()))
-                .economicalBudget(budgetRange.get(1))
-                .economicalRoof(economicalMaterials.get(HouseMaterial.ROOF.getSubCategory()))
-                .economicalRoofStructure(economicalMaterials.get(HouseMaterial.ROOF_STRUCTURE.getSubCategory()))
-                .economicalPlafon(economicalMaterials.get(HouseMaterial.PLAFON.getSubCategory()))
-                .economicalWallCladding(economicalMaterials.get(HouseMaterial.WALL_COATING.getSubCategory()))
-                .economicalWallStructure(economicalMaterials.get(HouseMaterial.WALL_STRUCTURE.getSubCategory()))
-                .economicalDoor(economicalMaterials.get(HouseMaterial.DOOR.getSubCategory()))
-                .economicalShutter(economicalMaterials.get(HouseMaterial.SHUTTER.getSubCategory()))
-                .economicalWindowFrame(economicalMaterials.get(HouseMaterial.WINDOW_FRAME.getSubCategory()))
-                .economicalCoating(economicalMaterials.get(HouseMaterial.FLOOR.getSubCategory()))
-                .economicalBeamColumnStructure(
-                        economicalMaterials.get(HouseMaterial.BEAM_COLUMN_STRUCTURE.getSubCategory()))
-                .premiumBudget(budgetRange.get(2))
-                .premiumRoof(premiumMaterials.get(HouseMaterial.ROOF.getSubCategory()))
-                .premiumRoofStructure(premiumMaterials.get(HouseMaterial.ROOF_STRUCTURE.getSubCategory()))
-                .premiumPlafon(premiumMaterials.get(HouseMaterial.PLAFON.getSubCategory()))
-                .premiumWallCladding(premiumMaterials.get(HouseMaterial.WALL_COATING.getSubCategory()))
-                .premiumWallStructure(premiumMaterials.get(HouseMaterial.WALL_STRUCTURE.getSubCategory()))
-                .premiumDoor(premiumMaterials.get(HouseMaterial.DOOR.getSubCategory()))
-                .premiumShutter(premiumMaterials.get(HouseMaterial.SHUTTER.getSubCategory()))
-                .premiumWindowFrame(premiumMaterials.get(HouseMaterial.WINDOW_FRAME.getSubCategory()))
-                .premiumCoating(premiumMaterials.get(HouseMaterial.FLOOR.getSubCategory()))
-                .premiumBeamColumnStructure(premiumMaterials.get(HouseMaterial.BEAM_COLUMN_STRUCTURE.getSubCategory()))
+                .originalBudget(budgetRange(s, 0))
+                .originalRoof(originalMaterials.get(HouseMaterial.ROOF))
+                .originalRoofStructure(originalMaterials.get(HouseMaterial.ROOF_STRUCTURE))
+                .originalPlafon(originalMaterials.get(HouseMaterial.PLAFON))
+                .originalWallCladding(originalMaterials.get(HouseMaterial.WALL_COATING))
+                .originalWallStructure(originalMaterials.get(HouseMaterial.WALL_STRUCTURE))
+                .originalDoor(originalMaterials.get(HouseMaterial.DOOR))
+                .originalShutter(originalMaterials.get(HouseMaterial.SHUTTER))
+                .originalWindowFrame(originalMaterials.get(HouseMaterial.WINDOW_FRAME))
+                .originalCoating(originalMaterials.get(HouseMaterial.FLOOR))
+                .originalBeamColumnStructure(originalMaterials.get(HouseMaterial.BEAM_COLUMN_STRUCTURE))
+                .economicalBudget(budgetRange(s, 1))
+                .economicalRoof(economicalMaterials.get(HouseMaterial.ROOF))
+                .economicalRoofStructure(economicalMaterials.get(HouseMaterial.ROOF_STRUCTURE))
+                .economicalPlafon(economicalMaterials.get(HouseMaterial.PLAFON))
+                .economicalWallCladding(economicalMaterials.get(HouseMaterial.WALL_COATING))
+                .economicalWallStructure(economicalMaterials.get(HouseMaterial.WALL_STRUCTURE))
+                .economicalDoor(economicalMaterials.get(HouseMaterial.DOOR))
+                .economicalShutter(economicalMaterials.get(HouseMaterial.SHUTTER))
+                .economicalWindowFrame(economicalMaterials.get(HouseMaterial.WINDOW_FRAME))
+                .economicalCoating(economicalMaterials.get(HouseMaterial.FLOOR))
+                .economicalBeamColumnStructure(economicalMaterials.get(HouseMaterial.BEAM_COLUMN_STRUCTURE))
+                .premiumBudget(budgetRange(s, 2))
+                .premiumRoof(premiumMaterials.get(HouseMaterial.ROOF))
+                .premiumRoofStructure(premiumMaterials.get(HouseMaterial.ROOF_STRUCTURE))
+                .premiumPlafon(premiumMaterials.get(HouseMaterial.PLAFON))
+                .premiumWallCladding(premiumMaterials.get(HouseMaterial.WALL_COATING))
+                .premiumWallStructure(premiumMaterials.get(HouseMaterial.WALL_STRUCTURE))
+                .premiumDoor(premiumMaterials.get(HouseMaterial.DOOR))
+                .premiumShutter(premiumMaterials.get(HouseMaterial.SHUTTER))
+                .premiumWindowFrame(premiumMaterials.get(HouseMaterial.WINDOW_FRAME))
+                .premiumCoating(premiumMaterials.get(HouseMaterial.FLOOR))
+                .premiumBeamColumnStructure(premiumMaterials.get(HouseMaterial.BEAM_COLUMN_STRUCTURE))
                 .build();
     }
 
-    public static Map<String, String> resolveOriginalMaterials(List<Material> materials) {
-        if (materials == null || materials.isEmpty()) {
+    /**
+     * One export row, values aligned with {@link #EXPORT_COLUMNS}. Areas and
+     * counts stay Integers, everything else is a String (or null).
+     */
+    public static Object[] toExportRow(Suggestion s, Map<UUID, MaterialName> materialsById) {
+        Object[] row = new Object[EXPORT_COLUMNS.size()];
+        int i = 0;
+        row[i++] = s.getId() == null ? null : s.getId().toString();
+        row[i++] = s.getHouseNumber();
+        row[i++] = s.getLandArea();
+        row[i++] = s.getBuildingArea();
+        row[i++] = s.getStyle();
+        row[i++] = s.getFloor();
+        row[i++] = s.getRooms();
+        row[i++] = s.getHouseImageFront();
+        row[i++] = s.getHouseImageSide();
+        row[i++] = s.getHouseImageBack();
+        for (int fp = 0; fp < 4; fp++) {
+            row[i++] = floorPlan(s, fp);
+        }
+        row[i++] = s.getDesigner();
+
+        for (int tier = 0; tier < TIERS.length; tier++) {
+            Map<HouseMaterial, String> materials = resolveMaterials(tierMaterials(s, tier), materialsById);
+            row[i++] = budgetRange(s, tier);
+            for (HouseMaterial material : MATERIAL_COLUMNS.keySet()) {
+                row[i++] = materials.get(material);
+            }
+        }
+        return row;
+    }
+
+    /** HouseMaterial → "name1, name2" for the given material ids, unknown ids skipped. */
+    public static Map<HouseMaterial, String> resolveMaterials(List<UUID> materialIds,
+            Map<UUID, MaterialName> materialsById) {
+        if (materialIds == null || materialIds.isEmpty()) {
             return Collections.emptyMap();
         }
 
-        // subCategory → "name1,name2,…"
-        return materials.stream()
-                .collect(Collectors.groupingBy(
-                        Material::getSubCategory, // key
-                        LinkedHashMap::new, // keep insertion order
-                        Collectors.mapping(
-                                Material::getName, // extract each name
-                                Collectors.joining(", ") // join names with commas
-                        )));
+        Map<HouseMaterial, String> resolved = new EnumMap<>(HouseMaterial.class);
+        for (UUID id : materialIds) {
+            MaterialName material = materialsById.get(id);
+            if (material == null) {
+                continue;
+            }
+            HouseMaterial houseMaterial = HouseMaterial.fromSubCategory(material.subCategory());
+            if (houseMaterial != null) {
+                resolved.merge(houseMaterial, material.name(), (names, name) -> names + ", " + name);
+            }
+        }
+        return resolved;
+    }
+
+    // original → materials_1, economical → materials_0, premium → materials_2
+    private static List<UUID> tierMaterials(Suggestion s, int tier) {
+        return switch (tier) {
+            case 0 -> s.getMaterials1();
+            case 1 -> s.getMaterials0();
+            default -> s.getMaterials2();
+        };
+    }
+
+    private static String budgetRange(Suggestion s, int tier) {
+        return safeGet(s.getBudgetMin(), tier) + " - " + safeGet(s.getBudgetMax(), tier);
+    }
+
+    // Keep max four floor-plans, null when the list is shorter
+    private static String floorPlan(Suggestion s, int idx) {
+        List<String> fps = s.getFloorplans();
+        return fps != null && fps.size() > idx ? fps.get(idx) : null;
+    }
+
+    private static List<String> exportColumns() {
+        List<String> columns = new ArrayList<>(List.of("id", "house_number", "land_area", "building_area", "style",
+                "floor", "rooms", "house_image_front", "house_image_side", "house_image_back", "floor_plan1",
+                "floor_plan2", "floor_plan3", "floor_plan4", "designer"));
+        for (String tier : TIERS) {
+            columns.add(tier + "_budget");
+            MATERIAL_COLUMNS.values().forEach(suffix -> columns.add(tier + "_" + suffix));
+        }
+        return List.copyOf(columns);
     }
 }
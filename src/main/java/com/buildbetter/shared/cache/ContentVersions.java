@@ -0,0 +1,136 @@
+package com.buildbetter.shared.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.buildbetter.shared.util.TransactionHooks;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cluster-wide version counters of read-mostly content, kept in Redis. Every
+ * write bumps the counter of the content it changed once its transaction
+ * commits, so any node can tell whether a cached response is still current
+ * with one Redis round trip and without touching the database.
+ *
+ * Missing counters are seeded with the clock, so a wiped Redis never hands
+ * out a version that was already used for other content.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContentVersions {
+
+    private static final String PREFIX_VERSION = "content-version:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CURRENT_SCRIPT = new DefaultRedisScript<>("""
+            local versions = {}
+            for i, key in ipairs(KEYS) do
+              redis.call('SET', key, ARGV[1], 'NX')
+              versions[i] = redis.call('GET', key)
+            end
+            return versions
+            """, List.class);
+
+    private static final RedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('SET', KEYS[1], ARGV[1], 'NX')
+            return redis.call('INCR', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Current versions of {@code contents}, empty when Redis cannot be reached
+     * (callers then skip their cache).
+     */
+    public Optional<Versions> current(String... contents) {
+        List<String> keys = new ArrayList<>(contents.length);
+        for (String content : contents) {
+            keys.add(PREFIX_VERSION + content);
+        }
+
+        try {
+            List<?> values = redisTemplate.execute(CURRENT_SCRIPT, keys, seed());
+            if (values == null || values.size() != contents.length) {
+                return Optional.empty();
+            }
+
+            Map<String, Long> versions = new LinkedHashMap<>();
+            for (int i = 0; i < contents.length; i++) {
+                versions.put(contents[i], Long.parseLong(values.get(i).toString()));
+            }
+            return Optional.of(new Versions(Collections.unmodifiableMap(versions)));
+        } catch (RuntimeException e) {
+            log.warn("Content Versions : current - Could not reach Redis for {}: {}", keys, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Mark {@code content} as changed. When called inside a transaction the
+     * counter is only bumped once that transaction commits, so a reader that
+     * sees the new version also sees the write.
+     */
+    public void bump(String content) {
+        bump(content, version -> {
+        });
+    }
+
+    /**
+     * Same as {@link #bump(String)}, then hand the version it produced to
+     * {@code bumped}. Not called when Redis cannot be reached.
+     */
+    public void bump(String content, LongConsumer bumped) {
+        TransactionHooks.afterCommit(() -> {
+            Long version = increment(content);
+            if (version != null) {
+                bumped.accept(version);
+            }
+        });
+    }
+
+    private Long increment(String content) {
+        try {
+            return redisTemplate.execute(BUMP_SCRIPT, List.of(PREFIX_VERSION + content), seed());
+        } catch (RuntimeException e) {
+            log.warn("Content Versions : bump - Could not reach Redis for {}: {}", content, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String seed() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+    /** Versions of several contents read together. */
+    public record Versions(Map<String, Long> byContent) {
+
+        public long of(String content) {
+            return byContent.get(content);
+        }
+
+        /** The versions joined, for an entity tag. */
+        public String tag() {
+            StringBuilder tag = new StringBuilder();
+            for (Long version : byContent.values()) {
+                if (!tag.isEmpty()) {
+                    tag.append('.');
+                }
+                tag.append(version);
+            }
+            return tag.toString();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.buildbetter.shared.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.buildbetter.shared.cache.ContentVersions.Versions;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * HTTP caching for read-mostly JSON listings.
+ *
+ * Every response gets a strong ETag built from the {@link ContentVersions} it
+ * depends on and {@code Cache-Control: private, no-cache}, so clients
+ * revalidate on every launch and get a bodiless 304 while nothing changed.
+ * That check costs one Redis round trip and no database access.
+ *
+ * The bodies of the most recently used variants are kept fully rendered, as
+ * is and gzip-compressed, and served straight from memory until a version
+ * they depend on moves. On a miss the body streams to the client while a
+ * copy is taken on the side; the copy is dropped, and the variant left
+ * uncached, as soon as it grows past {@link #MAX_BODY_BYTES}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResponseCache {
+
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    // Bodies above this are served but not kept
+    static final int MAX_BODY_BYTES = 4 * 1024 * 1024;
+
+    static final int MAX_ENTRIES = 64;
+
+    static final long MAX_TOTAL_BYTES = 64L * 1024 * 1024;
+
+    private static final String GZIP = "gzip";
+
+    private final ContentVersions contentVersions;
+
+    // key → rendered body, least recently used first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    /**
+     * Serve the variant {@code key} of a listing that depends on
+     * {@code contents}. {@code render} builds the uncached response for the
+     * given versions; it only runs on a miss, or with {@code null} versions
+     * when Redis is unreachable and the response goes out uncached.
+     */
+    public ResponseEntity<StreamingResponseBody> serve(WebRequest request, String key, List<String> contents,
+            Function<Versions, ResponseEntity<StreamingResponseBody>> render) {
+        Optional<Versions> current = contentVersions.current(contents.toArray(String[]::new));
+        if (current.isEmpty()) {
+            return render.apply(null);
+        }
+
+        Versions versions = current.get();
+        String etag = "\"" + Integer.toHexString(key.hashCode()) + "-" + versions.tag() + "\"";
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            log.info("Response Cache : serve - {} not modified", key);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
+        }
+
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        Entry entry = get(key);
+        if (entry != null && entry.etag().equals(etag)) {
+            byte[] body = gzip ? entry.gzip() : entry.identity();
+            return ok(etag, entry.contentType(), gzip)
+                    .contentLength(body.length)
+                    .body(out -> out.write(body));
+        }
+
+        ResponseEntity<StreamingResponseBody> response = render.apply(versions);
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return response;
+        }
+
+        log.info("Response Cache : serve - Render {} for {}", key, etag);
+        StreamingResponseBody rendered = response.getBody();
+        MediaType contentType = response.getHeaders().getContentType() != null
+                ? response.getHeaders().getContentType()
+                : MediaType.APPLICATION_JSON;
+        return ok(etag, contentType, gzip).body(out -> {
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out) : null;
+            CopyingOutputStream copy = new CopyingOutputStream(compressed != null ? compressed : out);
+            rendered.writeTo(copy);
+            if (compressed != null) {
+                compressed.finish();
+            }
+
+            // Only a body written out in full, and small enough, is kept
+            byte[] identity = copy.copy();
+            if (identity != null) {
+                put(key, Entry.of(etag, contentType, identity));
+            } else {
+                log.info("Response Cache : serve - {} above {} bytes, not kept", key, MAX_BODY_BYTES);
+                remove(key);
+            }
+        });
+    }
+
+    private static ResponseEntity.BodyBuilder ok(String etag, MediaType contentType, boolean gzip) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(contentType);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return builder;
+    }
+
+    private synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void remove(String key) {
+        Entry stale = entries.remove(key);
+        totalBytes -= stale != null ? stale.size() : 0;
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        totalBytes += entry.size() - (previous != null ? previous.size() : 0);
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > MAX_ENTRIES || totalBytes > MAX_TOTAL_BYTES) && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            if (evicted.getKey().equals(key)) {
+                continue;
+            }
+            totalBytes -= evicted.getValue().size();
+            eldest.remove();
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // If-None-Match : "*" or a list of tags, weak comparison as RFC 9110 asks for
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equals(GZIP) && !parts[0].trim().equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                refused |= param.startsWith("q=") && quality(param.substring(2)) == 0;
+            }
+            return !refused;
+        }
+        return false;
+    }
+
+    // A q-value that does not parse counts as absent, i.e. 1
+    private static double quality(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /** One rendered variant, as is and gzip-compressed. */
+    record Entry(String etag, MediaType contentType, byte[] identity, byte[] gzip) {
+
+        static Entry of(String etag, MediaType contentType, byte[] identity) {
+            try {
+                ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+                try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                    out.write(identity);
+                }
+                return new Entry(etag, contentType, identity, gzip.toByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        long size() {
+            return (long) identity.length + gzip.length;
+        }
+    }
+
+    /**
+     * Passes everything on to the response and keeps a copy of it, up to
+     * {@link #MAX_BODY_BYTES}. Closing only flushes, the response stays open
+     * for the gzip trailer.
+     */
+    static final class CopyingOutputStream extends FilterOutputStream {
+
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CopyingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            keep(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            keep(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        /** Everything written, null once it went past the limit. */
+        byte[] copy() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+
+        private void keep(byte[] b, int off, int len) {
+            if (copy == null) {
+                return;
+            }
+            if (copy.size() + len > MAX_BODY_BYTES) {
+                copy = null;
+                return;
+            }
+            copy.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.buildbetter.shared.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Messages between the nodes of the cluster, over Redis pub/sub. Every
+ * message carries the id of the node that published it, and subscribers
+ * never get their own node's messages back: whoever publishes has already
+ * delivered locally.
+ *
+ * Delivery is at most once. A node that is not subscribed yet, or that
+ * lost Redis for a moment, misses what was published meanwhile.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterBus {
+
+    // Node ids are UUIDs, never containing it
+    private static final char SEPARATOR = '\n';
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** Send {@code payload} to the other nodes subscribed to {@code channel}. */
+    public void publish(String channel, String payload) {
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + SEPARATOR + payload);
+        } catch (RuntimeException e) {
+            log.warn("Cluster Bus : publish - Could not reach Redis for {}: {}", channel, e.getMessage());
+        }
+    }
+
+    /**
+     * Hand payloads other nodes publish on {@code channel} to
+     * {@code listener}, one at a time in publish order, until cancelled.
+     */
+    public Subscription subscribe(String channel, Consumer<String> listener) {
+        ChannelTopic topic = new ChannelTopic(channel);
+        MessageListener adapter = (message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.indexOf(SEPARATOR);
+            if (separator < 0 || separator == nodeId.length() && body.startsWith(nodeId)) {
+                return; // malformed, or published here and delivered locally already
+            }
+            listener.accept(body.substring(separator + 1));
+        };
+
+        listenerContainer.addMessageListener(adapter, topic);
+        return () -> listenerContainer.removeMessageListener(adapter, topic);
+    }
+
+    /** A live subscription, see {@link #subscribe}. */
+    @FunctionalInterface
+    public interface Subscription {
+        void cancel();
+    }
+}
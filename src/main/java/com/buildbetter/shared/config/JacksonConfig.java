@@ -0,0 +1,21 @@
+package com.buildbetter.shared.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * DTOs annotated with {@code @JsonFilter} serialize every property unless
+     * the response is a {@code MappingJacksonValue} carrying its own filters
+     * (sparse fieldsets).
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer serializeAllByDefault() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
@@ -0,0 +1,32 @@
+package com.buildbetter.shared.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class RedisPubSubConfig {
+
+    /**
+     * One subscriber connection for every channel this node listens to.
+     * Messages are handed to listeners one at a time, in the order Redis
+     * delivered them, so a room never sees its messages reordered.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        // Not a bean of its own, it would replace Boot's application task executor
+        ThreadPoolTaskExecutor dispatcher = new ThreadPoolTaskExecutor();
+        dispatcher.setCorePoolSize(1);
+        dispatcher.setMaxPoolSize(1);
+        dispatcher.setThreadNamePrefix("redis-pubsub-");
+        dispatcher.setDaemon(true);
+        dispatcher.initialize();
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(dispatcher);
+        return container;
+    }
+}
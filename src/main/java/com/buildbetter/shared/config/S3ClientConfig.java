@@ -0,0 +1,50 @@
+package com.buildbetter.shared.config;
+
+import java.net.URI;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.buildbetter.shared.model.S3Properties;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+
+@Configuration
+public class S3ClientConfig {
+
+    /**
+     * One long-lived client for the whole application so its connection pool,
+     * TLS sessions and credentials are reused across uploads and deletes.
+     */
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient(S3Properties s3Properties) {
+        return s3AsyncClientBuilder(s3Properties).build();
+    }
+
+    public static S3AsyncClientBuilder s3AsyncClientBuilder(S3Properties s3Properties) {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .region(Region.of(s3Properties.getRegion()))
+                .credentialsProvider(
+                        StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create(
+                                        s3Properties.getAccessKey(),
+                                        s3Properties.getSecretKey())))
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(s3Properties.getMultipartThresholdBytes())
+                        .minimumPartSizeInBytes(s3Properties.getMultipartPartSizeBytes())
+                        .build());
+
+        if (s3Properties.getEndpoint() != null && !s3Properties.getEndpoint().isBlank()) {
+            builder.endpointOverride(URI.create(s3Properties.getEndpoint()))
+                    .forcePathStyle(true);
+        }
+
+        return builder;
+    }
+}
@@ -0,0 +1,8 @@
+package com.buildbetter.shared.constant;
+
+public class CachedContent {
+    public static final String MATERIALS = "materials";
+    public static final String SUGGESTIONS = "suggestions";
+    public static final String ARTICLES = "articles";
+    public static final String ARCHITECTS = "architects";
+}
@@ -7,4 +7,5 @@ public class S3Folder {
     public static final String CONSULTATIONS = "consultations/";
     public static final String CHAT = "chat/";
     public static final String ARTICLES = "articles/";
+    public static final String BLOBS = "blobs/";
 }
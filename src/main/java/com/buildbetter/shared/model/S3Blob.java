@@ -0,0 +1,66 @@
+package com.buildbetter.shared.model;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.buildbetter.shared.constant.S3Folder;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Content-addressed S3 object, stored once under the SHA-256 of its content
+ * however many entities point at it. {@code refCount} counts those
+ * references; the object is only deleted once it drops to zero.
+ */
+@Entity
+@Table(name = "s3_blobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class S3Blob {
+
+    // blobs/<64 hex digits>[.ext], at the end of a key or a full public URL
+    private static final Pattern KEY = Pattern
+            .compile("(?:^|/)(" + Pattern.quote(S3Folder.BLOBS) + "[0-9a-f]{64}(?:\\.[a-z0-9]{1,10})?)$");
+
+    private static final Pattern EXTENSION = Pattern.compile("\\.([A-Za-z0-9]{1,10})$");
+
+    @Id
+    @Column(name = "object_key", nullable = false, updatable = false, columnDefinition = "text")
+    private String objectKey;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /** Key of the content with digest {@code sha256}, keeping the file extension. */
+    public static String keyFor(String sha256, String fileName) {
+        Matcher extension = EXTENSION.matcher(fileName == null ? "" : fileName);
+        return S3Folder.BLOBS + sha256
+                + (extension.find() ? "." + extension.group(1).toLowerCase(Locale.ROOT) : "");
+    }
+
+    /** Blob key of a key or full URL, null when it is not a content-addressed object. */
+    public static String keyOf(String keyOrUrl) {
+        if (keyOrUrl == null) {
+            return null;
+        }
+        Matcher matcher = KEY.matcher(keyOrUrl);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.buildbetter.shared.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * S3 object waiting to be deleted. Written in the same transaction as the
+ * entity change that orphaned it, drained by the S3 garbage collector.
+ */
+@Entity
+@Table(name = "s3_deletion_queue")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class S3DeletionTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(nullable = false, updatable = false)
+    private UUID id;
+
+    // Object key or full public URL, as stored on the entity
+    @Column(name = "object_key", nullable = false, columnDefinition = "text")
+    private String objectKey;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
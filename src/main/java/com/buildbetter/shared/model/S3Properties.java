@@ -13,4 +13,9 @@ public class S3Properties {
     private String bucketName;
     private String region;
     private String baseUrl;
+    // Optional endpoint override, e.g. a local S3 compatible store
+    private String endpoint;
+    // Objects larger than this are uploaded in parts
+    private long multipartThresholdBytes = 8L * 1024 * 1024;
+    private long multipartPartSizeBytes = 8L * 1024 * 1024;
 }
@@ -0,0 +1,124 @@
+package com.buildbetter.shared.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.buildbetter.shared.exception.BadRequestException;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Keyset order of one listing : a sort attribute with the id as tie breaker,
+ * or the id alone. A page is read as
+ *
+ * WHERE (key, id) after the cursor ORDER BY key, id LIMIT n
+ *
+ * so with an index on (key, id) the millionth page costs the same as the
+ * first. The cursor handed to clients is opaque : the url-safe Base64 of the
+ * id and the key of the last row of the previous page.
+ */
+public final class Keyset<E, K extends Comparable<? super K>> {
+
+    private static final char SEPARATOR = '|';
+
+    private final String attribute;
+    private final Sort.Direction direction;
+    private final Function<E, K> keyOf;
+    private final Function<String, K> parseKey;
+    private final Function<E, UUID> idOf;
+
+    private Keyset(String attribute, Sort.Direction direction, Function<E, K> keyOf, Function<String, K> parseKey,
+            Function<E, UUID> idOf) {
+        this.attribute = attribute;
+        this.direction = direction;
+        this.keyOf = keyOf;
+        this.parseKey = parseKey;
+        this.idOf = idOf;
+    }
+
+    /** Order on {@code attribute} then id, both in {@code direction}. */
+    public static <E, K extends Comparable<? super K>> Keyset<E, K> of(String attribute, Sort.Direction direction,
+            Function<E, K> keyOf, Function<String, K> parseKey, Function<E, UUID> idOf) {
+        return new Keyset<>(attribute, direction, keyOf, parseKey, idOf);
+    }
+
+    /** Newest first on a {@code createdAt} attribute. */
+    public static <E> Keyset<E, LocalDateTime> newestFirst(Function<E, LocalDateTime> createdAtOf,
+            Function<E, UUID> idOf) {
+        return of("createdAt", Sort.Direction.DESC, createdAtOf, LocalDateTime::parse, idOf);
+    }
+
+    /** Id order only, for tables without a meaningful sort column. */
+    public static <E> Keyset<E, UUID> byId(Function<E, UUID> idOf) {
+        return new Keyset<>(null, Sort.Direction.ASC, idOf, UUID::fromString, idOf);
+    }
+
+    public Sort sort() {
+        Sort byId = Sort.by(direction, "id");
+        return attribute == null ? byId : Sort.by(direction, attribute).and(byId);
+    }
+
+    /** Opaque cursor pointing just after {@code last}. */
+    public String cursorOf(E last) {
+        String raw = attribute == null
+                ? idOf.apply(last).toString()
+                : idOf.apply(last).toString() + SEPARATOR + keyOf.apply(last);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rows strictly after {@code cursor} in {@link #sort()} order, {@code null}
+     * (no filter) for a missing cursor.
+     *
+     * @throws BadRequestException when the cursor was not issued by this keyset
+     */
+    public Specification<E> after(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        UUID id;
+        K key;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if ((attribute == null) != (separator < 0)) {
+                throw new IllegalArgumentException("Cursor shape does not match the keyset");
+            }
+            id = UUID.fromString(attribute == null ? raw : raw.substring(0, separator));
+            key = attribute == null ? null : parseKey.apply(raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+
+        return (root, query, cb) -> {
+            Path<UUID> idPath = root.get("id");
+            if (attribute == null) {
+                return beyond(cb, idPath, id);
+            }
+
+            // key <= cursor key (>= ascending) bounds the index range scan, the
+            // OR only settles ties within that one key value
+            Path<K> keyPath = root.get(attribute);
+            Predicate range = direction.isDescending()
+                    ? cb.lessThanOrEqualTo(keyPath, key)
+                    : cb.greaterThanOrEqualTo(keyPath, key);
+            return cb.and(range, cb.or(
+                    beyond(cb, keyPath, key),
+                    cb.and(cb.equal(keyPath, key), beyond(cb, idPath, id))));
+        };
+    }
+
+    private <T extends Comparable<? super T>> Predicate beyond(CriteriaBuilder cb, Expression<T> path, T value) {
+        return direction.isDescending() ? cb.lessThan(path, value) : cb.greaterThan(path, value);
+    }
+}
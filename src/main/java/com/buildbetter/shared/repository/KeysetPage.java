@@ -0,0 +1,47 @@
+package com.buildbetter.shared.repository;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.buildbetter.shared.exception.BadRequestException;
+
+/**
+ * One page of a keyset listing. {@code nextCursor} is {@code null} on the last
+ * page.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * Page from rows read with one extra row ({@code limit + 1}) : its presence
+     * is what tells there is a next page.
+     */
+    public static <E> KeysetPage<E> of(List<E> rows, int limit, Keyset<E, ?> keyset) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<E> items = rows.subList(0, limit);
+        return new KeysetPage<>(items, keyset.cursorOf(items.get(limit - 1)));
+    }
+
+    /**
+     * Requested page size, {@link #DEFAULT_LIMIT} when absent.
+     *
+     * @throws BadRequestException when outside 1..{@link #MAX_LIMIT}
+     */
+    public static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (requested < 1 || requested > MAX_LIMIT) {
+            throw new BadRequestException("Field 'limit' must be between 1 and " + MAX_LIMIT);
+        }
+        return requested;
+    }
+
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetPage<>(items.stream().<R>map(mapper).toList(), nextCursor);
+    }
+}
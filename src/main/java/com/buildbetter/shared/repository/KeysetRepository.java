@@ -0,0 +1,22 @@
+package com.buildbetter.shared.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/** Repositories whose listings page by {@link Keyset}. */
+@NoRepositoryBean
+public interface KeysetRepository<E> extends JpaSpecificationExecutor<E> {
+
+    /**
+     * The page of {@code spec} matches after {@code cursor} ({@code null} for
+     * the first page), {@code limit} rows at most.
+     */
+    default KeysetPage<E> findPage(Specification<E> spec, Keyset<E, ?> keyset, String cursor, int limit) {
+        Specification<E> where = Specification.where(spec).and(keyset.after(cursor));
+        List<E> rows = findBy(where, q -> q.sortBy(keyset.sort()).limit(limit + 1).all());
+        return KeysetPage.of(rows, limit, keyset);
+    }
+}
@@ -0,0 +1,69 @@
+package com.buildbetter.shared.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.buildbetter.shared.model.S3Blob;
+
+@Repository
+public interface S3BlobRepository extends JpaRepository<S3Blob, String> {
+
+    // Take one reference, creating the row on first use; the references held afterwards
+    @Transactional
+    @Query(value = """
+            WITH acquired AS (
+              INSERT INTO s3_blobs (object_key, ref_count, size, created_at)
+              VALUES (:key, 1, :size, NOW())
+              ON CONFLICT (object_key) DO UPDATE SET ref_count = s3_blobs.ref_count + 1
+              RETURNING ref_count
+            )
+            SELECT ref_count FROM acquired
+            """, nativeQuery = true)
+    int acquire(@Param("key") String key, @Param("size") long size);
+
+    // Take one more reference on a blob already stored; null when it is unknown
+    @Transactional
+    @Query(value = """
+            WITH acquired AS (
+              UPDATE s3_blobs SET ref_count = ref_count + 1
+              WHERE object_key = :key
+              RETURNING ref_count
+            )
+            SELECT ref_count FROM acquired
+            """, nativeQuery = true)
+    Integer acquireExisting(@Param("key") String key);
+
+    // Drop one reference; the references left, null when the blob is unknown
+    @Transactional
+    @Query(value = """
+            WITH released AS (
+              UPDATE s3_blobs SET ref_count = ref_count - 1
+              WHERE object_key = :key AND ref_count > 0
+              RETURNING ref_count
+            )
+            SELECT ref_count FROM released
+            """, nativeQuery = true)
+    Integer release(@Param("key") String key);
+
+    // Forget the unreferenced ones, their rows stay locked until the caller commits
+    @Modifying
+    @Query(value = """
+            DELETE FROM s3_blobs
+            WHERE object_key IN (:keys) AND ref_count = 0
+            """, nativeQuery = true)
+    int deleteUnreferenced(@Param("keys") Collection<String> keys);
+
+    @Query(value = """
+            SELECT object_key
+            FROM s3_blobs
+            WHERE object_key IN (:keys)
+            """, nativeQuery = true)
+    List<String> findKeysIn(@Param("keys") Collection<String> keys);
+}
@@ -0,0 +1,27 @@
+package com.buildbetter.shared.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.buildbetter.shared.model.S3DeletionTask;
+
+@Repository
+public interface S3DeletionRepository extends JpaRepository<S3DeletionTask, UUID> {
+
+    // Lock a batch of due deletions, rows held by another worker are skipped
+    @Query(value = """
+            SELECT *
+            FROM s3_deletion_queue
+            WHERE next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<S3DeletionTask> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,29 @@
+package com.buildbetter.shared.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * A repository query returning a {@code Stream}, read through a server-side
+ * cursor {@link #FETCH_SIZE} rows per round trip with its entities loaded
+ * read-only. Consume the stream inside a transaction and close it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + StreamedQuery.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+public @interface StreamedQuery {
+
+    /** Rows fetched per round trip; streamed writers flush at the same pace. */
+    int FETCH_SIZE = 500;
+}
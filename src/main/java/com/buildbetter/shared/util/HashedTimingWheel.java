@@ -0,0 +1,99 @@
+package com.buildbetter.shared.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel keeping many deadlines at the cost of one map entry
+ * each. Deadlines are rounded up to a whole tick and hashed into a fixed
+ * ring of slots; deadlines further out than one turn of the ring share the
+ * slot and are skipped until their turn comes. Nothing runs by itself, the
+ * caller {@link #advance}s the wheel and handles what expired.
+ *
+ * Times are epoch milliseconds. Thread safe.
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final List<Map<K, Long>> slots;
+
+    // key → deadline tick, for cancel and lookups
+    private final Map<K, Long> deadlines = new HashMap<>();
+
+    // Last tick advanced over, -1 before the first advance
+    private long currentTick = -1;
+
+    public HashedTimingWheel(Duration tick, int slotCount) {
+        if (tick.toMillis() <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("Tick and slot count must be positive");
+        }
+        this.tickMillis = tick.toMillis();
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Expire {@code key} at {@code deadlineMillis}, replacing its previous
+     * deadline. A deadline already passed expires on the next advance.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        long due = Math.max(tick, currentTick + 1);
+        deadlines.put(key, due);
+        slot(due).put(key, due);
+    }
+
+    /** True when {@code key} was scheduled and is no longer. */
+    public synchronized boolean cancel(K key) {
+        Long due = deadlines.remove(key);
+        if (due == null) {
+            return false;
+        }
+        slot(due).remove(key);
+        return true;
+    }
+
+    /** Move the wheel up to {@code nowMillis}, removing and returning every key due by then. */
+    public synchronized List<K> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        List<K> expired = new ArrayList<>();
+        if (nowTick <= currentTick) {
+            return expired;
+        }
+
+        // One turn of the ring visits every slot, no need to walk further after a long pause
+        long from = Math.max(currentTick + 1, nowTick - slots.size() + 1);
+        for (long tick = from; tick <= nowTick; tick++) {
+            Iterator<Map.Entry<K, Long>> entries = slot(tick).entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<K, Long> entry = entries.next();
+                if (entry.getValue() <= nowTick) {
+                    entries.remove();
+                    deadlines.remove(entry.getKey());
+                    expired.add(entry.getKey());
+                }
+            }
+        }
+        currentTick = nowTick;
+        return expired;
+    }
+
+    public synchronized boolean contains(K key) {
+        return deadlines.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    private Map<K, Long> slot(long tick) {
+        return slots.get((int) Math.floorMod(tick, (long) slots.size()));
+    }
+}
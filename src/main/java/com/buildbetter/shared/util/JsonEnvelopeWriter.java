@@ -0,0 +1,159 @@
+package com.buildbetter.shared.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.buildbetter.shared.repository.KeysetPage;
+import com.buildbetter.shared.repository.StreamedQuery;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Writes the usual list envelope straight to the response stream :
+ *
+ * { "code": 200, "status": "OK", ["message": "…",] "data": [ … ][, "nextCursor": "…"] }
+ *
+ * {@code nextCursor} is only written for a {@link KeysetPage}, {@code null} on
+ * its last page.
+ *
+ * Elements of {@code data} are serialized one at a time as they are read, so
+ * a list endpoint never holds the whole list. {@link #finish()} ends the
+ * array and the envelope; closing without it (a read failed half way) leaves
+ * the JSON unterminated so the client cannot mistake it for the full list.
+ * Closing flushes but leaves the underlying stream open.
+ */
+public final class JsonEnvelopeWriter implements Closeable {
+
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+    private int count;
+
+    private JsonEnvelopeWriter(ObjectWriter writer, JsonGenerator generator) {
+        this.writer = writer;
+        this.generator = generator;
+    }
+
+    /**
+     * 200 response whose {@code data} is filled by {@code elements} while the
+     * body is being written, typically from a repository stream.
+     */
+    public static ResponseEntity<StreamingResponseBody> response(ObjectWriter writer, String message,
+            Elements elements) {
+        StreamingResponseBody body = out -> {
+            try (JsonEnvelopeWriter envelope = open(writer, out, message)) {
+                elements.writeTo(envelope);
+                envelope.finish();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /** 200 response holding one keyset page and the cursor of the next one. */
+    public static ResponseEntity<StreamingResponseBody> response(ObjectWriter writer, String message,
+            KeysetPage<?> page) {
+        StreamingResponseBody body = out -> {
+            try (JsonEnvelopeWriter envelope = open(writer, out, message)) {
+                for (Object item : page.items()) {
+                    envelope.write(item);
+                }
+                envelope.finish(page.nextCursor());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /** Envelope without a message, same shape as {@code ApiResponseWithData}. */
+    public static JsonEnvelopeWriter open(ObjectWriter writer, OutputStream out) throws IOException {
+        return open(writer, out, null);
+    }
+
+    /** Envelope with a message, same shape as {@code ApiResponseMessageAndData}. */
+    public static JsonEnvelopeWriter open(ObjectWriter writer, OutputStream out, String message)
+            throws IOException {
+        // Flushing is left to write(), not done after every element
+        ObjectWriter elementWriter = writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = elementWriter.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+        generator.writeStartObject();
+        generator.writeNumberField("code", HttpStatus.OK.value());
+        generator.writeStringField("status", HttpStatus.OK.name());
+        if (message != null) {
+            generator.writeStringField("message", message);
+        }
+        generator.writeArrayFieldStart("data");
+        return new JsonEnvelopeWriter(elementWriter, generator);
+    }
+
+    /** Append one element to {@code data}, pushing every {@link StreamedQuery#FETCH_SIZE} elements to the client. */
+    public void write(Object element) throws IOException {
+        writer.writeValue(generator, element);
+        if (++count % StreamedQuery.FETCH_SIZE == 0) {
+            generator.flush();
+        }
+    }
+
+    /**
+     * Append every row of {@code rows} mapped by {@code mapper}, detaching each
+     * entity once written so memory stays flat whatever the table size. The
+     * stream is closed afterwards; call inside the transaction it was opened in.
+     */
+    public <T> void writeAll(Stream<T> rows, EntityManager entityManager, Function<? super T, ?> mapper)
+            throws IOException {
+        try (rows) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                write(mapper.apply(row));
+                entityManager.detach(row);
+            }
+        }
+    }
+
+    /** Number of elements written so far. */
+    public int count() {
+        return count;
+    }
+
+    /** End {@code data} and the envelope, once every element has been written. */
+    public void finish() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /** Same as {@link #finish()} for a page, followed by its {@code nextCursor}. */
+    public void finish(String nextCursor) throws IOException {
+        generator.writeEndArray();
+        generator.writeStringField("nextCursor", nextCursor);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    /** Writes the elements of one streamed response. */
+    @FunctionalInterface
+    public interface Elements {
+
+        void writeTo(JsonEnvelopeWriter writer) throws IOException;
+    }
+}
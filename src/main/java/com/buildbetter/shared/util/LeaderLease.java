@@ -0,0 +1,74 @@
+package com.buildbetter.shared.util;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis backed lease used to elect a single node for cluster-wide background
+ * jobs. The holder renews the lease on every run; when it dies the lease
+ * expires and another node takes over.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderLease {
+
+    private static final String PREFIX_LEASE = "lease:";
+
+    // Acquire when free, renew when already held by this node
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local holder = redis.call('GET', KEYS[1])
+            if holder == false then
+              redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+              return 1
+            end
+            if holder == ARGV[1] then
+              redis.call('PEXPIRE', KEYS[1], ARGV[2])
+              return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** True when this node holds (or just acquired / renewed) the lease. */
+    public boolean tryAcquire(String name, Duration ttl) {
+        try {
+            Long acquired = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(PREFIX_LEASE + name), nodeId,
+                    String.valueOf(ttl.toMillis()));
+            return acquired != null && acquired == 1L;
+        } catch (RuntimeException e) {
+            log.warn("Leader Lease : tryAcquire - Could not reach Redis for lease {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Give the lease up early, only if this node still holds it. */
+    public void release(String name) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(PREFIX_LEASE + name), nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Leader Lease : release - Could not reach Redis for lease {}: {}", name, e.getMessage());
+        }
+    }
+}
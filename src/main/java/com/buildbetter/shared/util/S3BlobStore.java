@@ -0,0 +1,146 @@
+package com.buildbetter.shared.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.buildbetter.shared.exception.BadRequestException;
+import com.buildbetter.shared.exception.InternalServerErrorException;
+import com.buildbetter.shared.model.S3Blob;
+import com.buildbetter.shared.repository.S3BlobRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed mode of {@link S3Service}. Uploads are keyed by the
+ * SHA-256 of their content, so the same image uploaded again is stored once
+ * and its PUT skipped.
+ *
+ * Every upload takes a reference on its blob; dropping the URL through
+ * {@link S3DeletionQueue#enqueue} releases it, and the object is only deleted
+ * once nothing references it any more.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class S3BlobStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final S3Service s3Service;
+    private final S3BlobRepository s3BlobRepository;
+    private final S3DeletionQueue s3DeletionQueue;
+
+    /** Store {@code file}, returns the public URL of its blob. */
+    public String upload(MultipartFile file) {
+        return uploadAll(List.of(file)).get(0);
+    }
+
+    /**
+     * Store every file, all or nothing, URLs in the order of the files. Only
+     * content S3 does not hold yet goes up, concurrently.
+     */
+    public List<String> uploadAll(List<MultipartFile> files) {
+        List<String> keys = new ArrayList<>(files.size());
+        List<String> acquired = new ArrayList<>(files.size());
+        Set<String> created = new LinkedHashSet<>();
+        List<MultipartFile> missingFiles = new ArrayList<>();
+        List<String> missingKeys = new ArrayList<>();
+
+        try {
+            for (MultipartFile file : files) {
+                String key = S3Blob.keyFor(sha256(file), file.getOriginalFilename());
+                keys.add(key);
+
+                // Referenced already : the object is there and stays while we hold the row
+                int references = s3BlobRepository.acquire(key, file.getSize());
+                acquired.add(key);
+                if (references > 1) {
+                    log.info("S3 Blob Store : uploadAll - {} already stored, skip upload", key);
+                    continue;
+                }
+
+                created.add(key);
+                if (s3Service.exists(key)) {
+                    log.info("S3 Blob Store : uploadAll - {} found in S3, skip upload", key);
+                    continue;
+                }
+                missingFiles.add(file);
+                missingKeys.add(key);
+            }
+
+            log.info("S3 Blob Store : uploadAll - Upload {} of {} file(s) to S3", missingFiles.size(), files.size());
+            s3Service.putFiles(missingFiles, missingKeys);
+        } catch (RuntimeException e) {
+            // Inside a transaction the references go with its rollback
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                acquired.forEach(s3BlobRepository::release);
+            }
+            throw e;
+        }
+
+        releaseOnRollback(created);
+        return keys.stream().map(s3Service::urlOf).toList();
+    }
+
+    /**
+     * Take a reference for one more holder of {@code url} when it is a blob
+     * URL, so dropping it later releases this holder's reference only. Other
+     * URLs are left alone.
+     */
+    public void reference(String url) {
+        String key = S3Blob.keyOf(url);
+        if (key == null) {
+            return;
+        }
+        if (s3BlobRepository.acquireExisting(key) == null) {
+            throw new BadRequestException("File is not stored any more: " + url);
+        }
+        log.info("S3 Blob Store : reference - {} referenced once more", key);
+    }
+
+    // Blobs this transaction brought in are orphaned if it rolls back
+    private void releaseOnRollback(Set<String> created) {
+        if (created.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        List<String> keys = List.copyOf(created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    s3DeletionQueue.enqueueRolledBack(keys);
+                }
+            }
+        });
+    }
+
+    // Read once through the digest, the upload reopens the stream
+    static String sha256(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new InternalServerErrorException("Failed to read uploaded file: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.buildbetter.shared.util;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.buildbetter.shared.model.S3Blob;
+import com.buildbetter.shared.model.S3DeletionTask;
+import com.buildbetter.shared.repository.S3BlobRepository;
+import com.buildbetter.shared.repository.S3DeletionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transactional outbox of S3 objects to delete. Enqueue inside the
+ * transaction that drops the reference; the objects are removed later by
+ * {@link S3GarbageCollector}, so the request never waits on S3.
+ *
+ * Content-addressed objects ({@link S3BlobStore}) may be shared: enqueuing one
+ * drops a reference, and it is only queued once no reference is left.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class S3DeletionQueue {
+
+    private final S3DeletionRepository s3DeletionRepository;
+    private final S3BlobRepository s3BlobRepository;
+
+    @Transactional
+    public void enqueue(String key) {
+        enqueue(List.of(key));
+    }
+
+    /** Null and blank keys are ignored. */
+    @Transactional
+    public void enqueue(Collection<String> keys) {
+        LocalDateTime now = LocalDateTime.now();
+        List<S3DeletionTask> tasks = keys.stream()
+                .filter(Objects::nonNull)
+                .filter(key -> !key.isBlank())
+                .filter(this::unreferenced)
+                .map(key -> S3DeletionTask.builder()
+                        .objectKey(key)
+                        .nextAttemptAt(now)
+                        .createdAt(now)
+                        .build())
+                .toList();
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        log.info("S3 Deletion Queue : enqueue - Queue {} object(s) for deletion", tasks.size());
+        s3DeletionRepository.saveAll(tasks);
+    }
+
+    /**
+     * Queue blobs whose references were rolled back with the transaction that
+     * uploaded them. Runs in a transaction of its own, the caller's one is
+     * over; blobs referenced elsewhere meanwhile are kept by the collector.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueueRolledBack(Collection<String> keys) {
+        LocalDateTime now = LocalDateTime.now();
+        log.info("S3 Deletion Queue : enqueueRolledBack - Queue {} object(s) for deletion", keys.size());
+        s3DeletionRepository.saveAll(keys.stream()
+                .map(key -> S3DeletionTask.builder()
+                        .objectKey(key)
+                        .nextAttemptAt(now)
+                        .createdAt(now)
+                        .build())
+                .toList());
+    }
+
+    // Plain objects always are, blobs once their last reference is dropped
+    private boolean unreferenced(String key) {
+        String blobKey = S3Blob.keyOf(key);
+        if (blobKey == null) {
+            return true;
+        }
+
+        Integer left = s3BlobRepository.release(blobKey);
+        return left == null || left == 0;
+    }
+}
@@ -0,0 +1,140 @@
+package com.buildbetter.shared.util;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.buildbetter.shared.model.S3Blob;
+import com.buildbetter.shared.model.S3DeletionTask;
+import com.buildbetter.shared.repository.S3BlobRepository;
+import com.buildbetter.shared.repository.S3DeletionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the {@link S3DeletionQueue}. Each batch is claimed with SKIP LOCKED,
+ * so several nodes can drain at once, and deleted with one DeleteObjects call
+ * per {@link S3Service#MAX_KEYS_PER_BATCH} keys. Failed keys are retried with
+ * exponential backoff, capped at {@link #MAX_BACKOFF}.
+ *
+ * Content-addressed blobs referenced again since they were queued are left
+ * alone; the others are forgotten in the claiming transaction, which keeps
+ * their rows locked so a concurrent upload waits and then puts them back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class S3GarbageCollector {
+
+    static final int BATCH_SIZE = S3Service.MAX_KEYS_PER_BATCH;
+
+    static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final S3DeletionRepository s3DeletionRepository;
+    private final S3Service s3Service;
+    private final S3BlobRepository s3BlobRepository;
+    private final TransactionOperations transactionOperations;
+
+    @Scheduled(fixedDelayString = "${aws.s3.gc.interval-ms:10000}", initialDelayString = "${aws.s3.gc.initial-delay-ms:10000}")
+    public void drain() {
+        int deleted = 0;
+        int claimed;
+        do {
+            BatchResult result = transactionOperations.execute(status -> processBatch());
+            claimed = result.claimed();
+            deleted += result.deleted();
+        } while (claimed >= BATCH_SIZE);
+
+        if (deleted > 0) {
+            log.info("S3 Garbage Collector : drain - Deleted {} object(s)", deleted);
+        }
+    }
+
+    // Runs inside the claiming transaction
+    private BatchResult processBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<S3DeletionTask> tasks = s3DeletionRepository.claimDue(now, BATCH_SIZE);
+        if (tasks.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<S3DeletionTask> revived = referencedBlobs(tasks);
+        if (!revived.isEmpty()) {
+            log.info("S3 Garbage Collector : drain - {} blob(s) referenced again, kept", revived.size());
+            s3DeletionRepository.deleteAllInBatch(revived);
+            tasks = tasks.stream().filter(task -> !revived.contains(task)).toList();
+            if (tasks.isEmpty()) {
+                return new BatchResult(revived.size(), 0);
+            }
+        }
+
+        Set<String> failed;
+        String error;
+        try {
+            failed = s3Service.deleteFiles(tasks.stream().map(S3DeletionTask::getObjectKey).toList());
+            error = "Rejected by S3";
+        } catch (RuntimeException e) {
+            failed = Set.copyOf(tasks.stream().map(S3DeletionTask::getObjectKey).toList());
+            error = e.getMessage();
+        }
+
+        List<S3DeletionTask> done = new ArrayList<>();
+        List<S3DeletionTask> retry = new ArrayList<>();
+        for (S3DeletionTask task : tasks) {
+            if (failed.contains(task.getObjectKey())) {
+                task.setAttempts(task.getAttempts() + 1);
+                task.setNextAttemptAt(now.plus(backoff(task.getAttempts())));
+                task.setLastError(error);
+                retry.add(task);
+            } else {
+                done.add(task);
+            }
+        }
+
+        s3DeletionRepository.deleteAllInBatch(done);
+        if (!retry.isEmpty()) {
+            log.warn("S3 Garbage Collector : drain - {} object(s) will be retried: {}", retry.size(), error);
+            s3DeletionRepository.saveAll(retry);
+        }
+        return new BatchResult(tasks.size() + revived.size(), done.size());
+    }
+
+    // Tasks of blobs with references left, the unreferenced ones are dropped from s3_blobs
+    private List<S3DeletionTask> referencedBlobs(List<S3DeletionTask> tasks) {
+        Set<String> blobKeys = new HashSet<>();
+        for (S3DeletionTask task : tasks) {
+            String blobKey = S3Blob.keyOf(task.getObjectKey());
+            if (blobKey != null) {
+                blobKeys.add(blobKey);
+            }
+        }
+        if (blobKeys.isEmpty()) {
+            return List.of();
+        }
+
+        s3BlobRepository.deleteUnreferenced(blobKeys);
+        Set<String> referenced = new HashSet<>(s3BlobRepository.findKeysIn(blobKeys));
+        return tasks.stream()
+                .filter(task -> referenced.contains(S3Blob.keyOf(task.getObjectKey())))
+                .toList();
+    }
+
+    private record BatchResult(int claimed, int deleted) {
+    }
+
+    // 30s, 1m, 2m, 4m, ... up to an hour
+    static Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << shift);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+}
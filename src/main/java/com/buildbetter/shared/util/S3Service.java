@@ -1,73 +1,339 @@
 package com.buildbetter.shared.util;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.buildbetter.shared.exception.InternalServerErrorException;
 import com.buildbetter.shared.model.S3Properties;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class S3Service {
 
+    // Upper bound on transfers in flight across all batch calls
+    static final int MAX_CONCURRENT_TRANSFERS = 8;
+
+    // DeleteObjects limit
+    static final int MAX_KEYS_PER_BATCH = 1000;
+
     private final S3Properties s3Properties;
+    private final S3AsyncClient s3AsyncClient;
+
+    // Feeds large request bodies from the multipart input streams. Platform
+    // threads on purpose, the SDK blocks inside synchronized code while writing
+    private final ExecutorService bodyExecutor = Executors
+            .newCachedThreadPool(new CustomizableThreadFactory("s3-body-"));
+
+    // Batch transfers fan out here, waiting on the SDK futures only
+    private final ExecutorService transferExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("s3-transfer-", 0).factory());
+    private final Semaphore transferPermits = new Semaphore(MAX_CONCURRENT_TRANSFERS);
 
     public String uploadFile(MultipartFile file, String folder, String prefix) {
+        return join(uploadFileAsync(file, folder, prefix), "Failed to upload file to S3: ");
+    }
+
+    /**
+     * Upload on the shared async client, large files go up in parts. Completes
+     * with the public URL of the object.
+     */
+    public CompletableFuture<String> uploadFileAsync(MultipartFile file, String folder, String prefix) {
         String uniqueFileName = folder + ((prefix == null || prefix.isBlank()) ? UUID.randomUUID() : prefix) + "_"
                 + file.getOriginalFilename();
-        try {
-            S3Client s3 = createS3Client();
-            s3.putObject(
-                    PutObjectRequest.builder()
-                            .bucket(s3Properties.getBucketName())
-                            .key(uniqueFileName)
-                            .contentType(file.getContentType())
-                            .build(),
-                    RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-
-            return s3Properties.getBaseUrl() + "/" + uniqueFileName;
-
-        } catch (IOException e) {
-            throw new InternalServerErrorException("Failed to upload file to S3: " + e.getMessage());
-        }
+
+        return putFileAsync(file, uniqueFileName);
+    }
+
+    /** Upload {@code file} under exactly {@code key}, completes with its public URL. */
+    public CompletableFuture<String> putFileAsync(MultipartFile file, String key) {
+        ReplayableFileBody body = new ReplayableFileBody(file);
+
+        return s3AsyncClient.putObject(
+                PutObjectRequest.builder()
+                        .bucket(s3Properties.getBucketName())
+                        .key(key)
+                        .contentType(file.getContentType())
+                        .contentLength(file.getSize())
+                        .build(),
+                body)
+                .whenComplete((response, error) -> body.close())
+                .thenApply(response -> urlOf(key));
+    }
+
+    /** Whether an object exists under {@code key} (a key or a full URL), with one HEAD request. */
+    public boolean exists(String key) {
+        return join(s3AsyncClient.headObject(HeadObjectRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(extractKey(key))
+                .build())
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return true;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    if (cause instanceof S3Exception s3 && s3.statusCode() == 404) {
+                        return false;
+                    }
+                    throw new CompletionException(cause);
+                }), "Failed to check file in S3: ");
+    }
+
+    public String urlOf(String key) {
+        return s3Properties.getBaseUrl() + "/" + key;
     }
 
     public void deleteFile(String key) {
+        join(deleteFileAsync(key), "Failed to delete file from S3: ");
+    }
+
+    public CompletableFuture<Void> deleteFileAsync(String key) {
         String extractedKey = extractKey(key);
-        try {
-            S3Client s3 = createS3Client();
-            s3.deleteObject(DeleteObjectRequest.builder()
-                    .bucket(s3Properties.getBucketName())
-                    .key(extractedKey)
-                    .build());
-        } catch (S3Exception e) {
-            throw new InternalServerErrorException(
-                    "Failed to delete file from S3: " + e.awsErrorDetails().errorMessage());
+        return s3AsyncClient.deleteObject(DeleteObjectRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(extractedKey)
+                .build())
+                .thenApply(response -> null);
+    }
+
+    /**
+     * Upload every file concurrently, all or nothing. The URLs come back in the
+     * order of the files; if any upload fails the ones that made it are deleted
+     * again before the failure is rethrown.
+     */
+    public List<String> uploadFiles(List<MultipartFile> files, String folder, String prefix) {
+        return transferAll(files.stream()
+                .map(file -> withPermit(() -> uploadFile(file, folder, prefix)))
+                .toList());
+    }
+
+    /**
+     * Like {@link #uploadFiles}, each file under exactly the key at the same
+     * index of {@code keys}.
+     */
+    public List<String> putFiles(List<MultipartFile> files, List<String> keys) {
+        List<CompletableFuture<String>> puts = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            String key = keys.get(i);
+            puts.add(withPermit(() -> join(putFileAsync(file, key), "Failed to upload file to S3: ")));
         }
+        return transferAll(puts);
     }
 
-    private S3Client createS3Client() {
-        return S3Client.builder()
-                .region(Region.of(s3Properties.getRegion()))
-                .credentialsProvider(
-                        StaticCredentialsProvider.create(
-                                AwsBasicCredentials.create(
-                                        s3Properties.getAccessKey(),
-                                        s3Properties.getSecretKey())))
+    // Wait for every upload, delete the successful ones again if any failed
+    private List<String> transferAll(List<CompletableFuture<String>> uploads) {
+        List<String> urls = new ArrayList<>(uploads.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<String> upload : uploads) {
+            try {
+                urls.add(upload.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+
+        if (failure != null) {
+            log.warn("S3 Service : uploadFiles - Upload failed, rolling back {} uploaded file(s)", urls.size());
+            deleteFilesAsync(urls).exceptionally(error -> null).join();
+            throw failure;
+        }
+
+        return urls;
+    }
+
+    /**
+     * Delete every key concurrently. Completes once all deletes finished, and
+     * exceptionally if any of them failed (the others still go through).
+     */
+    public CompletableFuture<Void> deleteFilesAsync(Collection<String> keys) {
+        List<CompletableFuture<Void>> deletes = keys.stream()
+                .filter(Objects::nonNull)
+                .filter(key -> !key.isBlank())
+                .map(key -> withPermit(() -> {
+                    deleteFile(key);
+                    return (Void) null;
+                }))
+                .toList();
+
+        return CompletableFuture.allOf(deletes.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Delete keys with the DeleteObjects batch API, {@link #MAX_KEYS_PER_BATCH}
+     * keys per call, batches in parallel. Returns the keys (as given) that
+     * could not be deleted.
+     */
+    public Set<String> deleteFiles(Collection<String> keys) {
+        // extracted key → keys as given, the same object may be queued twice
+        Map<String, List<String>> byKey = new LinkedHashMap<>();
+        for (String key : keys) {
+            byKey.computeIfAbsent(extractKey(key), k -> new ArrayList<>()).add(key);
+        }
+
+        List<String> objectKeys = List.copyOf(byKey.keySet());
+        List<CompletableFuture<Set<String>>> batches = new ArrayList<>();
+        for (int from = 0; from < objectKeys.size(); from += MAX_KEYS_PER_BATCH) {
+            batches.add(deleteBatchAsync(objectKeys.subList(from,
+                    Math.min(from + MAX_KEYS_PER_BATCH, objectKeys.size()))));
+        }
+
+        Set<String> failed = new HashSet<>();
+        for (CompletableFuture<Set<String>> batch : batches) {
+            for (String objectKey : batch.join()) {
+                failed.addAll(byKey.get(objectKey));
+            }
+        }
+        return failed;
+    }
+
+    // Completes with the keys S3 reported as not deleted (all of them when the call failed)
+    private CompletableFuture<Set<String>> deleteBatchAsync(List<String> objectKeys) {
+        Delete delete = Delete.builder()
+                .objects(objectKeys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                .quiet(true)
                 .build();
+
+        return s3AsyncClient.deleteObjects(DeleteObjectsRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .delete(delete)
+                .build())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        log.warn("S3 Service : deleteFiles - Batch of {} failed: {}", objectKeys.size(),
+                                error.getMessage());
+                        return Set.copyOf(objectKeys);
+                    }
+                    return response.errors().stream().map(S3Error::key).collect(Collectors.toSet());
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        transferExecutor.shutdown();
+        bodyExecutor.shutdown();
+    }
+
+    // Run one blocking transfer on a virtual thread once a permit is free
+    private <T> CompletableFuture<T> withPermit(Supplier<T> transfer) {
+        return CompletableFuture.supplyAsync(() -> {
+            transferPermits.acquireUninterruptibly();
+            try {
+                return transfer.get();
+            } finally {
+                transferPermits.release();
+            }
+        }, transferExecutor);
+    }
+
+    private <T> T join(CompletableFuture<T> future, String message) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof InternalServerErrorException internal) {
+                throw internal;
+            }
+            if (cause instanceof S3Exception s3 && s3.awsErrorDetails() != null) {
+                throw new InternalServerErrorException(message + s3.awsErrorDetails().errorMessage());
+            }
+            throw new InternalServerErrorException(message + cause.getMessage());
+        }
+    }
+
+    /**
+     * Request body that reopens the multipart stream on every subscription, so
+     * the SDK can retry (or split into parts) without buffering the file.
+     */
+    private final class ReplayableFileBody implements AsyncRequestBody {
+
+        private final MultipartFile file;
+        private final List<InputStream> opened = new CopyOnWriteArrayList<>();
+
+        private ReplayableFileBody(MultipartFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public Optional<Long> contentLength() {
+            return Optional.of(file.getSize());
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+            InputStream inputStream;
+            try {
+                inputStream = file.getInputStream();
+            } catch (IOException e) {
+                subscriber.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(e);
+                return;
+            }
+
+            opened.add(inputStream);
+            AsyncRequestBody.fromInputStream(inputStream, file.getSize(), bodyExecutor).subscribe(subscriber);
+        }
+
+        private void close() {
+            for (InputStream inputStream : opened) {
+                try {
+                    inputStream.close();
+                } catch (IOException ignored) {
+                    // nothing left to do with the stream
+                }
+            }
+        }
     }
 
     private String extractKey(String originalKey) {
@@ -76,4 +342,4 @@ public class S3Service {
         }
         return originalKey;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.buildbetter.user.api;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
 
@@ -11,4 +12,10 @@ public interface UserAPI {
     Map<UUID, GetUserNameAndCity> getAllUsersNameAndCity(UUID requestingUserId);
 
     GetUserNameAndCity getUserNameAndCityById(UUID userId);
+
+    /**
+     * Resolve id, username and city for many users in a single query.
+     * Unknown ids are simply absent from the returned map.
+     */
+    Map<UUID, GetUserNameAndCity> getUsersNameAndCity(Collection<UUID> userIds);
 }
@@ -1,25 +1,30 @@
 package com.buildbetter.user.controller;
 
-import java.util.List;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.buildbetter.shared.dto.ApiResponseMessageOnly;
 import com.buildbetter.shared.dto.ApiResponseWithData;
+import com.buildbetter.shared.repository.KeysetPage;
 import com.buildbetter.shared.security.JwtAuthentication;
 import com.buildbetter.shared.security.annotation.Authenticated;
 import com.buildbetter.shared.security.annotation.IsAdmin;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
 import com.buildbetter.user.dto.auth.GetUserResponse;
 import com.buildbetter.user.dto.user.UpdateUserRequest;
 import com.buildbetter.user.model.User;
 import com.buildbetter.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -32,15 +37,23 @@ import lombok.extern.slf4j.Slf4j;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/users")
     @IsAdmin
-    public ApiResponseWithData<List<User>> getAllUsers() {
+    public ResponseEntity<StreamingResponseBody> getAllUsers(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         log.info("User Controller : getAllUsers");
 
-        List<User> users = userService.getAllUsers();
+        // A page when asked for one, the whole listing otherwise
+        if (cursor != null || limit != null) {
+            KeysetPage<User> page = userService.getUserPage(cursor, limit);
+            return JsonEnvelopeWriter.response(objectMapper.writer(), null, page);
+        }
 
-        return new ApiResponseWithData<>(HttpStatus.OK.value(), HttpStatus.OK.name(), users);
+        // Written row by row while the users are read, never held as a list
+        return JsonEnvelopeWriter.response(objectMapper.writer(), null, userService::streamAllUsers);
     }
 
     @GetMapping("/me")
@@ -1,14 +1,43 @@
 package com.buildbetter.user.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.buildbetter.shared.repository.Keyset;
+import com.buildbetter.shared.repository.KeysetRepository;
+import com.buildbetter.shared.repository.StreamedQuery;
+import com.buildbetter.user.api.GetUserNameAndCity;
 import com.buildbetter.user.model.User;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, KeysetRepository<User> {
+
+    // Listing order : newest first, backed by idx_users_created
+    Keyset<User, LocalDateTime> KEYSET = Keyset.newestFirst(User::getCreatedAt, User::getId);
     Optional<User> findByEmail(String email);
     Optional<User> findByPhoneNumber(String phoneNumber);
-    
+
+    // Projection only : never loads password hashes or other columns
+    @Query("""
+            SELECT new com.buildbetter.user.api.GetUserNameAndCity(u.id, u.username, u.city)
+            FROM User u
+            WHERE u.id IN :ids
+            """)
+    List<GetUserNameAndCity> findNameAndCityByIdIn(Collection<UUID> ids);
+
+    @Query("""
+            SELECT new com.buildbetter.user.api.GetUserNameAndCity(u.id, u.username, u.city)
+            FROM User u
+            """)
+    List<GetUserNameAndCity> findAllNameAndCity();
+
+    @StreamedQuery
+    @Query("SELECT u FROM User u")
+    Stream<User> streamAll();
 }
@@ -1,5 +1,6 @@
 package com.buildbetter.user.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -53,10 +54,9 @@ public class UserApiImpl implements UserAPI {
                     "User with ID " + requestingUserId + " is not authorized to view all users");
         }
 
-        List<User> users = userRepository.findAll();
+        List<GetUserNameAndCity> users = userRepository.findAllNameAndCity();
 
-        return users.stream().collect(
-                Collectors.toMap(User::getId, u -> new GetUserNameAndCity(u.getId(), u.getUsername(), u.getCity())));
+        return users.stream().collect(Collectors.toMap(GetUserNameAndCity::getId, u -> u));
     }
 
     @Override
@@ -77,4 +77,16 @@ public class UserApiImpl implements UserAPI {
 
         return userNameAndCity;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<UUID, GetUserNameAndCity> getUsersNameAndCity(Collection<UUID> userIds) {
+        log.info("UserApiImpl : getUsersNameAndCity - Resolving {} user(s)", userIds == null ? 0 : userIds.size());
+        if (userIds == null || userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return userRepository.findNameAndCityByIdIn(userIds)
+                .stream()
+                .collect(Collectors.toMap(GetUserNameAndCity::getId, u -> u));
+    }
+}
@@ -1,16 +1,21 @@
 package com.buildbetter.user.service;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
 import com.buildbetter.shared.exception.BadRequestException;
+import com.buildbetter.shared.repository.KeysetPage;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
 import com.buildbetter.user.dto.auth.GetUserResponse;
 import com.buildbetter.user.dto.user.UpdateUserRequest;
 import com.buildbetter.user.model.User;
 import com.buildbetter.user.repository.UserRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,11 +25,22 @@ import lombok.extern.slf4j.Slf4j;
 public class UserService {
 
         private final UserRepository userRepository;
+        private final EntityManager entityManager;
 
-        public List<User> getAllUsers() {
-                log.info("Service : getAllUsers");
+        @Transactional
+        public void streamAllUsers(JsonEnvelopeWriter writer) throws IOException {
+                log.info("Service : streamAllUsers");
 
-                return userRepository.findAll();
+                writer.writeAll(userRepository.streamAll(), entityManager, Function.identity());
+
+                log.info("Service : streamAllUsers - Streamed {} users", writer.count());
+        }
+
+        /** One keyset page of users, newest first. */
+        public KeysetPage<User> getUserPage(String cursor, Integer limit) {
+                log.info("Service : getUserPage");
+
+                return userRepository.findPage(null, UserRepository.KEYSET, cursor, KeysetPage.limit(limit));
         }
 
         public GetUserResponse getCurrentUser(UUID userId) {
@@ -0,0 +1,9 @@
+-- ============================================================
+-- V004.002__alter_articles_add_listing_index.sql
+-- ------------------------------------------------------------
+-- Purpose  : Back the article listing, which now pages by
+--            keyset on (created_at, id), newest first.
+-- ============================================================
+
+CREATE INDEX IF NOT EXISTS idx_articles_created
+    ON articles (created_at DESC, id DESC);
@@ -0,0 +1,20 @@
+-- ============================================================
+-- V003.014__alter_consultations_add_listing_indexes.sql
+-- ------------------------------------------------------------
+-- Purpose  : Back the consultation listings, which now filter in SQL
+--            and page by keyset on (start_date, id).
+--            architect listing -> (architect_id, start_date, id)
+--            user listing      -> (user_id, start_date, id)
+--            admin listing     -> (start_date, id)
+--            type / status stay residual filters on the (small) range
+--            of the owning architect or user.
+-- ============================================================
+
+CREATE INDEX IF NOT EXISTS idx_consultations_architect_start
+    ON consultations (architect_id, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_consultations_user_start
+    ON consultations (user_id, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_consultations_start
+    ON consultations (start_date, id);
@@ -0,0 +1,21 @@
+-- ============================================================
+-- V003.015__alter_consultations_add_sweeper_indexes.sql
+-- ------------------------------------------------------------
+-- Purpose  : Back the chunked lifecycle sweep of consultations.
+--            outdated pending      -> (status, start_date)
+--            expired unpaid        -> (status, created_at)
+--            finished scheduled    -> (status, end_date)
+--            payments by booking   -> (consultation_id)
+-- ============================================================
+
+CREATE INDEX IF NOT EXISTS idx_consultations_status_start
+    ON consultations (status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_consultations_status_created
+    ON consultations (status, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_consultations_status_end
+    ON consultations (status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_payments_consultation
+    ON payments (consultation_id);
@@ -0,0 +1,10 @@
+-- ============================================================
+-- V003.016__alter_rooms_add_listing_index.sql
+-- ------------------------------------------------------------
+-- Purpose  : Back the admin room listing, which now pages by
+--            keyset on (created_at, id), newest first.
+--            The payment listing pages on its primary key.
+-- ============================================================
+
+CREATE INDEX IF NOT EXISTS idx_rooms_created
+    ON rooms (created_at DESC, id DESC);
@@ -0,0 +1,14 @@
+-- ============================================================
+-- V003.017__alter_chats_add_seq.sql
+-- ------------------------------------------------------------
+-- Purpose  : Chat messages are written behind the broadcast
+--            and carry the server-assigned sequence they were
+--            sent with, so history replays in broadcast order.
+--            Rows written before this stay NULL.
+-- ============================================================
+
+ALTER TABLE chats
+    ADD COLUMN IF NOT EXISTS seq BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_chats_room_created
+    ON chats (room_id, created_at, seq);
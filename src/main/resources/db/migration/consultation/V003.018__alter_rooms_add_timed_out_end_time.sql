@@ -0,0 +1,21 @@
+-- ============================================================
+-- V003.018__alter_rooms_add_timed_out_end_time.sql
+-- ------------------------------------------------------------
+-- Purpose  : Room timeouts are rebuilt from this table on
+--            startup and claimed here before they fire. The
+--            column holds the end_time whose timeout already
+--            fired; a room reused with a new end_time is
+--            pending again. Rooms already past their end are
+--            marked fired.
+-- ============================================================
+
+ALTER TABLE rooms
+    ADD COLUMN IF NOT EXISTS timed_out_end_time TIMESTAMPTZ;
+
+UPDATE rooms
+SET timed_out_end_time = end_time
+WHERE end_time < NOW();
+
+CREATE INDEX IF NOT EXISTS idx_rooms_pending_timeout
+    ON rooms (end_time)
+    WHERE timed_out_end_time IS DISTINCT FROM end_time;
@@ -0,0 +1,14 @@
+-- ============================================================
+-- V001.008__alter_plans_add_listing_indexes.sql
+-- ------------------------------------------------------------
+-- Purpose  : Back the plan listing, which now pages by keyset
+--            on (created_at, id), newest first.
+--            user listing  -> (user_id, created_at, id)
+--            admin listing -> (created_at, id)
+-- ============================================================
+
+CREATE INDEX IF NOT EXISTS idx_plans_user_created
+    ON plans (user_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_plans_created
+    ON plans (created_at DESC, id DESC);
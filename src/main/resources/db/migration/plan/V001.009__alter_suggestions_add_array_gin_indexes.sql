@@ -0,0 +1,20 @@
+-- ============================================================
+-- V001.009__alter_suggestions_add_array_gin_indexes.sql
+-- ------------------------------------------------------------
+-- Purpose  : Back the "which suggestions use X" lookups, which
+--            filter on array containment (@>) :
+--            materials_0 / materials_1 / materials_2 -> uuid[]
+--            floorplans                              -> text[]
+-- ============================================================
+
+CREATE INDEX IF NOT EXISTS idx_suggestions_materials_0
+    ON suggestions USING GIN (materials_0);
+
+CREATE INDEX IF NOT EXISTS idx_suggestions_materials_1
+    ON suggestions USING GIN (materials_1);
+
+CREATE INDEX IF NOT EXISTS idx_suggestions_materials_2
+    ON suggestions USING GIN (materials_2);
+
+CREATE INDEX IF NOT EXISTS idx_suggestions_floorplans
+    ON suggestions USING GIN (floorplans);
@@ -0,0 +1,14 @@
+-- ============================================================
+-- V001.010__alter_materials_suggestions_add_listing_indexes.sql
+-- ------------------------------------------------------------
+-- Purpose  : Back the material and suggestion listings, which
+--            now page by keyset.
+--            material listing   -> (name, id)
+--            suggestion listing -> (created_at, id), newest first
+-- ============================================================
+
+CREATE INDEX IF NOT EXISTS idx_materials_name
+    ON materials (name, id);
+
+CREATE INDEX IF NOT EXISTS idx_suggestions_created
+    ON suggestions (created_at DESC, id DESC);
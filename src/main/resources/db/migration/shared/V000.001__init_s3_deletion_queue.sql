@@ -0,0 +1,13 @@
+CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
+
+CREATE TABLE IF NOT EXISTS s3_deletion_queue (
+  id              UUID         PRIMARY KEY DEFAULT uuid_generate_v4(),
+  object_key      TEXT         NOT NULL,  -- key or full public URL
+  attempts        INTEGER      NOT NULL DEFAULT 0,
+  next_attempt_at TIMESTAMP    NOT NULL DEFAULT NOW(),
+  last_error      TEXT,
+  created_at      TIMESTAMP    NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_s3_deletion_queue_next_attempt_at
+  ON s3_deletion_queue (next_attempt_at);
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS s3_blobs (
+  object_key  TEXT         PRIMARY KEY,  -- blobs/<sha-256 of the content>[.ext]
+  ref_count   INTEGER      NOT NULL DEFAULT 0,
+  size        BIGINT       NOT NULL,
+  created_at  TIMESTAMP    NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,9 @@
+-- ============================================================
+-- V002.005__alter_users_add_listing_index.sql
+-- ------------------------------------------------------------
+-- Purpose  : Back the admin user listing, which now pages by
+--            keyset on (created_at, id), newest first.
+-- ============================================================
+
+CREATE INDEX IF NOT EXISTS idx_users_created
+    ON users (created_at DESC, id DESC);
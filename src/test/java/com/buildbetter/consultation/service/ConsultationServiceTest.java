@@ -0,0 +1,286 @@
+package com.buildbetter.consultation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.buildbetter.consultation.dto.consultation.GetConsultationResponse;
+import com.buildbetter.consultation.model.Architect;
+import com.buildbetter.consultation.model.Consultation;
+import com.buildbetter.consultation.repository.ArchitectRepository;
+import com.buildbetter.consultation.repository.ConsultationRepository;
+import com.buildbetter.consultation.websocket.confirmation.service.ConfirmationService;
+import com.buildbetter.shared.exception.BadRequestException;
+import com.buildbetter.shared.exception.ForbiddenException;
+import com.buildbetter.user.api.GetUserNameAndCity;
+import com.buildbetter.user.api.UserAPI;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultationServiceTest {
+
+    @Mock
+    private ConsultationRepository consultationRepository;
+
+    @Mock
+    private ArchitectRepository architectRepository;
+
+    @Mock
+    private ConfirmationService confirmationService;
+
+    @Mock
+    private RoomService roomService;
+
+    @Mock
+    private UserAPI userApi;
+
+    @Mock
+    private ConsultationSweeper consultationSweeper;
+
+    @InjectMocks
+    private ConsultationService consultationService;
+
+    private List<Consultation> consultations(int size, List<UUID> userIds, List<UUID> architectIds) {
+        List<Consultation> consults = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < size; i++) {
+            consults.add(Consultation.builder()
+                    .id(UUID.randomUUID())
+                    .userId(userIds.get(i % userIds.size()))
+                    .architectId(architectIds.get(i % architectIds.size()))
+                    .type(i % 2 == 0 ? "online" : "offline")
+                    .status("scheduled")
+                    .total(100)
+                    .startDate(start.plusHours(i))
+                    .endDate(start.plusHours(i + 1))
+                    .build());
+        }
+        return consults;
+    }
+
+    private void stubLookups(List<UUID> userIds, List<UUID> architectIds) {
+        Map<UUID, GetUserNameAndCity> users = userIds.stream()
+                .collect(Collectors.toMap(Function.identity(),
+                        id -> new GetUserNameAndCity(id, "user-" + id, "Jakarta")));
+        when(userApi.getUsersNameAndCity(anyCollection())).thenReturn(users);
+
+        List<Architect> architects = architectIds.stream()
+                .map(id -> Architect.builder().id(id).username("architect-" + id).city("Bandung").build())
+                .toList();
+        when(architectRepository.findAllByIdIn(anySet())).thenReturn(architects);
+    }
+
+    @Nested
+    @DisplayName("Consultation listing lookups")
+    class ListingLookups {
+
+        @ParameterizedTest(name = "{0} consultation(s)")
+        @ValueSource(ints = { 1, 300 })
+        @DisplayName("getAllConsultsByArchitectId → one user and one architect lookup regardless of size")
+        void getAllConsultsByArchitectId_constantLookups(int size) {
+            UUID architectId = UUID.randomUUID();
+            List<UUID> userIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+            List<Consultation> consults = consultations(size, userIds, List.of(architectId));
+
+            when(consultationRepository.findListing(any(), isNull())).thenReturn(consults);
+            stubLookups(userIds, List.of(architectId));
+
+            List<GetConsultationResponse> result = consultationService.getAllConsultsByArchitectId(architectId, null,
+                    null, null, null, null, null, null);
+
+            assertEquals(size, result.size());
+            verify(userApi, times(1)).getUsersNameAndCity(anyCollection());
+            verify(architectRepository, times(1)).findAllByIdIn(anySet());
+            verify(userApi, never()).getUserNameAndCityById(any());
+            verify(architectRepository, never()).findById(any());
+        }
+
+        @ParameterizedTest(name = "{0} consultation(s)")
+        @ValueSource(ints = { 1, 300 })
+        @DisplayName("getUserConsultations → one user and one architect lookup regardless of size")
+        void getUserConsultations_constantLookups(int size) {
+            UUID userId = UUID.randomUUID();
+            List<UUID> architectIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+            List<Consultation> consults = consultations(size, List.of(userId), architectIds);
+
+            when(consultationRepository.findListing(any(), isNull())).thenReturn(consults);
+            stubLookups(List.of(userId), architectIds);
+
+            List<GetConsultationResponse> result = consultationService.getUserConsultations(userId, null, null, null,
+                    null, null, null, null);
+
+            assertEquals(size, result.size());
+            assertEquals("user-" + userId, result.get(0).getUserName());
+            verify(userApi, times(1)).getUsersNameAndCity(anyCollection());
+            verify(architectRepository, times(1)).findAllByIdIn(anySet());
+            verify(userApi, never()).getUserNameAndCityById(any());
+            verify(architectRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Empty listing → no lookups at all")
+        void getUserConsultations_empty_noLookups() {
+            UUID userId = UUID.randomUUID();
+            when(consultationRepository.findListing(any(), isNull())).thenReturn(List.of());
+
+            List<GetConsultationResponse> result = consultationService.getUserConsultations(userId, null, null, null,
+                    null, null, null, null);
+
+            assertEquals(0, result.size());
+            verify(userApi, never()).getUsersNameAndCity(anyCollection());
+            verify(architectRepository, never()).findAllByIdIn(anySet());
+        }
+
+        @Test
+        @DisplayName("Unknown architect → BadRequestException")
+        void getUserConsultations_unknownArchitect_throws() {
+            UUID userId = UUID.randomUUID();
+            List<Consultation> consults = consultations(1, List.of(userId), List.of(UUID.randomUUID()));
+            when(consultationRepository.findListing(any(), isNull())).thenReturn(consults);
+            stubLookups(List.of(userId), List.of());
+
+            BadRequestException ex = assertThrows(BadRequestException.class,
+                    () -> consultationService.getUserConsultations(userId, null, null, null, null, null, null,
+                            null));
+            assertEquals("Architect not found", ex.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("Admin consultation listing")
+    class AdminListing {
+
+        @Test
+        @DisplayName("ADMIN role → resolves only the referenced users, never the whole table")
+        void getAllConsults_admin_resolvesReferencedUsersOnly() {
+            List<UUID> userIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+            UUID architectId = UUID.randomUUID();
+            List<Consultation> consults = consultations(10, userIds, List.of(architectId));
+
+            when(consultationRepository.findListing(any(), isNull())).thenReturn(consults);
+            stubLookups(userIds, List.of(architectId));
+
+            List<GetConsultationResponse> result = consultationService.getAllConsults(null, null, null, null,
+                    null, null, null, UUID.randomUUID(), "ADMIN");
+
+            assertEquals(10, result.size());
+            verify(userApi, times(1)).getUsersNameAndCity(eq(Set.copyOf(userIds)));
+            verify(userApi, never()).getAllUsersNameAndCity(any());
+            verify(userApi, never()).getUserNameAndCityById(any());
+        }
+
+        @Test
+        @DisplayName("Non-admin role → ForbiddenException without touching the database")
+        void getAllConsults_nonAdmin_forbidden() {
+            UUID requester = UUID.randomUUID();
+
+            assertThrows(ForbiddenException.class,
+                    () -> consultationService.getAllConsults(null, null, null, null, null, null, null,
+                            requester, "USER"));
+
+            verifyNoInteractions(consultationRepository, architectRepository, userApi);
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyset pagination")
+    class KeysetPagination {
+
+        @Test
+        @DisplayName("limit is pushed down to the repository")
+        void getAllConsultsByArchitectId_limit_pushedDown() {
+            UUID architectId = UUID.randomUUID();
+            UUID userId = UUID.randomUUID();
+            List<Consultation> page = consultations(20, List.of(userId), List.of(architectId));
+            Consultation last = page.get(page.size() - 1);
+
+            when(consultationRepository.findListing(any(), eq(20))).thenReturn(page);
+            stubLookups(List.of(userId), List.of(architectId));
+
+            List<GetConsultationResponse> result = consultationService.getAllConsultsByArchitectId(architectId,
+                    "online", "scheduled", false, true, last.getStartDate(), last.getId(), 20);
+
+            assertEquals(20, result.size());
+            verify(consultationRepository, times(1)).findListing(any(), eq(20));
+        }
+
+        @Test
+        @DisplayName("afterStartDate without afterId → BadRequestException")
+        void getUserConsultations_partialCursor_throws() {
+            UUID userId = UUID.randomUUID();
+            LocalDateTime after = LocalDateTime.now();
+
+            BadRequestException ex = assertThrows(BadRequestException.class,
+                    () -> consultationService.getUserConsultations(userId, null, null, null, null, after, null,
+                            10));
+
+            assertEquals("Fields 'afterStartDate' and 'afterId' must be provided together", ex.getMessage());
+            verifyNoInteractions(consultationRepository);
+        }
+
+        @ParameterizedTest(name = "limit = {0}")
+        @ValueSource(ints = { 0, 101 })
+        @DisplayName("limit out of range → BadRequestException")
+        void getUserConsultations_limitOutOfRange_throws(int limit) {
+            UUID userId = UUID.randomUUID();
+
+            assertThrows(BadRequestException.class,
+                    () -> consultationService.getUserConsultations(userId, null, null, null, null, null, null,
+                            limit));
+
+            verifyNoInteractions(consultationRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Refresh consultations")
+    class Refresh {
+
+        @Test
+        @DisplayName("USER role → targeted sweep of that user's consultations")
+        void refreshConsultations_user_sweepsOwnConsultations() {
+            UUID userId = UUID.randomUUID();
+
+            consultationService.refreshConsultations(userId, "USER");
+
+            verify(consultationSweeper, times(1)).sweepUser(userId);
+            verify(consultationSweeper, never()).sweepAll();
+            verifyNoInteractions(consultationRepository);
+        }
+
+        @Test
+        @DisplayName("ADMIN role → no-op, the background sweeper covers everything")
+        void refreshConsultations_admin_noOp() {
+            consultationService.refreshConsultations(UUID.randomUUID(), "ADMIN");
+
+            verifyNoInteractions(consultationSweeper, consultationRepository);
+        }
+    }
+}
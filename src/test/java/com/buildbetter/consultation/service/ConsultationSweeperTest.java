@@ -0,0 +1,86 @@
+package com.buildbetter.consultation.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.buildbetter.consultation.repository.ConsultationRepository;
+import com.buildbetter.shared.util.LeaderLease;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultationSweeperTest {
+
+    @Mock
+    private ConsultationRepository consultationRepository;
+
+    @Mock
+    private LeaderLease leaderLease;
+
+    @InjectMocks
+    private ConsultationSweeper consultationSweeper;
+
+    @Test
+    @DisplayName("Lease held by another node → nothing is swept")
+    void sweep_notLeader_skips() {
+        when(leaderLease.tryAcquire(eq(ConsultationSweeper.LEASE_NAME), any())).thenReturn(false);
+
+        consultationSweeper.sweep();
+
+        verifyNoInteractions(consultationRepository);
+    }
+
+    @Test
+    @DisplayName("Leader → every transition is drained chunk by chunk")
+    void sweep_leader_drainsChunks() {
+        int batch = ConsultationSweeper.BATCH_SIZE;
+        when(leaderLease.tryAcquire(eq(ConsultationSweeper.LEASE_NAME), any())).thenReturn(true);
+        when(consultationRepository.cancelOutdatedPending(anyCollection(), anyString(), anyString(), anyString(),
+                any(), eq(batch))).thenReturn(batch, batch, 12);
+        when(consultationRepository.cancelExpiredUnpaid(anyString(), anyString(), anyString(), anyString(), any(),
+                any(), eq(batch))).thenReturn(0);
+        when(consultationRepository.endFinishedScheduled(anyString(), anyString(), any(), eq(batch)))
+                .thenReturn(batch, 0);
+
+        consultationSweeper.sweep();
+
+        verify(consultationRepository, times(3)).cancelOutdatedPending(anyCollection(), anyString(), anyString(),
+                anyString(), any(), anyInt());
+        verify(consultationRepository, times(1)).cancelExpiredUnpaid(anyString(), anyString(), anyString(),
+                anyString(), any(), any(), anyInt());
+        verify(consultationRepository, times(2)).endFinishedScheduled(anyString(), anyString(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("sweepUser → only the user scoped statements run, no lease needed")
+    void sweepUser_usesUserScopedStatements() {
+        UUID userId = UUID.randomUUID();
+        int batch = ConsultationSweeper.BATCH_SIZE;
+        when(consultationRepository.cancelOutdatedPendingByUserId(eq(userId), anyCollection(), anyString(),
+                anyString(), anyString(), any(), eq(batch))).thenReturn(1);
+        when(consultationRepository.cancelExpiredUnpaidByUserId(eq(userId), anyString(), anyString(), anyString(),
+                anyString(), any(), any(), eq(batch))).thenReturn(0);
+        when(consultationRepository.endFinishedScheduledByUserId(eq(userId), anyString(), anyString(), any(),
+                eq(batch))).thenReturn(2);
+
+        consultationSweeper.sweepUser(userId);
+
+        verifyNoInteractions(leaderLease);
+        verify(consultationRepository, times(1)).endFinishedScheduledByUserId(eq(userId), anyString(), anyString(),
+                any(), anyInt());
+    }
+}
@@ -0,0 +1,157 @@
+package com.buildbetter.consultation.websocket.chat.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.buildbetter.consultation.websocket.config.OutboundProperties;
+import com.buildbetter.shared.cluster.ClusterBus;
+import com.buildbetter.shared.cluster.InProcessRedis;
+import com.buildbetter.shared.config.RedisPubSubConfig;
+
+/** Two nodes sharing one in-process Redis, each with its own sockets. */
+class ChatFanoutTest {
+
+    private InProcessRedis redis;
+
+    private Node nodeA;
+
+    private Node nodeB;
+
+    private final UUID roomId = UUID.randomUUID();
+
+    private final String channel = ChatFanout.PREFIX_CHANNEL + roomId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new InProcessRedis();
+        nodeA = new Node();
+        nodeB = new Node();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        nodeA.close();
+        nodeB.close();
+        redis.close();
+    }
+
+    private static WebSocketSession socket(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 200 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    @DisplayName("Participants on two nodes → each message reaches both exactly once")
+    void twoNodes_deliveredOnce() throws Exception {
+        WebSocketSession user = socket("user");
+        WebSocketSession architect = socket("architect");
+        nodeA.fanout.join(roomId, user);
+        nodeB.fanout.join(roomId, architect);
+        await(() -> redis.subscribers(channel) == 2);
+
+        nodeA.fanout.broadcast(roomId, "{\"content\":\"halo\"}");
+        nodeB.fanout.broadcast(roomId, "{\"content\":\"siap\"}");
+
+        TextMessage halo = new TextMessage("{\"content\":\"halo\"}");
+        TextMessage siap = new TextMessage("{\"content\":\"siap\"}");
+        verify(architect, timeout(2_000)).sendMessage(halo);
+        verify(user, timeout(2_000)).sendMessage(siap);
+        // Never handed back to the node that published it
+        verify(user, after(200)).sendMessage(halo);
+        verify(architect).sendMessage(siap);
+    }
+
+    @Test
+    @DisplayName("Room without local sessions → node not subscribed, nothing delivered there")
+    void noLocalSessions_notSubscribed() throws Exception {
+        WebSocketSession user = socket("user");
+        WebSocketSession other = socket("other");
+        nodeA.fanout.join(roomId, user);
+        nodeB.fanout.join(UUID.randomUUID(), other);
+        await(() -> redis.subscribers(channel) == 1);
+
+        nodeA.fanout.broadcast(roomId, "{\"content\":\"halo\"}");
+
+        verify(user, timeout(2_000)).sendMessage(any());
+        verify(other, after(200).never()).sendMessage(any());
+        assertFalse(nodeB.fanout.isSubscribed(roomId));
+    }
+
+    @Test
+    @DisplayName("Last local session leaves → node unsubscribes from the room")
+    void lastLeaves_unsubscribes() throws Exception {
+        WebSocketSession first = socket("first");
+        WebSocketSession second = socket("second");
+        nodeA.fanout.join(roomId, first);
+        nodeA.fanout.join(roomId, second);
+        await(() -> redis.subscribers(channel) == 1);
+
+        nodeA.fanout.leave(roomId, first);
+        assertTrue(nodeA.fanout.isSubscribed(roomId));
+        nodeA.fanout.leave(roomId, second);
+
+        assertFalse(nodeA.fanout.isSubscribed(roomId));
+        await(() -> redis.subscribers(channel) == 0);
+        nodeB.fanout.broadcast(roomId, "{\"content\":\"halo\"}");
+        verify(first, after(200).never()).sendMessage(any());
+        assertEquals(0, nodeA.sessions.getSessionCount(roomId));
+        verify(second, never()).sendMessage(any());
+    }
+
+    /** One application node: its own Redis connections, bus and sessions. */
+    private final class Node implements AutoCloseable {
+
+        final LettuceConnectionFactory connectionFactory = redis.connectionFactory();
+
+        final RedisMessageListenerContainer container = new RedisPubSubConfig()
+                .redisMessageListenerContainer(connectionFactory);
+
+        final ChatSessionManager sessions = new ChatSessionManager(new OutboundProperties());
+
+        final ChatFanout fanout;
+
+        Node() {
+            container.afterPropertiesSet();
+            container.start();
+            ClusterBus bus = new ClusterBus(new StringRedisTemplate(connectionFactory), container);
+            fanout = new ChatFanout(bus, sessions);
+        }
+
+        @Override
+        public void close() throws Exception {
+            container.stop();
+            container.destroy();
+            connectionFactory.destroy();
+        }
+    }
+}
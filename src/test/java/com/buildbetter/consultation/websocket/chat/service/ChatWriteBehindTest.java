@@ -0,0 +1,203 @@
+package com.buildbetter.consultation.websocket.chat.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import com.buildbetter.consultation.model.Chat;
+import com.buildbetter.consultation.repository.ChatBatchRepository;
+import com.buildbetter.consultation.websocket.chat.config.ChatWriteBehindProperties;
+
+@ExtendWith(MockitoExtension.class)
+class ChatWriteBehindTest {
+
+    @Mock
+    private ChatBatchRepository chatBatchRepository;
+
+    private ChatWriteBehind writeBehind;
+
+    // Every batch handed to the repository, in order
+    private final List<List<Chat>> written = Collections.synchronizedList(new ArrayList<>());
+
+    private final UUID roomId = UUID.randomUUID();
+
+    private ChatWriteBehind writeBehind(int capacity, int batchSize, long flushIntervalMs) {
+        ChatWriteBehindProperties properties = new ChatWriteBehindProperties();
+        properties.setCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setFlushIntervalMs(flushIntervalMs);
+        properties.setOfferTimeoutMs(20);
+        properties.setDrainTimeoutMs(5_000);
+        writeBehind = new ChatWriteBehind(chatBatchRepository, properties);
+        return writeBehind;
+    }
+
+    private void recordWrites() {
+        doAnswer(invocation -> written.add(List.copyOf(invocation.getArgument(0))))
+                .when(chatBatchRepository).insertAll(anyList());
+    }
+
+    private Chat chat(UUID room) {
+        return Chat.builder().id(UUID.randomUUID()).roomId(room).content("halo").build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writeBehind != null) {
+            writeBehind.drain();
+        }
+    }
+
+    @Test
+    @DisplayName("Backlog → written batchSize messages per statement, in order")
+    void backlog_writtenInBatches() throws InterruptedException {
+        recordWrites();
+        writeBehind(10, 2, 1_000);
+        List<Chat> chats = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            chats.add(chat(roomId));
+            assertTrue(writeBehind.enqueue(chats.get(i)));
+        }
+
+        writeBehind.start();
+        writeBehind.drain();
+
+        assertEquals(List.of(chats.subList(0, 2), chats.subList(2, 4), chats.subList(4, 5)), written);
+    }
+
+    @Test
+    @DisplayName("Lone message → written once the flush interval passes")
+    void loneMessage_writtenAfterInterval() {
+        doNothing().when(chatBatchRepository).insertAll(anyList());
+        writeBehind(10, 100, 20);
+        writeBehind.start();
+        Chat chat = chat(roomId);
+
+        writeBehind.enqueue(chat);
+
+        verify(chatBatchRepository, timeout(2_000)).insertAll(List.of(chat));
+    }
+
+    @Test
+    @DisplayName("Full queue → sender waits out the offer timeout, then is refused")
+    void fullQueue_refused() {
+        writeBehind(1, 10, 1_000);
+
+        assertTrue(writeBehind.enqueue(chat(roomId)));
+        long start = System.nanoTime();
+        assertFalse(writeBehind.enqueue(chat(roomId)));
+
+        assertTrue(System.nanoTime() - start >= 20_000_000L);
+        assertEquals(1, writeBehind.size());
+    }
+
+    @Test
+    @DisplayName("drain → queue written, later messages refused")
+    void drain_writesQueue_refusesLater() throws InterruptedException {
+        recordWrites();
+        writeBehind(10, 100, 60_000);
+        writeBehind.enqueue(chat(roomId));
+        writeBehind.enqueue(chat(roomId));
+        writeBehind.start();
+
+        writeBehind.drain();
+
+        assertEquals(2, written.stream().mapToInt(List::size).sum());
+        assertEquals(0, writeBehind.size());
+        assertFalse(writeBehind.enqueue(chat(roomId)));
+    }
+
+    @Test
+    @DisplayName("Database unreachable → batch retried until it goes through")
+    void transientFailure_retried() throws InterruptedException {
+        Chat chat = chat(roomId);
+        doThrow(new TransientDataAccessResourceException("connection refused"))
+                .doNothing()
+                .when(chatBatchRepository).insertAll(List.of(chat));
+        writeBehind(10, 100, 5);
+        writeBehind.enqueue(chat);
+
+        writeBehind.start();
+        writeBehind.drain();
+
+        verify(chatBatchRepository, times(2)).insertAll(List.of(chat));
+    }
+
+    @Test
+    @DisplayName("Batch rejected by a constraint → rest of the batch stored one by one")
+    void integrityViolation_rowByRow() throws InterruptedException {
+        Chat good = chat(roomId);
+        Chat orphan = chat(UUID.randomUUID());
+        doThrow(new DataIntegrityViolationException("fk_chats_room"))
+                .when(chatBatchRepository).insertAll(List.of(good, orphan));
+        doThrow(new DataIntegrityViolationException("fk_chats_room"))
+                .when(chatBatchRepository).insertAll(List.of(orphan));
+        doNothing().when(chatBatchRepository).insertAll(List.of(good));
+        writeBehind(10, 100, 1_000);
+        writeBehind.enqueue(good);
+        writeBehind.enqueue(orphan);
+
+        writeBehind.start();
+        writeBehind.drain();
+
+        verify(chatBatchRepository).insertAll(List.of(good));
+        verify(chatBatchRepository).insertAll(List.of(orphan));
+    }
+
+    @Test
+    @DisplayName("pending → queued messages of the room only")
+    void pending_queuedOfRoom() {
+        writeBehind(10, 100, 1_000);
+        Chat first = chat(roomId);
+        Chat other = chat(UUID.randomUUID());
+        Chat second = chat(roomId);
+        writeBehind.enqueue(first);
+        writeBehind.enqueue(other);
+        writeBehind.enqueue(second);
+
+        assertEquals(List.of(first, second), writeBehind.pending(roomId));
+    }
+
+    @Test
+    @DisplayName("pending → messages taken into the batch still listed while it fills")
+    void pending_batchBeingFilled() throws InterruptedException {
+        writeBehind(10, 100, 60_000);
+        Chat first = chat(roomId);
+        Chat second = chat(roomId);
+        writeBehind.start();
+        writeBehind.enqueue(first);
+        writeBehind.enqueue(second);
+
+        // Flusher has both off the queue and waits out the interval for more
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (writeBehind.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(0, writeBehind.size());
+        assertEquals(List.of(first, second), writeBehind.pending(roomId));
+        verify(chatBatchRepository, never()).insertAll(anyList());
+    }
+}
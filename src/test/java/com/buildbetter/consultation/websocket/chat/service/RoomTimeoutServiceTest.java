@@ -0,0 +1,189 @@
+package com.buildbetter.consultation.websocket.chat.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.socket.CloseStatus;
+
+import com.buildbetter.consultation.constant.ConsultationStatus;
+import com.buildbetter.consultation.model.Room;
+import com.buildbetter.consultation.repository.ConsultationRepository;
+import com.buildbetter.consultation.repository.RoomRepository;
+import com.buildbetter.consultation.websocket.session.OutboundSession;
+import com.buildbetter.shared.cluster.ClusterBus;
+import com.buildbetter.shared.util.LeaderLease;
+
+@ExtendWith(MockitoExtension.class)
+class RoomTimeoutServiceTest {
+
+    @Mock
+    private ChatSessionManager sessionManager;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private ConsultationRepository consultationRepository;
+
+    @Mock
+    private LeaderLease leaderLease;
+
+    @Mock
+    private ClusterBus clusterBus;
+
+    @Mock
+    private OutboundSession session;
+
+    private RoomTimeoutService roomTimeoutService;
+
+    @BeforeEach
+    void setUp() {
+        roomTimeoutService = new RoomTimeoutService(sessionManager, roomRepository, consultationRepository,
+                leaderLease, clusterBus, TransactionOperations.withoutTransaction());
+    }
+
+    private static Room room(LocalDateTime endTime) {
+        return Room.builder().id(UUID.randomUUID()).endTime(endTime).build();
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("Asia/Jakarta"));
+    }
+
+    @Test
+    @DisplayName("Leader tick → pending rooms loaded, the expired one claimed, ended and closed everywhere")
+    void tick_leader_firesExpired() throws Exception {
+        Room expired = room(now().minusMinutes(1));
+        Room upcoming = room(now().plusMinutes(10));
+        when(leaderLease.tryAcquire(eq(RoomTimeoutService.LEASE_NAME), any())).thenReturn(true);
+        when(roomRepository.findPendingTimeouts(any())).thenReturn(List.of(expired, upcoming));
+        when(roomRepository.claimTimeouts(eq(List.of(expired.getId())), any())).thenReturn(List.of(expired.getId()));
+        when(consultationRepository.endByTimedOutRooms(List.of(expired.getId()), ConsultationStatus.ENDED.getStatus()))
+                .thenReturn(1);
+        when(sessionManager.getSessions(expired.getId())).thenReturn(List.of(session));
+        when(session.isOpen()).thenReturn(true);
+
+        roomTimeoutService.tick();
+
+        verify(session).close(new CloseStatus(4004, "Session expired"));
+        verify(clusterBus).publish(RoomTimeoutService.CHANNEL, expired.getId().toString());
+        assertEquals(1, roomTimeoutService.getScheduledTimeoutCount());
+        assertTrue(roomTimeoutService.hasScheduledTimeout(upcoming.getId()));
+    }
+
+    @Test
+    @DisplayName("Timeout claimed by another node → nothing ended, closed or published here")
+    void tick_claimLost_skips() {
+        Room expired = room(now().minusMinutes(1));
+        when(leaderLease.tryAcquire(eq(RoomTimeoutService.LEASE_NAME), any())).thenReturn(true);
+        when(roomRepository.findPendingTimeouts(any())).thenReturn(List.of(expired));
+        when(roomRepository.claimTimeouts(anyCollection(), any())).thenReturn(List.of());
+
+        roomTimeoutService.tick();
+
+        verify(consultationRepository, never()).endByTimedOutRooms(anyCollection(), anyString());
+        verify(clusterBus, never()).publish(anyString(), anyString());
+        assertEquals(0, roomTimeoutService.getScheduledTimeoutCount());
+    }
+
+    @Test
+    @DisplayName("Lease held by another node → nothing loaded, joined rooms still kept locally")
+    void tick_notLeader_keepsLocalRooms() {
+        Room joined = room(now().plusMinutes(30));
+        when(leaderLease.tryAcquire(eq(RoomTimeoutService.LEASE_NAME), any())).thenReturn(false);
+        when(roomRepository.findById(joined.getId())).thenReturn(Optional.of(joined));
+
+        roomTimeoutService.scheduleRoomTimeout(joined.getId());
+        roomTimeoutService.tick();
+
+        verify(roomRepository, never()).findPendingTimeouts(any());
+        assertTrue(roomTimeoutService.hasScheduledTimeout(joined.getId()));
+    }
+
+    @Test
+    @DisplayName("Cancel → dropped here and marked fired in the table, so no node fires it")
+    void cancel_persisted() {
+        Room joined = room(now().plusMinutes(30));
+        when(roomRepository.findById(joined.getId())).thenReturn(Optional.of(joined));
+        when(roomRepository.cancelTimeout(joined.getId())).thenReturn(1, 0);
+
+        roomTimeoutService.scheduleRoomTimeout(joined.getId());
+
+        assertTrue(roomTimeoutService.cancelRoomTimeout(joined.getId()));
+        assertFalse(roomTimeoutService.hasScheduledTimeout(joined.getId()));
+        assertFalse(roomTimeoutService.cancelRoomTimeout(joined.getId()));
+    }
+
+    @Test
+    @DisplayName("Room rebooked with a later end → joining again replaces the stale deadline")
+    void schedule_rebooked_rescheduled() throws Exception {
+        Room room = room(now().plusSeconds(1));
+        Room rebooked = Room.builder().id(room.getId()).endTime(now().plusHours(1)).build();
+        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room), Optional.of(rebooked));
+        when(leaderLease.tryAcquire(eq(RoomTimeoutService.LEASE_NAME), any())).thenReturn(false);
+
+        roomTimeoutService.scheduleRoomTimeout(room.getId());
+        roomTimeoutService.scheduleRoomTimeout(room.getId());
+        Thread.sleep(2_000);
+        roomTimeoutService.tick();
+
+        // Not fired at the old deadline, still waiting for the new one
+        verify(roomRepository, never()).claimTimeouts(any(), any());
+        assertTrue(roomTimeoutService.hasScheduledTimeout(room.getId()));
+    }
+
+    @Test
+    @DisplayName("Joining a room already past its end → timed out immediately")
+    void schedule_expired_firesNow() throws Exception {
+        Room expired = room(now().minusMinutes(5));
+        when(roomRepository.findById(expired.getId())).thenReturn(Optional.of(expired));
+        when(roomRepository.claimTimeouts(eq(List.of(expired.getId())), any())).thenReturn(List.of(expired.getId()));
+        when(sessionManager.getSessions(expired.getId())).thenReturn(List.of(session));
+        when(session.isOpen()).thenReturn(true);
+
+        roomTimeoutService.scheduleRoomTimeout(expired.getId());
+
+        verify(consultationRepository).endByTimedOutRooms(List.of(expired.getId()),
+                ConsultationStatus.ENDED.getStatus());
+        verify(session).close(new CloseStatus(4004, "Session has already expired"));
+        verify(clusterBus).publish(RoomTimeoutService.CHANNEL, expired.getId().toString());
+        assertFalse(roomTimeoutService.hasScheduledTimeout(expired.getId()));
+    }
+
+    @Test
+    @DisplayName("Joining a room that timed out before → turned away without ending it again")
+    void schedule_alreadyTimedOut_closesOnly() throws Exception {
+        Room expired = room(now().minusMinutes(5));
+        when(roomRepository.findById(expired.getId())).thenReturn(Optional.of(expired));
+        when(roomRepository.claimTimeouts(anyCollection(), any())).thenReturn(List.of());
+        when(sessionManager.getSessions(expired.getId())).thenReturn(List.of(session));
+        when(session.isOpen()).thenReturn(true);
+
+        roomTimeoutService.scheduleRoomTimeout(expired.getId());
+
+        verify(session).close(new CloseStatus(4004, "Session has already expired"));
+        verify(consultationRepository, never()).endByTimedOutRooms(anyCollection(), anyString());
+        verify(clusterBus, never()).publish(anyString(), anyString());
+    }
+}
@@ -0,0 +1,131 @@
+package com.buildbetter.consultation.websocket.confirmation.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.buildbetter.consultation.websocket.config.OutboundProperties;
+import com.buildbetter.shared.cluster.ClusterBus;
+import com.buildbetter.shared.cluster.InProcessRedis;
+import com.buildbetter.shared.config.RedisPubSubConfig;
+
+/** Two nodes sharing one in-process Redis, each with its own waiting sockets. */
+class ConfirmationFanoutTest {
+
+    private static final String APPROVED = "{\"type\":\"APPROVED\"}";
+
+    private InProcessRedis redis;
+
+    private Node adminNode;
+
+    private Node userNode;
+
+    private final String consultationId = UUID.randomUUID().toString();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new InProcessRedis();
+        adminNode = new Node();
+        userNode = new Node();
+        await(() -> redis.subscribers(ConfirmationFanout.CHANNEL) == 2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        adminNode.close();
+        userNode.close();
+        redis.close();
+    }
+
+    private static WebSocketSession socket(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 200 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    @DisplayName("Decision taken on another node → waiting socket notified once")
+    void otherNode_notifiedOnce() throws Exception {
+        WebSocketSession waiting = socket("waiting");
+        userNode.fanout.join(consultationId, waiting);
+
+        adminNode.fanout.publish(consultationId, APPROVED);
+
+        verify(waiting, timeout(2_000)).sendMessage(new TextMessage(APPROVED));
+        verify(waiting, after(200)).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("Socket connecting just after the decision → decision replayed")
+    void lateSocket_replayed() throws Exception {
+        adminNode.fanout.publish(consultationId, APPROVED);
+
+        WebSocketSession late = socket("late");
+        userNode.fanout.join(consultationId, late);
+
+        verify(late, timeout(2_000)).sendMessage(new TextMessage(APPROVED));
+    }
+
+    @Test
+    @DisplayName("Other consultation → nothing replayed or delivered")
+    void otherConsultation_untouched() throws Exception {
+        WebSocketSession other = socket("other");
+        userNode.fanout.join(UUID.randomUUID().toString(), other);
+
+        adminNode.fanout.publish(consultationId, APPROVED);
+
+        verify(other, after(300).never()).sendMessage(any());
+    }
+
+    /** One application node: its own Redis connections, bus and sockets. */
+    private final class Node implements AutoCloseable {
+
+        final LettuceConnectionFactory connectionFactory = redis.connectionFactory();
+
+        final RedisMessageListenerContainer container = new RedisPubSubConfig()
+                .redisMessageListenerContainer(connectionFactory);
+
+        final ConfirmationFanout fanout;
+
+        Node() {
+            StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+            fanout = new ConfirmationFanout(new ClusterBus(redisTemplate, container), redisTemplate,
+                    new ConfirmationSessionManager(new OutboundProperties()));
+            fanout.subscribe();
+            container.afterPropertiesSet();
+            container.start();
+        }
+
+        @Override
+        public void close() throws Exception {
+            container.stop();
+            container.destroy();
+            connectionFactory.destroy();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.buildbetter.consultation.websocket.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+
+import com.buildbetter.consultation.websocket.config.OutboundProperties;
+
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.Session;
+
+@ExtendWith(MockitoExtension.class)
+class OutboundSessionTest {
+
+    @Mock
+    private WebSocketSession delegate;
+
+    private final OutboundProperties properties = new OutboundProperties();
+
+    // Holds every write on the delegate until released
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        properties.setBufferLimitBytes(1024);
+        properties.setLagBudgetMs(60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    private void blockWrites(WebSocketSession session) throws Exception {
+        lenient().when(session.isOpen()).thenReturn(true);
+        lenient().when(session.getId()).thenReturn("s-1");
+        doAnswer(invocation -> {
+            written.add(((WebSocketMessage<?>) invocation.getArgument(0)).getPayload().toString());
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(session).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("send → returns while the client is still writing, frames arrive in order")
+    void send_doesNotWaitForClient() throws Exception {
+        blockWrites(delegate);
+        OutboundSession session = new OutboundSession(delegate, properties);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(session.send(new TextMessage("m" + i)));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+        release.countDown();
+        verify(delegate, timeout(2_000).times(5)).sendMessage(any());
+        assertEquals(List.of("m0", "m1", "m2", "m3", "m4"), written);
+    }
+
+    @Test
+    @DisplayName("Buffer limit exceeded → client disconnected with 1011, later frames dropped")
+    void bufferLimit_evicts() throws Exception {
+        blockWrites(delegate);
+        properties.setBufferLimitBytes(10);
+        OutboundSession session = new OutboundSession(delegate, properties);
+
+        assertTrue(session.send(new TextMessage("first")));
+        verify(delegate, timeout(2_000)).sendMessage(any());
+        assertTrue(session.send(new TextMessage("0123456789")));
+        assertFalse(session.send(new TextMessage("0123456789")));
+        assertFalse(session.send(new TextMessage("x")));
+
+        verify(delegate, timeout(2_000)).close(OutboundSession.TOO_SLOW);
+        assertEquals(0, session.bufferedBytes());
+    }
+
+    @Test
+    @DisplayName("Buffer limit → text counted in UTF-8 bytes, not chars")
+    void bufferLimit_countsUtf8Bytes() throws Exception {
+        blockWrites(delegate);
+        properties.setBufferLimitBytes(10);
+        OutboundSession session = new OutboundSession(delegate, properties);
+
+        assertEquals(10, OutboundSession.sizeOf(new TextMessage("héllo😀")));
+        assertTrue(session.send(new TextMessage("first")));
+        verify(delegate, timeout(2_000)).sendMessage(any());
+        // 6 chars, 12 bytes
+        assertFalse(session.send(new TextMessage("éééééé")));
+
+        verify(delegate, timeout(2_000)).close(OutboundSession.TOO_SLOW);
+    }
+
+    @Test
+    @DisplayName("Non-text frame → queued behind the text being written, never written alongside it")
+    void sendMessage_nonText_queued() throws Exception {
+        blockWrites(delegate);
+        OutboundSession session = new OutboundSession(delegate, properties);
+        PingMessage ping = new PingMessage(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+
+        session.send(new TextMessage("first"));
+        verify(delegate, timeout(2_000)).sendMessage(any());
+        session.sendMessage(ping);
+        assertEquals(3, session.bufferedBytes());
+        verify(delegate, never()).sendMessage(ping);
+
+        release.countDown();
+        verify(delegate, timeout(2_000)).sendMessage(ping);
+        assertEquals(0, session.bufferedBytes());
+    }
+
+    @Test
+    @DisplayName("Write stuck past the lag budget → client disconnected on the next send")
+    void lagBudget_evicts() throws Exception {
+        blockWrites(delegate);
+        properties.setLagBudgetMs(20);
+        OutboundSession session = new OutboundSession(delegate, properties);
+
+        assertTrue(session.send(new TextMessage("stuck")));
+        Thread.sleep(100);
+
+        assertFalse(session.send(new TextMessage("next")));
+        verify(delegate, timeout(2_000)).close(OutboundSession.TOO_SLOW);
+    }
+
+    @Test
+    @DisplayName("Closed session → nothing queued")
+    void closed_refused() throws Exception {
+        when(delegate.isOpen()).thenReturn(false);
+        OutboundSession session = new OutboundSession(delegate, properties);
+
+        assertFalse(session.send(new TextMessage("late")));
+
+        verify(delegate, never()).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("Burst queued behind a write → sent as one batch with a single flush")
+    void burst_coalesced() throws Exception {
+        NativeWebSocketSession nativeDelegate = mock(NativeWebSocketSession.class);
+        Session nativeSession = mock(Session.class);
+        RemoteEndpoint.Basic remote = mock(RemoteEndpoint.Basic.class);
+        when(nativeDelegate.getNativeSession(Session.class)).thenReturn(nativeSession);
+        Map<String, Object> userProperties = new HashMap<>();
+        when(nativeSession.getUserProperties()).thenReturn(userProperties);
+        when(nativeSession.getBasicRemote()).thenReturn(remote);
+        blockWrites(nativeDelegate);
+        OutboundSession session = new OutboundSession(nativeDelegate, properties);
+
+        session.send(new TextMessage("first"));
+        verify(nativeDelegate, timeout(2_000)).sendMessage(any());
+        session.send(new TextMessage("second"));
+        session.send(new TextMessage("third"));
+        release.countDown();
+
+        verify(nativeDelegate, timeout(2_000).times(3)).sendMessage(any());
+        InOrder order = inOrder(remote, nativeDelegate);
+        order.verify(remote).setBatchingAllowed(true);
+        order.verify(nativeDelegate, times(2)).sendMessage(any());
+        order.verify(remote, timeout(2_000)).setBatchingAllowed(false);
+        assertEquals(List.of("first", "second", "third"), written);
+        assertEquals(60_000L, userProperties.get(OutboundSession.TOMCAT_SEND_TIMEOUT));
+    }
+}
@@ -2,17 +2,25 @@ package com.buildbetter.plan.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.junit.jupiter.api.DisplayName;
@@ -22,18 +30,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.buildbetter.plan.dto.materials.MaterialResponse;
 import com.buildbetter.plan.dto.materials.grouped_material.GroupedMaterialResponse;
 import com.buildbetter.plan.service.MaterialService;
+import com.buildbetter.shared.cache.ContentVersions;
+import com.buildbetter.shared.cache.ContentVersions.Versions;
+import com.buildbetter.shared.cache.ResponseCache;
+import com.buildbetter.shared.repository.KeysetPage;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
 
 @WebMvcTest(MaterialController.class)
 @AutoConfigureMockMvc
+@Import(ResponseCache.class)
 class MaterialControllerTest {
 
     @Autowired
@@ -43,6 +60,10 @@ class MaterialControllerTest {
     @MockBean
     private MaterialService materialService;
 
+    @SuppressWarnings("removal")
+    @MockBean
+    private ContentVersions contentVersions;
+
     /* ---------- POST /api/v1/materials ---------------------------------- */
     @Test
     @WithMockUser(roles = "ADMIN")
@@ -73,14 +94,55 @@ class MaterialControllerTest {
         @Test
         void ungrouped() throws Exception {
 
-            when(materialService.getAllMaterials())
-                    .thenReturn(List.of(new MaterialResponse()));
+            doAnswer(invocation -> {
+                JsonEnvelopeWriter writer = invocation.getArgument(0);
+                writer.write(new MaterialResponse());
+                writer.write(new MaterialResponse());
+                return null;
+            }).when(materialService).streamAllMaterials(any());
+
+            // Streamed : the body is written once the async dispatch runs
+            MvcResult result = mockMvc.perform(get("/api/v1/materials").with(csrf()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
 
-            mockMvc.perform(get("/api/v1/materials").with(csrf()))
+            mockMvc.perform(asyncDispatch(result))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.data").isArray());
+                    .andExpect(jsonPath("$.code").value(200))
+                    .andExpect(jsonPath("$.status").value("OK"))
+                    .andExpect(jsonPath("$.data").isArray())
+                    .andExpect(jsonPath("$.data.length()").value(2));
+
+            verify(materialService).streamAllMaterials(any());
+        }
+
+        @Test
+        void paged() throws Exception {
+
+            MaterialResponse material = MaterialResponse.builder().id(UUID.randomUUID()).name("Genteng").build();
+            when(materialService.getMaterialPage("abc", 1))
+                    .thenReturn(new KeysetPage<>(List.of(material), "def"));
+
+            MvcResult result = mockMvc.perform(get("/api/v1/materials")
+                    .param("cursor", "abc").param("limit", "1").with(csrf()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data[0].name").value("Genteng"))
+                    .andExpect(jsonPath("$.nextCursor").value("def"));
+
+            verify(materialService, never()).streamAllMaterials(any());
+        }
 
-            verify(materialService).getAllMaterials();
+        @Test
+        void groupedAndPaged_badRequest() throws Exception {
+
+            mockMvc.perform(get("/api/v1/materials").param("grouped", "true").param("limit", "10").with(csrf()))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(materialService);
         }
 
         @Test
@@ -89,12 +151,42 @@ class MaterialControllerTest {
             when(materialService.getAllGroupedMaterials())
                     .thenReturn(List.of(new GroupedMaterialResponse()));
 
-            mockMvc.perform(get("/api/v1/materials").param("grouped", "true").with(csrf()))
+            MvcResult result = mockMvc.perform(get("/api/v1/materials").param("grouped", "true").with(csrf()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.data").isArray());
 
             verify(materialService).getAllGroupedMaterials();
         }
+
+        @Test
+        void grouped_cached_notModified() throws Exception {
+
+            when(contentVersions.current("materials")).thenReturn(Optional.of(new Versions(Map.of("materials", 3L))));
+            when(materialService.getAllGroupedMaterials())
+                    .thenReturn(List.of(new GroupedMaterialResponse()));
+
+            MvcResult result = mockMvc.perform(get("/api/v1/materials").param("grouped", "true").with(csrf()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String etag = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                    .andExpect(jsonPath("$.data").isArray())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/api/v1/materials").param("grouped", "true")
+                    .header(HttpHeaders.IF_NONE_MATCH, etag).with(csrf()))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+            // Caught up once, rendered once, the 304 never reached the service
+            verify(materialService).catchUpCatalog(3L);
+            verify(materialService).getAllGroupedMaterials();
+        }
     }
 
     /* ---------- GET /api/v1/materials/{id} ------------------------------ */
@@ -0,0 +1,127 @@
+package com.buildbetter.plan.dto.suggestions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.buildbetter.plan.constant.HouseMaterial;
+import com.buildbetter.plan.model.Material;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class MaterialTreeTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<UUID, Material> catalog = new HashMap<>();
+
+    private UUID material(String category, String subCategory, String name) {
+        Material m = Material.builder()
+                .id(UUID.randomUUID())
+                .category(category)
+                .subCategory(subCategory)
+                .name(name)
+                .image(name + ".png")
+                .build();
+        catalog.put(m.getId(), m);
+        return m.getId();
+    }
+
+    // The nested-map grouping the tree replaces, kept as the reference output
+    private static Map<String, Map<String, List<Material>>> legacyGrouping(List<UUID> ids,
+            Map<UUID, Material> materialById) {
+        if (ids == null || ids.isEmpty())
+            return Collections.emptyMap();
+
+        return ids.stream()
+                .map(materialById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(
+                        Material::getCategory,
+                        LinkedHashMap::new,
+                        Collectors.groupingBy(
+                                Material::getSubCategory,
+                                LinkedHashMap::new,
+                                Collectors.toList())));
+    }
+
+    private void assertSameJson(List<UUID> ids) throws Exception {
+        assertEquals(mapper.writeValueAsString(legacyGrouping(ids, catalog)),
+                mapper.writeValueAsString(MaterialTree.of(ids, catalog)));
+    }
+
+    @Test
+    @DisplayName("of → same JSON as the nested maps, groups in order of first appearance")
+    void of_interleavedGroups_sameJson() throws Exception {
+        UUID floor = material("Lantai", "Pelapis", "Keramik");
+        UUID roof = material("Atap", "Atap", "Genteng");
+        UUID plafon = material("Atap", "Plafon", "Gypsum");
+        UUID roof2 = material("Atap", "Atap", "Seng");
+        UUID floor2 = material("Lantai", "Pelapis", "Marmer");
+
+        List<UUID> ids = List.of(floor, roof, plafon, roof2, floor2);
+        assertSameJson(ids);
+        assertEquals(List.of("Lantai", "Atap"), new ArrayList<>(MaterialTree.of(ids, catalog).toMap().keySet()));
+    }
+
+    @Test
+    @DisplayName("of → pairs outside the HouseMaterial matrix are grouped by name")
+    void of_unknownPairs_sameJson() throws Exception {
+        UUID custom = material("Atap", "Talang", "PVC");
+        UUID roof = material("Atap", "Atap", "Genteng");
+        UUID garden = material("Taman", "Rumput", "Jepang");
+        UUID custom2 = material("Atap", "Talang", "Seng");
+        // Known sub-category under another category is not the matrix pair
+        UUID misplaced = material("Dinding", "Atap", "Odd");
+        UUID garden2 = material("Taman", "Rumput", "Gajah");
+
+        assertSameJson(List.of(custom, roof, garden, custom2, misplaced, garden2));
+    }
+
+    @Test
+    @DisplayName("of → unknown ids skipped, empty input is an empty object")
+    void of_missingAndEmpty() throws Exception {
+        UUID door = material("Bukaan", "Pintu", "Jati");
+
+        assertSameJson(List.of(UUID.randomUUID(), door, UUID.randomUUID()));
+        assertSame(MaterialTree.EMPTY, MaterialTree.of(null, catalog));
+        assertSame(MaterialTree.EMPTY, MaterialTree.of(List.of(UUID.randomUUID()), catalog));
+        assertEquals("{}", mapper.writeValueAsString(MaterialTree.EMPTY));
+    }
+
+    @Test
+    @DisplayName("of → random mixes of every pair serialize exactly like the nested maps")
+    void of_randomMixes_sameJson() throws Exception {
+        List<UUID> pool = new ArrayList<>();
+        for (HouseMaterial houseMaterial : HouseMaterial.values()) {
+            for (int i = 0; i < 3; i++) {
+                pool.add(material(houseMaterial.getCategory(), houseMaterial.getSubCategory(),
+                        houseMaterial.name() + i));
+            }
+        }
+        pool.add(material("Taman", "Rumput", "Jepang"));
+        pool.add(material("Atap", "Talang", "PVC"));
+
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<UUID> ids = new ArrayList<>();
+            int size = random.nextInt(25);
+            for (int i = 0; i < size; i++) {
+                ids.add(random.nextInt(10) == 0 ? UUID.randomUUID() : pool.get(random.nextInt(pool.size())));
+            }
+            assertSameJson(ids);
+        }
+    }
+}
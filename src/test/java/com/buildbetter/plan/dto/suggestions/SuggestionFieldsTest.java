@@ -0,0 +1,109 @@
+package com.buildbetter.plan.dto.suggestions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.buildbetter.plan.model.Material;
+import com.buildbetter.plan.model.Suggestion;
+import com.buildbetter.plan.util.SuggestionUtils;
+import com.buildbetter.shared.exception.BadRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+class SuggestionFieldsTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Material roof = Material.builder().id(UUID.randomUUID()).category("Atap").subCategory("Atap")
+            .name("Genteng").image("genteng.png").build();
+
+    private Suggestion suggestion() {
+        Suggestion s = new Suggestion();
+        s.setId(UUID.randomUUID());
+        s.setHouseNumber("H-1");
+        s.setStyle("Modern");
+        s.setHouseImageFront("front.png");
+        s.setPdf("plan.pdf");
+        s.setMaterials0(List.of(roof.getId()));
+        s.setMaterials1(List.of(roof.getId()));
+        return s;
+    }
+
+    @Test
+    @DisplayName("parse → blank is every field, id always selected, unknown names rejected")
+    void parse() {
+        assertSame(SuggestionFields.ALL, SuggestionFields.parse(null));
+        assertSame(SuggestionFields.ALL, SuggestionFields.parse(" "));
+
+        SuggestionFields fields = SuggestionFields.parse("houseNumber, materials1,");
+        assertTrue(fields.includes("id"));
+        assertTrue(fields.includes("houseNumber"));
+        assertTrue(fields.includesMaterials());
+        assertFalse(fields.includes("pdf"));
+        assertFalse(fields.withoutMaterials().includesMaterials());
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> SuggestionFields.parse("houseNumber,price"));
+        assertEquals("Unknown field 'price' in 'fields'", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("toGetSuggestionResponse → trees not selected are never built")
+    void mapping_buildsSelectedTreesOnly() {
+        SuggestionResponse response = SuggestionUtils.toGetSuggestionResponse(suggestion(), Map.of(roof.getId(), roof),
+                SuggestionFields.parse("houseNumber,materials1"));
+
+        assertEquals(null, response.getMaterials0());
+        assertEquals(1, response.getMaterials1().get("Atap", "Atap").size());
+        assertEquals(null, response.getMaterials2());
+    }
+
+    @Test
+    @DisplayName("filters → only the selected fields are written, the envelope is untouched")
+    void filters_writeSelectedFieldsOnly() throws Exception {
+        SuggestionFields fields = SuggestionFields.parse("houseNumber,houseImageFront");
+        SuggestionResponse response = SuggestionUtils.toGetSuggestionResponse(suggestion(), Map.of(), fields);
+
+        JsonNode json = mapper.readTree(mapper.writer(fields.filters())
+                .writeValueAsString(Map.of("data", List.of(response))));
+
+        JsonNode item = json.get("data").get(0);
+        assertEquals(List.of("id", "houseNumber", "houseImageFront"), fieldNames(item));
+        assertEquals("H-1", item.get("houseNumber").asText());
+    }
+
+    @Test
+    @DisplayName("default filters → every field written, material trees left out in card mode")
+    void defaultFilters_writeEverything() throws Exception {
+        ObjectMapper defaults = new ObjectMapper().setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+
+        JsonNode full = defaults.readTree(defaults.writeValueAsString(
+                SuggestionUtils.toGetSuggestionResponse(suggestion(), Map.of(roof.getId(), roof))));
+        assertTrue(full.has("pdf"));
+        assertTrue(full.has("landArea"));
+        assertTrue(full.get("materials0").has("Atap"));
+
+        JsonNode card = defaults.readTree(defaults.writeValueAsString(
+                SuggestionUtils.toGetSuggestionResponse(suggestion(), Map.of(), SuggestionFields.CARD)));
+        assertTrue(card.has("pdf"));
+        assertFalse(card.has("materials0"));
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,134 @@
+package com.buildbetter.plan.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.buildbetter.plan.model.Material;
+import com.buildbetter.plan.repository.MaterialRepository;
+import com.buildbetter.shared.cache.ContentVersions;
+import com.buildbetter.shared.constant.CachedContent;
+
+@ExtendWith(MockitoExtension.class)
+class MaterialCatalogTest {
+
+    @Mock
+    private MaterialRepository materialRepository;
+
+    @Mock
+    private ContentVersions contentVersions;
+
+    @InjectMocks
+    private MaterialCatalog materialCatalog;
+
+    private Material material(String category, String subCategory, String name) {
+        return Material.builder()
+                .id(UUID.randomUUID())
+                .category(category)
+                .subCategory(subCategory)
+                .name(name)
+                .image(name + ".png")
+                .build();
+    }
+
+    @Test
+    @DisplayName("warmUp → loads every material and prebuilds the grouped listing")
+    void warmUp_loadsAllMaterials() {
+        Material roof = material("Atap", "Penutup Atap", "Genteng");
+        Material floor = material("Lantai", "Pelapis Lantai", "Keramik");
+        when(materialRepository.findAll()).thenReturn(List.of(floor, roof));
+
+        materialCatalog.warmUp();
+
+        MaterialCatalog.Snapshot snapshot = materialCatalog.snapshot();
+        assertEquals(1, snapshot.version());
+        assertEquals("Genteng", snapshot.materialsById().get(roof.getId()).getName());
+        assertEquals("Keramik", snapshot.namesById().get(floor.getId()).name());
+        assertEquals("Atap", snapshot.grouped().get(0).getCategory());
+        assertEquals("Lantai", snapshot.grouped().get(1).getCategory());
+    }
+
+    @Test
+    @DisplayName("upsert → holds a copy, later changes to the entity do not leak in")
+    void upsert_copiesTheEntity() {
+        Material roof = material("Atap", "Penutup Atap", "Genteng");
+
+        materialCatalog.upsert(roof);
+        roof.setName("Changed");
+
+        Material cached = materialCatalog.materialsById().get(roof.getId());
+        assertNotSame(roof, cached);
+        assertEquals("Genteng", cached.getName());
+        assertEquals("Genteng", materialCatalog.snapshot().grouped().get(0).getSubCategories()[0]
+                .getMaterials()[0].getName());
+    }
+
+    @Test
+    @DisplayName("upsert / remove → swapped in only once the transaction commits")
+    void upsertAndRemove_afterCommit() {
+        Material roof = material("Atap", "Penutup Atap", "Genteng");
+        materialCatalog.upsert(roof);
+        MaterialCatalog.Snapshot before = materialCatalog.snapshot();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            materialCatalog.remove(roof.getId());
+            assertSame(before, materialCatalog.snapshot());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(materialCatalog.materialsById().containsKey(roof.getId()));
+        assertTrue(materialCatalog.snapshot().grouped().isEmpty());
+        assertEquals(before.version() + 1, materialCatalog.snapshot().version());
+        // Readers holding the old snapshot still see a consistent catalog
+        assertTrue(before.materialsById().containsKey(roof.getId()));
+    }
+
+    @Test
+    @DisplayName("upsert / remove → materials content version bumped")
+    void upsertAndRemove_bumpContentVersion() {
+        Material roof = material("Atap", "Penutup Atap", "Genteng");
+
+        materialCatalog.upsert(roof);
+        materialCatalog.remove(roof.getId());
+
+        verify(contentVersions, times(2)).bump(CachedContent.MATERIALS);
+    }
+
+    @Test
+    @DisplayName("catchUp → reloads once when behind the content version, never when current")
+    void catchUp_reloadsWhenBehind() {
+        Material roof = material("Atap", "Penutup Atap", "Genteng");
+        when(materialRepository.findAll()).thenReturn(List.of(roof));
+
+        materialCatalog.catchUp(5);
+        materialCatalog.catchUp(5);
+        materialCatalog.catchUp(4);
+
+        verify(materialRepository, times(1)).findAll();
+        assertTrue(materialCatalog.materialsById().containsKey(roof.getId()));
+
+        materialCatalog.catchUp(6);
+
+        verify(materialRepository, times(2)).findAll();
+    }
+}
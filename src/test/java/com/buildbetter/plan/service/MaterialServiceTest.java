@@ -3,19 +3,21 @@ package com.buildbetter.plan.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,21 +27,30 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
 import org.springframework.mock.web.MockMultipartFile;
 
 import com.buildbetter.plan.dto.materials.AddMaterialRequest;
 import com.buildbetter.plan.dto.materials.MaterialResponse;
+import com.buildbetter.plan.dto.materials.MaterialUsageResponse;
 import com.buildbetter.plan.dto.materials.UpdateMaterialRequest;
 import com.buildbetter.plan.dto.materials.grouped_material.GroupedMaterialResponse;
 import com.buildbetter.plan.dto.materials.grouped_material.MaterialItem;
 import com.buildbetter.plan.dto.materials.grouped_material.SubCategory;
 import com.buildbetter.plan.model.Material;
 import com.buildbetter.plan.repository.MaterialRepository;
+import com.buildbetter.plan.repository.MaterialUsageCount;
+import com.buildbetter.plan.repository.SuggestionRepository;
 import com.buildbetter.plan.util.MaterialUtils;
-import com.buildbetter.shared.constant.S3Folder;
+import com.buildbetter.shared.exception.BadRequestException;
 import com.buildbetter.shared.exception.NotFoundException;
-import com.buildbetter.shared.util.S3Service;
+import com.buildbetter.shared.repository.KeysetPage;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.buildbetter.shared.util.S3BlobStore;
+import com.buildbetter.shared.util.S3DeletionQueue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class)
 class MaterialServiceTest {
@@ -48,7 +59,19 @@ class MaterialServiceTest {
     private MaterialRepository materialRepository;
 
     @Mock
-    private S3Service s3Service;
+    private S3BlobStore s3BlobStore;
+
+    @Mock
+    private S3DeletionQueue s3DeletionQueue;
+
+    @Mock
+    private MaterialCatalog materialCatalog;
+
+    @Mock
+    private SuggestionRepository suggestionRepository;
+
+    @Mock
+    private EntityManager entityManager;
 
     @InjectMocks
     private MaterialService materialService;
@@ -66,15 +89,14 @@ class MaterialServiceTest {
         req.setImage(image);
 
         // stub S3 upload
-        String expectedFolder = S3Folder.MATERIALS + "Building" + "/" + "Roof" + "/";
-        when(s3Service.uploadFile(image, expectedFolder, ""))
+        when(s3BlobStore.upload(image))
                 .thenReturn("https://s3/build_better/materials/Building/Roof/tile.png");
 
         // when
         materialService.addMaterial(req);
 
         // then: verify S3 upload called with correct folder
-        verify(s3Service).uploadFile(image, expectedFolder, "");
+        verify(s3BlobStore).upload(image);
 
         // capture saved Material
         ArgumentCaptor<Material> captor = ArgumentCaptor.forClass(Material.class);
@@ -88,43 +110,51 @@ class MaterialServiceTest {
         assertEquals("https://s3/build_better/materials/Building/Roof/tile.png", saved.getImage());
 
         // no more interactions
-        verifyNoMoreInteractions(s3Service, materialRepository);
+        verifyNoMoreInteractions(s3BlobStore, materialRepository);
     }
 
     @Test
-    @DisplayName("getAllMaterials → should fetch all Materials and map to DTOs")
-    void getAllMaterials_mapsEverything() {
-        // prepare two dummy Material entities
-        Material m1 = new Material();
-        m1.setId(UUID.randomUUID());
-        Material m2 = new Material();
-        m2.setId(UUID.randomUUID());
+    @DisplayName("streamAllMaterials → writes each DTO from the cursor and detaches the entity")
+    void streamAllMaterials_writesAndDetaches() throws Exception {
+        Material m1 = Material.builder().id(UUID.randomUUID()).name("Genteng").build();
+        Material m2 = Material.builder().id(UUID.randomUUID()).name("Keramik").build();
+        when(materialRepository.streamAll()).thenReturn(Stream.of(m1, m2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonEnvelopeWriter writer = JsonEnvelopeWriter.open(new ObjectMapper().writer(), out)) {
+            materialService.streamAllMaterials(writer);
+            writer.finish();
+        }
 
-        // stub repository to return them
-        when(materialRepository.findAll()).thenReturn(List.of(m1, m2));
+        JsonNode data = new ObjectMapper().readTree(out.toByteArray()).get("data");
+        assertEquals(2, data.size());
+        assertEquals("Genteng", data.get(0).get("name").asText());
+        assertEquals(m2.getId().toString(), data.get(1).get("id").asText());
+        verify(entityManager).detach(m1);
+        verify(entityManager).detach(m2);
+        verify(materialRepository, never()).findAll();
+    }
 
-        // stub the static mapper
-        MaterialResponse dto1 = new MaterialResponse();
-        MaterialResponse dto2 = new MaterialResponse();
-        try (MockedStatic<MaterialUtils> utils = mockStatic(MaterialUtils.class)) {
-            utils.when(() -> MaterialUtils.toMaterialResponse(m1)).thenReturn(dto1);
-            utils.when(() -> MaterialUtils.toMaterialResponse(m2)).thenReturn(dto2);
+    @Test
+    @DisplayName("getMaterialPage → keyset page from the repository, mapped to DTOs")
+    void getMaterialPage_mapsItemsKeepsCursor() {
+        Material m1 = Material.builder().id(UUID.randomUUID()).name("Genteng").build();
+        when(materialRepository.findPage(null, MaterialRepository.KEYSET, "abc", 1))
+                .thenReturn(new KeysetPage<>(List.of(m1), "def"));
 
-            // execute
-            List<MaterialResponse> result = materialService.getAllMaterials();
+        KeysetPage<MaterialResponse> page = materialService.getMaterialPage("abc", 1);
 
-            // verify repository call
-            verify(materialRepository).findAll();
+        assertEquals(1, page.items().size());
+        assertEquals("Genteng", page.items().get(0).getName());
+        assertEquals("def", page.nextCursor());
+    }
 
-            // verify static mapper calls
-            utils.verify(() -> MaterialUtils.toMaterialResponse(m1), times(1));
-            utils.verify(() -> MaterialUtils.toMaterialResponse(m2), times(1));
+    @Test
+    @DisplayName("getMaterialPage → limit out of range → BadRequestException, no query")
+    void getMaterialPage_limitOutOfRange_throws() {
+        assertThrows(BadRequestException.class, () -> materialService.getMaterialPage(null, 101));
 
-            // assert the returned list is exactly the two DTOs in order
-            assertEquals(2, result.size());
-            assertSame(dto1, result.get(0));
-            assertSame(dto2, result.get(1));
-        }
+        verifyNoInteractions(materialRepository);
     }
 
     @Test
@@ -159,24 +189,12 @@ class MaterialServiceTest {
         m4.setName("Cherry");
         m4.setImage("img4");
 
-        List<Material> allMats = List.of(m1, m2, m3, m4);
-
-        // Stub the repository to return our list when any Sort is passed
-        when(materialRepository.findAll(any(Sort.class)))
-                .thenReturn(allMats);
+        // The catalog snapshot is built from the materials in any order
+        when(materialCatalog.snapshot()).thenReturn(MaterialCatalog.Snapshot.of(1, List.of(m4, m2, m3, m1)));
 
         // --- Execute ---
         List<GroupedMaterialResponse> grouped = materialService.getAllGroupedMaterials();
-
-        // --- Verify Sort parameter ---
-        ArgumentCaptor<Sort> sortCaptor = ArgumentCaptor.forClass(Sort.class);
-        verify(materialRepository).findAll(sortCaptor.capture());
-        Sort sort = sortCaptor.getValue();
-        // We expect three ascending orders: category, subCategory, name
-        assertEquals(3, sort.stream().count());
-        assertTrue(sort.getOrderFor("category").isAscending());
-        assertTrue(sort.getOrderFor("subCategory").isAscending());
-        assertTrue(sort.getOrderFor("name").isAscending());
+        verifyNoInteractions(materialRepository);
 
         // --- Verify grouping structure ---
         // Top level: 2 categories
@@ -281,8 +299,7 @@ class MaterialServiceTest {
         req.setSubCategory("NewSub");
 
         // stub S3 upload
-        String expectedFolder = S3Folder.MATERIALS + "NewCat" + "/";
-        when(s3Service.uploadFile(newImage, expectedFolder, "")).thenReturn("new-url.png");
+        when(s3BlobStore.upload(newImage)).thenReturn("new-url.png");
 
         // stub mapper
         MaterialResponse expectedDto = new MaterialResponse();
@@ -294,8 +311,9 @@ class MaterialServiceTest {
             MaterialResponse actual = materialService.updateMaterial(id, req);
 
             // verify S3 interactions
-            verify(s3Service).uploadFile(newImage, expectedFolder, "");
-            verify(s3Service).deleteFile("old-url.png");
+            verify(s3BlobStore).upload(newImage);
+            verify(s3DeletionQueue).enqueue("old-url.png");
+            verify(materialCatalog).upsert(existing);
 
             // verify repository save
             ArgumentCaptor<Material> captor = ArgumentCaptor.forClass(Material.class);
@@ -339,8 +357,8 @@ class MaterialServiceTest {
             MaterialResponse actual = materialService.updateMaterial(id, req);
 
             // no S3 uploads/deletes
-            verify(s3Service, never()).uploadFile(any(), any(), any());
-            verify(s3Service, never()).deleteFile(any());
+            verify(s3BlobStore, never()).upload(any());
+            verify(s3DeletionQueue, never()).enqueue(anyString());
 
             // save and field updates
             ArgumentCaptor<Material> captor = ArgumentCaptor.forClass(Material.class);
@@ -374,7 +392,7 @@ class MaterialServiceTest {
         assertEquals("Material not found", ex.getMessage());
 
         verify(materialRepository).findById(id);
-        verifyNoMoreInteractions(s3Service, materialRepository);
+        verifyNoMoreInteractions(s3BlobStore, materialRepository);
     }
 
     @Test
@@ -390,10 +408,11 @@ class MaterialServiceTest {
         // when
         materialService.deleteMaterial(id);
 
-        // then: S3 deletion
-        verify(s3Service).deleteFile("old-image.png");
+        // then: S3 deletion queued
+        verify(s3DeletionQueue).enqueue("old-image.png");
         // then: repository delete
         verify(materialRepository).deleteById(id);
+        verify(materialCatalog).remove(id);
     }
 
     @Test
@@ -410,7 +429,65 @@ class MaterialServiceTest {
         assertEquals("Material not found", ex.getMessage());
 
         // and: no S3 or deleteById calls
-        verify(s3Service, never()).deleteFile(anyString());
+        verify(s3DeletionQueue, never()).enqueue(anyString());
         verify(materialRepository, never()).deleteById(any());
     }
+
+    private static MaterialUsageCount usage(UUID materialId, long suggestions, long materials0, long materials1,
+            long materials2) {
+        return new MaterialUsageCount() {
+            public UUID getMaterialId() {
+                return materialId;
+            }
+
+            public long getSuggestions() {
+                return suggestions;
+            }
+
+            public long getMaterials0() {
+                return materials0;
+            }
+
+            public long getMaterials1() {
+                return materials1;
+            }
+
+            public long getMaterials2() {
+                return materials2;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("getMaterialUsage → one aggregate query, every catalog material listed, unused ones at zero")
+    void getMaterialUsage_mergesCountsIntoCatalog() {
+        Material roof = Material.builder().id(UUID.randomUUID()).category("Atap").subCategory("Atap")
+                .name("Genteng").image("genteng.png").build();
+        Material floor = Material.builder().id(UUID.randomUUID()).category("Lantai").subCategory("Pelapis")
+                .name("Keramik").image("keramik.png").build();
+        when(materialCatalog.snapshot()).thenReturn(MaterialCatalog.Snapshot.of(1, List.of(floor, roof)));
+        // Material no longer in the catalog is left out
+        when(suggestionRepository.countUsagePerMaterial()).thenReturn(List.of(
+                usage(floor.getId(), 3, 1, 2, 1),
+                usage(UUID.randomUUID(), 5, 5, 0, 0)));
+
+        List<MaterialUsageResponse> usage = materialService.getMaterialUsage();
+
+        assertEquals(2, usage.size());
+        MaterialUsageResponse roofUsage = usage.get(0);
+        assertEquals(roof.getId(), roofUsage.getId());
+        assertEquals(0, roofUsage.getSuggestions());
+        assertEquals(0, roofUsage.getMaterials1());
+
+        MaterialUsageResponse floorUsage = usage.get(1);
+        assertEquals(floor.getId(), floorUsage.getId());
+        assertEquals("Keramik", floorUsage.getName());
+        assertEquals("Pelapis", floorUsage.getSubCategory());
+        assertEquals(3, floorUsage.getSuggestions());
+        assertEquals(1, floorUsage.getMaterials0());
+        assertEquals(2, floorUsage.getMaterials1());
+        assertEquals(1, floorUsage.getMaterials2());
+        verify(suggestionRepository).countUsagePerMaterial();
+        verifyNoInteractions(materialRepository);
+    }
 }
@@ -1,9 +1,13 @@
 package com.buildbetter.plan.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.spy;
@@ -13,6 +17,7 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -32,15 +37,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.buildbetter.plan.dto.plans.AddPlanRequest;
 import com.buildbetter.plan.dto.plans.GetPlansResponse;
+import com.buildbetter.plan.dto.suggestions.SuggestionFields;
 import com.buildbetter.plan.dto.suggestions.SuggestionResponse;
 import com.buildbetter.plan.dto.suggestions.generate.GenerateSuggestionRequest;
 import com.buildbetter.plan.model.Material;
 import com.buildbetter.plan.model.Plan;
 import com.buildbetter.plan.model.Suggestion;
-import com.buildbetter.plan.repository.MaterialRepository;
 import com.buildbetter.plan.repository.PlanRepository;
 import com.buildbetter.plan.repository.SuggestionRepository;
 import com.buildbetter.plan.util.SuggestionUtils;
+import com.buildbetter.shared.exception.BadRequestException;
 import com.buildbetter.shared.exception.NotFoundException;
 import com.buildbetter.user.api.UserAPI;
 
@@ -48,7 +54,7 @@ import com.buildbetter.user.api.UserAPI;
 public class PlanServiceTest {
 
         @Mock
-        private MaterialRepository materialRepository; // unused in addPlan, but required by constructor
+        private MaterialCatalog materialCatalog; // unused in addPlan, but required by constructor
         @Mock
         private SuggestionRepository suggestionRepository;
         @Mock
@@ -171,29 +177,20 @@ public class PlanServiceTest {
                 Plan planSpy = spy(realPlan);
 
                 // Make the repository return our spied Plan
-                when(planRepository.findAllByOrderByCreatedAtDesc())
+                when(planRepository.findListing(any(), isNull()))
                                 .thenReturn(List.of(planSpy));
 
                 UUID matId = UUID.randomUUID();
-                Set<UUID> matIds = Set.of(matId);
-
-                // Create a Mockito mock for Material (the service just needs material.getId())
                 Material material = mock(Material.class);
-                when(material.getId()).thenReturn(matId);
 
                 try (MockedStatic<SuggestionUtils> utils = mockStatic(SuggestionUtils.class)) {
-                        // SuggestionUtils.collectMaterialIds(realSuggestion) → matIds
-                        utils.when(() -> SuggestionUtils.collectMaterialIds(realSuggestion))
-                                        .thenReturn(matIds);
-
-                        // materialRepository.findAllById(matIds) → [material]
-                        when(materialRepository.findAllById(eq(matIds)))
-                                        .thenReturn(List.of(material));
+                        // materialCatalog.materialsById() → {matId→material}
+                        when(materialCatalog.materialsById()).thenReturn(Map.of(matId, material));
 
                         // SuggestionUtils.toGetSuggestionResponse(realSuggestion, {matId→material})
                         SuggestionResponse suggestionResp = new SuggestionResponse();
                         utils.when(() -> SuggestionUtils.toGetSuggestionResponse(realSuggestion,
-                                        Map.of(matId, material)))
+                                        Map.of(matId, material), SuggestionFields.ALL))
                                         .thenReturn(suggestionResp);
 
                         // SuggestionUtils.planToGenerateSuggestionRequest(planSpy, suggestionResp)
@@ -201,18 +198,111 @@ public class PlanServiceTest {
                         utils.when(() -> SuggestionUtils.planToGenerateSuggestionRequest(planSpy, suggestionResp))
                                         .thenReturn(genReq);
 
-                        GetPlansResponse[] responses = planService.getAllPlans(userId, "admin");
+                        GetPlansResponse[] responses = planService.getAllPlans(userId, "ADMIN", null, null, null,
+                                        false, SuggestionFields.ALL);
 
                         GetPlansResponse single = responses[0];
                         assertSame(suggestionResp, single.getSuggestions());
                         assertSame(genReq, single.getUserInput());
 
                         verify(userAPI).existsById(userId);
-                        verify(planRepository).findAllByOrderByCreatedAtDesc();
-                        verify(materialRepository).findAllById(matIds);
+                        verify(planRepository).findListing(any(), isNull());
+                        verify(materialCatalog).materialsById();
                 }
         }
 
+        @Test
+        @DisplayName("getAllPlans → resolves the materials of the whole page from the catalog")
+        void getAllPlans_resolvesMaterialsFromCatalog() {
+                when(userAPI.existsById(userId)).thenReturn(true);
+
+                UUID shared = UUID.randomUUID();
+                UUID other = UUID.randomUUID();
+                Plan first = planWithMaterials(List.of(shared));
+                Plan second = planWithMaterials(List.of(shared, other));
+                when(planRepository.findListing(any(), eq(2))).thenReturn(List.of(first, second));
+                when(materialCatalog.materialsById()).thenReturn(Map.of(
+                                shared, Material.builder().id(shared).category("Atap").subCategory("Penutup Atap").build(),
+                                other, Material.builder().id(other).category("Atap").subCategory("Rangka Atap").build()));
+
+                GetPlansResponse[] responses = planService.getAllPlans(userId, "USER", null, null, 2,
+                                false, SuggestionFields.ALL);
+
+                assertEquals(2, responses.length);
+                assertEquals(2, responses[1].getSuggestions().getMaterials0().toMap().get("Atap").size());
+                verify(materialCatalog, times(1)).materialsById();
+        }
+
+        @Test
+        @DisplayName("getAllPlans(card) → leaves out the material trees without loading materials")
+        void getAllPlans_cardMode_skipsMaterials() {
+                when(userAPI.existsById(userId)).thenReturn(true);
+
+                Plan plan = planWithMaterials(List.of(UUID.randomUUID()));
+                when(planRepository.findListing(any(), isNull())).thenReturn(List.of(plan));
+
+                GetPlansResponse[] responses = planService.getAllPlans(userId, "USER", null, null, null,
+                                true, SuggestionFields.ALL);
+
+                assertEquals(1, responses.length);
+                assertNull(responses[0].getSuggestions().getMaterials0());
+                assertNull(responses[0].getSuggestions().getMaterials1());
+                assertNull(responses[0].getSuggestions().getMaterials2());
+                verifyNoInteractions(materialCatalog);
+        }
+
+        @Test
+        @DisplayName("getAllPlans(fields) → builds only the selected material trees")
+        void getAllPlans_fields_buildsSelectedTrees() {
+                when(userAPI.existsById(userId)).thenReturn(true);
+
+                UUID roof = UUID.randomUUID();
+                Plan plan = planWithMaterials(List.of(roof));
+                plan.getSuggestion().setMaterials1(List.of(roof));
+                when(planRepository.findListing(any(), isNull())).thenReturn(List.of(plan));
+                when(materialCatalog.materialsById()).thenReturn(Map.of(
+                                roof, Material.builder().id(roof).category("Atap").subCategory("Penutup Atap").build()));
+
+                GetPlansResponse[] responses = planService.getAllPlans(userId, "USER", null, null, null,
+                                false, SuggestionFields.parse("style,materials1"));
+
+                assertNull(responses[0].getSuggestions().getMaterials0());
+                assertEquals(1, responses[0].getSuggestions().getMaterials1().toMap().get("Atap").size());
+                // Still built from the suggestion, whatever the selection
+                assertEquals("Modern", responses[0].getUserInput().getStyle());
+
+                // Card mode wins over a selected tree
+                clearInvocations(materialCatalog);
+                responses = planService.getAllPlans(userId, "USER", null, null, null,
+                                true, SuggestionFields.parse("materials1"));
+                assertNull(responses[0].getSuggestions().getMaterials1());
+                verifyNoInteractions(materialCatalog);
+        }
+
+        @Test
+        @DisplayName("getAllPlans → rejects a half cursor and an out-of-range limit")
+        void getAllPlans_invalidKeyset_throwsBadRequest() {
+                assertThrows(BadRequestException.class,
+                                () -> planService.getAllPlans(userId, "USER", LocalDateTime.now(), null, null,
+                                                false, SuggestionFields.ALL));
+                assertThrows(BadRequestException.class,
+                                () -> planService.getAllPlans(userId, "USER", null, null, 101,
+                                                false, SuggestionFields.ALL));
+                verifyNoInteractions(userAPI, planRepository, materialCatalog);
+        }
+
+        private Plan planWithMaterials(List<UUID> materialIds) {
+                Suggestion s = new Suggestion();
+                s.setStyle("Modern");
+                s.setMaterials0(materialIds);
+                Plan p = new Plan();
+                p.setId(UUID.randomUUID());
+                p.setUserId(userId);
+                p.setLandArea(120);
+                p.setSuggestion(s);
+                return p;
+        }
+
         @Test
         @DisplayName("getPlanById → returns a GetPlansResponse with correct suggestion and userInput")
         void getPlanById_success() {
@@ -226,26 +316,21 @@ public class PlanServiceTest {
 
                 // Prepare material IDs and entities
                 Set<UUID> matIds = Set.of(UUID.randomUUID(), UUID.randomUUID());
-                List<Material> materials = matIds.stream().map(id -> {
+                Map<UUID, Material> matsMap = matIds.stream().map(id -> {
                         Material m = new Material();
                         m.setId(id);
                         return m;
-                }).collect(Collectors.toList());
+                }).collect(Collectors.toMap(Material::getId, m -> m));
 
                 // Stubbing static methods
                 try (MockedStatic<SuggestionUtils> utils = mockStatic(SuggestionUtils.class)) {
-                        // 1. collectMaterialIds
-                        utils.when(() -> SuggestionUtils.collectMaterialIds(suggestion))
-                                        .thenReturn(matIds);
-                        // 2. findAllById
-                        when(materialRepository.findAllById(matIds)).thenReturn(materials);
-                        // 3. toGetSuggestionResponse
-                        Map<UUID, Material> matsMap = materials.stream()
-                                        .collect(Collectors.toMap(Material::getId, m -> m));
+                        // 1. materials from the catalog
+                        when(materialCatalog.materialsById()).thenReturn(matsMap);
+                        // 2. toGetSuggestionResponse
                         SuggestionResponse suggestionResponse = new SuggestionResponse();
                         utils.when(() -> SuggestionUtils.toGetSuggestionResponse(suggestion, matsMap))
                                         .thenReturn(suggestionResponse);
-                        // 4. planToGenerateSuggestionRequest
+                        // 3. planToGenerateSuggestionRequest
                         GenerateSuggestionRequest genReq = new GenerateSuggestionRequest();
                         utils.when(() -> SuggestionUtils.planToGenerateSuggestionRequest(plan, suggestionResponse))
                                         .thenReturn(genReq);
@@ -255,8 +340,7 @@ public class PlanServiceTest {
 
                         // Assert interactions
                         verify(planRepository).findById(planId);
-                        utils.verify(() -> SuggestionUtils.collectMaterialIds(suggestion), times(1));
-                        verify(materialRepository).findAllById(matIds);
+                        verify(materialCatalog).materialsById();
                         utils.verify(() -> SuggestionUtils.toGetSuggestionResponse(suggestion, matsMap), times(1));
                         utils.verify(() -> SuggestionUtils.planToGenerateSuggestionRequest(plan, suggestionResponse),
                                         times(1));
@@ -279,6 +363,6 @@ public class PlanServiceTest {
                 assertEquals("Plan not found", ex.getMessage());
 
                 verify(planRepository).findById(planId);
-                verifyNoInteractions(materialRepository);
+                verifyNoInteractions(materialCatalog);
         }
 }
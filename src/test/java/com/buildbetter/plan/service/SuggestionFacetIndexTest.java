@@ -0,0 +1,140 @@
+package com.buildbetter.plan.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.buildbetter.plan.model.Suggestion;
+
+class SuggestionFacetIndexTest {
+
+    private final SuggestionFacetIndex suggestionFacetIndex = new SuggestionFacetIndex();
+
+    private int minutes;
+
+    private Suggestion suggestion(String style, int floor, int rooms, int landArea, Integer budget,
+            String... windDirection) {
+        Suggestion s = new Suggestion();
+        s.setId(UUID.randomUUID());
+        s.setStyle(style);
+        s.setFloor(floor);
+        s.setRooms(rooms);
+        s.setLandArea(landArea);
+        s.setBudgetMin(budget == null ? null : List.of(budget + 50, budget, budget + 100));
+        s.setWindDirection(List.of(windDirection));
+        s.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(minutes++));
+        return s;
+    }
+
+    private static SuggestionFacetIndex.Query query(String facet, String... values) {
+        Map<String, Collection<String>> filters = new HashMap<>();
+        if (facet != null) {
+            filters.put(facet, List.of(values));
+        }
+        return new SuggestionFacetIndex.Query(filters, null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("rebuild → every suggestion indexed, search returns them newest first")
+    void rebuild_newestFirst() {
+        Suggestion older = suggestion("Modern", 1, 2, 100, 300);
+        Suggestion newer = suggestion("Modern", 2, 3, 150, 400);
+
+        suggestionFacetIndex.rebuild(List.of(newer, older));
+
+        SuggestionFacetIndex.Result result = suggestionFacetIndex.search(query(null), 0, 10);
+        assertEquals(2, suggestionFacetIndex.size());
+        assertEquals(List.of(newer.getId(), older.getId()), result.ids());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    @DisplayName("search → facets intersect, values of one facet union, counts ignore the facet's own filter")
+    void search_intersectsFacets() {
+        Suggestion a = suggestion("Modern", 1, 2, 100, 300, "north");
+        Suggestion b = suggestion("modern ", 2, 3, 150, 400, "north", "east");
+        Suggestion c = suggestion("Classic", 2, 3, 200, 500, "south");
+        Suggestion d = suggestion("Classic", 1, 4, 120, null, "east");
+        suggestionFacetIndex.rebuild(List.of(a, b, c, d));
+
+        Map<String, Collection<String>> filters = new HashMap<>();
+        filters.put(SuggestionFacetIndex.STYLE, List.of(" MODERN"));
+        filters.put(SuggestionFacetIndex.FLOOR, List.of("1", "2"));
+        filters.put(SuggestionFacetIndex.WIND_DIRECTION, List.of("East"));
+        SuggestionFacetIndex.Result result = suggestionFacetIndex
+                .search(new SuggestionFacetIndex.Query(filters, null, null, null, null), 0, 10);
+
+        assertEquals(List.of(b.getId()), result.ids());
+        // style counts apply floor + windDirection only : b (modern), d (classic)
+        assertEquals(Map.of("classic", 1, "modern", 1), result.facets().get(SuggestionFacetIndex.STYLE));
+        // windDirection counts apply style + floor only : a, b
+        assertEquals(Map.of("east", 1, "north", 2), result.facets().get(SuggestionFacetIndex.WIND_DIRECTION));
+        assertEquals(Map.of("3", 1), result.facets().get(SuggestionFacetIndex.ROOMS));
+    }
+
+    @Test
+    @DisplayName("search → ranges are inclusive, budget is the lowest budget_min, missing budget never matches")
+    void search_ranges() {
+        Suggestion a = suggestion("Modern", 1, 2, 100, 300);
+        Suggestion b = suggestion("Modern", 1, 2, 150, 400);
+        Suggestion c = suggestion("Modern", 1, 2, 200, null);
+        suggestionFacetIndex.rebuild(List.of(a, b, c));
+
+        assertEquals(List.of(c.getId(), b.getId()), suggestionFacetIndex
+                .search(new SuggestionFacetIndex.Query(Map.of(), 150, 200, null, null), 0, 10).ids());
+        assertEquals(List.of(b.getId(), a.getId()), suggestionFacetIndex
+                .search(new SuggestionFacetIndex.Query(Map.of(), null, null, 300, 400), 0, 10).ids());
+        assertEquals(List.of(a.getId()), suggestionFacetIndex
+                .search(new SuggestionFacetIndex.Query(Map.of(), null, 100, null, 399), 0, 10).ids());
+    }
+
+    @Test
+    @DisplayName("search → offset and limit page through the matches")
+    void search_pages() {
+        List<Suggestion> all = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            all.add(suggestion("Modern", 1, 2, 100 + i, 300));
+        }
+        suggestionFacetIndex.rebuild(all);
+
+        SuggestionFacetIndex.Result page = suggestionFacetIndex.search(query(null), 2, 2);
+        assertEquals(List.of(all.get(2).getId(), all.get(1).getId()), page.ids());
+        assertEquals(5, page.total());
+        assertTrue(suggestionFacetIndex.search(query(null), 5, 2).ids().isEmpty());
+    }
+
+    @Test
+    @DisplayName("upsert / remove → updates move the suggestion between values")
+    void upsertAndRemove_moveBetweenValues() {
+        Suggestion a = suggestion("Modern", 1, 2, 100, 300);
+        Suggestion b = suggestion("Classic", 1, 2, 100, 300);
+        suggestionFacetIndex.rebuild(List.of(a, b));
+
+        a.setStyle("Classic");
+        a.setLandArea(250);
+        suggestionFacetIndex.upsert(a);
+        suggestionFacetIndex.remove(b.getId());
+
+        assertTrue(suggestionFacetIndex.search(query(SuggestionFacetIndex.STYLE, "modern"), 0, 10).ids().isEmpty());
+        assertEquals(List.of(a.getId()), suggestionFacetIndex.search(query(SuggestionFacetIndex.STYLE, "classic"),
+                0, 10).ids());
+        assertEquals(List.of(a.getId()), suggestionFacetIndex
+                .search(new SuggestionFacetIndex.Query(Map.of(), 200, null, null, null), 0, 10).ids());
+        assertEquals(1, suggestionFacetIndex.size());
+
+        // A new suggestion takes a fresh slot on top : newest first
+        Suggestion c = suggestion("Classic", 1, 2, 100, 300);
+        suggestionFacetIndex.upsert(c);
+        assertEquals(List.of(c.getId(), a.getId()), suggestionFacetIndex.search(query(null), 0, 10).ids());
+    }
+}
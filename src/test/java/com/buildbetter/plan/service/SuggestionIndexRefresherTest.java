@@ -0,0 +1,176 @@
+package com.buildbetter.plan.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.buildbetter.plan.model.Suggestion;
+import com.buildbetter.plan.repository.SuggestionRepository;
+import com.buildbetter.shared.cache.ContentVersions;
+import com.buildbetter.shared.cache.ContentVersions.Versions;
+import com.buildbetter.shared.cluster.ClusterBus;
+import com.buildbetter.shared.constant.CachedContent;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionIndexRefresherTest {
+
+    @Mock
+    private SuggestionRepository suggestionRepository;
+
+    @Mock
+    private SuggestionMatchIndex suggestionMatchIndex;
+
+    @Mock
+    private SuggestionFacetIndex suggestionFacetIndex;
+
+    @Mock
+    private ContentVersions contentVersions;
+
+    @Mock
+    private ClusterBus clusterBus;
+
+    @InjectMocks
+    private SuggestionIndexRefresher suggestionIndexRefresher;
+
+    private static Optional<Versions> versions(long suggestions) {
+        return Optional.of(new Versions(Map.of(CachedContent.SUGGESTIONS, suggestions)));
+    }
+
+    private static Suggestion suggestion() {
+        Suggestion suggestion = new Suggestion();
+        suggestion.setId(UUID.randomUUID());
+        return suggestion;
+    }
+
+    // Messages other nodes publish on the channel
+    @SuppressWarnings("unchecked")
+    private Consumer<String> subscribe() {
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        suggestionIndexRefresher.subscribe();
+        verify(clusterBus).subscribe(eq(SuggestionIndexRefresher.CHANNEL), listener.capture());
+        return listener.getValue();
+    }
+
+    @Test
+    @DisplayName("warmUp → both indexes built from the database at the current version")
+    void warmUp_rebuilds() {
+        Suggestion suggestion = suggestion();
+        when(contentVersions.current(CachedContent.SUGGESTIONS)).thenReturn(versions(7));
+        when(suggestionRepository.findAll()).thenReturn(List.of(suggestion));
+
+        suggestionIndexRefresher.warmUp();
+        suggestionIndexRefresher.refresh();
+
+        verify(suggestionRepository).findAll();
+        verify(suggestionMatchIndex).rebuild(List.of(suggestion));
+        verify(suggestionFacetIndex).rebuild(List.of(suggestion));
+    }
+
+    @Test
+    @DisplayName("upsert → applied after commit, then its version published for the other nodes")
+    void upsert_appliedAfterCommit_published() {
+        Suggestion suggestion = suggestion();
+        when(contentVersions.current(CachedContent.SUGGESTIONS)).thenReturn(versions(7), versions(8), versions(8));
+        doAnswer(invocation -> {
+            LongConsumer bumped = invocation.getArgument(1);
+            bumped.accept(8);
+            return null;
+        }).when(contentVersions).bump(eq(CachedContent.SUGGESTIONS), any(LongConsumer.class));
+        suggestionIndexRefresher.warmUp();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            suggestionIndexRefresher.upsert(suggestion);
+            verify(suggestionMatchIndex, never()).upsert(suggestion);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        suggestionIndexRefresher.refresh();
+        suggestionIndexRefresher.refresh();
+
+        verify(suggestionMatchIndex).upsert(suggestion);
+        verify(suggestionFacetIndex).upsert(suggestion);
+        verify(clusterBus).publish(SuggestionIndexRefresher.CHANNEL, "8," + suggestion.getId());
+        // Built once on warm up, never again for its own write
+        verify(suggestionRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Message from another node → row reloaded by id, removed once gone, no rebuild")
+    void receive_reloadsRow() {
+        Suggestion updated = suggestion();
+        UUID deleted = UUID.randomUUID();
+        when(contentVersions.current(CachedContent.SUGGESTIONS)).thenReturn(versions(7), versions(9), versions(9));
+        when(suggestionRepository.findById(updated.getId())).thenReturn(Optional.of(updated));
+        when(suggestionRepository.findById(deleted)).thenReturn(Optional.empty());
+        Consumer<String> listener = subscribe();
+        suggestionIndexRefresher.warmUp();
+
+        // Out of order, the versions still line up
+        listener.accept("9," + deleted);
+        listener.accept("8," + updated.getId());
+        suggestionIndexRefresher.refresh();
+        suggestionIndexRefresher.refresh();
+
+        verify(suggestionMatchIndex).upsert(updated);
+        verify(suggestionFacetIndex).upsert(updated);
+        verify(suggestionMatchIndex).remove(deleted);
+        verify(suggestionFacetIndex).remove(deleted);
+        verify(suggestionRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Message missed → rebuilt once the version it carried is a refresh period old")
+    void refresh_messageMissed_rebuilds() {
+        Suggestion suggestion = suggestion();
+        when(contentVersions.current(CachedContent.SUGGESTIONS)).thenReturn(versions(7), versions(8), versions(8),
+                versions(8));
+        when(suggestionRepository.findAll()).thenReturn(List.of(suggestion));
+        suggestionIndexRefresher.warmUp();
+
+        // Could still be on its way
+        suggestionIndexRefresher.refresh();
+        verify(suggestionRepository, times(1)).findAll();
+
+        suggestionIndexRefresher.refresh();
+        suggestionIndexRefresher.refresh();
+
+        verify(suggestionRepository, times(2)).findAll();
+        verify(suggestionMatchIndex, times(2)).rebuild(List.of(suggestion));
+        verify(suggestionFacetIndex, times(2)).rebuild(List.of(suggestion));
+    }
+
+    @Test
+    @DisplayName("refresh → Redis unreachable → indexes left as they are")
+    void refresh_redisDown_untouched() {
+        when(contentVersions.current(CachedContent.SUGGESTIONS)).thenReturn(Optional.empty());
+
+        suggestionIndexRefresher.refresh();
+
+        verify(suggestionRepository, never()).findAll();
+        verifyNoInteractions(suggestionMatchIndex, suggestionFacetIndex);
+    }
+}
@@ -0,0 +1,113 @@
+package com.buildbetter.plan.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.buildbetter.plan.model.Suggestion;
+
+class SuggestionMatchIndexTest {
+
+    private final SuggestionMatchIndex suggestionMatchIndex = new SuggestionMatchIndex();
+
+    private Suggestion suggestion(String style, int landArea, int floor) {
+        Suggestion s = new Suggestion();
+        s.setId(UUID.randomUUID());
+        s.setStyle(style);
+        s.setLandArea(landArea);
+        s.setFloor(floor);
+        return s;
+    }
+
+    @Test
+    @DisplayName("rebuild → indexes every suggestion given")
+    void rebuild_indexesAllSuggestions() {
+        Suggestion s1 = suggestion("Modern", 200, 2);
+        Suggestion s2 = suggestion("Classic", 150, 1);
+
+        suggestionMatchIndex.rebuild(List.of(s1, s2));
+
+        assertEquals(2, suggestionMatchIndex.size());
+        assertEquals(List.of(s1), suggestionMatchIndex.match("Modern", 200, 2));
+    }
+
+    @Test
+    @DisplayName("Rule 1: exact landArea and floor, style is case/space insensitive")
+    void match_rule1_exactMatch() {
+        Suggestion s1 = suggestion("Modern", 200, 2);
+        Suggestion s2 = suggestion("modern ", 200, 2);
+        suggestionMatchIndex.rebuild(List.of(s1, s2, suggestion("Modern", 180, 2)));
+
+        assertEquals(List.of(s1, s2), suggestionMatchIndex.match(" MODERN", 200, 2));
+    }
+
+    @Test
+    @DisplayName("Rule 2: same floor, closest smaller landArea")
+    void match_rule2_sameFloorClosestSmallerLandArea() {
+        Suggestion s1 = suggestion("Modern", 150, 2);
+        Suggestion s2 = suggestion("Modern", 180, 2);
+        Suggestion s3 = suggestion("Modern", 220, 2);
+        suggestionMatchIndex.rebuild(List.of(s1, s2, s3));
+
+        assertEquals(List.of(s2), suggestionMatchIndex.match("Modern", 200, 2));
+    }
+
+    @Test
+    @DisplayName("Rule 3: same landArea, different floor")
+    void match_rule3_sameLandAreaDifferentFloor() {
+        Suggestion s1 = suggestion("Modern", 200, 1);
+        Suggestion s2 = suggestion("Modern", 200, 3);
+        suggestionMatchIndex.rebuild(List.of(s1, s2, suggestion("Modern", 250, 2)));
+
+        List<Suggestion> result = suggestionMatchIndex.match("Modern", 200, 2);
+
+        assertEquals(2, result.size());
+        assertTrue(result.containsAll(List.of(s1, s2)));
+    }
+
+    @Test
+    @DisplayName("Rule 4: smaller landArea, different floor (closest one)")
+    void match_rule4_smallerLandAreaDifferentFloor() {
+        Suggestion s1 = suggestion("Modern", 150, 1);
+        Suggestion s2 = suggestion("Modern", 180, 3);
+        Suggestion s3 = suggestion("Modern", 220, 1);
+        suggestionMatchIndex.rebuild(List.of(s1, s2, s3));
+
+        assertEquals(List.of(s2), suggestionMatchIndex.match("Modern", 200, 2));
+    }
+
+    @Test
+    @DisplayName("No rule hit or unknown style → empty")
+    void match_noHit_returnsEmpty() {
+        suggestionMatchIndex.rebuild(List.of(suggestion("Modern", 300, 3)));
+
+        assertTrue(suggestionMatchIndex.match("Modern", 100, 1).isEmpty());
+        assertTrue(suggestionMatchIndex.match("Rustic", 300, 3).isEmpty());
+    }
+
+    @Test
+    @DisplayName("upsert / remove → refresh only the affected style buckets")
+    void upsertAndRemove_refreshIndex() {
+        Suggestion s1 = suggestion("Modern", 200, 2);
+        suggestionMatchIndex.rebuild(List.of(s1));
+
+        // style changed → moves to the new bucket
+        Suggestion updated = suggestion("Classic", 200, 2);
+        updated.setId(s1.getId());
+        suggestionMatchIndex.upsert(updated);
+
+        assertTrue(suggestionMatchIndex.match("Modern", 200, 2).isEmpty());
+        assertEquals(List.of(updated), suggestionMatchIndex.match("Classic", 200, 2));
+        assertEquals(1, suggestionMatchIndex.size());
+
+        suggestionMatchIndex.remove(s1.getId());
+
+        assertTrue(suggestionMatchIndex.match("Classic", 200, 2).isEmpty());
+        assertEquals(0, suggestionMatchIndex.size());
+    }
+}
@@ -8,7 +8,6 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
-import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
@@ -17,17 +16,16 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +35,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -47,33 +46,56 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.buildbetter.plan.dto.suggestions.AddSuggestionRequest;
 import com.buildbetter.plan.dto.suggestions.AddSuggestionUrlRequest;
+import com.buildbetter.plan.dto.suggestions.SuggestionFields;
 import com.buildbetter.plan.dto.suggestions.SuggestionResponse;
 import com.buildbetter.plan.dto.suggestions.UpdateSuggestionRequest;
 import com.buildbetter.plan.dto.suggestions.UploadFloorPlans;
 import com.buildbetter.plan.dto.suggestions.UploadHouseFileRequest;
 import com.buildbetter.plan.dto.suggestions.generate.GenerateSuggestionRequest;
 import com.buildbetter.plan.dto.suggestions.generate.GenerateSuggestionResponse;
+import com.buildbetter.plan.dto.suggestions.search.SuggestionSearchRequest;
+import com.buildbetter.plan.dto.suggestions.search.SuggestionSearchResponse;
 import com.buildbetter.plan.model.Material;
 import com.buildbetter.plan.model.Suggestion;
-import com.buildbetter.plan.repository.MaterialRepository;
 import com.buildbetter.plan.repository.SuggestionRepository;
 import com.buildbetter.plan.util.SuggestionUtils; // We will use actual SuggestionUtils for transformation logic where possible or mock it if it becomes too complex for service unit test
-import com.buildbetter.shared.constant.S3Folder;
 import com.buildbetter.shared.exception.BadRequestException;
+import com.buildbetter.shared.exception.InternalServerErrorException;
 import com.buildbetter.shared.exception.NotFoundException;
-import com.buildbetter.shared.util.S3Service;
+import com.buildbetter.shared.util.JsonEnvelopeWriter;
+import com.buildbetter.shared.util.S3BlobStore;
+import com.buildbetter.shared.util.S3DeletionQueue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class)
 class SuggestionServiceTest {
 
     @Mock
-    private MaterialRepository materialRepository;
+    private SuggestionRepository suggestionRepository;
 
     @Mock
-    private SuggestionRepository suggestionRepository;
+    private S3BlobStore s3BlobStore;
+
+    @Mock
+    private S3DeletionQueue s3DeletionQueue;
+
+    @Mock
+    private SuggestionMatchIndex suggestionMatchIndex;
+
+    @Mock
+    private SuggestionFacetIndex suggestionFacetIndex;
+
+    @Mock
+    private MaterialCatalog materialCatalog;
+
+    @Mock
+    private SuggestionIndexRefresher suggestionIndexRefresher;
 
     @Mock
-    private S3Service s3Service;
+    private EntityManager entityManager;
 
     @InjectMocks
     private SuggestionService suggestionService;
@@ -151,6 +173,7 @@ class SuggestionServiceTest {
             assertEquals(request.getMaterials0(), capturedSuggestion.getMaterials0());
             assertEquals(request.getMaterials1(), capturedSuggestion.getMaterials1());
             assertEquals(request.getMaterials2(), capturedSuggestion.getMaterials2());
+            verify(suggestionIndexRefresher).upsert(savedSuggestion);
         }
     }
 
@@ -175,19 +198,17 @@ class SuggestionServiceTest {
 
             String expectedUrl1 = "s3://bucket/suggestions/H123/plan1.jpg";
             String expectedUrl2 = "s3://bucket/suggestions/H123/plan2.png";
-            String expectedFolder = S3Folder.SUGGESTIONS + testSuggestion.getHouseNumber() + "/";
 
-            when(s3Service.uploadFile(eq(file1), eq(expectedFolder), anyString())).thenReturn(expectedUrl1);
-            when(s3Service.uploadFile(eq(file2), eq(expectedFolder), anyString())).thenReturn(expectedUrl2);
+            when(s3BlobStore.uploadAll(List.of(file1, file2)))
+                    .thenReturn(List.of(expectedUrl1, expectedUrl2));
 
             // When
             suggestionService.uploadFloorPlans(request);
 
             // Then
             verify(suggestionRepository).findById(suggestionId);
-            verify(s3Service).uploadFile(eq(file1), eq(expectedFolder), anyString());
-            verify(s3Service).uploadFile(eq(file2), eq(expectedFolder), anyString());
-            verify(s3Service, never()).deleteFile(anyString());
+            verify(s3BlobStore).uploadAll(List.of(file1, file2));
+            verify(s3DeletionQueue, never()).enqueue(anyCollection());
             verify(suggestionRepository).save(suggestionArgumentCaptor.capture());
 
             Suggestion savedSuggestion = suggestionArgumentCaptor.getValue();
@@ -214,18 +235,16 @@ class SuggestionServiceTest {
             request.setFiles(new MultipartFile[] { newFile });
 
             String newPlanUrl = "s3://bucket/suggestions/H123/new_plan.jpg";
-            String expectedFolder = S3Folder.SUGGESTIONS + testSuggestion.getHouseNumber() + "/";
 
-            when(s3Service.uploadFile(eq(newFile), eq(expectedFolder), anyString())).thenReturn(newPlanUrl);
+            when(s3BlobStore.uploadAll(List.of(newFile))).thenReturn(List.of(newPlanUrl));
 
             // When
             suggestionService.uploadFloorPlans(request);
 
             // Then
             verify(suggestionRepository).findById(suggestionId);
-            verify(s3Service).uploadFile(eq(newFile), eq(expectedFolder), anyString());
-            verify(s3Service).deleteFile(oldPlanUrl1);
-            verify(s3Service).deleteFile(oldPlanUrl2);
+            verify(s3BlobStore).uploadAll(List.of(newFile));
+            verify(s3DeletionQueue).enqueue(List.of(oldPlanUrl1, oldPlanUrl2));
             verify(suggestionRepository).save(suggestionArgumentCaptor.capture());
 
             Suggestion savedSuggestion = suggestionArgumentCaptor.getValue();
@@ -250,15 +269,13 @@ class SuggestionServiceTest {
             request.setFiles(new MultipartFile[] { emptyFile, validFile });
 
             String expectedValidUrl = "s3://bucket/suggestions/H123/valid.jpg";
-            String expectedFolder = S3Folder.SUGGESTIONS + testSuggestion.getHouseNumber() + "/";
-            when(s3Service.uploadFile(eq(validFile), eq(expectedFolder), anyString())).thenReturn(expectedValidUrl);
+            when(s3BlobStore.uploadAll(List.of(validFile))).thenReturn(List.of(expectedValidUrl));
 
             // When
             suggestionService.uploadFloorPlans(request);
 
             // Then
-            verify(s3Service, never()).uploadFile(eq(emptyFile), anyString(), anyString());
-            verify(s3Service).uploadFile(eq(validFile), eq(expectedFolder), anyString());
+            verify(s3BlobStore).uploadAll(List.of(validFile));
             verify(suggestionRepository).save(suggestionArgumentCaptor.capture());
             Suggestion savedSuggestion = suggestionArgumentCaptor.getValue();
             assertEquals(1, savedSuggestion.getFloorplans().size());
@@ -282,10 +299,58 @@ class SuggestionServiceTest {
                 suggestionService.uploadFloorPlans(request);
             });
             assertEquals("Suggestion not found", exception.getMessage());
-            verify(s3Service, never()).uploadFile(any(MultipartFile.class), anyString(), anyString());
-            verify(s3Service, never()).deleteFile(anyString());
+            verify(s3BlobStore, never()).uploadAll(anyList());
+            verify(s3DeletionQueue, never()).enqueue(anyCollection());
             verify(suggestionRepository, never()).save(any(Suggestion.class));
         }
+
+        @Test
+        @DisplayName("Should keep the old floor plans when an upload fails")
+        void uploadFloorPlans_uploadFails_keepsOldPlans() {
+            // Given
+            String oldPlanUrl = "s3://bucket/suggestions/H123/old_plan.jpg";
+            testSuggestion.setFloorplans(new ArrayList<>(List.of(oldPlanUrl)));
+            when(suggestionRepository.findById(testSuggestionId)).thenReturn(Optional.of(testSuggestion));
+
+            MockMultipartFile file = new MockMultipartFile("files", "plan.jpg", "image/jpeg", "content".getBytes());
+            UploadFloorPlans request = new UploadFloorPlans();
+            request.setId(testSuggestionId);
+            request.setFiles(new MultipartFile[] { file });
+
+            when(s3BlobStore.uploadAll(anyList()))
+                    .thenThrow(new InternalServerErrorException("Failed to upload file to S3: Access Denied"));
+
+            // When & Then
+            assertThrows(InternalServerErrorException.class, () -> suggestionService.uploadFloorPlans(request));
+            assertEquals(List.of(oldPlanUrl), testSuggestion.getFloorplans());
+            verify(suggestionRepository, never()).save(any(Suggestion.class));
+            verify(s3DeletionQueue, never()).enqueue(anyCollection());
+            verify(suggestionIndexRefresher, never()).upsert(any(Suggestion.class));
+        }
+
+        @Test
+        @DisplayName("Should leave the new uploads to the blob store if the save rolls back")
+        void uploadFloorPlans_saveFails_leavesUploadsToBlobStore() {
+            // Given
+            String oldPlanUrl = "s3://bucket/suggestions/H123/old_plan.jpg";
+            testSuggestion.setFloorplans(new ArrayList<>(List.of(oldPlanUrl)));
+            when(suggestionRepository.findById(testSuggestionId)).thenReturn(Optional.of(testSuggestion));
+
+            MockMultipartFile file = new MockMultipartFile("files", "plan.jpg", "image/jpeg", "content".getBytes());
+            UploadFloorPlans request = new UploadFloorPlans();
+            request.setId(testSuggestionId);
+            request.setFiles(new MultipartFile[] { file });
+
+            String newPlanUrl = "s3://bucket/suggestions/H123/plan.jpg";
+            when(s3BlobStore.uploadAll(anyList())).thenReturn(List.of(newPlanUrl));
+            when(suggestionRepository.save(any(Suggestion.class))).thenThrow(new IllegalStateException("db down"));
+
+            // When & Then
+            assertThrows(IllegalStateException.class, () -> suggestionService.uploadFloorPlans(request));
+            verify(s3BlobStore).uploadAll(List.of(file));
+            verify(s3DeletionQueue, never()).enqueue(List.of(newPlanUrl));
+            verify(suggestionIndexRefresher, never()).upsert(any(Suggestion.class));
+        }
     }
 
     @Nested
@@ -312,15 +377,14 @@ class SuggestionServiceTest {
             UploadHouseFileRequest request = createUploadHouseFileRequest(suggestionId, "HOUSE_IMAGE_FRONT", file);
 
             String expectedUrl = "s3://bucket/suggestions/H123/front.jpg";
-            String expectedFolder = S3Folder.SUGGESTIONS + testSuggestion.getHouseNumber() + "/";
-            when(s3Service.uploadFile(eq(file), eq(expectedFolder), anyString())).thenReturn(expectedUrl);
+            when(s3BlobStore.upload(file)).thenReturn(expectedUrl);
 
             // When
             suggestionService.uploadHouseFile(request);
 
             // Then
-            verify(s3Service).uploadFile(eq(file), eq(expectedFolder), anyString());
-            verify(s3Service, never()).deleteFile(anyString());
+            verify(s3BlobStore).upload(file);
+            verify(s3DeletionQueue, never()).enqueue(anyString());
             verify(suggestionRepository).save(suggestionArgumentCaptor.capture());
             assertEquals(expectedUrl, suggestionArgumentCaptor.getValue().getHouseImageFront());
         }
@@ -339,15 +403,14 @@ class SuggestionServiceTest {
             UploadHouseFileRequest request = createUploadHouseFileRequest(suggestionId, "HOUSE_IMAGE_FRONT", file);
 
             String newImageUrl = "s3://bucket/suggestions/H123/new_front.jpg";
-            String expectedFolder = S3Folder.SUGGESTIONS + testSuggestion.getHouseNumber() + "/";
-            when(s3Service.uploadFile(eq(file), eq(expectedFolder), anyString())).thenReturn(newImageUrl);
+            when(s3BlobStore.upload(file)).thenReturn(newImageUrl);
 
             // When
             suggestionService.uploadHouseFile(request);
 
             // Then
-            verify(s3Service).uploadFile(eq(file), eq(expectedFolder), anyString());
-            verify(s3Service).deleteFile(oldImageUrl);
+            verify(s3BlobStore).upload(file);
+            verify(s3DeletionQueue).enqueue(oldImageUrl);
             verify(suggestionRepository).save(suggestionArgumentCaptor.capture());
             assertEquals(newImageUrl, suggestionArgumentCaptor.getValue().getHouseImageFront());
         }
@@ -362,8 +425,7 @@ class SuggestionServiceTest {
             MockMultipartFile file = new MockMultipartFile("file", "back.jpg", "image/jpeg", "back_content".getBytes());
             UploadHouseFileRequest request = createUploadHouseFileRequest(suggestionId, "HOUSE_IMAGE_BACK", file);
             String expectedUrl = "s3://bucket/suggestions/H123/back.jpg";
-            String expectedFolder = S3Folder.SUGGESTIONS + testSuggestion.getHouseNumber() + "/";
-            when(s3Service.uploadFile(eq(file), eq(expectedFolder), anyString())).thenReturn(expectedUrl);
+            when(s3BlobStore.upload(file)).thenReturn(expectedUrl);
 
             suggestionService.uploadHouseFile(request);
 
@@ -381,8 +443,7 @@ class SuggestionServiceTest {
                     "object_content".getBytes());
             UploadHouseFileRequest request = createUploadHouseFileRequest(suggestionId, "HOUSE_OBJECT", file);
             String expectedUrl = "s3://bucket/suggestions/H123/object.glb";
-            String expectedFolder = S3Folder.SUGGESTIONS + testSuggestion.getHouseNumber() + "/";
-            when(s3Service.uploadFile(eq(file), eq(expectedFolder), anyString())).thenReturn(expectedUrl);
+            when(s3BlobStore.upload(file)).thenReturn(expectedUrl);
 
             suggestionService.uploadHouseFile(request);
 
@@ -403,15 +464,14 @@ class SuggestionServiceTest {
             UploadHouseFileRequest request = createUploadHouseFileRequest(suggestionId, "PDF", file);
 
             String newPdfUrl = "s3://bucket/suggestions/H123/document.pdf";
-            String expectedFolder = S3Folder.SUGGESTIONS + testSuggestion.getHouseNumber() + "/";
-            when(s3Service.uploadFile(eq(file), eq(expectedFolder), anyString())).thenReturn(newPdfUrl);
+            when(s3BlobStore.upload(file)).thenReturn(newPdfUrl);
 
             // When
             suggestionService.uploadHouseFile(request);
 
             // Then
-            verify(s3Service).uploadFile(eq(file), eq(expectedFolder), anyString());
-            verify(s3Service).deleteFile(oldPdfUrl); // Verify old PDF is deleted
+            verify(s3BlobStore).upload(file);
+            verify(s3DeletionQueue).enqueue(oldPdfUrl); // Verify old PDF is deleted
             verify(suggestionRepository).save(suggestionArgumentCaptor.capture());
             assertEquals(newPdfUrl, suggestionArgumentCaptor.getValue().getPdf());
         }
@@ -431,7 +491,7 @@ class SuggestionServiceTest {
                 suggestionService.uploadHouseFile(request);
             });
             assertEquals("Suggestion not found", exception.getMessage());
-            verify(s3Service, never()).uploadFile(any(MultipartFile.class), anyString(), anyString());
+            verify(s3BlobStore, never()).upload(any(MultipartFile.class));
             verify(suggestionRepository, never()).save(any(Suggestion.class));
         }
 
@@ -445,8 +505,7 @@ class SuggestionServiceTest {
             UploadHouseFileRequest request = createUploadHouseFileRequest(suggestionId, "INVALID_TYPE", file);
 
             String expectedUrl = "s3://bucket/suggestions/H123/test.jpg";
-            String expectedFolder = S3Folder.SUGGESTIONS + testSuggestion.getHouseNumber() + "/";
-            when(s3Service.uploadFile(eq(file), eq(expectedFolder), anyString())).thenReturn(expectedUrl);
+            when(s3BlobStore.upload(file)).thenReturn(expectedUrl);
 
             // When & Then
             assertThrows(BadRequestException.class, () -> {
@@ -483,7 +542,8 @@ class SuggestionServiceTest {
             suggestionService.addSugesstionUrl(request); // Corrected method name in test to match service
 
             // Then
-            verify(s3Service, never()).deleteFile(anyString());
+            verify(s3DeletionQueue, never()).enqueue(anyString());
+            verify(s3BlobStore).reference(newUrl);
             verify(suggestionRepository).save(suggestionArgumentCaptor.capture());
             assertEquals(newUrl, suggestionArgumentCaptor.getValue().getHouseImageFront());
         }
@@ -504,7 +564,7 @@ class SuggestionServiceTest {
             suggestionService.addSugesstionUrl(request);
 
             // Then
-            verify(s3Service).deleteFile(oldS3Url); // Expect delete because old URL is an S3 one
+            verify(s3DeletionQueue).enqueue(oldS3Url); // Expect delete because old URL is an S3 one
             verify(suggestionRepository).save(suggestionArgumentCaptor.capture());
             assertEquals(newUrl, suggestionArgumentCaptor.getValue().getHouseImageFront());
         }
@@ -522,7 +582,7 @@ class SuggestionServiceTest {
 
             suggestionService.addSugesstionUrl(request);
 
-            verify(s3Service).deleteFile(oldPdfUrl);
+            verify(s3DeletionQueue).enqueue(oldPdfUrl);
             verify(suggestionRepository).save(suggestionArgumentCaptor.capture());
             assertEquals(newUrl, suggestionArgumentCaptor.getValue().getPdf());
         }
@@ -541,7 +601,7 @@ class SuggestionServiceTest {
                 suggestionService.addSugesstionUrl(request);
             });
             assertEquals("Suggestion not found", exception.getMessage());
-            verify(s3Service, never()).deleteFile(anyString());
+            verify(s3DeletionQueue, never()).enqueue(anyString());
             verify(suggestionRepository, never()).save(any(Suggestion.class));
         }
 
@@ -563,31 +623,32 @@ class SuggestionServiceTest {
     }
 
     @Nested
-    @DisplayName("getAllSuggestions Tests")
-    class GetAllSuggestionsTests {
-        @Test
-        @DisplayName("Should return all suggestions mapped to responses")
-        void getAllSuggestions_shouldReturnMappedResponses() {
-            // For SuggestionUtils.toGetSuggestionResponse, we will need to mock its static
-            // call
-            // or ensure it works correctly with the provided data, and verify the outcome.
-            // Using Mockito.mockStatic for this.
+    @DisplayName("streamAllSuggestions Tests")
+    class StreamAllSuggestionsTests {
+        private String stream(SuggestionFields fields) throws Exception {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonEnvelopeWriter writer = JsonEnvelopeWriter.open(new ObjectMapper().writer(fields.filters()), out)) {
+                suggestionService.streamAllSuggestions(fields, writer);
+                writer.finish();
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        }
 
+        @Test
+        @DisplayName("Should write every suggestion from the cursor mapped to a response, detached once written")
+        void streamAllSuggestions_writesMappedAndDetaches() throws Exception {
             // Given
+            UUID mat1Id = UUID.randomUUID();
+            UUID mat2Id = UUID.randomUUID();
             Suggestion suggestion1 = new Suggestion();
             suggestion1.setId(UUID.randomUUID());
             suggestion1.setHouseNumber("S1");
-            UUID mat1Id = UUID.randomUUID();
-            UUID mat2Id = UUID.randomUUID();
             suggestion1.setMaterials0(List.of(mat1Id));
-
             Suggestion suggestion2 = new Suggestion();
             suggestion2.setId(UUID.randomUUID());
             suggestion2.setHouseNumber("S2");
             suggestion2.setMaterials1(List.of(mat2Id));
-
-            List<Suggestion> suggestions = List.of(suggestion1, suggestion2);
-            when(suggestionRepository.findAll()).thenReturn(suggestions);
+            when(suggestionRepository.streamAllSortedByCreatedAt()).thenReturn(Stream.of(suggestion1, suggestion2));
 
             Material material1 = new Material();
             material1.setId(mat1Id);
@@ -595,65 +656,51 @@ class SuggestionServiceTest {
             Material material2 = new Material();
             material2.setId(mat2Id);
             material2.setName("Wood");
-            Map<UUID, Material> materialMap = Map.of(mat1Id, material1, mat2Id, material2);
-
-            // Mocking materialRepository to return these specific materials when queried
-            // with their IDs
-            // The service calls findAllById with a Set of IDs.
-            Set<UUID> allMaterialIds = Stream
-                    .of(suggestion1.getMaterials0(), suggestion1.getMaterials1(), suggestion1.getMaterials2(),
-                            suggestion2.getMaterials0(), suggestion2.getMaterials1(), suggestion2.getMaterials2())
-                    .filter(Objects::nonNull)
-                    .flatMap(Collection::stream)
-                    .collect(Collectors.toSet());
-            when(materialRepository.findAllById(allMaterialIds)).thenReturn(List.of(material1, material2));
-
-            // Expected responses
+            // Materials are resolved from the in-memory catalog
+            when(materialCatalog.materialsById()).thenReturn(Map.of(mat1Id, material1, mat2Id, material2));
+
             SuggestionResponse resp1 = new SuggestionResponse();
             resp1.setId(suggestion1.getId());
-            resp1.setHouseNumber("S1"); // Simplified
+            resp1.setHouseNumber("S1");
             SuggestionResponse resp2 = new SuggestionResponse();
             resp2.setId(suggestion2.getId());
-            resp2.setHouseNumber("S2"); // Simplified
-
-            // If SuggestionUtils.toGetSuggestionResponse is complex, mock it.
-            // For this test, we'll assume it correctly maps.
-            // If SuggestionUtils is a class you wrote, it should have its own unit tests.
-            // Here we focus on the SuggestionService's orchestration.
+            resp2.setHouseNumber("S2");
 
             try (MockedStatic<SuggestionUtils> mockedUtils = Mockito.mockStatic(SuggestionUtils.class)) {
-                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(suggestion1), anyMap()))
+                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(suggestion1), anyMap(),
+                                eq(SuggestionFields.ALL)))
                         .thenReturn(resp1);
-                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(suggestion2), anyMap()))
+                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(suggestion2), anyMap(),
+                                eq(SuggestionFields.ALL)))
                         .thenReturn(resp2);
 
                 // When
-                List<SuggestionResponse> result = suggestionService.getAllSuggestions();
+                String body = stream(SuggestionFields.ALL);
 
                 // Then
-                assertNotNull(result);
-                assertEquals(2, result.size());
-                assertTrue(result.containsAll(List.of(resp1, resp2)));
-
-                verify(suggestionRepository).findAll();
-                verify(materialRepository).findAllById(allMaterialIds);
-                mockedUtils.verify(() -> SuggestionUtils.toGetSuggestionResponse(eq(suggestion1), anyMap()), times(1));
-                mockedUtils.verify(() -> SuggestionUtils.toGetSuggestionResponse(eq(suggestion2), anyMap()), times(1));
+                JsonNode data = new ObjectMapper().readTree(body).get("data");
+                assertEquals(2, data.size());
+                assertEquals("S1", data.get(0).get("houseNumber").asText());
+                assertEquals(suggestion2.getId().toString(), data.get(1).get("id").asText());
+
+                verify(materialCatalog).materialsById();
+                verify(entityManager).detach(suggestion1);
+                verify(entityManager).detach(suggestion2);
+                verify(suggestionRepository, never()).findAll();
             }
         }
 
         @Test
-        @DisplayName("Should return empty list if no suggestions exist")
-        void getAllSuggestions_noSuggestions_returnsEmptyList() {
+        @DisplayName("Should write an empty data array if no suggestions exist")
+        void streamAllSuggestions_noSuggestions_emptyData() throws Exception {
             // Given
-            when(suggestionRepository.findAll()).thenReturn(Collections.emptyList());
+            when(suggestionRepository.streamAllSortedByCreatedAt()).thenReturn(Stream.empty());
 
             // When
-            List<SuggestionResponse> result = suggestionService.getAllSuggestions();
+            String body = stream(SuggestionFields.ALL);
 
             // Then
-            assertNotNull(result);
-            assertTrue(result.isEmpty());
+            assertTrue(new ObjectMapper().readTree(body).get("data").isEmpty());
         }
     }
 
@@ -675,7 +722,7 @@ class SuggestionServiceTest {
             material.setId(matId);
             material.setName("Steel");
             Map<UUID, Material> materialMap = Map.of(matId, material);
-            when(materialRepository.findAllById(Set.of(matId))).thenReturn(List.of(material));
+            when(materialCatalog.materialsById()).thenReturn(materialMap);
 
             SuggestionResponse expectedResponse = new SuggestionResponse();
             expectedResponse.setId(suggestionId);
@@ -683,11 +730,12 @@ class SuggestionServiceTest {
             // ... other fields if SuggestionUtils.toGetSuggestionResponse is not mocked
 
             try (MockedStatic<SuggestionUtils> mockedUtils = Mockito.mockStatic(SuggestionUtils.class)) {
-                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(testSuggestion), anyMap()))
+                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(testSuggestion), anyMap(),
+                                eq(SuggestionFields.ALL)))
                         .thenReturn(expectedResponse);
 
                 // When
-                SuggestionResponse result = suggestionService.getSuggestionById(suggestionId);
+                SuggestionResponse result = suggestionService.getSuggestionById(suggestionId, SuggestionFields.ALL);
 
                 // Then
                 assertNotNull(result);
@@ -695,8 +743,9 @@ class SuggestionServiceTest {
                 assertEquals(expectedResponse.getHouseNumber(), result.getHouseNumber());
 
                 verify(suggestionRepository).findById(suggestionId);
-                verify(materialRepository).findAllById(Set.of(matId));
-                mockedUtils.verify(() -> SuggestionUtils.toGetSuggestionResponse(eq(testSuggestion), anyMap()),
+                verify(materialCatalog).materialsById();
+                mockedUtils.verify(() -> SuggestionUtils.toGetSuggestionResponse(eq(testSuggestion), anyMap(),
+                                eq(SuggestionFields.ALL)),
                         times(1));
             }
         }
@@ -710,10 +759,24 @@ class SuggestionServiceTest {
 
             // When & Then
             NotFoundException exception = assertThrows(NotFoundException.class, () -> {
-                suggestionService.getSuggestionById(nonExistentId);
+                suggestionService.getSuggestionById(nonExistentId, SuggestionFields.ALL);
             });
             assertEquals("Suggestion not found", exception.getMessage());
-            verify(materialRepository, never()).findAllById(anyCollection());
+            verify(materialCatalog, never()).materialsById();
+        }
+        @Test
+        @DisplayName("Should skip material resolution when no material tree is selected")
+        void getSuggestionById_fieldsWithoutMaterials_skipsCatalog() {
+            testSuggestion.setHouseImageFront("front.png");
+            testSuggestion.setMaterials0(List.of(UUID.randomUUID()));
+            when(suggestionRepository.findById(testSuggestionId)).thenReturn(Optional.of(testSuggestion));
+
+            SuggestionResponse result = suggestionService.getSuggestionById(testSuggestionId,
+                    SuggestionFields.parse("houseNumber,houseImageFront"));
+
+            assertEquals("front.png", result.getHouseImageFront());
+            assertEquals(null, result.getMaterials0());
+            verify(materialCatalog, never()).materialsById();
         }
     }
 
@@ -833,21 +896,21 @@ class SuggestionServiceTest {
 
             when(suggestionRepository.findById(suggestionId)).thenReturn(Optional.of(suggestionToDelete));
             doNothing().when(suggestionRepository).deleteById(suggestionId);
-            // s3Service.deleteFile will be called for each non-null URL
 
             // When
             suggestionService.deleteSuggestion(suggestionId);
 
             // Then
             verify(suggestionRepository).findById(suggestionId);
-            verify(s3Service).deleteFile("s3://bucket/plan1.jpg");
-            verify(s3Service).deleteFile("s3://bucket/plan2.jpg");
-            verify(s3Service).deleteFile("s3://bucket/front.jpg");
-            verify(s3Service).deleteFile("s3://bucket/back.jpg");
-            verify(s3Service, never()).deleteFile(null); // Ensure it handles null gracefully (though code checks)
-            verify(s3Service).deleteFile("s3://bucket/object.glb");
-            verify(s3Service).deleteFile("s3://bucket/doc.pdf");
-            verify(suggestionRepository).deleteById(suggestionId);
+            InOrder inOrder = Mockito.inOrder(suggestionRepository, s3DeletionQueue);
+            inOrder.verify(suggestionRepository).deleteById(suggestionId);
+            inOrder.verify(s3DeletionQueue).enqueue(stringListArgumentCaptor.capture());
+            // Null URLs are passed through, the queue skips them
+            assertEquals(Arrays.asList("s3://bucket/plan1.jpg", "s3://bucket/plan2.jpg", "s3://bucket/front.jpg",
+                    "s3://bucket/back.jpg", null, "s3://bucket/object.glb", "s3://bucket/doc.pdf"),
+                    stringListArgumentCaptor.getValue());
+            verify(s3DeletionQueue, never()).enqueue(anyString());
+            verify(suggestionIndexRefresher).remove(suggestionId);
         }
 
         @Test
@@ -862,8 +925,9 @@ class SuggestionServiceTest {
                 suggestionService.deleteSuggestion(nonExistentId);
             });
             assertEquals("Suggestion not found", exception.getMessage());
-            verify(s3Service, never()).deleteFile(anyString());
+            verify(s3DeletionQueue, never()).enqueue(anyCollection());
             verify(suggestionRepository, never()).deleteById(any(UUID.class));
+            verify(suggestionIndexRefresher, never()).remove(any(UUID.class));
         }
     }
 
@@ -897,21 +961,20 @@ class SuggestionServiceTest {
             GenerateSuggestionRequest req = createGenerateRequest("Modern", 200, 2);
             Suggestion s1 = createSuggestionForGeneration(UUID.randomUUID(), "Modern", 200, 2,
                     List.of(UUID.randomUUID()));
-            when(suggestionRepository.findByStyleIgnoreCase("Modern")).thenReturn(List.of(s1));
+            when(suggestionMatchIndex.match("Modern", 200, 2)).thenReturn(List.of(s1));
 
             Material m1 = new Material();
             m1.setId(s1.getMaterials0().get(0));
-            when(materialRepository.findAllById(anySet())).thenReturn(List.of(m1));
+            when(materialCatalog.materialsById()).thenReturn(Map.of(m1.getId(), m1));
 
             SuggestionResponse sr1 = new SuggestionResponse();
             sr1.setId(s1.getId());
 
             try (MockedStatic<SuggestionUtils> mockedUtils = Mockito.mockStatic(SuggestionUtils.class)) {
-                mockedUtils.when(() -> SuggestionUtils.collectMaterialIds(anyList()))
-                        .thenReturn(Set.copyOf(s1.getMaterials0()));
-                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(s1), anyMap())).thenReturn(sr1);
+                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(s1), anyMap(),
+                                eq(SuggestionFields.ALL))).thenReturn(sr1);
 
-                GenerateSuggestionResponse response = suggestionService.generateSuggestion(req);
+                GenerateSuggestionResponse response = suggestionService.generateSuggestion(req, SuggestionFields.ALL);
 
                 assertEquals(1, response.getSuggestions().length);
                 assertEquals(s1.getId(), response.getSuggestions()[0].getId());
@@ -928,22 +991,20 @@ class SuggestionServiceTest {
             Suggestion s3 = createSuggestionForGeneration(UUID.randomUUID(), "Modern", 220, 2, null); // Larger, not
                                                                                                       // picked by this
                                                                                                       // rule
-            when(suggestionRepository.findByStyleIgnoreCase("Modern")).thenReturn(List.of(s1, s2, s3));
+            when(suggestionMatchIndex.match("Modern", 200, 2)).thenReturn(List.of(s2));
 
             Material m2 = new Material();
             m2.setId(s2.getMaterials0().get(0));
-            when(materialRepository.findAllById(anySet())).thenReturn(List.of(m2));
+            when(materialCatalog.materialsById()).thenReturn(Map.of(m2.getId(), m2));
 
             SuggestionResponse sr2 = new SuggestionResponse();
             sr2.setId(s2.getId());
 
             try (MockedStatic<SuggestionUtils> mockedUtils = Mockito.mockStatic(SuggestionUtils.class)) {
-                // collectMaterialIds will be called with the selected suggestion (s2)
-                mockedUtils.when(() -> SuggestionUtils.collectMaterialIds(List.of(s2)))
-                        .thenReturn(Set.copyOf(s2.getMaterials0()));
-                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(s2), anyMap())).thenReturn(sr2);
+                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(s2), anyMap(),
+                                eq(SuggestionFields.ALL))).thenReturn(sr2);
 
-                GenerateSuggestionResponse response = suggestionService.generateSuggestion(req);
+                GenerateSuggestionResponse response = suggestionService.generateSuggestion(req, SuggestionFields.ALL);
 
                 assertEquals(1, response.getSuggestions().length);
                 assertEquals(s2.getId(), response.getSuggestions()[0].getId()); // s2 is 180m2, closer to 200m2 than s1
@@ -960,13 +1021,13 @@ class SuggestionServiceTest {
             Suggestion s2 = createSuggestionForGeneration(UUID.randomUUID(), "Modern", 200, 3,
                     List.of(UUID.randomUUID())); // 200m2, floor=3
             // Omit any “floor=2, landArea < 200” entry so Rule 2 cannot fire
-            when(suggestionRepository.findByStyleIgnoreCase("Modern")).thenReturn(List.of(s1, s2));
+            when(suggestionMatchIndex.match("Modern", 200, 2)).thenReturn(List.of(s1, s2));
 
             Material m1 = new Material();
             m1.setId(s1.getMaterials0().get(0));
             Material m2 = new Material();
             m2.setId(s2.getMaterials0().get(0));
-            when(materialRepository.findAllById(anySet())).thenReturn(List.of(m1, m2));
+            when(materialCatalog.materialsById()).thenReturn(Map.of(m1.getId(), m1, m2.getId(), m2));
 
             SuggestionResponse sr1 = new SuggestionResponse();
             sr1.setId(s1.getId());
@@ -974,13 +1035,12 @@ class SuggestionServiceTest {
             sr2.setId(s2.getId());
 
             try (MockedStatic<SuggestionUtils> mockedUtils = Mockito.mockStatic(SuggestionUtils.class)) {
-                mockedUtils.when(() -> SuggestionUtils.collectMaterialIds(List.of(s1, s2)))
-                        .thenReturn(Set.copyOf(Stream.concat(s1.getMaterials0().stream(), s2.getMaterials0().stream())
-                                .collect(Collectors.toList())));
-                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(s1), anyMap())).thenReturn(sr1);
-                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(s2), anyMap())).thenReturn(sr2);
+                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(s1), anyMap(),
+                                eq(SuggestionFields.ALL))).thenReturn(sr1);
+                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(s2), anyMap(),
+                                eq(SuggestionFields.ALL))).thenReturn(sr2);
 
-                GenerateSuggestionResponse response = suggestionService.generateSuggestion(req);
+                GenerateSuggestionResponse response = suggestionService.generateSuggestion(req, SuggestionFields.ALL);
 
                 assertEquals(2, response.getSuggestions().length);
                 assertTrue(Arrays.stream(response.getSuggestions()).anyMatch(s -> s.getId().equals(s1.getId())));
@@ -997,21 +1057,20 @@ class SuggestionServiceTest {
                     List.of(UUID.randomUUID())); // 180m2, 3 floors (closest smaller area, different floor)
             Suggestion s3 = createSuggestionForGeneration(UUID.randomUUID(), "Modern", 220, 1, null); // Larger area,
                                                                                                       // not picked
-            when(suggestionRepository.findByStyleIgnoreCase("Modern")).thenReturn(List.of(s1, s2, s3));
+            when(suggestionMatchIndex.match("Modern", 200, 2)).thenReturn(List.of(s2));
 
             Material m2 = new Material();
             m2.setId(s2.getMaterials0().get(0));
-            when(materialRepository.findAllById(anySet())).thenReturn(List.of(m2));
+            when(materialCatalog.materialsById()).thenReturn(Map.of(m2.getId(), m2));
 
             SuggestionResponse sr2 = new SuggestionResponse();
             sr2.setId(s2.getId());
 
             try (MockedStatic<SuggestionUtils> mockedUtils = Mockito.mockStatic(SuggestionUtils.class)) {
-                mockedUtils.when(() -> SuggestionUtils.collectMaterialIds(List.of(s2)))
-                        .thenReturn(Set.copyOf(s2.getMaterials0()));
-                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(s2), anyMap())).thenReturn(sr2);
+                mockedUtils.when(() -> SuggestionUtils.toGetSuggestionResponse(eq(s2), anyMap(),
+                                eq(SuggestionFields.ALL))).thenReturn(sr2);
 
-                GenerateSuggestionResponse response = suggestionService.generateSuggestion(req);
+                GenerateSuggestionResponse response = suggestionService.generateSuggestion(req, SuggestionFields.ALL);
 
                 assertEquals(1, response.getSuggestions().length);
                 assertEquals(s2.getId(), response.getSuggestions()[0].getId());
@@ -1022,29 +1081,91 @@ class SuggestionServiceTest {
         @DisplayName("No suggestions found by style")
         void generateSuggestion_noStyleMatch_returnsEmpty() {
             GenerateSuggestionRequest req = createGenerateRequest("Rustic", 300, 3);
-            when(suggestionRepository.findByStyleIgnoreCase("Rustic")).thenReturn(Collections.emptyList());
+            when(suggestionMatchIndex.match("Rustic", 300, 3)).thenReturn(Collections.emptyList());
 
-            GenerateSuggestionResponse response = suggestionService.generateSuggestion(req);
+            GenerateSuggestionResponse response = suggestionService.generateSuggestion(req, SuggestionFields.ALL);
 
             assertEquals(0, response.getSuggestions().length);
             assertEquals(req, response.getUserInput());
-            verify(materialRepository, never()).findAllById(anySet());
+            verify(materialCatalog, never()).materialsById();
         }
 
         @Test
         @DisplayName("No rules matched after initial style filter")
         void generateSuggestion_styleMatchButNoRulesHit_returnsEmpty() {
             GenerateSuggestionRequest req = createGenerateRequest("Modern", 100, 1); // User wants 100m2, 1 floor
-            // Available suggestions are all larger or don't fit other criteria for rules
-            // 2,3,4
-            Suggestion s1 = createSuggestionForGeneration(UUID.randomUUID(), "Modern", 300, 3, null);
-            when(suggestionRepository.findByStyleIgnoreCase("Modern")).thenReturn(List.of(s1));
+            // The index found nothing for rules 1-4
+            when(suggestionMatchIndex.match("Modern", 100, 1)).thenReturn(Collections.emptyList());
 
-            GenerateSuggestionResponse response = suggestionService.generateSuggestion(req);
+            GenerateSuggestionResponse response = suggestionService.generateSuggestion(req, SuggestionFields.ALL);
 
             assertEquals(0, response.getSuggestions().length);
             assertEquals(req, response.getUserInput());
-            verify(materialRepository, never()).findAllById(anySet());
+            verify(materialCatalog, never()).materialsById();
+        }
+    }
+
+    @Nested
+    @DisplayName("searchSuggestions Tests")
+    class SearchSuggestionsTests {
+
+        @Captor
+        private ArgumentCaptor<SuggestionFacetIndex.Query> queryCaptor;
+
+        @Test
+        @DisplayName("Should pass the filters to the facet index and default the page")
+        void searchSuggestions_defaults_searchesIndex() {
+            SuggestionSearchRequest request = new SuggestionSearchRequest();
+            request.setStyle(List.of("Modern"));
+            request.setFloor(List.of(1, 2));
+            request.setLandAreaMin(100);
+            request.setBudgetMax(500);
+
+            UUID id = UUID.randomUUID();
+            Map<String, Map<String, Integer>> facets = Map.of(SuggestionFacetIndex.FLOOR, Map.of("1", 1));
+            when(suggestionFacetIndex.search(queryCaptor.capture(), eq(0), eq(20)))
+                    .thenReturn(new SuggestionFacetIndex.Result(List.of(id), 1, facets));
+
+            SuggestionSearchResponse response = suggestionService.searchSuggestions(request);
+
+            assertEquals(List.of(id), response.getIds());
+            assertEquals(1, response.getTotal());
+            assertEquals(0, response.getOffset());
+            assertEquals(20, response.getLimit());
+            assertEquals(facets, response.getFacets());
+
+            SuggestionFacetIndex.Query query = queryCaptor.getValue();
+            assertEquals(List.of("Modern"), query.filters().get(SuggestionFacetIndex.STYLE));
+            assertEquals(List.of("1", "2"), query.filters().get(SuggestionFacetIndex.FLOOR));
+            assertEquals(null, query.filters().get(SuggestionFacetIndex.ROOMS));
+            assertEquals(100, query.landAreaMin());
+            assertEquals(null, query.landAreaMax());
+            assertEquals(500, query.budgetMax());
+            verify(suggestionRepository, never()).findAll();
+        }
+
+        @Test
+        @DisplayName("Should reject a limit above the maximum page size")
+        void searchSuggestions_limitTooLarge_throwsBadRequest() {
+            SuggestionSearchRequest request = new SuggestionSearchRequest();
+            request.setLimit(101);
+
+            BadRequestException ex = assertThrows(BadRequestException.class,
+                    () -> suggestionService.searchSuggestions(request));
+            assertEquals("Field 'limit' must be between 1 and 100", ex.getMessage());
+            verify(suggestionFacetIndex, never()).search(any(), Mockito.anyInt(), Mockito.anyInt());
+        }
+
+        @Test
+        @DisplayName("Should reject an inverted land area range")
+        void searchSuggestions_invertedRange_throwsBadRequest() {
+            SuggestionSearchRequest request = new SuggestionSearchRequest();
+            request.setLandAreaMin(200);
+            request.setLandAreaMax(100);
+
+            BadRequestException ex = assertThrows(BadRequestException.class,
+                    () -> suggestionService.searchSuggestions(request));
+            assertEquals("Field 'landAreaMin' must not be greater than 'landAreaMax'", ex.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+package com.buildbetter.plan.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.buildbetter.plan.constant.HouseMaterial;
+import com.buildbetter.plan.constant.TableauExportFormat;
+import com.buildbetter.plan.dto.materials.MaterialName;
+import com.buildbetter.plan.dto.tableau.TableauResponse;
+import com.buildbetter.plan.model.Suggestion;
+import com.buildbetter.plan.repository.SuggestionRepository;
+import com.buildbetter.plan.util.TableauUtils;
+import com.buildbetter.shared.exception.BadRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class TableauServiceTest {
+
+    @Mock
+    private SuggestionRepository suggestionRepository;
+
+    @Mock
+    private MaterialCatalog materialCatalog;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private TableauService tableauService;
+
+    private MaterialName tile;
+    private MaterialName marble;
+    private MaterialName steelRoof;
+    private Suggestion suggestion;
+
+    @BeforeEach
+    void setUp() {
+        tile = new MaterialName(UUID.randomUUID(), HouseMaterial.FLOOR.getSubCategory(), "Tile");
+        marble = new MaterialName(UUID.randomUUID(), HouseMaterial.FLOOR.getSubCategory(), "Marble, Polished");
+        steelRoof = new MaterialName(UUID.randomUUID(), HouseMaterial.ROOF.getSubCategory(), "Steel");
+
+        suggestion = Suggestion.builder()
+                .id(UUID.randomUUID())
+                .houseNumber("H1")
+                .landArea(120)
+                .buildingArea(90)
+                .style("Modern")
+                .floor(2)
+                .rooms(3)
+                .floorplans(List.of("fp1.png", "fp2.png"))
+                .budgetMin(List.of(100, 80, 150))
+                .budgetMax(List.of(200, 120, 300))
+                .materials0(List.of(tile.id()))
+                .materials1(List.of(steelRoof.id(), tile.id(), marble.id()))
+                .materials2(List.of(UUID.randomUUID()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("getTableauData → materials resolved from one catalog snapshot")
+    void getTableauData_preloadsMaterials() {
+        when(suggestionRepository.findAllSortedByCreatedAt()).thenReturn(List.of(suggestion, suggestion, suggestion));
+        when(materialCatalog.snapshot()).thenReturn(catalog());
+
+        TableauResponse[] responses = tableauService.getTableauData();
+
+        assertEquals(3, responses.length);
+        assertEquals("Steel", responses[0].getOriginalRoof());
+        assertEquals("Tile, Marble, Polished", responses[0].getOriginalCoating());
+        assertEquals("Tile", responses[0].getEconomicalCoating());
+        assertNull(responses[0].getPremiumCoating());
+        assertEquals("100 - 200", responses[0].getOriginalBudget());
+        assertEquals("80 - 120", responses[0].getEconomicalBudget());
+        assertEquals("fp2.png", responses[0].getFloorPlan2());
+        assertNull(responses[0].getFloorPlan3());
+        verify(materialCatalog, times(1)).snapshot();
+    }
+
+    @Test
+    @DisplayName("exportTableauData(CSV) → header plus one quoted row per suggestion")
+    void exportTableauData_csv() throws Exception {
+        when(materialCatalog.snapshot()).thenReturn(catalog());
+        when(suggestionRepository.streamAllSortedByCreatedAt()).thenReturn(Stream.of(suggestion));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        tableauService.exportTableauData(TableauExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertEquals(String.join(",", TableauUtils.EXPORT_COLUMNS), lines[0]);
+        assertEquals(suggestion.getId() + ",H1,120,90,Modern,2,3,,,,fp1.png,fp2.png,,,,100 - 200,Steel,,,,,,,,"
+                + "\"Tile, Marble, Polished\",,", lines[1].substring(0, lines[1].indexOf("80 - 120")));
+        verify(entityManager).detach(suggestion);
+    }
+
+    @Test
+    @DisplayName("exportTableauData(NDJSON) → each line matches the JSON endpoint")
+    void exportTableauData_ndjson() throws Exception {
+        when(materialCatalog.snapshot()).thenReturn(catalog());
+        when(suggestionRepository.streamAllSortedByCreatedAt()).thenReturn(Stream.of(suggestion, suggestion));
+        when(suggestionRepository.findAllSortedByCreatedAt()).thenReturn(List.of(suggestion));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        tableauService.exportTableauData(TableauExportFormat.NDJSON, out);
+
+        ObjectMapper mapper = new ObjectMapper();
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+
+        JsonNode expected = mapper.valueToTree(tableauService.getTableauData()[0]);
+        assertEquals(expected, mapper.readTree(lines[0]));
+        assertEquals(expected, mapper.readTree(lines[1]));
+        verify(entityManager, times(2)).detach(suggestion);
+    }
+
+    @Test
+    @DisplayName("Export columns → same names and order as TableauResponse")
+    void exportColumns_matchResponseFields() {
+        ObjectMapper mapper = new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        Map<String, Object> fields = mapper.convertValue(new TableauResponse(), Map.class);
+
+        assertEquals(List.copyOf(fields.keySet()), TableauUtils.EXPORT_COLUMNS);
+    }
+
+    @Test
+    @DisplayName("Unknown export format → BadRequestException")
+    void exportFormat_unknown() {
+        assertThrows(BadRequestException.class, () -> TableauExportFormat.fromValueIgnoreCase("xlsx"));
+    }
+
+    private MaterialCatalog.Snapshot catalog() {
+        return new MaterialCatalog.Snapshot(1, Map.of(),
+                Map.of(tile.id(), tile, marble.id(), marble, steelRoof.id(), steelRoof), List.of());
+    }
+}
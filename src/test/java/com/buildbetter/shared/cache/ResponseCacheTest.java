@@ -0,0 +1,205 @@
+package com.buildbetter.shared.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.buildbetter.shared.cache.ContentVersions.Versions;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseCacheTest {
+
+    private static final String BODY = "{\"code\":200,\"status\":\"OK\",\"data\":[]}";
+
+    @Mock
+    private ContentVersions contentVersions;
+
+    @InjectMocks
+    private ResponseCache responseCache;
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private static WebRequest request(String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/articles");
+        if (header != null) {
+            request.addHeader(header, value);
+        }
+        return new ServletWebRequest(request);
+    }
+
+    private static Optional<Versions> versions(long articles) {
+        return Optional.of(new Versions(Map.of("articles", articles)));
+    }
+
+    private ResponseEntity<StreamingResponseBody> serve(WebRequest request) throws Exception {
+        return serve(request, BODY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Served and written out, as the client would read it; the body replays what was written
+    private ResponseEntity<StreamingResponseBody> serve(WebRequest request, byte[] rendered) throws Exception {
+        ResponseEntity<StreamingResponseBody> response = responseCache.serve(request, "articles",
+                List.of("articles"), versions -> {
+                    renders.incrementAndGet();
+                    return ResponseEntity.ok().body(out -> out.write(rendered));
+                });
+        if (response.getBody() == null) {
+            return response;
+        }
+        byte[] written = body(response);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .body(out -> out.write(written));
+    }
+
+    private static byte[] body(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("serve → strong ETag from the versions, revalidate always, rendered once")
+    void serve_etagAndRenderedOnce() throws Exception {
+        when(contentVersions.current("articles")).thenReturn(versions(7));
+
+        ResponseEntity<StreamingResponseBody> first = serve(request(null, null));
+        ResponseEntity<StreamingResponseBody> second = serve(request(null, null));
+
+        String etag = first.getHeaders().getETag();
+        assertEquals('"', etag.charAt(0));
+        assertTrue(etag.endsWith("-7\""));
+        assertEquals(etag, second.getHeaders().getETag());
+        assertEquals("no-cache, private", first.getHeaders().getCacheControl());
+        assertEquals(BODY, new String(body(second), StandardCharsets.UTF_8));
+        assertNull(second.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("serve → If-None-Match on the current ETag → 304 without rendering")
+    void serve_ifNoneMatch_notModified() throws Exception {
+        when(contentVersions.current("articles")).thenReturn(versions(7));
+        String etag = serve(request(null, null)).getHeaders().getETag();
+
+        ResponseEntity<StreamingResponseBody> response = serve(request(HttpHeaders.IF_NONE_MATCH,
+                "\"other\", W/" + etag));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("serve → Accept-Encoding gzip → precompressed body of the same JSON")
+    void serve_acceptGzip_compressed() throws Exception {
+        when(contentVersions.current("articles")).thenReturn(versions(7));
+        serve(request(null, null));
+
+        ResponseEntity<StreamingResponseBody> response = serve(request(HttpHeaders.ACCEPT_ENCODING, "br, gzip"));
+        ResponseEntity<StreamingResponseBody> refused = serve(request(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"));
+
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), response.getHeaders().getVary());
+        byte[] compressed = body(response);
+        assertEquals(compressed.length, response.getHeaders().getContentLength());
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8),
+                new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+        assertNull(refused.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("serve → version moved → new ETag, old one no longer 304, rendered again")
+    void serve_versionMoved_rerendered() throws Exception {
+        when(contentVersions.current("articles")).thenReturn(versions(7), versions(8), versions(8));
+        String before = serve(request(null, null)).getHeaders().getETag();
+
+        ResponseEntity<StreamingResponseBody> stale = serve(request(HttpHeaders.IF_NONE_MATCH, before));
+        ResponseEntity<StreamingResponseBody> again = serve(request(null, null));
+
+        assertEquals(HttpStatus.OK, stale.getStatusCode());
+        assertNotEquals(before, stale.getHeaders().getETag());
+        assertEquals(stale.getHeaders().getETag(), again.getHeaders().getETag());
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("serve → Redis unreachable → rendered uncached, no ETag")
+    void serve_redisDown_uncached() throws Exception {
+        when(contentVersions.current("articles")).thenReturn(Optional.empty());
+
+        ResponseEntity<StreamingResponseBody> response = serve(request(HttpHeaders.IF_NONE_MATCH, "*"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+        assertEquals(0, responseCache.size());
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("serve → miss with gzip accepted → compressed while streamed, then kept")
+    void serve_missGzip_streamedCompressed() throws Exception {
+        when(contentVersions.current("articles")).thenReturn(versions(7));
+
+        ResponseEntity<StreamingResponseBody> miss = serve(request(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        ResponseEntity<StreamingResponseBody> hit = serve(request(null, null));
+
+        assertEquals("gzip", miss.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8),
+                new GZIPInputStream(new ByteArrayInputStream(body(miss))).readAllBytes());
+        assertEquals(BODY, new String(body(hit), StandardCharsets.UTF_8));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("serve → body above the limit → streamed whole, not kept")
+    void serve_largeBody_notKept() throws Exception {
+        when(contentVersions.current("articles")).thenReturn(versions(7));
+        byte[] large = new byte[ResponseCache.MAX_BODY_BYTES + 1];
+
+        ResponseEntity<StreamingResponseBody> first = serve(request(null, null), large);
+        serve(request(null, null), large);
+
+        assertEquals(large.length, body(first).length);
+        assertEquals(0, responseCache.size());
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("serve → malformed q-value → treated as absent, gzip served")
+    void serve_malformedQuality_gzip() throws Exception {
+        when(contentVersions.current("articles")).thenReturn(versions(7));
+
+        ResponseEntity<StreamingResponseBody> response = serve(request(HttpHeaders.ACCEPT_ENCODING, "gzip;q=x"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+}
@@ -0,0 +1,198 @@
+package com.buildbetter.shared.cluster;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+/**
+ * Just enough of a Redis server, in process, for pub/sub between several
+ * real Lettuce clients: PUBLISH, SUBSCRIBE, UNSUBSCRIBE and PING, plus GET
+ * and SET with EX or PX for small shared state. Everything else is
+ * answered with OK. Speaks RESP2 only.
+ */
+public class InProcessRedis implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+    // channel → subscribed clients
+    private final Map<String, Set<Client>> channels = new ConcurrentHashMap<>();
+
+    private final Map<String, Value> values = new ConcurrentHashMap<>();
+
+    public InProcessRedis() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().name("in-process-redis").start(this::accept);
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    /** A started connection factory pointing at this server. */
+    public LettuceConnectionFactory connectionFactory() {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(server.getInetAddress().getHostAddress(), port()));
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    /** Number of clients subscribed to {@code channel}. */
+    public int subscribers(String channel) {
+        return channels.getOrDefault(channel, Set.of()).size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (Client client : clients) {
+            client.socket.close();
+        }
+    }
+
+    private void accept() {
+        try {
+            while (!server.isClosed()) {
+                Client client = new Client(server.accept());
+                clients.add(client);
+                Thread.ofVirtual().name("in-process-redis-client").start(client::serve);
+            }
+        } catch (IOException e) {
+            // closed
+        }
+    }
+
+    private record Value(String value, long expiresAt) {
+    }
+
+    private final class Client {
+
+        private final Socket socket;
+        private final OutputStream out;
+        private final Set<String> subscribed = ConcurrentHashMap.newKeySet();
+
+        Client(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = socket.getOutputStream();
+        }
+
+        void serve() {
+            try (InputStream in = new BufferedInputStream(socket.getInputStream())) {
+                for (List<String> command = read(in); command != null; command = read(in)) {
+                    handle(command);
+                }
+            } catch (IOException e) {
+                // disconnected
+            } finally {
+                subscribed.forEach(channel -> channels.getOrDefault(channel, Set.of()).remove(this));
+                clients.remove(this);
+            }
+        }
+
+        private void handle(List<String> command) throws IOException {
+            String name = command.get(0).toUpperCase();
+            List<String> args = command.subList(1, command.size());
+            switch (name) {
+                case "HELLO" -> write("-NOPROTO unsupported protocol version\r\n");
+                case "PING" -> write(subscribed.isEmpty() ? "+PONG\r\n" : "*2\r\n" + bulk("pong") + bulk(""));
+                case "SUBSCRIBE" -> {
+                    for (String channel : args) {
+                        subscribed.add(channel);
+                        channels.computeIfAbsent(channel, c -> ConcurrentHashMap.newKeySet()).add(this);
+                        write("*3\r\n" + bulk("subscribe") + bulk(channel) + ":" + subscribed.size() + "\r\n");
+                    }
+                }
+                case "UNSUBSCRIBE" -> {
+                    List<String> from = args.isEmpty() ? new ArrayList<>(subscribed) : args;
+                    if (from.isEmpty()) {
+                        write("*3\r\n" + bulk("unsubscribe") + "$-1\r\n:0\r\n");
+                    }
+                    for (String channel : from) {
+                        subscribed.remove(channel);
+                        channels.getOrDefault(channel, Set.of()).remove(this);
+                        write("*3\r\n" + bulk("unsubscribe") + bulk(channel) + ":" + subscribed.size() + "\r\n");
+                    }
+                }
+                case "PUBLISH" -> {
+                    Set<Client> receivers = channels.getOrDefault(args.get(0), Set.of());
+                    for (Client receiver : receivers) {
+                        receiver.write("*3\r\n" + bulk("message") + bulk(args.get(0)) + bulk(args.get(1)));
+                    }
+                    write(":" + receivers.size() + "\r\n");
+                }
+                case "SET" -> {
+                    long expiresAt = Long.MAX_VALUE;
+                    for (int i = 2; i + 1 < args.size(); i++) {
+                        if (args.get(i).equalsIgnoreCase("PX")) {
+                            expiresAt = System.currentTimeMillis() + Long.parseLong(args.get(i + 1));
+                        } else if (args.get(i).equalsIgnoreCase("EX")) {
+                            expiresAt = System.currentTimeMillis() + Long.parseLong(args.get(i + 1)) * 1000;
+                        }
+                    }
+                    values.put(args.get(0), new Value(args.get(1), expiresAt));
+                    write("+OK\r\n");
+                }
+                case "GET" -> {
+                    Value value = values.get(args.get(0));
+                    boolean live = value != null && value.expiresAt() > System.currentTimeMillis();
+                    write(live ? bulk(value.value()) : "$-1\r\n");
+                }
+                default -> write("+OK\r\n");
+            }
+        }
+
+        private synchronized void write(String reply) throws IOException {
+            out.write(reply.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        private static String bulk(String value) {
+            return "$" + value.getBytes(StandardCharsets.UTF_8).length + "\r\n" + value + "\r\n";
+        }
+
+        // One command, an array of bulk strings; null at end of stream
+        private static List<String> read(InputStream in) throws IOException {
+            String header = line(in);
+            if (header == null) {
+                return null;
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<String> parts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(line(in).substring(1));
+                byte[] value = in.readNBytes(length);
+                in.readNBytes(2);
+                parts.add(new String(value, StandardCharsets.UTF_8));
+            }
+            return parts;
+        }
+
+        private static String line(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            for (int b = in.read(); b >= 0; b = in.read()) {
+                if (b == '\r') {
+                    in.read();
+                    return line.toString(StandardCharsets.UTF_8);
+                }
+                line.write(b);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.buildbetter.shared.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Sort;
+
+import com.buildbetter.shared.exception.BadRequestException;
+
+class KeysetTest {
+
+    private record Row(UUID id, LocalDateTime createdAt) {
+    }
+
+    private final Keyset<Row, LocalDateTime> newestFirst = Keyset.newestFirst(Row::createdAt, Row::id);
+
+    private final Keyset<Row, UUID> byId = Keyset.byId(Row::id);
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    private static List<Row> rows(int count) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Row(UUID.randomUUID(), now.minusMinutes(i)))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("sort → key then id, in the keyset direction")
+    void sort_keyThenId() {
+        assertEquals(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")), newestFirst.sort());
+        assertEquals(Sort.by(Sort.Order.asc("id")), byId.sort());
+    }
+
+    @Test
+    @DisplayName("cursorOf → opaque url-safe id and key, accepted back by after")
+    void cursorOf_roundTrip() {
+        Row row = new Row(UUID.randomUUID(), LocalDateTime.of(2025, 3, 4, 5, 6, 7, 123_456_000));
+
+        String cursor = newestFirst.cursorOf(row);
+
+        assertEquals(row.id() + "|" + row.createdAt(), decode(cursor));
+        assertNotNull(newestFirst.after(cursor));
+        assertEquals(row.id().toString(), decode(byId.cursorOf(row)));
+        assertNotNull(byId.after(byId.cursorOf(row)));
+    }
+
+    @Test
+    @DisplayName("after → no cursor is the first page, no filter")
+    void after_noCursor_null() {
+        assertNull(newestFirst.after(null));
+        assertNull(newestFirst.after(" "));
+    }
+
+    @ParameterizedTest(name = "cursor = {0}")
+    @ValueSource(strings = { "not base64 !", "bm90LWEtdXVpZA", "MTIz" })
+    @DisplayName("after → malformed cursor → BadRequestException")
+    void after_malformed_throws(String cursor) {
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> newestFirst.after(cursor));
+
+        assertEquals("Invalid cursor", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("after → cursor of another keyset shape → BadRequestException")
+    void after_otherShape_throws() {
+        Row row = rows(1).get(0);
+
+        assertThrows(BadRequestException.class, () -> byId.after(newestFirst.cursorOf(row)));
+        assertThrows(BadRequestException.class, () -> newestFirst.after(byId.cursorOf(row)));
+    }
+
+    @Test
+    @DisplayName("KeysetPage.of → extra row trimmed and turned into the next cursor")
+    void page_of_trimsExtraRow() {
+        List<Row> rows = rows(4);
+
+        KeysetPage<Row> page = KeysetPage.of(rows, 3, newestFirst);
+        KeysetPage<Row> last = KeysetPage.of(rows.subList(0, 3), 3, newestFirst);
+
+        assertEquals(rows.subList(0, 3), page.items());
+        assertEquals(newestFirst.cursorOf(rows.get(2)), page.nextCursor());
+        assertEquals(3, last.items().size());
+        assertNull(last.nextCursor());
+        assertEquals(List.of(rows.get(0).id()), KeysetPage.of(rows.subList(0, 2), 1, byId).map(Row::id).items());
+    }
+
+    @Test
+    @DisplayName("KeysetPage.limit → default when absent, 1..100 otherwise")
+    void page_limit() {
+        assertEquals(KeysetPage.DEFAULT_LIMIT, KeysetPage.limit(null));
+        assertEquals(100, KeysetPage.limit(100));
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> KeysetPage.limit(0));
+        assertEquals("Field 'limit' must be between 1 and 100", ex.getMessage());
+        assertThrows(BadRequestException.class, () -> KeysetPage.limit(101));
+    }
+}
@@ -0,0 +1,85 @@
+package com.buildbetter.shared.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HashedTimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    // 1 s ticks over 8 slots, one turn is 8 s
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(Duration.ofSeconds(1), 8);
+
+    @Test
+    @DisplayName("Deadline reached → key expires once, not before")
+    void advance_expiresAtDeadline() {
+        wheel.advance(START);
+        wheel.schedule("room", START + 2_500);
+
+        assertEquals(List.of(), wheel.advance(START + 2_000));
+        assertEquals(List.of("room"), wheel.advance(START + 3_000));
+        assertEquals(List.of(), wheel.advance(START + 4_000));
+        assertFalse(wheel.contains("room"));
+    }
+
+    @Test
+    @DisplayName("Deadline several turns ahead → skipped while its slot comes round early")
+    void advance_laterTurn_waits() {
+        wheel.advance(START);
+        wheel.schedule("near", START + 3_000);
+        wheel.schedule("far", START + 19_000);
+
+        for (long now = START + 1_000; now < START + 19_000; now += 1_000) {
+            List<String> expired = wheel.advance(now);
+            assertEquals(now == START + 3_000 ? List.of("near") : List.of(), expired);
+        }
+        assertEquals(List.of("far"), wheel.advance(START + 19_000));
+    }
+
+    @Test
+    @DisplayName("Deadline already passed → expires on the next advance")
+    void schedule_pastDeadline_nextAdvance() {
+        wheel.advance(START);
+        wheel.schedule("late", START - 60_000);
+
+        assertEquals(List.of("late"), wheel.advance(START + 1_000));
+    }
+
+    @Test
+    @DisplayName("Advance after a long pause → everything due meanwhile expires")
+    void advance_longPause_catchesUp() {
+        wheel.advance(START);
+        wheel.schedule("a", START + 2_000);
+        wheel.schedule("b", START + 30_000);
+        wheel.schedule("c", START + 120_000);
+
+        List<String> expired = wheel.advance(START + 60_000);
+
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of("a", "b")));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Cancelled or rescheduled → old deadline no longer fires")
+    void cancelAndReschedule() {
+        wheel.advance(START);
+        wheel.schedule("cancelled", START + 1_000);
+        wheel.schedule("moved", START + 1_000);
+
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+        wheel.schedule("moved", START + 5_000);
+
+        assertEquals(List.of(), wheel.advance(START + 1_000));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("moved"), wheel.advance(START + 5_000));
+    }
+}
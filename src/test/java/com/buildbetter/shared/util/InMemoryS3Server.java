@@ -0,0 +1,291 @@
+package com.buildbetter.shared.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.http.SdkHttpRequest;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+
+/**
+ * Minimal in-process S3 stand-in for tests, path-style only. Supports put,
+ * head, get, delete, multi-object delete and multipart uploads, which is all
+ * {@link S3Service} needs.
+ */
+class InMemoryS3Server implements AutoCloseable {
+
+    private static final Pattern DELETE_KEY = Pattern.compile("<Key>(.*?)</Key>", Pattern.DOTALL);
+
+    private final HttpServer server;
+
+    // "bucket/key" → content
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+    // uploadId → partNumber → content
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+
+    private final AtomicInteger putRequests = new AtomicInteger();
+    private final AtomicInteger partRequests = new AtomicInteger();
+    private final AtomicInteger deleteRequests = new AtomicInteger();
+    private final AtomicInteger multiDeleteRequests = new AtomicInteger();
+
+    // Keys whose PUTs are rejected, to simulate S3 failures
+    private final Set<String> failingKeys = ConcurrentHashMap.newKeySet();
+
+    InMemoryS3Server() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    S3AsyncClient client(long multipartThresholdBytes) {
+        return S3AsyncClient.builder()
+                .region(Region.AP_SOUTHEAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .endpointOverride(URI.create(endpoint()))
+                .forcePathStyle(true)
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(multipartThresholdBytes)
+                        .minimumPartSizeInBytes(multipartThresholdBytes)
+                        .build())
+                // The JDK HTTP server never answers "100 Continue"
+                .overrideConfiguration(c -> c.addExecutionInterceptor(new ExecutionInterceptor() {
+                    @Override
+                    public SdkHttpRequest modifyHttpRequest(Context.ModifyHttpRequest context,
+                            ExecutionAttributes executionAttributes) {
+                        return context.httpRequest().toBuilder().removeHeader("Expect").build();
+                    }
+                }))
+                .build();
+    }
+
+    byte[] object(String bucket, String key) {
+        return objects.get(bucket + "/" + key);
+    }
+
+    void putObject(String bucket, String key, byte[] content) {
+        objects.put(bucket + "/" + key, content);
+    }
+
+    void failPuts(String key) {
+        failingKeys.add(key);
+    }
+
+    int putRequests() {
+        return putRequests.get();
+    }
+
+    int partRequests() {
+        return partRequests.get();
+    }
+
+    int deleteRequests() {
+        return deleteRequests.get();
+    }
+
+    int multiDeleteRequests() {
+        return multiDeleteRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath().substring(1);
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            byte[] body = readBody(exchange);
+
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> handlePut(exchange, path, query, body);
+                case "POST" -> handlePost(exchange, path, query, body);
+                case "DELETE" -> handleDelete(exchange, path, query);
+                case "HEAD" -> respond(exchange, objects.containsKey(path) ? 200 : 404, null);
+                case "GET" -> {
+                    byte[] content = objects.get(path);
+                    if (content == null) {
+                        respond(exchange, 404, "<Error><Code>NoSuchKey</Code></Error>");
+                    } else {
+                        exchange.sendResponseHeaders(200, content.length);
+                        exchange.getResponseBody().write(content);
+                    }
+                }
+                default -> respond(exchange, 405, null);
+            }
+        }
+    }
+
+    private void handlePut(HttpExchange exchange, String path, Map<String, String> query, byte[] body)
+            throws IOException {
+        if (query.containsKey("uploadId")) {
+            partRequests.incrementAndGet();
+            uploads.get(query.get("uploadId")).put(Integer.parseInt(query.get("partNumber")), body);
+            exchange.getResponseHeaders().add("ETag", "\"" + UUID.randomUUID() + "\"");
+            respond(exchange, 200, null);
+            return;
+        }
+
+        putRequests.incrementAndGet();
+        String key = path.substring(path.indexOf('/') + 1);
+        if (failingKeys.contains(key)) {
+            respond(exchange, 403, "<Error><Code>AccessDenied</Code><Message>Access Denied</Message></Error>");
+            return;
+        }
+
+        objects.put(path, body);
+        exchange.getResponseHeaders().add("ETag", "\"" + UUID.randomUUID() + "\"");
+        respond(exchange, 200, null);
+    }
+
+    private void handlePost(HttpExchange exchange, String path, Map<String, String> query, byte[] body)
+            throws IOException {
+        int slash = path.indexOf('/');
+        String bucket = slash < 0 ? path : path.substring(0, slash);
+        String key = slash < 0 ? "" : path.substring(slash + 1);
+
+        if (query.containsKey("delete")) {
+            multiDeleteRequests.incrementAndGet();
+            StringBuilder result = new StringBuilder("<DeleteResult>");
+            Matcher matcher = DELETE_KEY.matcher(new String(body, StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                String deleted = matcher.group(1);
+                objects.remove(bucket + "/" + deleted);
+                result.append("<Deleted><Key>").append(deleted).append("</Key></Deleted>");
+            }
+            respond(exchange, 200, result.append("</DeleteResult>").toString());
+        } else if (query.containsKey("uploads")) {
+            String uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new ConcurrentSkipListMap<>());
+            respond(exchange, 200, "<InitiateMultipartUploadResult><Bucket>" + bucket + "</Bucket><Key>" + key
+                    + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+        } else if (query.containsKey("uploadId")) {
+            Map<Integer, byte[]> parts = uploads.remove(query.get("uploadId"));
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            for (byte[] part : parts.values()) {
+                content.write(part);
+            }
+            objects.put(path, content.toByteArray());
+            respond(exchange, 200, "<CompleteMultipartUploadResult><Bucket>" + bucket + "</Bucket><Key>" + key
+                    + "</Key><ETag>\"" + UUID.randomUUID() + "\"</ETag></CompleteMultipartUploadResult>");
+        } else {
+            respond(exchange, 400, null);
+        }
+    }
+
+    private void handleDelete(HttpExchange exchange, String path, Map<String, String> query) throws IOException {
+        if (query.containsKey("uploadId")) {
+            uploads.remove(query.get("uploadId"));
+        } else {
+            deleteRequests.incrementAndGet();
+            objects.remove(path);
+        }
+        respond(exchange, 204, null);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String xml) throws IOException {
+        if (xml == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            params.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+        }
+        return params;
+    }
+
+    // Undo aws-chunked encoding (streaming signatures / checksum trailers)
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] raw;
+        try (InputStream in = exchange.getRequestBody()) {
+            raw = in.readAllBytes();
+        }
+
+        String contentSha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        boolean chunked = (contentSha != null && contentSha.startsWith("STREAMING"))
+                || (encoding != null && encoding.contains("aws-chunked"));
+        if (!chunked) {
+            return raw;
+        }
+
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int pos = 0;
+        while (pos < raw.length) {
+            int lineEnd = indexOfCrlf(raw, pos);
+            String header = new String(raw, pos, lineEnd - pos, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";")[0].trim(), 16);
+            pos = lineEnd + 2;
+            if (size == 0) {
+                break;
+            }
+            decoded.write(raw, pos, size);
+            pos += size + 2;
+        }
+        return decoded.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] raw, int from) {
+        for (int i = from; i < raw.length - 1; i++) {
+            if (raw[i] == '\r' && raw[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return raw.length;
+    }
+
+    List<String> keysIn(String bucket) {
+        List<String> keys = new ArrayList<>();
+        objects.keySet().stream()
+                .filter(k -> k.startsWith(bucket + "/"))
+                .forEach(k -> keys.add(k.substring(bucket.length() + 1)));
+        return keys;
+    }
+}
@@ -0,0 +1,116 @@
+package com.buildbetter.shared.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.buildbetter.shared.dto.ApiResponseMessageAndData;
+import com.buildbetter.shared.dto.ApiResponseWithData;
+import com.buildbetter.shared.repository.KeysetPage;
+import com.buildbetter.shared.repository.StreamedQuery;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+class JsonEnvelopeWriterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private String stream(String message, List<?> elements) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonEnvelopeWriter writer = JsonEnvelopeWriter.open(mapper.writer(), out, message)) {
+            for (Object element : elements) {
+                writer.write(element);
+            }
+            writer.finish();
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("write → same JSON as ApiResponseWithData holding the whole list")
+    void write_sameJsonAsWithData() throws Exception {
+        List<Map<String, Object>> rows = List.of(Map.of("id", 1, "name", "Genteng"), Map.of("id", 2));
+
+        assertEquals(mapper.writeValueAsString(new ApiResponseWithData<>(200, "OK", rows)),
+                stream(null, rows));
+        assertEquals(mapper.writeValueAsString(new ApiResponseWithData<>(200, "OK", List.of())),
+                stream(null, List.of()));
+    }
+
+    @Test
+    @DisplayName("write → same JSON as ApiResponseMessageAndData, past several flushes")
+    void write_sameJsonAsMessageAndData() throws Exception {
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < StreamedQuery.FETCH_SIZE * 2 + 7; i++) {
+            rows.add(i);
+        }
+
+        assertEquals(mapper.writeValueAsString(new ApiResponseMessageAndData<>(200, "OK", "Fetched", rows)),
+                stream("Fetched", rows));
+    }
+
+    @Test
+    @DisplayName("response(page) → data then nextCursor, null on the last page")
+    void response_page_writesNextCursor() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonEnvelopeWriter.response(mapper.writer(), null, new KeysetPage<>(List.of(1, 2), "abc"))
+                .getBody().writeTo(out);
+        ByteArrayOutputStream last = new ByteArrayOutputStream();
+        JsonEnvelopeWriter.response(mapper.writer(), "Fetched", new KeysetPage<>(List.of(), null))
+                .getBody().writeTo(last);
+
+        assertEquals("{\"code\":200,\"status\":\"OK\",\"data\":[1,2],\"nextCursor\":\"abc\"}",
+                out.toString(StandardCharsets.UTF_8));
+        assertEquals("{\"code\":200,\"status\":\"OK\",\"message\":\"Fetched\",\"data\":[],\"nextCursor\":null}",
+                last.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("close without finish → JSON left unterminated, never a truncated but valid list")
+    void close_withoutFinish_unterminated() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonEnvelopeWriter writer = JsonEnvelopeWriter.open(mapper.writer(), out)) {
+            writer.write(Map.of("id", 1));
+            assertEquals(1, writer.count());
+        }
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertEquals("{\"code\":200,\"status\":\"OK\",\"data\":[{\"id\":1}", body);
+        assertThrows(JsonProcessingException.class, () -> mapper.readTree(body));
+    }
+
+    @Test
+    @DisplayName("writeAll → mapped rows written, each detached, stream closed")
+    void writeAll_mapsDetachesCloses() throws Exception {
+        EntityManager entityManager = mock(EntityManager.class);
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonEnvelopeWriter writer = JsonEnvelopeWriter.open(mapper.writer(), out)) {
+            writer.writeAll(Stream.of("a", "b").onClose(() -> closed.set(true)), entityManager,
+                    String::toUpperCase);
+            writer.finish();
+            assertEquals(2, writer.count());
+        }
+
+        assertEquals("{\"code\":200,\"status\":\"OK\",\"data\":[\"A\",\"B\"]}",
+                out.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach("a");
+        verify(entityManager).detach("b");
+        assertTrue(closed.get());
+    }
+}
@@ -0,0 +1,206 @@
+package com.buildbetter.shared.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.buildbetter.shared.exception.BadRequestException;
+import com.buildbetter.shared.exception.InternalServerErrorException;
+import com.buildbetter.shared.model.S3Blob;
+import com.buildbetter.shared.model.S3Properties;
+import com.buildbetter.shared.repository.S3BlobRepository;
+
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+class S3BlobStoreTest {
+
+    private static final String BUCKET = "buildbetter-test";
+    private static final String BASE_URL = "https://cdn.example.com";
+
+    private InMemoryS3Server s3Server;
+    private S3AsyncClient s3AsyncClient;
+    private S3Service s3Service;
+    private S3BlobRepository s3BlobRepository;
+    private S3DeletionQueue s3DeletionQueue;
+    private S3BlobStore s3BlobStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        s3Server = new InMemoryS3Server();
+        s3AsyncClient = s3Server.client(1024 * 1024);
+
+        S3Properties properties = new S3Properties();
+        properties.setBucketName(BUCKET);
+        properties.setBaseUrl(BASE_URL);
+        s3Service = new S3Service(properties, s3AsyncClient);
+        s3BlobRepository = mock(S3BlobRepository.class);
+        s3DeletionQueue = mock(S3DeletionQueue.class);
+        s3BlobStore = new S3BlobStore(s3Service, s3BlobRepository, s3DeletionQueue);
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Service.shutdown();
+        s3AsyncClient.close();
+        s3Server.close();
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "image/png", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String keyOf(MockMultipartFile file) {
+        return S3Blob.keyFor(S3BlobStore.sha256(file), file.getOriginalFilename());
+    }
+
+    @Test
+    @DisplayName("keyFor / keyOf → hash keyed, extension kept, found back in a public URL")
+    void keys() {
+        MockMultipartFile file = file("Genteng.PNG", "genteng");
+        String key = keyOf(file);
+
+        assertEquals(key, keyOf(file("other-name.png", "genteng")));
+        assertTrue(key.matches("blobs/[0-9a-f]{64}\\.png"));
+        assertEquals(key, S3Blob.keyOf(BASE_URL + "/" + key));
+        assertEquals(key, S3Blob.keyOf(key));
+        assertNull(S3Blob.keyOf(BASE_URL + "/materials/Atap/1234_genteng.png"));
+        assertNull(S3Blob.keyOf(key + "/extra"));
+    }
+
+    @Test
+    @DisplayName("upload → new content goes up once under its hash")
+    void upload_newContent_put() {
+        MockMultipartFile file = file("genteng.png", "genteng");
+        String key = keyOf(file);
+        when(s3BlobRepository.acquire(key, file.getSize())).thenReturn(1);
+
+        String url = s3BlobStore.upload(file);
+
+        assertEquals(BASE_URL + "/" + key, url);
+        assertArrayEquals("genteng".getBytes(StandardCharsets.UTF_8), s3Server.object(BUCKET, key));
+        assertEquals(1, s3Server.putRequests());
+    }
+
+    @Test
+    @DisplayName("upload → content referenced already, no request to S3 at all")
+    void upload_referenced_skipsPut() {
+        MockMultipartFile file = file("genteng.png", "genteng");
+        when(s3BlobRepository.acquire(keyOf(file), file.getSize())).thenReturn(2);
+
+        String url = s3BlobStore.upload(file);
+
+        assertEquals(BASE_URL + "/" + keyOf(file), url);
+        assertEquals(0, s3Server.putRequests());
+        assertNull(s3Server.object(BUCKET, keyOf(file)));
+    }
+
+    @Test
+    @DisplayName("upload → unreferenced but still in S3, the PUT is skipped")
+    void upload_inS3_skipsPut() {
+        MockMultipartFile file = file("genteng.png", "genteng");
+        s3Server.putObject(BUCKET, keyOf(file), file.getName().getBytes(StandardCharsets.UTF_8));
+        when(s3BlobRepository.acquire(keyOf(file), file.getSize())).thenReturn(1);
+
+        s3BlobStore.upload(file);
+
+        assertEquals(0, s3Server.putRequests());
+    }
+
+    @Test
+    @DisplayName("uploadAll → same content twice in one call goes up once")
+    void uploadAll_duplicates_putOnce() {
+        MockMultipartFile first = file("a.png", "plan");
+        MockMultipartFile second = file("b.png", "plan");
+        when(s3BlobRepository.acquire(keyOf(first), first.getSize())).thenReturn(1, 2);
+
+        List<String> urls = s3BlobStore.uploadAll(List.of(first, second));
+
+        assertEquals(List.of(BASE_URL + "/" + keyOf(first), BASE_URL + "/" + keyOf(first)), urls);
+        assertEquals(1, s3Server.putRequests());
+    }
+
+    @Test
+    @DisplayName("uploadAll → failure outside a transaction releases the references taken")
+    void uploadAll_fails_releases() {
+        MockMultipartFile ok = file("a.png", "ok");
+        MockMultipartFile broken = file("b.png", "broken");
+        when(s3BlobRepository.acquire(anyString(), anyLong())).thenReturn(1);
+        s3Server.failPuts(keyOf(broken));
+
+        assertThrows(InternalServerErrorException.class, () -> s3BlobStore.uploadAll(List.of(ok, broken)));
+
+        verify(s3BlobRepository).release(keyOf(ok));
+        verify(s3BlobRepository).release(keyOf(broken));
+        assertNull(s3Server.object(BUCKET, keyOf(ok)));
+    }
+
+    @Test
+    @DisplayName("uploadAll → acquire failing outside a transaction → only references actually taken released")
+    void uploadAll_acquireFails_releasesTakenOnly() {
+        MockMultipartFile ok = file("a.png", "ok");
+        MockMultipartFile broken = file("b.png", "broken");
+        when(s3BlobRepository.acquire(keyOf(ok), ok.getSize())).thenReturn(2);
+        when(s3BlobRepository.acquire(keyOf(broken), broken.getSize()))
+                .thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> s3BlobStore.uploadAll(List.of(ok, broken)));
+
+        verify(s3BlobRepository).release(keyOf(ok));
+        verify(s3BlobRepository, never()).release(keyOf(broken));
+    }
+
+    @Test
+    @DisplayName("reference → blob URL takes a reference, other URLs untouched, unknown blob refused")
+    void reference() {
+        String key = keyOf(file("a.png", "plan"));
+        String gone = keyOf(file("b.png", "gone"));
+        when(s3BlobRepository.acquireExisting(key)).thenReturn(2);
+        when(s3BlobRepository.acquireExisting(gone)).thenReturn(null);
+
+        s3BlobStore.reference(BASE_URL + "/" + key);
+        s3BlobStore.reference(BASE_URL + "/suggestions/1234_plan.png");
+
+        verify(s3BlobRepository).acquireExisting(key);
+        assertThrows(BadRequestException.class, () -> s3BlobStore.reference(BASE_URL + "/" + gone));
+    }
+
+    @Test
+    @DisplayName("uploadAll → rollback queues the blobs it brought in, not the shared ones")
+    void uploadAll_rollback_queuesCreated() {
+        MockMultipartFile created = file("a.png", "new");
+        MockMultipartFile shared = file("b.png", "shared");
+        when(s3BlobRepository.acquire(keyOf(created), created.getSize())).thenReturn(1);
+        when(s3BlobRepository.acquire(keyOf(shared), shared.getSize())).thenReturn(3);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            s3BlobStore.uploadAll(List.of(created, shared));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(s3DeletionQueue).enqueueRolledBack(List.of(keyOf(created)));
+        verify(s3BlobRepository, never()).release(anyString());
+    }
+}
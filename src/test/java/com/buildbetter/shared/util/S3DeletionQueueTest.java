@@ -0,0 +1,64 @@
+package com.buildbetter.shared.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.buildbetter.shared.model.S3DeletionTask;
+import com.buildbetter.shared.repository.S3BlobRepository;
+import com.buildbetter.shared.repository.S3DeletionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class S3DeletionQueueTest {
+
+    private static final String SHARED = "blobs/" + "a".repeat(64) + ".png";
+    private static final String LAST = "blobs/" + "b".repeat(64) + ".png";
+
+    @Mock
+    private S3DeletionRepository s3DeletionRepository;
+
+    @Mock
+    private S3BlobRepository s3BlobRepository;
+
+    @InjectMocks
+    private S3DeletionQueue s3DeletionQueue;
+
+    @Captor
+    private ArgumentCaptor<List<S3DeletionTask>> tasksCaptor;
+
+    @Test
+    @DisplayName("enqueue → blobs release a reference, queued only once the last one is gone")
+    void enqueue_blobs_queuedOnLastReference() {
+        when(s3BlobRepository.release(SHARED)).thenReturn(1);
+        when(s3BlobRepository.release(LAST)).thenReturn(0);
+
+        s3DeletionQueue.enqueue(List.of("https://cdn.example.com/" + SHARED, LAST, "f/plain.png"));
+
+        verify(s3DeletionRepository).saveAll(tasksCaptor.capture());
+        assertEquals(List.of(LAST, "f/plain.png"),
+                tasksCaptor.getValue().stream().map(S3DeletionTask::getObjectKey).toList());
+    }
+
+    @Test
+    @DisplayName("enqueue → shared blob only, nothing queued")
+    void enqueue_sharedBlob_nothingQueued() {
+        when(s3BlobRepository.release(SHARED)).thenReturn(2);
+
+        s3DeletionQueue.enqueue(SHARED);
+
+        verify(s3DeletionRepository, never()).saveAll(anyList());
+    }
+}
@@ -0,0 +1,139 @@
+package com.buildbetter.shared.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.buildbetter.shared.exception.InternalServerErrorException;
+import com.buildbetter.shared.model.S3DeletionTask;
+import com.buildbetter.shared.repository.S3BlobRepository;
+import com.buildbetter.shared.repository.S3DeletionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class S3GarbageCollectorTest {
+
+    @Mock
+    private S3DeletionRepository s3DeletionRepository;
+
+    @Mock
+    private S3Service s3Service;
+
+    @Mock
+    private S3BlobRepository s3BlobRepository;
+
+    @Captor
+    private ArgumentCaptor<List<S3DeletionTask>> tasksCaptor;
+
+    private S3GarbageCollector s3GarbageCollector;
+
+    @BeforeEach
+    void setUp() {
+        s3GarbageCollector = new S3GarbageCollector(s3DeletionRepository, s3Service, s3BlobRepository,
+                TransactionOperations.withoutTransaction());
+    }
+
+    private static S3DeletionTask task(String key) {
+        return S3DeletionTask.builder()
+                .objectKey(key)
+                .nextAttemptAt(LocalDateTime.now().minusMinutes(1))
+                .createdAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("drain → deleted keys leave the queue, failed keys are rescheduled")
+    void drain_partialFailure() {
+        S3DeletionTask ok = task("a.png");
+        S3DeletionTask bad = task("b.png");
+        when(s3DeletionRepository.claimDue(any(), anyInt())).thenReturn(List.of(ok, bad));
+        when(s3Service.deleteFiles(List.of("a.png", "b.png"))).thenReturn(Set.of("b.png"));
+
+        s3GarbageCollector.drain();
+
+        verify(s3DeletionRepository).deleteAllInBatch(List.of(ok));
+        verify(s3DeletionRepository).saveAll(tasksCaptor.capture());
+        assertEquals(List.of(bad), tasksCaptor.getValue());
+        assertEquals(1, bad.getAttempts());
+        assertTrue(bad.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+    }
+
+    @Test
+    @DisplayName("drain → S3 unreachable, the whole batch is retried later")
+    void drain_s3Down() {
+        S3DeletionTask first = task("a.png");
+        first.setAttempts(2);
+        when(s3DeletionRepository.claimDue(any(), anyInt())).thenReturn(List.of(first));
+        when(s3Service.deleteFiles(anyList())).thenThrow(new InternalServerErrorException("connection refused"));
+
+        s3GarbageCollector.drain();
+
+        verify(s3DeletionRepository).deleteAllInBatch(List.of());
+        assertEquals(3, first.getAttempts());
+        assertEquals("connection refused", first.getLastError());
+    }
+
+    @Test
+    @DisplayName("drain → keeps claiming while batches come back full")
+    void drain_fullBatch_claimsAgain() {
+        List<S3DeletionTask> full = IntStream.range(0, S3GarbageCollector.BATCH_SIZE)
+                .mapToObj(i -> task(i + ".png"))
+                .toList();
+        when(s3DeletionRepository.claimDue(any(), anyInt())).thenReturn(full, List.of());
+        when(s3Service.deleteFiles(anyList())).thenReturn(Set.of());
+
+        s3GarbageCollector.drain();
+
+        verify(s3DeletionRepository, times(2)).claimDue(any(), anyInt());
+        verify(s3Service, times(1)).deleteFiles(anyList());
+        verify(s3DeletionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("drain → blobs referenced again are kept, unreferenced ones deleted")
+    void drain_blobs_onlyUnreferencedDeleted() {
+        String revivedKey = "blobs/" + "a".repeat(64) + ".png";
+        String orphanKey = "blobs/" + "b".repeat(64) + ".png";
+        S3DeletionTask revived = task("https://cdn.example.com/" + revivedKey);
+        S3DeletionTask orphan = task(orphanKey);
+        S3DeletionTask plain = task("f/c.png");
+        when(s3DeletionRepository.claimDue(any(), anyInt())).thenReturn(List.of(revived, orphan, plain));
+        when(s3BlobRepository.findKeysIn(Set.of(revivedKey, orphanKey))).thenReturn(List.of(revivedKey));
+        when(s3Service.deleteFiles(List.of(orphanKey, "f/c.png"))).thenReturn(Set.of());
+
+        s3GarbageCollector.drain();
+
+        verify(s3BlobRepository).deleteUnreferenced(Set.of(revivedKey, orphanKey));
+        verify(s3DeletionRepository).deleteAllInBatch(List.of(revived));
+        verify(s3DeletionRepository).deleteAllInBatch(List.of(orphan, plain));
+    }
+
+    @Test
+    @DisplayName("backoff → doubles from 30 seconds, capped at an hour")
+    void backoff_doublesAndCaps() {
+        assertEquals(Duration.ofSeconds(30), S3GarbageCollector.backoff(1));
+        assertEquals(Duration.ofMinutes(2), S3GarbageCollector.backoff(3));
+        assertEquals(Duration.ofHours(1), S3GarbageCollector.backoff(50));
+    }
+}
@@ -0,0 +1,181 @@
+package com.buildbetter.shared.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.buildbetter.shared.exception.InternalServerErrorException;
+import com.buildbetter.shared.model.S3Properties;
+
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+class S3ServiceTest {
+
+    private static final String BUCKET = "buildbetter-test";
+    private static final String BASE_URL = "https://cdn.example.com";
+    private static final long MULTIPART_THRESHOLD = 1024 * 1024;
+
+    private InMemoryS3Server s3Server;
+    private S3AsyncClient s3AsyncClient;
+    private S3Service s3Service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        s3Server = new InMemoryS3Server();
+        s3AsyncClient = s3Server.client(MULTIPART_THRESHOLD);
+
+        S3Properties properties = new S3Properties();
+        properties.setBucketName(BUCKET);
+        properties.setBaseUrl(BASE_URL);
+        s3Service = new S3Service(properties, s3AsyncClient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Service.shutdown();
+        s3AsyncClient.close();
+        s3Server.close();
+    }
+
+    private static MockMultipartFile file(String name, int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return new MockMultipartFile("file", name, "application/octet-stream", content);
+    }
+
+    @Test
+    @DisplayName("uploadFile → single PUT, returns the public URL")
+    void uploadFile_small_singlePut() throws Exception {
+        MockMultipartFile file = file("floor.png", 4096);
+
+        String url = s3Service.uploadFile(file, "floorplans/", "abc");
+
+        assertEquals(BASE_URL + "/floorplans/abc_floor.png", url);
+        assertArrayEquals(file.getBytes(), s3Server.object(BUCKET, "floorplans/abc_floor.png"));
+        assertEquals(1, s3Server.putRequests());
+        assertEquals(0, s3Server.partRequests());
+    }
+
+    @Test
+    @DisplayName("uploadFileAsync → large object goes up in parts and is reassembled")
+    void uploadFileAsync_large_multipart() throws Exception {
+        MockMultipartFile file = file("house.glb", (int) (MULTIPART_THRESHOLD * 3 + 1234));
+
+        String url = s3Service.uploadFileAsync(file, "houses/", "xyz").join();
+
+        assertEquals(BASE_URL + "/houses/xyz_house.glb", url);
+        assertArrayEquals(file.getBytes(), s3Server.object(BUCKET, "houses/xyz_house.glb"));
+        assertTrue(s3Server.partRequests() >= 3);
+    }
+
+    @Test
+    @DisplayName("Concurrent uploads share the same long-lived client")
+    void uploadFileAsync_concurrent() {
+        List<CompletableFuture<String>> futures = List.of(
+                s3Service.uploadFileAsync(file("a.png", 2048), "f/", "1"),
+                s3Service.uploadFileAsync(file("b.png", 2048), "f/", "2"),
+                s3Service.uploadFileAsync(file("c.png", 2048), "f/", "3"));
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertEquals(3, s3Server.keysIn(BUCKET).size());
+    }
+
+    @Test
+    @DisplayName("deleteFile → accepts a full URL and removes the object")
+    void deleteFile_fullUrl() {
+        s3Server.putObject(BUCKET, "floorplans/old.png", new byte[] { 1, 2, 3 });
+
+        s3Service.deleteFile(BASE_URL + "/floorplans/old.png");
+
+        assertNull(s3Server.object(BUCKET, "floorplans/old.png"));
+        assertEquals(1, s3Server.deleteRequests());
+    }
+
+    @Test
+    @DisplayName("S3 failure → InternalServerErrorException")
+    void uploadFile_s3Failure_throws() {
+        s3Server.failPuts("f/1_broken.png");
+
+        assertThrows(InternalServerErrorException.class,
+                () -> s3Service.uploadFile(file("broken.png", 1024), "f/", "1"));
+    }
+
+    @Test
+    @DisplayName("uploadFiles → uploads every file, URLs in the order of the files")
+    void uploadFiles_all_inOrder() {
+        List<MockMultipartFile> files = IntStream.range(0, S3Service.MAX_CONCURRENT_TRANSFERS * 2)
+                .mapToObj(i -> file("plan" + i + ".png", 1024 + i))
+                .toList();
+
+        List<String> urls = s3Service.uploadFiles(List.copyOf(files), "f/", "p");
+
+        assertEquals(files.stream().map(f -> BASE_URL + "/f/p_" + f.getOriginalFilename()).toList(), urls);
+        assertEquals(files.size(), s3Server.keysIn(BUCKET).size());
+    }
+
+    @Test
+    @DisplayName("uploadFiles → one failure rolls the other uploads back")
+    void uploadFiles_oneFails_rollsBack() {
+        s3Server.failPuts("f/p_broken.png");
+
+        assertThrows(InternalServerErrorException.class, () -> s3Service.uploadFiles(
+                List.of(file("a.png", 1024), file("broken.png", 1024), file("c.png", 1024)), "f/", "p"));
+
+        assertTrue(s3Server.keysIn(BUCKET).isEmpty());
+        assertEquals(2, s3Server.deleteRequests());
+    }
+
+    @Test
+    @DisplayName("deleteFilesAsync → removes every key, skipping blanks")
+    void deleteFilesAsync_all() {
+        s3Server.putObject(BUCKET, "f/a.png", new byte[] { 1 });
+        s3Server.putObject(BUCKET, "f/b.png", new byte[] { 2 });
+
+        s3Service.deleteFilesAsync(Arrays.asList(BASE_URL + "/f/a.png", "f/b.png", null, " ")).join();
+
+        assertTrue(s3Server.keysIn(BUCKET).isEmpty());
+        assertEquals(2, s3Server.deleteRequests());
+    }
+
+    @Test
+    @DisplayName("deleteFiles → one DeleteObjects call per 1000 keys")
+    void deleteFiles_batches() {
+        List<String> keys = IntStream.range(0, S3Service.MAX_KEYS_PER_BATCH + 5)
+                .mapToObj(i -> "f/" + i + ".png")
+                .toList();
+        keys.forEach(key -> s3Server.putObject(BUCKET, key, new byte[] { 1 }));
+
+        Set<String> failed = s3Service.deleteFiles(keys.stream().map(key -> BASE_URL + "/" + key).toList());
+
+        assertTrue(failed.isEmpty());
+        assertTrue(s3Server.keysIn(BUCKET).isEmpty());
+        assertEquals(2, s3Server.multiDeleteRequests());
+        assertEquals(0, s3Server.deleteRequests());
+    }
+
+    @Test
+    @DisplayName("deleteFiles → a failed call reports every key of the batch")
+    void deleteFiles_callFails_reportsKeys() {
+        s3Server.close();
+
+        Set<String> failed = s3Service.deleteFiles(List.of("f/a.png", BASE_URL + "/f/b.png"));
+
+        assertEquals(Set.of("f/a.png", BASE_URL + "/f/b.png"), failed);
+    }
+}